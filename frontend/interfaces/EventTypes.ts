@@ -128,8 +128,9 @@ export interface EventMetadata {
   eventId?: EventId;
   purchaserMap: Record<EmailHash, Purchaser>;
   completeTicketCount: number;
-  completedStripeCheckoutSessionIds: StripeCheckoutSessionId[];
-  completedStripePaymentIntentIds: StripePaymentIntentId[];
+  // Legacy webhook idempotency arrays, superseded by the ProcessedStripeObjects subcollection.
+  completedStripeCheckoutSessionIds?: StripeCheckoutSessionId[];
+  completedStripePaymentIntentIds?: StripePaymentIntentId[];
   organiserId: UserId;
   orderIds: OrderId[];
 }
@@ -138,8 +139,6 @@ export const EmptyEventMetadata: EventMetadata = {
   eventId: "" as EventId,
   purchaserMap: {} as Record<EmailHash, Purchaser>,
   completeTicketCount: 0,
-  completedStripeCheckoutSessionIds: [],
-  completedStripePaymentIntentIds: [],
   organiserId: "" as UserId,
   orderIds: [],
 };
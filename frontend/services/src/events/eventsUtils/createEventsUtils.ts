@@ -36,8 +36,6 @@ export function rateLimitCreateEvents(): boolean {
 export function extractEventsMetadataFields(eventData: NewEventData): EventMetadata {
   return {
     purchaserMap: {},
-    completedStripeCheckoutSessionIds: [],
-    completedStripePaymentIntentIds: [],
     organiserId: eventData.organiserId,
     completeTicketCount: 0,
     orderIds: [],
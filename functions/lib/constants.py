@@ -29,6 +29,7 @@ ACTIVE_PRIVATE = "Events/Active/Private"
 INACTIVE_PUBLIC = "Events/InActive/Public"
 INACTIVE_PRIVATE = "Events/InActive/Private"
 EVENT_METADATA = "EventsMetadata"
+EVENT_LOCATION_INDEX = "EventLocationIndex"
 
 SYDNEY_TIMEZONE = pytz.timezone("Australia/Sydney")
 
@@ -6,9 +6,16 @@
 # recurringEventsCron
 # cleanupOldFulfilmentSessionsCron
 # expirePendingBookingsCron
+# releaseExpiredInventoryHoldsCron
 # completeFulfilmentSession
 # globalAppController
 # stripeWebhookEndpoint
+# backfillEventLocationIndex
+# migrateProcessedStripeObjects
+# eventCounterShards
+# stripeWebhookQueueWorker
+# dispatchEmailOutboxCron
+# precomputeWrappedCron
 
 # Check if the function name is valid and it should be a list of function name and another list of endpoint class name
 
@@ -18,9 +25,16 @@ VALID_FUNCTIONS=(
     "recurringEventsCron"
     "cleanupOldFulfilmentSessionsCron"
     "expirePendingBookingsCron"
+    "releaseExpiredInventoryHoldsCron"
     "completeFulfilmentSession"
     "globalAppController"
     "stripeWebhookEndpoint"
+    "backfillEventLocationIndex"
+    "migrateProcessedStripeObjects"
+    "eventCounterShards"
+    "stripeWebhookQueueWorker"
+    "dispatchEmailOutboxCron"
+    "precomputeWrappedCron"
 )
 
 VALID_ENDPOINTS=(
@@ -29,9 +43,16 @@ VALID_ENDPOINTS=(
     "com.functions.events.controllers.RecurringEventsCronEndpoint"
     "com.functions.fulfilment.controllers.CleanupOldFulfilmentSessionsCronEndpoint"
     "com.functions.tickets.controllers.ExpirePendingBookingsCronEndpoint"
+    "com.functions.events.controllers.ReleaseExpiredInventoryHoldsCronEndpoint"
     "com.functions.fulfilment.controllers.CompleteFulfilmentSessionEndpoint"
     "com.functions.global.controllers.GlobalAppController"
     "com.functions.stripe.controllers.StripeWebhookEndpoint"
+    "com.functions.events.controllers.BackfillEventLocationIndexEndpoint"
+    "com.functions.stripe.controllers.MigrateProcessedStripeObjectsEndpoint"
+    "com.functions.events.controllers.EventCounterShardsEndpoint"
+    "com.functions.stripe.controllers.StripeWebhookQueueWorkerEndpoint"
+    "com.functions.emails.controllers.DispatchEmailOutboxCronEndpoint"
+    "com.functions.wrapped.controllers.PrecomputeWrappedCronEndpoint"
 )
 
 # Check for exactly 2 arguments
@@ -92,6 +113,13 @@ elif [ "$ENVIRONMENT" == "prod" ] && [ "$FUNCTION_NAME" == "stripeWebhookEndpoin
         --max-instances 5
         --cpu 0.5
     )
+elif [ "$FUNCTION_NAME" == "precomputeWrappedCron" ]; then
+    # Each call works through batches for WRAPPED_PRECOMPUTE_BUDGET_SECONDS (default 420s) and
+    # resumes from its checkpoint on the next call, so it needs more than the default 60s timeout.
+    EXTRA_DEPLOY_ARGS=(
+        --timeout 540
+        --max-instances 1
+    )
 fi
 
 echo "Deploying $FUNCTION_NAME (Entry point: $ENDPOINT_CLASS_NAME) to $ENVIRONMENT under project $PROJECT_NAME"
@@ -0,0 +1,154 @@
+package com.functions.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.google.cloud.functions.HttpRequest;
+import com.google.cloud.functions.HttpResponse;
+
+/**
+ * Minimal in-process HttpRequest/HttpResponse so GlobalAppController.service can be driven
+ * without the Functions Framework server.
+ */
+final class BenchmarkHttp {
+    private BenchmarkHttp() {
+    }
+
+    static final class Request implements HttpRequest {
+        private final byte[] body;
+        private final Map<String, List<String>> headers = Map.of("Content-Type", List.of("application/json"));
+
+        Request(String body) {
+            this.body = body.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String getMethod() {
+            return "POST";
+        }
+
+        @Override
+        public String getUri() {
+            return "/globalAppController";
+        }
+
+        @Override
+        public String getPath() {
+            return "/globalAppController";
+        }
+
+        @Override
+        public Optional<String> getQuery() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Map<String, List<String>> getQueryParameters() {
+            return Map.of();
+        }
+
+        @Override
+        public Map<String, HttpPart> getParts() {
+            return Map.of();
+        }
+
+        @Override
+        public Optional<String> getContentType() {
+            return Optional.of("application/json");
+        }
+
+        @Override
+        public long getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public Optional<String> getCharacterEncoding() {
+            return Optional.of("UTF-8");
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public Map<String, List<String>> getHeaders() {
+            return headers;
+        }
+    }
+
+    static final class Response implements HttpResponse {
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private final BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(body, StandardCharsets.UTF_8));
+        private final Map<String, List<String>> headers = new HashMap<>();
+        private int statusCode = 200;
+
+        @Override
+        public void setStatusCode(int code) {
+            this.statusCode = code;
+        }
+
+        @Override
+        public void setStatusCode(int code, String message) {
+            this.statusCode = code;
+        }
+
+        @Override
+        public void setContentType(String contentType) {
+            appendHeader("Content-Type", contentType);
+        }
+
+        @Override
+        public Optional<String> getContentType() {
+            return Optional.ofNullable(headers.get("Content-Type")).map(values -> values.get(0));
+        }
+
+        @Override
+        public void appendHeader(String header, String value) {
+            headers.computeIfAbsent(header, key -> new ArrayList<>()).add(value);
+        }
+
+        @Override
+        public Map<String, List<String>> getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public OutputStream getOutputStream() {
+            return body;
+        }
+
+        @Override
+        public BufferedWriter getWriter() {
+            return writer;
+        }
+
+        int statusCode() {
+            return statusCode;
+        }
+
+        int flushedBodySize() throws IOException {
+            writer.flush();
+            return body.size();
+        }
+    }
+}
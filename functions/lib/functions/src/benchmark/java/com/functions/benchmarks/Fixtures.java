@@ -0,0 +1,62 @@
+package com.functions.benchmarks;
+
+import static com.functions.utils.JavaUtils.objectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.google.cloud.Timestamp;
+
+/**
+ * Loads the production-shaped payloads under src/benchmark/resources/fixtures.
+ */
+final class Fixtures {
+    static final String EVENT_DATA = "event-data.json";
+    static final String CHECKOUT_FULFILMENT_SESSION = "checkout-fulfilment-session.json";
+    static final String SPORTSHUB_WRAPPED = "sportshub-wrapped.json";
+    static final String GET_WRAPPED_REQUEST = "get-wrapped-request.json";
+    static final String INIT_FULFILMENT_SESSION_REQUEST = "init-fulfilment-session-request.json";
+
+    private Fixtures() {
+    }
+
+    static String read(String name) {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing benchmark fixture: " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read benchmark fixture: " + name, e);
+        }
+    }
+
+    static <T> T read(String name, Class<T> type) {
+        try {
+            return objectMapper.readValue(read(name), type);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to parse benchmark fixture: " + name, e);
+        }
+    }
+
+    /**
+     * Reads a fixture as the raw field map DocumentSnapshot.getData() would return. Firestore
+     * hands back top-level timestamps as Timestamp and whole numbers as Long, so mirror that.
+     */
+    static Map<String, Object> readFirestoreData(String name, String... timestampFields) {
+        try {
+            Map<String, Object> data = objectMapper.readValue(read(name), new TypeReference<Map<String, Object>>() {
+            });
+            for (String field : timestampFields) {
+                data.put(field, Timestamp.parseTimestamp((String) data.get(field)));
+            }
+            data.replaceAll((key, value) -> value instanceof Integer ? Long.valueOf((Integer) value) : value);
+            return data;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to parse benchmark fixture: " + name, e);
+        }
+    }
+}
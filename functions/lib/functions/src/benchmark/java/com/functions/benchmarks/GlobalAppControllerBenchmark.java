@@ -0,0 +1,58 @@
+package com.functions.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.functions.firebase.repositories.InMemoryDocumentStore;
+import com.functions.firebase.services.FirebaseService;
+import com.functions.global.controllers.GlobalAppController;
+import com.functions.wrapped.models.SportshubWrappedData;
+import com.functions.wrapped.repositories.WrappedRepository;
+
+/**
+ * Full GlobalAppController.service path (parse, HandlerRegistry dispatch, handle, serialize) for
+ * GET_SPORTSHUB_WRAPPED, served from an InMemoryDocumentStore so only backend CPU is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GlobalAppControllerBenchmark {
+    private GlobalAppController controller;
+    private String getWrappedRequestBody;
+
+    @Setup
+    public void setup() throws Exception {
+        FirebaseService.setDocumentStore(new InMemoryDocumentStore());
+        SportshubWrappedData wrappedData = Fixtures.read(Fixtures.SPORTSHUB_WRAPPED, SportshubWrappedData.class);
+        WrappedRepository.saveWrappedData(wrappedData.getOrganiserId(), wrappedData.getYear(), wrappedData);
+
+        controller = new GlobalAppController();
+        getWrappedRequestBody = Fixtures.read(Fixtures.GET_WRAPPED_REQUEST);
+
+        BenchmarkHttp.Response response = new BenchmarkHttp.Response();
+        controller.service(new BenchmarkHttp.Request(getWrappedRequestBody), response);
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET_SPORTSHUB_WRAPPED fixture returned " + response.statusCode());
+        }
+    }
+
+    @Benchmark
+    public int serviceGetWrapped() throws Exception {
+        BenchmarkHttp.Response response = new BenchmarkHttp.Response();
+        controller.service(new BenchmarkHttp.Request(getWrappedRequestBody), response);
+        return response.flushedBodySize();
+    }
+}
@@ -0,0 +1,58 @@
+package com.functions.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.functions.global.handlers.HandlerRegistry;
+import com.functions.global.models.Handler;
+import com.functions.global.models.requests.UnifiedRequest;
+import com.functions.utils.JavaUtils;
+
+/**
+ * UnifiedRequest parsing followed by Handler.parse (treeToValue into the endpoint's request record).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestParsingBenchmark {
+    private String initFulfilmentSessionBody;
+    private UnifiedRequest initFulfilmentSessionRequest;
+    private Handler<Object, Object> initFulfilmentSessionHandler;
+
+    @Setup
+    public void setup() throws Exception {
+        initFulfilmentSessionBody = Fixtures.read(Fixtures.INIT_FULFILMENT_SESSION_REQUEST);
+        initFulfilmentSessionRequest = JavaUtils.objectMapper.readValue(initFulfilmentSessionBody, UnifiedRequest.class);
+        initFulfilmentSessionHandler = HandlerRegistry.getHandler(initFulfilmentSessionRequest.endpointType());
+    }
+
+    @Benchmark
+    public UnifiedRequest parseUnifiedRequest() throws Exception {
+        return JavaUtils.objectMapper.readValue(initFulfilmentSessionBody, UnifiedRequest.class);
+    }
+
+    @Benchmark
+    public Object handlerParse() {
+        return initFulfilmentSessionHandler.parse(initFulfilmentSessionRequest);
+    }
+
+    @Benchmark
+    public Object parseUnifiedRequestAndHandlerParse() throws Exception {
+        UnifiedRequest request = JavaUtils.objectMapper.readValue(initFulfilmentSessionBody, UnifiedRequest.class);
+        Handler<Object, Object> handler = HandlerRegistry.getHandler(request.endpointType());
+        return handler.parse(request);
+    }
+}
@@ -0,0 +1,74 @@
+package com.functions.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.functions.events.models.EventData;
+import com.functions.fulfilment.models.fulfilmentSession.FulfilmentSession;
+import com.functions.global.models.responses.UnifiedResponse;
+import com.functions.utils.JavaUtils;
+import com.functions.wrapped.models.SportshubWrappedData;
+import com.functions.wrapped.models.responses.GetWrappedResponse;
+
+/**
+ * Serialization and mapping helpers on the hot path: UnifiedResponse serialization,
+ * FulfilmentSession.fromFirestoreData, JavaUtils.toMap and JavaUtils.deepCopy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+    private UnifiedResponse<GetWrappedResponse> wrappedResponse;
+    private UnifiedResponse<EventData> eventResponse;
+    private Map<String, Object> fulfilmentSessionData;
+    private EventData eventData;
+
+    @Setup
+    public void setup() {
+        wrappedResponse = UnifiedResponse.success(
+                new GetWrappedResponse(Fixtures.read(Fixtures.SPORTSHUB_WRAPPED, SportshubWrappedData.class)));
+        eventData = Fixtures.read(Fixtures.EVENT_DATA, EventData.class);
+        eventResponse = UnifiedResponse.success(eventData);
+        fulfilmentSessionData = Fixtures.readFirestoreData(
+                Fixtures.CHECKOUT_FULFILMENT_SESSION, "fulfilmentSessionStartTime");
+    }
+
+    @Benchmark
+    public String serializeWrappedResponse() throws Exception {
+        return JavaUtils.objectMapper.writeValueAsString(wrappedResponse);
+    }
+
+    @Benchmark
+    public String serializeEventResponse() throws Exception {
+        return JavaUtils.objectMapper.writeValueAsString(eventResponse);
+    }
+
+    @Benchmark
+    public FulfilmentSession fulfilmentSessionFromFirestore() {
+        return FulfilmentSession.fromFirestoreData(fulfilmentSessionData);
+    }
+
+    @Benchmark
+    public Map<String, Object> toMapEventData() {
+        return JavaUtils.toMap(eventData);
+    }
+
+    @Benchmark
+    public EventData deepCopyEventData() {
+        return JavaUtils.deepCopy(eventData, EventData.class);
+    }
+}
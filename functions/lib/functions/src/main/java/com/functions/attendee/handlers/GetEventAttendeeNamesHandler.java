@@ -1,6 +1,5 @@
 package com.functions.attendee.handlers;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -12,14 +11,11 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.functions.attendee.models.EventAttendeeNameAndTicketCount;
 import com.functions.attendee.models.requests.GetEventAttendeeNamesRequest;
 import com.functions.attendee.models.responses.GetEventAttendeeNamesResponse;
+import com.functions.attendee.services.EventAttendeeSummaryService;
 import com.functions.events.models.EventData;
-import com.functions.events.models.EventMetadata;
 import com.functions.events.repositories.EventsRepository;
 import com.functions.global.models.Handler;
 import com.functions.global.models.requests.UnifiedRequest;
-import com.functions.tickets.models.Order;
-import com.functions.tickets.models.OrderAndTicketStatus;
-import com.functions.tickets.repositories.OrdersRepository;
 import com.functions.utils.JavaUtils;
 
 public class GetEventAttendeeNamesHandler implements Handler<GetEventAttendeeNamesRequest, GetEventAttendeeNamesResponse> {
@@ -56,29 +52,12 @@ public class GetEventAttendeeNamesHandler implements Handler<GetEventAttendeeNam
             return new GetEventAttendeeNamesResponse(Collections.emptyList());
         }
 
-        Optional<EventMetadata> metadataOptional = EventsRepository.getEventMetadataById(eventId);
-        if (metadataOptional.isEmpty()) {
-            logger.info("No event metadata for eventId: {}, returning empty list", eventId);
-            return new GetEventAttendeeNamesResponse(Collections.emptyList());
-        }
-
-        EventMetadata metadata = metadataOptional.get();
-        List<String> orderIds = metadata.getOrderIds();
-        if (orderIds == null || orderIds.isEmpty()) {
-            return new GetEventAttendeeNamesResponse(Collections.emptyList());
-        }
-
-        List<Order> orders = OrdersRepository.getOrdersByIds(orderIds);
-        List<EventAttendeeNameAndTicketCount> attendees = new ArrayList<>();
-
-        for (Order order : orders) {
-            if (order.getStatus() == OrderAndTicketStatus.APPROVED) {
-                String fullName = order.getFullName();
-                if (fullName != null && !fullName.isBlank()) {
-                    int ticketCount = order.getTickets() != null ? order.getTickets().size() : 1;
-                    attendees.add(new EventAttendeeNameAndTicketCount(fullName.trim(), ticketCount));
-                }
-            }
+        List<EventAttendeeNameAndTicketCount> attendees;
+        try {
+            attendees = EventAttendeeSummaryService.getAttendees(eventId);
+        } catch (Exception e) {
+            logger.error("Failed to load attendee summary for eventId: {}", eventId, e);
+            throw new RuntimeException("Failed to load attendees for event: " + eventId, e);
         }
 
         logger.info("Returning {} attendees for eventId: {}", attendees.size(), eventId);
@@ -0,0 +1,58 @@
+package com.functions.attendee.models;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.cloud.Timestamp;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Denormalised list of an event's approved attendees, stored at EventAttendeeSummaries/{eventId}
+ * and keyed by orderId. Every transaction that creates, approves, rejects or resizes an order also
+ * writes its entry here, so the public attendee list costs one read however many orders the event
+ * has.
+ */
+@Data
+@NoArgsConstructor // Required by Firestore
+@AllArgsConstructor
+public class EventAttendeeSummary {
+    private Map<String, Entry> attendees = new HashMap<>();
+    /**
+     * Set once the summary has been built from the event's orders. Entry writes alone create the
+     * document without it, so until then readers fall back to the orders and rebuild it.
+     */
+    private Boolean complete;
+    private Timestamp updatedAt;
+
+    @Data
+    @NoArgsConstructor // Required by Firestore
+    @AllArgsConstructor
+    public static class Entry {
+        private String name;
+        private int ticketCount;
+        private Timestamp datePurchased;
+    }
+
+    /**
+     * Attendees in purchase order, matching the order of EventMetadata.orderIds.
+     */
+    public List<EventAttendeeNameAndTicketCount> toAttendeeList() {
+        List<EventAttendeeNameAndTicketCount> result = new ArrayList<>();
+        if (attendees == null) {
+            return result;
+        }
+        attendees.entrySet().stream()
+                .sorted(Comparator.comparing((Map.Entry<String, Entry> e) -> e.getValue().getDatePurchased(),
+                        Comparator.nullsFirst(Comparator.naturalOrder()))
+                        .thenComparing(Map.Entry::getKey))
+                .forEach(e -> result.add(
+                        new EventAttendeeNameAndTicketCount(e.getValue().getName(), e.getValue().getTicketCount())));
+        return result;
+    }
+}
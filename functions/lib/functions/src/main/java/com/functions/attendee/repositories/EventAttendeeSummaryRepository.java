@@ -0,0 +1,66 @@
+package com.functions.attendee.repositories;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import com.functions.attendee.models.EventAttendeeSummary;
+import com.functions.firebase.models.FieldTransform;
+import com.functions.firebase.repositories.DocumentStoreTransaction;
+import com.functions.firebase.services.FirebaseService;
+import com.functions.firebase.services.FirebaseService.CollectionPaths;
+import com.google.cloud.Timestamp;
+
+/**
+ * Repository for EventAttendeeSummaries/{eventId}. Entry writes are blind merges, so they can go
+ * anywhere in a transaction's write phase without adding a read.
+ */
+public class EventAttendeeSummaryRepository {
+
+    private EventAttendeeSummaryRepository() {
+    }
+
+    public static Optional<EventAttendeeSummary> getSummary(String eventId) throws Exception {
+        return FirebaseService.getDocumentStore().get(getSummaryPath(eventId), EventAttendeeSummary.class);
+    }
+
+    /**
+     * Reads the summary inside a transaction. Must be called before any write in the transaction.
+     */
+    public static Optional<EventAttendeeSummary> getSummary(DocumentStoreTransaction transaction, String eventId)
+            throws Exception {
+        return transaction.get(getSummaryPath(eventId), EventAttendeeSummary.class);
+    }
+
+    public static void putEntry(DocumentStoreTransaction transaction, String eventId, String orderId,
+            EventAttendeeSummary.Entry entry) {
+        Map<String, Object> entryFields = new HashMap<>();
+        entryFields.put("name", entry.getName());
+        entryFields.put("ticketCount", entry.getTicketCount());
+        entryFields.put("datePurchased", entry.getDatePurchased());
+        writeEntry(transaction, eventId, orderId, entryFields);
+    }
+
+    public static void deleteEntry(DocumentStoreTransaction transaction, String eventId, String orderId) {
+        writeEntry(transaction, eventId, orderId, FieldTransform.delete());
+    }
+
+    /**
+     * Replaces the whole summary. Callers must have read it in the same transaction so concurrent
+     * entry writes are not lost.
+     */
+    public static void replaceSummary(DocumentStoreTransaction transaction, String eventId,
+            EventAttendeeSummary summary) {
+        transaction.set(getSummaryPath(eventId), summary);
+    }
+
+    private static void writeEntry(DocumentStoreTransaction transaction, String eventId, String orderId,
+            Object value) {
+        transaction.merge(getSummaryPath(eventId),
+                Map.of("attendees", Map.of(orderId, value), "updatedAt", Timestamp.now()));
+    }
+
+    private static String getSummaryPath(String eventId) {
+        return CollectionPaths.EVENT_ATTENDEE_SUMMARIES + "/" + eventId;
+    }
+}
@@ -16,17 +16,22 @@ import com.functions.events.models.EventData;
 import com.functions.events.models.ResolvedEventTicketType;
 import com.functions.events.repositories.EventTicketTypeRepository;
 import com.functions.events.repositories.EventsRepository;
+import com.functions.events.services.EventCounterShardsService;
 import com.functions.events.services.EventTicketTypeService;
+import com.functions.firebase.repositories.DocumentStoreTransaction;
+import com.functions.firebase.repositories.FirestoreDocumentStore;
 import com.functions.firebase.services.FirebaseService;
+import com.functions.tickets.models.EventSalesDelta;
 import com.functions.tickets.models.Order;
 import com.functions.tickets.models.OrderAndTicketStatus;
 import com.functions.tickets.models.OrderAndTicketType;
 import com.functions.tickets.models.Ticket;
 import com.functions.tickets.repositories.OrdersRepository;
 import com.functions.tickets.repositories.TicketsRepository;
+import com.functions.tickets.services.EventSalesAggregateService;
+import com.functions.wrapped.services.WrappedAggregateService;
 import com.google.cloud.Timestamp;
 import com.google.cloud.firestore.DocumentReference;
-import com.google.cloud.firestore.FieldValue;
 
 public class AttendeeService {
     private static final Logger logger = LoggerFactory.getLogger(AttendeeService.class);
@@ -46,8 +51,9 @@ public class AttendeeService {
             DocumentReference eventRef = EventsRepository.getEventDocumentReferenceInTransaction(request.eventId(),
                     transaction);
 
-            ResolvedEventTicketType ticketType = EventTicketTypeService.resolveById(eventData,
-                    request.eventTicketTypeId());
+            ResolvedEventTicketType ticketType = EventTicketTypeRepository.loadShardedVacancy(transaction,
+                    request.eventId(), EventTicketTypeService.resolveById(eventData, request.eventTicketTypeId()),
+                    request.numTickets());
             EventTicketTypeService.validateAvailability(ticketType, request.numTickets());
 
             Timestamp now = Timestamp.now();
@@ -65,6 +71,7 @@ public class AttendeeService {
             order.setType(OrderAndTicketType.MANUAL);
 
             List<String> ticketIds = new ArrayList<>();
+            EventSalesDelta salesDelta = new EventSalesDelta();
             for (int i = 0; i < request.numTickets(); i++) {
                 Ticket ticket = new Ticket();
                 ticket.setEventId(request.eventId());
@@ -77,13 +84,20 @@ public class AttendeeService {
 
                 String ticketId = TicketsRepository.createTicket(ticket, transaction);
                 ticketIds.add(ticketId);
+                salesDelta.addTicket(ticket);
             }
 
             order.setTickets(ticketIds);
             OrdersRepository.createOrder(order, request.eventId(), orderId, transaction);
+            DocumentStoreTransaction storeTransaction = FirestoreDocumentStore.forTransaction(transaction);
+            EventAttendeeSummaryService.recordOrder(storeTransaction, request.eventId(), orderId, order,
+                    ticketIds.size());
+            EventSalesAggregateService.apply(storeTransaction, request.eventId(), salesDelta.addOrder(order));
+            WrappedAggregateService.recordOrderChange(storeTransaction, eventData, order, salesDelta);
 
             DocumentReference metadataRef = EventsRepository.getEventMetadataDocumentReference(request.eventId());
-            transaction.update(metadataRef, "completeTicketCount", FieldValue.increment(request.numTickets()));
+            EventCounterShardsService.incrementCompleteTicketCount(transaction, eventData, metadataRef,
+                    request.numTickets());
             EventTicketTypeRepository.incrementVacancy(transaction, eventRef, ticketType, -request.numTickets());
 
             logger.info("Added attendee: orderId={}, ticketCount={}, eventId={}",
@@ -92,6 +106,25 @@ public class AttendeeService {
         });
     }
 
+    /**
+     * Marks an order and its approved tickets REJECTED and records the change in the event's
+     * attendee summary, sales aggregate and Wrapped aggregates. The caller persists the order and
+     * tickets. Write-phase only.
+     */
+    static void rejectOrder(DocumentStoreTransaction transaction, String eventId, EventData eventData, Order order,
+            List<Ticket> approvedTickets) {
+        EventSalesDelta salesDelta = new EventSalesDelta().removeOrder(order);
+        for (Ticket ticket : approvedTickets) {
+            salesDelta.removeTicket(ticket);
+            ticket.setStatus(OrderAndTicketStatus.REJECTED);
+            salesDelta.addTicket(ticket);
+        }
+        order.setStatus(OrderAndTicketStatus.REJECTED);
+        EventAttendeeSummaryService.removeOrder(transaction, eventId, order.getOrderId());
+        EventSalesAggregateService.apply(transaction, eventId, salesDelta.addOrder(order));
+        WrappedAggregateService.recordOrderChange(transaction, eventData, order, salesDelta);
+    }
+
     /**
      * Adjusts the ticket count for an existing order.
      */
@@ -123,15 +156,16 @@ public class AttendeeService {
             int delta = target - currentApproved;
 
             if (target == 0) {
+                rejectOrder(FirestoreDocumentStore.forTransaction(transaction), request.eventId(), eventData, order,
+                        approvedTickets);
                 for (Ticket ticket : approvedTickets) {
-                    ticket.setStatus(OrderAndTicketStatus.REJECTED);
                     TicketsRepository.updateTicket(ticket.getTicketId(), ticket, Optional.of(transaction));
                 }
-                order.setStatus(OrderAndTicketStatus.REJECTED);
                 OrdersRepository.updateOrder(order.getOrderId(), order, Optional.of(transaction));
 
                 DocumentReference metadataRef = EventsRepository.getEventMetadataDocumentReference(request.eventId());
-                transaction.update(metadataRef, "completeTicketCount", FieldValue.increment(-currentApproved));
+                EventCounterShardsService.incrementCompleteTicketCount(transaction, eventData, metadataRef,
+                        -currentApproved);
 
                 EventTicketTypeRepository.incrementVacancy(transaction, eventRef, ticketType, currentApproved);
 
@@ -140,11 +174,14 @@ public class AttendeeService {
                                 currentApproved));
 
             } else if (delta > 0) {
+                ticketType = EventTicketTypeRepository.loadShardedVacancy(transaction, request.eventId(), ticketType,
+                        delta);
                 EventTicketTypeService.validateAvailability(ticketType, delta);
 
                 Timestamp now = Timestamp.now();
                 long price = approvedTickets.isEmpty() ? 0 : approvedTickets.get(0).getPrice();
                 List<String> newTicketIds = new ArrayList<>();
+                EventSalesDelta salesDelta = new EventSalesDelta();
 
                 for (int i = 0; i < delta; i++) {
                     Ticket ticket = new Ticket();
@@ -158,15 +195,21 @@ public class AttendeeService {
 
                     String ticketId = TicketsRepository.createTicket(ticket, transaction);
                     newTicketIds.add(ticketId);
+                    salesDelta.addTicket(ticket);
                 }
 
                 List<String> updatedTicketList = new ArrayList<>(order.getTickets());
                 updatedTicketList.addAll(newTicketIds);
                 order.setTickets(updatedTicketList);
                 OrdersRepository.updateOrder(order.getOrderId(), order, Optional.of(transaction));
+                DocumentStoreTransaction storeTransaction = FirestoreDocumentStore.forTransaction(transaction);
+                EventAttendeeSummaryService.recordOrder(storeTransaction, request.eventId(), order.getOrderId(),
+                        order, target);
+                EventSalesAggregateService.apply(storeTransaction, request.eventId(), salesDelta);
+                WrappedAggregateService.recordOrderChange(storeTransaction, eventData, order, salesDelta);
 
                 DocumentReference metadataRef = EventsRepository.getEventMetadataDocumentReference(request.eventId());
-                transaction.update(metadataRef, "completeTicketCount", FieldValue.increment(delta));
+                EventCounterShardsService.incrementCompleteTicketCount(transaction, eventData, metadataRef, delta);
 
                 EventTicketTypeRepository.incrementVacancy(transaction, eventRef, ticketType, -delta);
 
@@ -177,13 +220,22 @@ public class AttendeeService {
                 int toReject = Math.abs(delta);
                 List<Ticket> ticketsToReject = approvedTickets.subList(currentApproved - toReject, currentApproved);
 
+                EventSalesDelta salesDelta = new EventSalesDelta();
                 for (Ticket ticket : ticketsToReject) {
+                    salesDelta.removeTicket(ticket);
                     ticket.setStatus(OrderAndTicketStatus.REJECTED);
                     TicketsRepository.updateTicket(ticket.getTicketId(), ticket, Optional.of(transaction));
+                    salesDelta.addTicket(ticket);
                 }
+                DocumentStoreTransaction storeTransaction = FirestoreDocumentStore.forTransaction(transaction);
+                EventAttendeeSummaryService.recordOrder(storeTransaction, request.eventId(), order.getOrderId(),
+                        order, target);
+                EventSalesAggregateService.apply(storeTransaction, request.eventId(), salesDelta);
+                WrappedAggregateService.recordOrderChange(storeTransaction, eventData, order, salesDelta);
 
                 DocumentReference metadataRef = EventsRepository.getEventMetadataDocumentReference(request.eventId());
-                transaction.update(metadataRef, "completeTicketCount", FieldValue.increment(-toReject));
+                EventCounterShardsService.incrementCompleteTicketCount(transaction, eventData, metadataRef,
+                        -toReject);
 
                 EventTicketTypeRepository.incrementVacancy(transaction, eventRef, ticketType, toReject);
 
@@ -0,0 +1,132 @@
+package com.functions.attendee.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.functions.attendee.models.EventAttendeeNameAndTicketCount;
+import com.functions.attendee.models.EventAttendeeSummary;
+import com.functions.attendee.repositories.EventAttendeeSummaryRepository;
+import com.functions.events.models.EventMetadata;
+import com.functions.events.repositories.EventsRepository;
+import com.functions.firebase.repositories.DocumentStoreTransaction;
+import com.functions.firebase.services.FirebaseService;
+import com.functions.tickets.models.Order;
+import com.functions.tickets.models.OrderAndTicketStatus;
+import com.functions.tickets.models.Ticket;
+import com.functions.tickets.repositories.OrdersRepository;
+import com.functions.tickets.repositories.TicketsRepository;
+import com.google.cloud.Timestamp;
+
+/**
+ * Keeps {@link EventAttendeeSummary} in step with an event's orders and serves the public attendee
+ * list from it.
+ */
+public class EventAttendeeSummaryService {
+    private static final Logger logger = LoggerFactory.getLogger(EventAttendeeSummaryService.class);
+
+    private EventAttendeeSummaryService() {
+    }
+
+    /**
+     * Writes the order's entry in the same transaction that changed it: approved orders with a name
+     * and at least one approved ticket are listed, anything else is removed. Write-phase only.
+     *
+     * @param approvedTicketCount the order's APPROVED tickets after this transaction
+     */
+    public static void recordOrder(DocumentStoreTransaction transaction, String eventId, String orderId, Order order,
+            int approvedTicketCount) {
+        Optional<EventAttendeeSummary.Entry> entry = toEntry(order, approvedTicketCount);
+        if (entry.isPresent()) {
+            EventAttendeeSummaryRepository.putEntry(transaction, eventId, orderId, entry.get());
+        } else {
+            EventAttendeeSummaryRepository.deleteEntry(transaction, eventId, orderId);
+        }
+    }
+
+    /**
+     * Removes a rejected order's entry. Write-phase only.
+     */
+    public static void removeOrder(DocumentStoreTransaction transaction, String eventId, String orderId) {
+        EventAttendeeSummaryRepository.deleteEntry(transaction, eventId, orderId);
+    }
+
+    static Optional<EventAttendeeSummary.Entry> toEntry(Order order, int approvedTicketCount) {
+        if (order.getStatus() != OrderAndTicketStatus.APPROVED || approvedTicketCount <= 0) {
+            return Optional.empty();
+        }
+        String fullName = order.getFullName();
+        if (fullName == null || fullName.isBlank()) {
+            return Optional.empty();
+        }
+        return Optional.of(new EventAttendeeSummary.Entry(fullName.trim(), approvedTicketCount,
+                order.getDatePurchased()));
+    }
+
+    /**
+     * The event's approved attendees from its summary, building the summary from the orders first
+     * if it has not been built yet.
+     */
+    public static List<EventAttendeeNameAndTicketCount> getAttendees(String eventId) throws Exception {
+        Optional<EventAttendeeSummary> summary = EventAttendeeSummaryRepository.getSummary(eventId);
+        if (summary.isPresent() && Boolean.TRUE.equals(summary.get().getComplete())) {
+            return summary.get().toAttendeeList();
+        }
+        return rebuildSummary(eventId).toAttendeeList();
+    }
+
+    /**
+     * Builds the summary from EventMetadata.orderIds. The orders are read outside the transaction,
+     * but every order change also writes the summary document, so reading it here makes any such
+     * change that races with the rebuild either land before it or retry it.
+     */
+    public static EventAttendeeSummary rebuildSummary(String eventId) throws Exception {
+        EventAttendeeSummary rebuilt = FirebaseService.getDocumentStore().runTransaction(transaction -> {
+            EventAttendeeSummaryRepository.getSummary(transaction, eventId);
+            List<String> orderIds = EventsRepository.getEventMetadataById(eventId)
+                    .map(EventMetadata::getOrderIds)
+                    .orElse(List.of());
+
+            Map<String, EventAttendeeSummary.Entry> attendees = new HashMap<>();
+            if (!orderIds.isEmpty()) {
+                List<Order> orders = OrdersRepository.getOrdersBatch(orderIds, Optional.empty()).found();
+                Map<String, Integer> approvedTicketsByOrder = countApprovedTickets(orders);
+                for (Order order : orders) {
+                    toEntry(order, approvedTicketsByOrder.getOrDefault(order.getOrderId(), 0))
+                            .ifPresent(entry -> attendees.put(order.getOrderId(), entry));
+                }
+            }
+
+            EventAttendeeSummary summary = new EventAttendeeSummary(attendees, true, Timestamp.now());
+            EventAttendeeSummaryRepository.replaceSummary(transaction, eventId, summary);
+            return summary;
+        });
+        logger.info("Rebuilt attendee summary for event {} with {} attendees", eventId,
+                rebuilt.getAttendees().size());
+        return rebuilt;
+    }
+
+    private static Map<String, Integer> countApprovedTickets(List<Order> orders) throws Exception {
+        List<String> ticketIds = new ArrayList<>();
+        for (Order order : orders) {
+            if (order.getStatus() == OrderAndTicketStatus.APPROVED && order.getTickets() != null) {
+                ticketIds.addAll(order.getTickets());
+            }
+        }
+        Map<String, Integer> counts = new HashMap<>();
+        if (ticketIds.isEmpty()) {
+            return counts;
+        }
+        for (Ticket ticket : TicketsRepository.getTicketsBatch(ticketIds, Optional.empty()).found()) {
+            if (ticket.getStatus() == OrderAndTicketStatus.APPROVED && ticket.getOrderId() != null) {
+                counts.merge(ticket.getOrderId(), 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+}
@@ -1,19 +1,14 @@
 package com.functions.emails;
 
-import java.io.IOException;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.functions.emails.requests.LoopsRequest;
+import com.functions.emails.models.OutboundEmail;
 import com.functions.global.handlers.Global;
-import com.functions.utils.JavaUtils;
 
 /**
  * Service for sending emails via Loops.so.
@@ -26,6 +21,11 @@ public class EmailClient {
 
     private static final int MAX_RETRIES = 3;
 
+    private static class ClientHolder {
+        private static final LoopsHttpClient CLIENT = new LoopsHttpClient(
+                LOOPS_TRANSACTIONAL_URL, LOOPS_API_KEY, LoopsHttpClient.Settings.DEFAULT);
+    }
+
     /**
      * Sends an email with retry logic (recommended for production use).
      * 
@@ -60,7 +60,7 @@ public class EmailClient {
 
         for (int attempt = 0; attempt < MAX_RETRIES; attempt++) {
             try {
-                HttpResponseResult result = sendEmailWithLoops(transactionalId, email, variables);
+                HttpResponseResult result = ClientHolder.CLIENT.send(transactionalId, email, variables, null);
                 int statusCode = result.getStatusCode();
                 if (statusCode >= 200 && statusCode < 300) {
                     // if success, return true and don't retry
@@ -94,48 +94,26 @@ public class EmailClient {
     }
 
     /**
-     * Sends an email without retry logic (single attempt).
-     * 
-     * @param transactionalId The Loops transactional email ID
-     * @param email          The recipient email address
-     * @param variables      The email template variables
-     * @throws IOException if the email fails to send
+     * Sends an email in a single attempt without blocking the caller.
+     *
+     * @param idempotencyKey Loops idempotency key; may be null
+     * @return a future for the Loops response, failed if the request could not be made
      */
-    private static HttpResponseResult sendEmailWithLoops(String transactionalId, String email, 
-                                         Map<String, String> variables) throws IOException {
-        if (LOOPS_API_KEY == null) {
-            throw new IOException("LOOPS_API_KEY is not set.");
-        }
-
-        LoopsRequest request = LoopsRequest.builder()
-                .transactionalId(transactionalId)
-                .email(email)
-                .dataVariables(variables)
-                .build();
-        
-        String jsonBody = JavaUtils.objectMapper.writeValueAsString(request);
-        
-        try (CloseableHttpClient client = HttpClients.createDefault()) {
-            return sendLoopsRequest(client, jsonBody);
-        }
+    public static CompletableFuture<HttpResponseResult> sendEmailWithLoopsAsync(String transactionalId,
+                                                                               String email,
+                                                                               Map<String, String> variables,
+                                                                               String idempotencyKey) {
+        return ClientHolder.CLIENT.sendAsync(transactionalId, email, variables, idempotencyKey);
     }
-    
-    private static HttpResponseResult sendLoopsRequest(CloseableHttpClient client, String jsonBody) throws IOException {
-        HttpPost post = new HttpPost(LOOPS_TRANSACTIONAL_URL);
-        post.setHeader("Authorization", "Bearer " + LOOPS_API_KEY);
-        post.setHeader("Content-Type", "application/json");
-        post.setEntity(new StringEntity(jsonBody));
 
-        
-        try (CloseableHttpResponse response = client.execute(post)) {
-            HttpResponseResult result = new HttpResponseResult(
-                response.getStatusLine().getStatusCode(),
-                response.getStatusLine().getReasonPhrase()
-            );
-            return result;
-        } catch (IOException e) {
-            logger.error("Failed to send Loops request. Exception: {}", e.getMessage());
-            throw e;
-        }
+    /**
+     * Sends many emails concurrently over the shared pooled connections, one attempt each.
+     *
+     * @param idempotencyKeyPrefix if non-null, email {@code i} is sent with key {@code prefix_i}
+     * @return futures for the Loops responses, in input order
+     */
+    public static List<CompletableFuture<HttpResponseResult>> sendEmailsWithLoopsBulk(List<OutboundEmail> emails,
+                                                                                     String idempotencyKeyPrefix) {
+        return ClientHolder.CLIENT.sendBulk(emails, idempotencyKeyPrefix);
     }
 }
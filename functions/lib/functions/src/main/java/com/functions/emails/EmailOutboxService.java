@@ -0,0 +1,223 @@
+package com.functions.emails;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.functions.emails.models.EmailOutboxKind;
+import com.functions.emails.models.EmailOutboxRecord;
+import com.functions.emails.models.EmailOutboxStatus;
+import com.functions.emails.models.OutboundEmail;
+import com.functions.emails.repositories.EmailOutboxRepository;
+import com.functions.firebase.repositories.DocumentStoreTransaction;
+import com.functions.global.handlers.Global;
+import com.google.cloud.Timestamp;
+
+/**
+ * Transactional outbox for order emails. With EMAIL_OUTBOX_ENABLED=true, the purchase, booking
+ * approval and rejection workflows write an EmailOutbox record in the transaction that changes
+ * the order instead of calling Loops inline, and {@link #dispatchDue} sends due records in
+ * parallel from a cron. Each record keeps its own attempt count and backoff, so a Loops outage
+ * no longer holds webhook or approval requests open while EmailClient sleeps between retries.
+ */
+public class EmailOutboxService {
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxService.class);
+
+    static final int MAX_ATTEMPTS = 6;
+    static final Duration INITIAL_RETRY_DELAY = Duration.ofMinutes(1);
+    static final Duration MAX_RETRY_DELAY = Duration.ofHours(1);
+    /** How long a claimed record is hidden from other dispatchers while it is being sent. */
+    static final Duration SEND_LEASE = Duration.ofMinutes(2);
+    private static final int MAX_RECORDS_PER_DISPATCH = 200;
+    private static final int DEFAULT_CONCURRENCY = 8;
+
+    public record DispatchResult(int claimed, int sent, int retried, int failed) {
+    }
+
+    private enum Outcome {
+        SENT, RETRIED, FAILED
+    }
+
+    /** Sends a record's emails, returning null on success and otherwise a description of the failure. */
+    @FunctionalInterface
+    interface OutboxSender {
+        String send(EmailOutboxRecord record);
+    }
+
+    private static class ExecutorHolder {
+        private static final ExecutorService EXECUTOR = createExecutor();
+
+        private static ExecutorService createExecutor() {
+            int concurrency = Global.getIntEnv("EMAIL_OUTBOX_CONCURRENCY", DEFAULT_CONCURRENCY, 1);
+            AtomicInteger threadCount = new AtomicInteger();
+            return Executors.newFixedThreadPool(concurrency, runnable -> {
+                Thread thread = new Thread(runnable, "email-outbox-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private EmailOutboxService() {
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(Global.getEnv("EMAIL_OUTBOX_ENABLED"));
+    }
+
+    /**
+     * Queues an email rendered from the event and order at send time. Write-phase only.
+     */
+    public static void enqueue(DocumentStoreTransaction transaction, EmailOutboxKind kind, String eventId,
+            String visibility, String email, String fullName, String orderId) {
+        enqueue(transaction, kind, eventId, visibility, email, fullName, orderId, null);
+    }
+
+    /**
+     * Queues an email, optionally with its template variables already built. Write-phase only.
+     */
+    public static void enqueue(DocumentStoreTransaction transaction, EmailOutboxKind kind, String eventId,
+            String visibility, String email, String fullName, String orderId, Map<String, String> variables) {
+        Timestamp now = Timestamp.now();
+        EmailOutboxRecord record = EmailOutboxRecord.builder()
+                .recordId(EmailOutboxRepository.recordId(orderId, kind))
+                .kind(kind)
+                .eventId(eventId)
+                .visibility(visibility)
+                .email(email)
+                .fullName(fullName)
+                .orderId(orderId)
+                .variables(variables)
+                .status(EmailOutboxStatus.PENDING)
+                .attempts(0)
+                .createdAt(now)
+                .nextAttemptAt(now)
+                .build();
+        EmailOutboxRepository.enqueue(transaction, record);
+        logger.info("Queued {} email for order {} in EmailOutbox", kind, orderId);
+    }
+
+    /**
+     * Sends every due record, at most EMAIL_OUTBOX_CONCURRENCY at a time.
+     */
+    public static DispatchResult dispatchDue() throws Exception {
+        return dispatchDue(Timestamp.now(), EmailOutboxService::send, ExecutorHolder.EXECUTOR);
+    }
+
+    static DispatchResult dispatchDue(Timestamp now, OutboxSender sender, ExecutorService executor)
+            throws Exception {
+        Timestamp leaseUntil = plus(now, SEND_LEASE);
+
+        List<Future<Outcome>> futures = new ArrayList<>();
+        for (EmailOutboxRecord due : EmailOutboxRepository.getDue(now, MAX_RECORDS_PER_DISPATCH)) {
+            Optional<EmailOutboxRecord> claimed;
+            try {
+                claimed = EmailOutboxRepository.claim(due.getRecordId(), now, leaseUntil);
+            } catch (Exception e) {
+                logger.warn("Failed to claim EmailOutbox record {}", due.getRecordId(), e);
+                continue;
+            }
+            claimed.ifPresent(record -> futures.add(executor.submit(() -> sendAndSettle(record, sender))));
+        }
+
+        int sent = 0;
+        int retried = 0;
+        int failed = 0;
+        for (Future<Outcome> future : futures) {
+            Optional<Outcome> outcome = awaitOutcome(future);
+            if (outcome.isEmpty()) {
+                continue;
+            }
+            switch (outcome.get()) {
+                case SENT -> sent++;
+                case RETRIED -> retried++;
+                case FAILED -> failed++;
+            }
+        }
+
+        logger.info("EmailOutbox dispatch complete. claimed={}, sent={}, retried={}, failed={}", futures.size(), sent,
+                retried, failed);
+        return new DispatchResult(futures.size(), sent, retried, failed);
+    }
+
+    /**
+     * Delay before the next attempt after {@code attempts} failed ones: INITIAL_RETRY_DELAY doubled
+     * per failure, capped at MAX_RETRY_DELAY.
+     */
+    static Duration retryDelay(int attempts) {
+        int doublings = Math.max(0, Math.min(attempts - 1, 30));
+        Duration delay = INITIAL_RETRY_DELAY.multipliedBy(1L << doublings);
+        return delay.compareTo(MAX_RETRY_DELAY) > 0 ? MAX_RETRY_DELAY : delay;
+    }
+
+    private static Outcome sendAndSettle(EmailOutboxRecord record, OutboxSender sender) throws Exception {
+        String error = sender.send(record);
+        if (error == null) {
+            EmailOutboxRepository.markSent(record.getRecordId());
+            return Outcome.SENT;
+        }
+        if (record.getAttempts() >= MAX_ATTEMPTS) {
+            logger.error("EmailOutbox record {} failed {} times; giving up. lastError={}", record.getRecordId(),
+                    record.getAttempts(), error);
+            EmailOutboxRepository.markFailed(record.getRecordId(), error);
+            return Outcome.FAILED;
+        }
+        Duration delay = retryDelay(record.getAttempts());
+        logger.warn("EmailOutbox record {} failed attempt {}; retrying in {}s. error={}", record.getRecordId(),
+                record.getAttempts(), delay.toSeconds(), error);
+        EmailOutboxRepository.markRetry(record.getRecordId(), plus(Timestamp.now(), delay), error);
+        return Outcome.RETRIED;
+    }
+
+    /**
+     * Sends every email of the record concurrently, each under its own idempotency key so emails
+     * Loops already accepted on an earlier attempt are not delivered twice.
+     *
+     * @return null on success, otherwise a description of the failure
+     */
+    private static String send(EmailOutboxRecord record) {
+        try {
+            List<OutboundEmail> emails = EmailService.renderOutboxEmails(record);
+            List<CompletableFuture<HttpResponseResult>> results = EmailClient.sendEmailsWithLoopsBulk(emails,
+                    record.getRecordId());
+            for (CompletableFuture<HttpResponseResult> future : results) {
+                HttpResponseResult result = future.join();
+                if (result.getStatusCode() < 200 || result.getStatusCode() >= 300) {
+                    return "Loops returned " + result.getStatusCode() + " " + result.getMessage();
+                }
+            }
+            logger.info("Sent {} email(s) for EmailOutbox record {}", emails.size(), record.getRecordId());
+            return null;
+        } catch (Exception e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            logger.warn("Error sending EmailOutbox record {}", record.getRecordId(), cause);
+            return cause.getClass().getSimpleName() + ": " + cause.getMessage();
+        }
+    }
+
+    private static Optional<Outcome> awaitOutcome(Future<Outcome> future) throws InterruptedException {
+        try {
+            return Optional.of(future.get());
+        } catch (ExecutionException e) {
+            // Settling failed; the send lease lapses and the record is retried on a later dispatch
+            logger.error("Failed to settle EmailOutbox record", e.getCause());
+            return Optional.empty();
+        }
+    }
+
+    private static Timestamp plus(Timestamp timestamp, Duration duration) {
+        return Timestamp.ofTimeSecondsAndNanos(timestamp.getSeconds() + duration.getSeconds(), timestamp.getNanos());
+    }
+}
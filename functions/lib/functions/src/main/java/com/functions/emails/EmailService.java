@@ -3,6 +3,7 @@ package com.functions.emails;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -11,8 +12,12 @@ import java.util.concurrent.ExecutionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.functions.emails.models.EmailOutboxRecord;
+import com.functions.emails.models.OutboundEmail;
+import com.functions.events.repositories.EventsRepository;
 import com.functions.firebase.services.FirebaseService;
 import com.functions.firebase.services.FirebaseService.CollectionPaths;
+import com.functions.metrics.services.RequestMetricsService;
 import com.functions.utils.TimeUtils;
 import com.functions.utils.UrlUtils;
 import com.google.cloud.Timestamp;
@@ -102,16 +107,12 @@ public class EmailService {
         try {
             Firestore db = FirebaseService.getFirestore();
 
-            DocumentSnapshot eventSnapshot = fetchNestedDocument(
-                    db,
-                    CollectionPaths.EVENTS,
-                    CollectionPaths.ACTIVE,
-                    visibility,
-                    eventId);
-            if (!eventSnapshot.exists()) {
+            Optional<DocumentSnapshot> maybeEventSnapshot = EventsRepository.getEventSnapshotById(eventId);
+            if (maybeEventSnapshot.isEmpty()) {
                 logger.error("Unable to find event provided in datastore to send email. eventId={}", eventId);
                 return false;
             }
+            DocumentSnapshot eventSnapshot = maybeEventSnapshot.get();
 
             DocumentSnapshot orderSnapshot = fetchRootDocument(db, CollectionPaths.ORDERS, orderId);
             if (!orderSnapshot.exists()) {
@@ -160,6 +161,7 @@ public class EmailService {
 
     private static DocumentSnapshot fetchRootDocument(Firestore db, String collectionPath, String documentId)
             throws ExecutionException, InterruptedException {
+        RequestMetricsService.recordReads(1);
         return db.collection(collectionPath).document(documentId).get().get();
     }
 
@@ -169,6 +171,7 @@ public class EmailService {
             String parentDocumentId,
             String childCollectionPath,
             String childDocumentId) throws ExecutionException, InterruptedException {
+        RequestMetricsService.recordReads(1);
         return db.collection(parentCollectionPath)
                 .document(parentDocumentId)
                 .collection(childCollectionPath)
@@ -509,24 +512,13 @@ public class EmailService {
             String orderId,
             BookingApprovalEmailVariablesBuilder variablesBuilder) {
         try {
-            Firestore db = FirebaseService.getFirestore();
-
-            DocumentSnapshot eventSnapshot = fetchNestedDocument(
-                    db, CollectionPaths.EVENTS, CollectionPaths.ACTIVE, visibility, eventId);
-            if (!eventSnapshot.exists()) {
-                logger.error("Unable to find event in datastore to send booking approval email. eventId={}", eventId);
+            Optional<OutboundEmail> outboundEmail = renderBookingApprovalEmail(
+                    templateId, eventId, email, firstName, orderId, variablesBuilder);
+            if (outboundEmail.isEmpty()) {
                 return false;
             }
-
-            DocumentSnapshot orderSnapshot = fetchRootDocument(db, CollectionPaths.ORDERS, orderId);
-            if (!orderSnapshot.exists()) {
-                logger.error("Unable to find order in datastore to send booking approval email. orderId={}", orderId);
-                return false;
-            }
-
-            Map<String, String> variables = variablesBuilder.build(
-                    db, eventSnapshot, orderSnapshot, firstName, orderId);
-            boolean sent = EmailClient.sendEmailWithLoopsWithRetries(templateId, email, variables);
+            boolean sent = EmailClient.sendEmailWithLoopsWithRetries(
+                    templateId, email, outboundEmail.get().variables());
             if (!sent) {
                 logger.warn("Failed to send booking approval email (template={}) for order {} to {}",
                         templateId, orderId, email);
@@ -543,6 +535,36 @@ public class EmailService {
         }
     }
 
+    /**
+     * Fetches event and order data from Firestore and builds a booking-approval flow email.
+     * Empty (and logged) if the event or order no longer exists.
+     */
+    private static Optional<OutboundEmail> renderBookingApprovalEmail(
+            String templateId,
+            String eventId,
+            String email,
+            String firstName,
+            String orderId,
+            BookingApprovalEmailVariablesBuilder variablesBuilder) throws ExecutionException, InterruptedException {
+        Firestore db = FirebaseService.getFirestore();
+
+        Optional<DocumentSnapshot> maybeEventSnapshot = EventsRepository.getEventSnapshotById(eventId);
+        if (maybeEventSnapshot.isEmpty()) {
+            logger.error("Unable to find event in datastore to send booking approval email. eventId={}", eventId);
+            return Optional.empty();
+        }
+        DocumentSnapshot eventSnapshot = maybeEventSnapshot.get();
+
+        DocumentSnapshot orderSnapshot = fetchRootDocument(db, CollectionPaths.ORDERS, orderId);
+        if (!orderSnapshot.exists()) {
+            logger.error("Unable to find order in datastore to send booking approval email. orderId={}", orderId);
+            return Optional.empty();
+        }
+
+        Map<String, String> variables = variablesBuilder.build(db, eventSnapshot, orderSnapshot, firstName, orderId);
+        return Optional.of(new OutboundEmail(templateId, email, variables));
+    }
+
     /**
      * Notifies the organiser of a new pending booking using the same Loops template and
      * variables as the buyer pending email ({@link EmailTemplateType#BOOKING_PENDING}).
@@ -561,12 +583,12 @@ public class EmailService {
         try {
             Firestore db = FirebaseService.getFirestore();
 
-            DocumentSnapshot eventSnapshot = fetchNestedDocument(
-                    db, CollectionPaths.EVENTS, CollectionPaths.ACTIVE, visibility, eventId);
-            if (!eventSnapshot.exists()) {
+            Optional<DocumentSnapshot> maybeEventSnapshot = EventsRepository.getEventSnapshotById(eventId);
+            if (maybeEventSnapshot.isEmpty()) {
                 logger.error("Unable to find event for organiser pending booking email. eventId={}", eventId);
                 return false;
             }
+            DocumentSnapshot eventSnapshot = maybeEventSnapshot.get();
 
             String organiserId = eventSnapshot.getString("organiserId");
             if (organiserId == null || organiserId.isBlank()) {
@@ -617,16 +639,8 @@ public class EmailService {
     public static boolean sendRejectBookingEmail(String email, String fullName, String eventName,
                                                  String organiserId, String orderId, int ticketCount,
                                                  String startDate, String endDate, String location) {
-        Map<String, String> variables = Map.of(
-                "name", Optional.ofNullable(fullName).orElse(""),
-                "eventName", Optional.ofNullable(eventName).orElse("Event"),
-                "organiserId", Optional.ofNullable(organiserId).orElse(""),
-                "orderId", Optional.ofNullable(orderId).orElse(""),
-                "ticketCount", String.valueOf(ticketCount),
-                "startDate", Optional.ofNullable(startDate).orElse(""),
-                "endDate", Optional.ofNullable(endDate).orElse(""),
-                "location", Optional.ofNullable(location).orElse("")
-        );
+        Map<String, String> variables = buildRejectBookingEmailVariables(fullName, eventName, organiserId, orderId,
+                ticketCount, startDate, endDate, location);
 
         boolean sent;
         try {
@@ -644,4 +658,92 @@ public class EmailService {
             }
         return sent;
     }
+
+    /**
+     * Variables for {@link EmailTemplateType#BOOKING_REJECTED}. Built from data the cancellation
+     * workflow already holds, so outbox records for rejections carry them instead of re-reading.
+     */
+    public static Map<String, String> buildRejectBookingEmailVariables(String fullName, String eventName,
+            String organiserId, String orderId, int ticketCount, String startDate, String endDate, String location) {
+        return Map.of(
+                "name", Optional.ofNullable(fullName).orElse(""),
+                "eventName", Optional.ofNullable(eventName).orElse("Event"),
+                "organiserId", Optional.ofNullable(organiserId).orElse(""),
+                "orderId", Optional.ofNullable(orderId).orElse(""),
+                "ticketCount", String.valueOf(ticketCount),
+                "startDate", Optional.ofNullable(startDate).orElse(""),
+                "endDate", Optional.ofNullable(endDate).orElse(""),
+                "location", Optional.ofNullable(location).orElse(""));
+    }
+
+    /**
+     * Renders the emails an outbox record stands for, reading the event and order the same way the
+     * inline send methods above do. Returns an empty list when there is nothing to send, e.g. the
+     * organiser has not opted in to ticket emails.
+     *
+     * @throws IllegalStateException if the event or order the record refers to no longer exists
+     */
+    public static List<OutboundEmail> renderOutboxEmails(EmailOutboxRecord record) throws Exception {
+        return switch (record.getKind()) {
+            case PURCHASE -> renderPurchaseEmails(record.getEventId(), record.getEmail(), record.getFullName(),
+                    record.getOrderId());
+            case BOOKING_PENDING -> List.of(requireRendered(record.getOrderId(), renderBookingApprovalEmail(
+                    EmailTemplateType.BOOKING_PENDING.templateId, record.getEventId(), record.getEmail(),
+                    record.getFullName(), record.getOrderId(), EmailService::buildBookingPendingEmailVariables)));
+            case BOOKING_APPROVED -> List.of(requireRendered(record.getOrderId(), renderBookingApprovalEmail(
+                    EmailTemplateType.BOOKING_APPROVED.templateId, record.getEventId(), record.getEmail(),
+                    record.getFullName(), record.getOrderId(), EmailService::buildBookingApprovedEmailVariables)));
+            case ORGANISER_PENDING_BOOKING -> renderOrganiserPendingBookingEmails(record.getEventId(),
+                    record.getFullName(), record.getOrderId());
+            case BOOKING_REJECTED -> List.of(new OutboundEmail(EmailTemplateType.BOOKING_REJECTED.templateId,
+                    record.getEmail(), record.getVariables()));
+        };
+    }
+
+    private static List<OutboundEmail> renderPurchaseEmails(String eventId, String email, String firstName,
+            String orderId) throws ExecutionException, InterruptedException {
+        Firestore db = FirebaseService.getFirestore();
+
+        DocumentSnapshot eventSnapshot = EventsRepository.getEventSnapshotById(eventId)
+                .orElseThrow(() -> new IllegalStateException("Event not found for purchase email: " + eventId));
+        DocumentSnapshot orderSnapshot = fetchRootDocument(db, CollectionPaths.ORDERS, orderId);
+        if (!orderSnapshot.exists()) {
+            throw new IllegalStateException("Order not found for purchase email: " + orderId);
+        }
+
+        Map<String, String> variables = buildEmailVariables(db, eventSnapshot, orderSnapshot, firstName, orderId);
+        List<OutboundEmail> emails = new ArrayList<>();
+        emails.add(new OutboundEmail(EmailTemplateType.PURCHASE.templateId, email, variables));
+
+        String organiserId = eventSnapshot.getString("organiserId");
+        if (organiserId != null) {
+            getOrganiserEmailForTicketEmail(db, organiserId).ifPresent(organiserEmail -> emails.add(
+                    new OutboundEmail(EmailTemplateType.PURCHASE.templateId, organiserEmail, variables)));
+        }
+        return emails;
+    }
+
+    private static List<OutboundEmail> renderOrganiserPendingBookingEmails(String eventId, String attendeeName,
+            String orderId) throws ExecutionException, InterruptedException {
+        DocumentSnapshot eventSnapshot = EventsRepository.getEventSnapshotById(eventId)
+                .orElseThrow(() -> new IllegalStateException(
+                        "Event not found for organiser pending booking email: " + eventId));
+        String organiserId = eventSnapshot.getString("organiserId");
+        if (organiserId == null || organiserId.isBlank()) {
+            return List.of();
+        }
+        Optional<String> organiserEmail = getOrganiserEmailForTicketEmail(FirebaseService.getFirestore(),
+                organiserId);
+        if (organiserEmail.isEmpty()) {
+            return List.of();
+        }
+        return List.of(requireRendered(orderId, renderBookingApprovalEmail(
+                EmailTemplateType.BOOKING_PENDING.templateId, eventId, organiserEmail.get(), attendeeName, orderId,
+                EmailService::buildBookingPendingEmailVariables)));
+    }
+
+    private static OutboundEmail requireRendered(String orderId, Optional<OutboundEmail> rendered) {
+        return rendered.orElseThrow(() -> new IllegalStateException(
+                "Event or order no longer exists for email on order " + orderId));
+    }
 }
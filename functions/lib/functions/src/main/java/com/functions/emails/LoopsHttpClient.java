@@ -0,0 +1,170 @@
+package com.functions.emails;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.functions.emails.models.OutboundEmail;
+import com.functions.emails.requests.LoopsRequest;
+import com.functions.utils.JavaUtils;
+
+/**
+ * Long-lived HTTP client for the Loops transactional API. Connections are pooled and kept alive
+ * between sends, so only the first email on an instance pays for DNS, TCP and TLS setup, and every
+ * request is bounded by connect, pool-wait and read timeouts.
+ *
+ * EmailClient holds the shared production instance; tests construct one against a local stub
+ * server.
+ */
+public class LoopsHttpClient implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(LoopsHttpClient.class);
+
+    /**
+     * @param maxConnections          pooled connections to Loops, and the number of sends in flight
+     * @param connectTimeout          TCP connect timeout
+     * @param connectionRequestTimeout how long a send waits for a free pooled connection
+     * @param socketTimeout           read timeout once the request is sent
+     * @param validateAfterInactivity idle time after which a pooled connection is checked before
+     *                                reuse, since an instance can sit frozen between requests
+     */
+    public record Settings(int maxConnections, Duration connectTimeout, Duration connectionRequestTimeout,
+            Duration socketTimeout, Duration validateAfterInactivity) {
+
+        public static final Settings DEFAULT = new Settings(16, Duration.ofSeconds(5), Duration.ofSeconds(5),
+                Duration.ofSeconds(10), Duration.ofSeconds(2));
+    }
+
+    private final String url;
+    private final String apiKey;
+    private final CloseableHttpClient client;
+    private final ExecutorService executor;
+
+    public LoopsHttpClient(String url, String apiKey, Settings settings) {
+        this.url = url;
+        this.apiKey = apiKey;
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(settings.maxConnections());
+        connectionManager.setDefaultMaxPerRoute(settings.maxConnections());
+        connectionManager.setValidateAfterInactivity((int) settings.validateAfterInactivity().toMillis());
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) settings.connectTimeout().toMillis())
+                .setConnectionRequestTimeout((int) settings.connectionRequestTimeout().toMillis())
+                .setSocketTimeout((int) settings.socketTimeout().toMillis())
+                .build();
+
+        this.client = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(DefaultConnectionKeepAliveStrategy.INSTANCE)
+                .evictIdleConnections(1, TimeUnit.MINUTES)
+                .build();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(settings.maxConnections(), runnable -> {
+            Thread thread = new Thread(runnable, "loops-client-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Sends one transactional email on the calling thread.
+     *
+     * @param idempotencyKey Loops ignores repeat sends with the same key for 24 hours; may be null
+     * @throws IOException if no API key is configured or the request fails or times out
+     */
+    public HttpResponseResult send(String transactionalId, String email, Map<String, String> variables,
+            String idempotencyKey) throws IOException {
+        if (apiKey == null) {
+            throw new IOException("LOOPS_API_KEY is not set.");
+        }
+
+        LoopsRequest request = LoopsRequest.builder()
+                .transactionalId(transactionalId)
+                .email(email)
+                .dataVariables(variables)
+                .build();
+
+        HttpPost post = new HttpPost(url);
+        post.setHeader("Authorization", "Bearer " + apiKey);
+        if (idempotencyKey != null) {
+            post.setHeader("Idempotency-Key", idempotencyKey);
+        }
+        post.setEntity(new StringEntity(JavaUtils.objectMapper.writeValueAsString(request),
+                ContentType.APPLICATION_JSON));
+
+        try (CloseableHttpResponse response = client.execute(post)) {
+            // Reading the body to the end is what returns the connection to the pool for reuse
+            EntityUtils.consume(response.getEntity());
+            return new HttpResponseResult(
+                    response.getStatusLine().getStatusCode(),
+                    response.getStatusLine().getReasonPhrase());
+        } catch (IOException e) {
+            logger.error("Failed to send Loops request. Exception: {}", e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Sends one transactional email on the client's pool. The future fails with the IOException
+     * {@link #send} would have thrown.
+     */
+    public CompletableFuture<HttpResponseResult> sendAsync(String transactionalId, String email,
+            Map<String, String> variables, String idempotencyKey) {
+        CompletableFuture<HttpResponseResult> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                future.complete(send(transactionalId, email, variables, idempotencyKey));
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Sends many emails concurrently over the pooled connections, at most maxConnections in flight.
+     * Futures are in input order.
+     *
+     * @param idempotencyKeyPrefix if non-null, email {@code i} is sent with key {@code prefix_i}
+     */
+    public List<CompletableFuture<HttpResponseResult>> sendBulk(List<OutboundEmail> emails,
+            String idempotencyKeyPrefix) {
+        List<CompletableFuture<HttpResponseResult>> futures = new ArrayList<>(emails.size());
+        for (int i = 0; i < emails.size(); i++) {
+            OutboundEmail email = emails.get(i);
+            String idempotencyKey = idempotencyKeyPrefix != null ? idempotencyKeyPrefix + "_" + i : null;
+            futures.add(sendAsync(email.transactionalId(), email.email(), email.variables(), idempotencyKey));
+        }
+        return futures;
+    }
+
+    @Override
+    public void close() throws IOException {
+        executor.shutdown();
+        client.close();
+    }
+}
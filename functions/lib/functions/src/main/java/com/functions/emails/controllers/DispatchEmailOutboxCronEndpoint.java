@@ -0,0 +1,59 @@
+package com.functions.emails.controllers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.functions.emails.EmailOutboxService;
+import com.functions.emails.EmailOutboxService.DispatchResult;
+import com.functions.global.controllers.AbstractConfiguredHttpFunction;
+import com.google.cloud.functions.HttpRequest;
+import com.google.cloud.functions.HttpResponse;
+
+/**
+ * Cron endpoint that sends due EmailOutbox records queued by the order workflows when
+ * EMAIL_OUTBOX_ENABLED is set.
+ *
+ * <p>Designed to be triggered by Cloud Scheduler every minute.
+ * Returns HTTP 200 with a JSON-like summary of {@code claimed}, {@code sent}, {@code retried}
+ * and {@code failed} counts for observability.
+ */
+public class DispatchEmailOutboxCronEndpoint extends AbstractConfiguredHttpFunction {
+    private static final Logger logger = LoggerFactory.getLogger(DispatchEmailOutboxCronEndpoint.class);
+
+    @Override
+    public void service(HttpRequest request, HttpResponse response) throws Exception {
+        response.appendHeader("Access-Control-Allow-Origin", "*");
+        response.appendHeader("Access-Control-Allow-Methods", "GET, OPTIONS");
+        response.appendHeader("Access-Control-Allow-Headers", "Content-Type, Authorization");
+        response.appendHeader("Access-Control-Max-Age", "3600");
+
+        if ("OPTIONS".equalsIgnoreCase(request.getMethod())) {
+            logger.info("Handling OPTIONS request: {}", request);
+            response.setStatusCode(204);
+            return;
+        }
+
+        if (!request.getMethod().equalsIgnoreCase("GET")) {
+            response.setStatusCode(405);
+            response.appendHeader("Allow", "GET");
+            response.getWriter().write(
+                    "The DispatchEmailOutboxCronEndpoint only supports GET requests.");
+            return;
+        }
+
+        DispatchResult result;
+        try {
+            result = EmailOutboxService.dispatchDue();
+        } catch (Exception e) {
+            logger.error("Error during EmailOutbox dispatch", e);
+            response.setStatusCode(500);
+            response.getWriter().write("EmailOutbox dispatch failed: " + e.getMessage());
+            return;
+        }
+
+        response.setStatusCode(200);
+        response.getWriter().write(String.format(
+                "{\"claimed\":%d,\"sent\":%d,\"retried\":%d,\"failed\":%d}",
+                result.claimed(), result.sent(), result.retried(), result.failed()));
+    }
+}
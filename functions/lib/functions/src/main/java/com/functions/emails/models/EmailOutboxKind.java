@@ -0,0 +1,19 @@
+package com.functions.emails.models;
+
+/**
+ * Which email an outbox record stands for. Except for BOOKING_REJECTED, whose variables are
+ * captured at enqueue time, the dispatcher renders each kind from the event and order when it
+ * sends, using the same builders as the inline EmailService send methods.
+ */
+public enum EmailOutboxKind {
+    /** Purchase confirmation to the buyer, plus the organiser copy if they opted in. */
+    PURCHASE,
+    /** Buyer notice that their booking is awaiting organiser approval. */
+    BOOKING_PENDING,
+    /** Organiser notice of a new booking awaiting approval, if they opted in. */
+    ORGANISER_PENDING_BOOKING,
+    /** Buyer notice that the organiser approved their booking. */
+    BOOKING_APPROVED,
+    /** Buyer notice that their booking was rejected or expired. */
+    BOOKING_REJECTED
+}
@@ -0,0 +1,49 @@
+package com.functions.emails.models;
+
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import com.google.cloud.Timestamp;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An email to send, stored at EmailOutbox/{orderId}_{kind}. Records are written in the same
+ * transaction as the order change they announce, so an email is never lost to a crash after
+ * commit and never sent for a change that rolled back. A record can hold several emails, and
+ * email {@code i} is sent with {@code {recordId}_i} as its Loops idempotency key, so a send retried
+ * after a crash delivers each email once.
+ *
+ * Only PENDING records have {@code nextAttemptAt} set, which keeps the dispatcher's due query on a
+ * single field.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor // Required by Firestore
+@AllArgsConstructor
+public class EmailOutboxRecord {
+    private String recordId;
+    private EmailOutboxKind kind;
+    private String eventId;
+    /** "Public" or "Private", as taken by the EmailService send methods. */
+    private String visibility;
+    private String email;
+    private String fullName;
+    private String orderId;
+    /** Template variables for kinds rendered at enqueue time; null otherwise. */
+    @Nullable
+    private Map<String, String> variables;
+    private EmailOutboxStatus status;
+    private int attempts;
+    private Timestamp createdAt;
+    @Nullable
+    private Timestamp nextAttemptAt;
+    @Nullable
+    private Timestamp sentAt;
+    @Nullable
+    private String lastError;
+}
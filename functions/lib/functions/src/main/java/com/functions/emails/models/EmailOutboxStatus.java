@@ -0,0 +1,10 @@
+package com.functions.emails.models;
+
+public enum EmailOutboxStatus {
+    /** Waiting to be sent, or being sent, once nextAttemptAt has passed. */
+    PENDING,
+    /** Every email for the record was accepted by Loops. */
+    SENT,
+    /** Ran out of attempts; lastError says why. */
+    FAILED
+}
@@ -0,0 +1,9 @@
+package com.functions.emails.models;
+
+import java.util.Map;
+
+/**
+ * A rendered Loops transactional email, ready to send.
+ */
+public record OutboundEmail(String transactionalId, String email, Map<String, String> variables) {
+}
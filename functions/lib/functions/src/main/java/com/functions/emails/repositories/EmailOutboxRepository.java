@@ -0,0 +1,125 @@
+package com.functions.emails.repositories;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.functions.emails.models.EmailOutboxKind;
+import com.functions.emails.models.EmailOutboxRecord;
+import com.functions.emails.models.EmailOutboxStatus;
+import com.functions.firebase.models.DocumentQuery;
+import com.functions.firebase.models.FieldTransform;
+import com.functions.firebase.models.StoredDocument;
+import com.functions.firebase.repositories.DocumentStoreTransaction;
+import com.functions.firebase.services.FirebaseService;
+import com.functions.firebase.services.FirebaseService.CollectionPaths;
+import com.google.cloud.Timestamp;
+
+/**
+ * Repository for the global EmailOutbox collection.
+ */
+public class EmailOutboxRepository {
+    private EmailOutboxRepository() {
+    }
+
+    public static String recordId(String orderId, EmailOutboxKind kind) {
+        return orderId + "_" + kind.name();
+    }
+
+    /**
+     * Writes the record in the caller's transaction. Write-phase only. The order workflows that
+     * call this are themselves idempotent, so a record is only ever written once per order and
+     * kind.
+     */
+    public static void enqueue(DocumentStoreTransaction transaction, EmailOutboxRecord record) {
+        transaction.set(getRecordPath(record.getRecordId()), record);
+    }
+
+    /**
+     * PENDING records whose nextAttemptAt has passed, oldest first.
+     */
+    public static List<EmailOutboxRecord> getDue(Timestamp now, int limit) throws Exception {
+        List<StoredDocument<EmailOutboxRecord>> docs = FirebaseService.getDocumentStore().query(
+                DocumentQuery.collection(CollectionPaths.EMAIL_OUTBOX)
+                        .whereLessThanOrEqualTo("nextAttemptAt", now)
+                        .orderBy("nextAttemptAt")
+                        .limit(limit),
+                EmailOutboxRecord.class);
+        List<EmailOutboxRecord> records = new ArrayList<>(docs.size());
+        for (StoredDocument<EmailOutboxRecord> doc : docs) {
+            EmailOutboxRecord record = doc.data();
+            record.setRecordId(doc.id());
+            records.add(record);
+        }
+        return records;
+    }
+
+    /**
+     * Claims a due record for sending: increments attempts and pushes nextAttemptAt to
+     * {@code leaseUntil} so other dispatchers skip it. If the dispatcher dies mid-send the record
+     * becomes due again once the lease passes.
+     *
+     * @return the claimed record, or empty if it was claimed or settled since it was listed
+     */
+    public static Optional<EmailOutboxRecord> claim(String recordId, Timestamp now, Timestamp leaseUntil)
+            throws Exception {
+        return FirebaseService.getDocumentStore().runTransaction(transaction -> {
+            Optional<EmailOutboxRecord> stored = transaction.get(getRecordPath(recordId), EmailOutboxRecord.class);
+            if (stored.isEmpty()) {
+                return Optional.empty();
+            }
+            EmailOutboxRecord record = stored.get();
+            record.setRecordId(recordId);
+            Optional<EmailOutboxRecord> claimed = claimIfDue(record, now, leaseUntil);
+            if (claimed.isEmpty()) {
+                return claimed;
+            }
+            transaction.update(getRecordPath(recordId),
+                    Map.of("attempts", claimed.get().getAttempts(), "nextAttemptAt", leaseUntil));
+            return claimed;
+        });
+    }
+
+    /**
+     * The record as claimed at {@code now}, or empty if it is not PENDING or not yet due, including
+     * while another dispatcher's lease on it is running.
+     */
+    public static Optional<EmailOutboxRecord> claimIfDue(EmailOutboxRecord record, Timestamp now,
+            Timestamp leaseUntil) {
+        if (record.getStatus() != EmailOutboxStatus.PENDING || record.getNextAttemptAt() == null
+                || record.getNextAttemptAt().compareTo(now) > 0) {
+            return Optional.empty();
+        }
+        return Optional.of(record.toBuilder()
+                .attempts(record.getAttempts() + 1)
+                .nextAttemptAt(leaseUntil)
+                .build());
+    }
+
+    public static void markSent(String recordId) throws Exception {
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("status", EmailOutboxStatus.SENT.name());
+        updates.put("sentAt", Timestamp.now());
+        updates.put("nextAttemptAt", FieldTransform.delete());
+        FirebaseService.getDocumentStore().update(getRecordPath(recordId), updates);
+    }
+
+    public static void markRetry(String recordId, Timestamp nextAttemptAt, String error) throws Exception {
+        FirebaseService.getDocumentStore().update(getRecordPath(recordId),
+                Map.of("nextAttemptAt", nextAttemptAt, "lastError", error));
+    }
+
+    public static void markFailed(String recordId, String error) throws Exception {
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("status", EmailOutboxStatus.FAILED.name());
+        updates.put("lastError", error);
+        updates.put("nextAttemptAt", FieldTransform.delete());
+        FirebaseService.getDocumentStore().update(getRecordPath(recordId), updates);
+    }
+
+    private static String getRecordPath(String recordId) {
+        return CollectionPaths.EMAIL_OUTBOX + "/" + recordId;
+    }
+}
@@ -0,0 +1,50 @@
+package com.functions.events.controllers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.functions.events.services.EventLocationIndexService;
+import com.functions.events.services.EventLocationIndexService.BackfillResult;
+import com.functions.global.controllers.AbstractConfiguredHttpFunction;
+import com.google.cloud.functions.HttpRequest;
+import com.google.cloud.functions.HttpResponse;
+
+/**
+ * One-off endpoint that populates the EventLocationIndex for every existing event.
+ */
+public class BackfillEventLocationIndexEndpoint extends AbstractConfiguredHttpFunction {
+    private static final Logger logger = LoggerFactory.getLogger(BackfillEventLocationIndexEndpoint.class);
+
+    @Override
+    public void service(HttpRequest request, HttpResponse response) throws Exception {
+        response.appendHeader("Access-Control-Allow-Origin", "*");
+        response.appendHeader("Access-Control-Allow-Methods", "GET, OPTIONS");
+        response.appendHeader("Access-Control-Allow-Headers", "Content-Type, Authorization");
+        response.appendHeader("Access-Control-Max-Age", "3600");
+
+        if ("OPTIONS".equalsIgnoreCase(request.getMethod())) {
+            logger.info("Handling OPTIONS request: {}", request);
+            response.setStatusCode(204);
+            return;
+        }
+
+        if (!request.getMethod().equalsIgnoreCase("GET")) {
+            response.setStatusCode(405);
+            response.appendHeader("Allow", "GET");
+            response.getWriter().write(
+                    "The BackfillEventLocationIndexEndpoint only supports GET requests.");
+            return;
+        }
+
+        try {
+            BackfillResult result = EventLocationIndexService.backfillEventLocationIndex();
+            response.setStatusCode(200);
+            response.getWriter().write(String.format(
+                    "{\"scanned\":%d,\"indexed\":%d}", result.scanned(), result.indexed()));
+        } catch (Exception e) {
+            logger.error("Error during event location index backfill", e);
+            response.setStatusCode(500);
+            response.getWriter().write("Event location index backfill failed: " + e.getMessage());
+        }
+    }
+}
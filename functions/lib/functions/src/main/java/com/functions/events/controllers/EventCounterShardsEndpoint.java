@@ -0,0 +1,105 @@
+package com.functions.events.controllers;
+
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.functions.events.models.EventData;
+import com.functions.events.models.requests.EventCounterShardsRequest;
+import com.functions.events.models.responses.EventCounterShardsResponse;
+import com.functions.events.repositories.EventsRepository;
+import com.functions.events.services.EventCounterShardsService;
+import com.functions.global.controllers.AbstractConfiguredHttpFunction;
+import com.functions.users.models.AuthenticatedUser;
+import com.functions.users.services.AuthService;
+import com.functions.utils.JavaUtils;
+import com.google.cloud.functions.HttpRequest;
+import com.google.cloud.functions.HttpResponse;
+
+/**
+ * Switches an event into or out of sharded-counter mode ahead of a high-demand release. Takes an
+ * {@link EventCounterShardsRequest}; a {@code shardCount} of N enables N shards and 0 folds the
+ * shards back into the event. Only the event's organiser or an admin may call it.
+ */
+public class EventCounterShardsEndpoint extends AbstractConfiguredHttpFunction {
+    private static final Logger logger = LoggerFactory.getLogger(EventCounterShardsEndpoint.class);
+
+    @Override
+    public void service(HttpRequest request, HttpResponse response) throws Exception {
+        response.appendHeader("Access-Control-Allow-Origin", "*");
+        response.appendHeader("Access-Control-Allow-Methods", "POST, OPTIONS");
+        response.appendHeader("Access-Control-Allow-Headers", "Content-Type, Authorization");
+        response.appendHeader("Access-Control-Max-Age", "3600");
+
+        if ("OPTIONS".equalsIgnoreCase(request.getMethod())) {
+            logger.info("Handling OPTIONS request: {}", request);
+            response.setStatusCode(204);
+            return;
+        }
+
+        if (!request.getMethod().equalsIgnoreCase("POST")) {
+            response.setStatusCode(405);
+            response.appendHeader("Allow", "POST");
+            response.getWriter().write("The EventCounterShardsEndpoint only supports POST requests.");
+            return;
+        }
+
+        Optional<AuthenticatedUser> caller = AuthService.authenticate(request);
+        if (caller.isEmpty()) {
+            response.setStatusCode(401);
+            response.appendHeader("WWW-Authenticate", "Bearer");
+            response.getWriter().write("A valid bearer token is required.");
+            return;
+        }
+
+        EventCounterShardsRequest data;
+        try {
+            data = JavaUtils.objectMapper.readValue(request.getReader(), EventCounterShardsRequest.class);
+        } catch (Exception e) {
+            logger.warn("Could not parse counter shard request", e);
+            response.setStatusCode(400);
+            response.getWriter().write("Invalid request data: " + e.getMessage());
+            return;
+        }
+        if (data == null || data.eventId() == null || data.eventId().isBlank() || data.shardCount() == null) {
+            response.setStatusCode(400);
+            response.getWriter().write("eventId and shardCount are required.");
+            return;
+        }
+        String eventId = data.eventId();
+        int shardCount = data.shardCount();
+
+        try {
+            Optional<EventData> event = EventsRepository.getEventById(eventId);
+            if (event.isEmpty()) {
+                response.setStatusCode(404);
+                response.getWriter().write("Event not found: " + eventId);
+                return;
+            }
+            if (!caller.get().canManage(event.get().getOrganiserId())) {
+                logger.warn("User {} may not change counter shards for event {}", caller.get().userId(), eventId);
+                response.setStatusCode(403);
+                response.getWriter().write("Only the event's organiser can change its counter shards.");
+                return;
+            }
+
+            if (shardCount == 0) {
+                EventCounterShardsService.disableSharding(eventId);
+            } else {
+                EventCounterShardsService.enableSharding(eventId, shardCount);
+            }
+            response.setStatusCode(200);
+            response.getWriter().write(JavaUtils.objectMapper.writeValueAsString(
+                    new EventCounterShardsResponse(eventId, shardCount)));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            logger.warn("Rejected counter shard change for event {}: {}", eventId, e.getMessage());
+            response.setStatusCode(400);
+            response.getWriter().write(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error changing counter shards for event {}", eventId, e);
+            response.setStatusCode(500);
+            response.getWriter().write("Changing counter shards failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.functions.events.controllers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.functions.events.services.InventoryHoldService;
+import com.functions.events.services.InventoryHoldService.ReleaseExpiredHoldsResult;
+import com.functions.global.controllers.AbstractConfiguredHttpFunction;
+import com.google.cloud.functions.HttpRequest;
+import com.google.cloud.functions.HttpResponse;
+
+/**
+ * Cron endpoint that releases ACTIVE inventory holds whose checkout expired without the
+ * {@code checkout.session.expired} webhook releasing them.
+ *
+ * <p>Designed to be triggered by Cloud Scheduler every 15 minutes.
+ * Returns HTTP 200 with a JSON-like summary of {@code checked}, {@code released},
+ * and {@code errors} counts for observability.
+ */
+public class ReleaseExpiredInventoryHoldsCronEndpoint extends AbstractConfiguredHttpFunction {
+    private static final Logger logger = LoggerFactory.getLogger(ReleaseExpiredInventoryHoldsCronEndpoint.class);
+
+    @Override
+    public void service(HttpRequest request, HttpResponse response) throws Exception {
+        response.appendHeader("Access-Control-Allow-Origin", "*");
+        response.appendHeader("Access-Control-Allow-Methods", "GET, OPTIONS");
+        response.appendHeader("Access-Control-Allow-Headers", "Content-Type, Authorization");
+        response.appendHeader("Access-Control-Max-Age", "3600");
+
+        if ("OPTIONS".equalsIgnoreCase(request.getMethod())) {
+            logger.info("Handling OPTIONS request: {}", request);
+            response.setStatusCode(204);
+            return;
+        }
+
+        if (!request.getMethod().equalsIgnoreCase("GET")) {
+            response.setStatusCode(405);
+            response.appendHeader("Allow", "GET");
+            response.getWriter().write(
+                    "The ReleaseExpiredInventoryHoldsCronEndpoint only supports GET requests.");
+            return;
+        }
+
+        ReleaseExpiredHoldsResult result;
+        try {
+            result = InventoryHoldService.releaseExpiredHolds();
+        } catch (Exception e) {
+            logger.error("Error during release expired inventory holds pass", e);
+            response.setStatusCode(500);
+            response.getWriter().write("Release expired inventory holds pass failed: " + e.getMessage());
+            return;
+        }
+
+        response.setStatusCode(200);
+        response.getWriter().write(String.format(
+                "{\"checked\":%d,\"released\":%d,\"errors\":%d}",
+                result.checked(), result.released(), result.errors()));
+    }
+}
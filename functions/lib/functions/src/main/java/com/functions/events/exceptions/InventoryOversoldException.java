@@ -0,0 +1,13 @@
+package com.functions.events.exceptions;
+
+/**
+ * Exception thrown when a checkout completes for tickets that are no longer available, because its
+ * hold was released and the tickets were sold again before the purchase was confirmed.
+ */
+public class InventoryOversoldException extends RuntimeException {
+
+    public InventoryOversoldException(String message) {
+        super(message);
+    }
+
+}
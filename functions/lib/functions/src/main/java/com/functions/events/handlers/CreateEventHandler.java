@@ -11,13 +11,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.functions.events.models.EventLocation;
 import com.functions.events.models.EventMetadata;
 import com.functions.events.models.NewEventData;
+import com.functions.events.repositories.EventLocationIndexRepository;
 import com.functions.events.utils.EventsMetadataUtils;
 import com.functions.events.utils.EventsUtils;
 import com.functions.firebase.services.FirebaseService;
 import com.functions.global.models.Handler;
 import com.functions.global.models.requests.UnifiedRequest;
+import com.functions.metrics.services.RequestMetricsService;
 import com.functions.utils.JavaUtils;
 import com.google.cloud.firestore.DocumentReference;
 import com.google.cloud.firestore.Firestore;
@@ -42,9 +45,8 @@ public class CreateEventHandler implements Handler<NewEventData, String> {
         }
 
         try {
-            Firestore db = FirebaseService.getFirestore();
-            String eventId = db.runTransaction(transaction ->
-                    createEvent(request, transaction)).get();
+            String eventId = FirebaseService.createFirestoreTransaction(transaction ->
+                    createEvent(request, transaction));
 
             logger.info("Event created successfully with ID: {}", eventId);
             return "Event created successfully with ID: " + eventId;
@@ -73,8 +75,11 @@ public class CreateEventHandler implements Handler<NewEventData, String> {
         data.setNameTokens(EventsUtils.tokenizeText(safeName));
         data.setLocationTokens(EventsUtils.tokenizeText(safeLocation));
         transaction.set(newEventDocRef, data);
+        RequestMetricsService.recordWrites(1);
         final String eventId = newEventDocRef.getId();
         createEventMetadata(transaction, eventId, data);
+        EventLocationIndexRepository.setEventLocation(eventId,
+                EventLocation.of(data.getIsActive(), data.getIsPrivate()), transaction);
         EventsUtils.addEventIdToUserOrganiserEvents(data.getOrganiserId(), eventId);
         // If the event is public, add it to the user's public upcoming events
         if (!data.getIsPrivate()) {
@@ -93,5 +98,6 @@ public class CreateEventHandler implements Handler<NewEventData, String> {
         DocumentReference eventMetadataDocRef = db.collection(EVENTS_METADATA).document(eventId);
 
         transaction.set(eventMetadataDocRef, eventMetadata);
+        RequestMetricsService.recordWrites(1);
     }
 }
@@ -1,5 +1,7 @@
 package com.functions.events.models;
 
+import javax.annotation.Nullable;
+
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
@@ -10,4 +12,11 @@ public class EventData extends AbstractEventData{
     // We'll exclude organiser field for now in Java as there is no need for it.
     // We'll add it back in here when Java actually needs it.
     // private PublicUserData organiser;
+    /**
+     * When set, vacancy and completeTicketCount live in EventsMetadata/{eventId}/CounterShards and
+     * the values on this document and EventMetadata are display copies. Managed by
+     * EventCounterShardsService.
+     */
+    @Nullable
+    private Integer counterShardCount;
 }
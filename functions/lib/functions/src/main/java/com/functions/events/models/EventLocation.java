@@ -0,0 +1,43 @@
+package com.functions.events.models;
+
+import static com.functions.firebase.services.FirebaseService.CollectionPaths.ACTIVE;
+import static com.functions.firebase.services.FirebaseService.CollectionPaths.EVENTS;
+import static com.functions.firebase.services.FirebaseService.CollectionPaths.INACTIVE;
+import static com.functions.firebase.services.FirebaseService.CollectionPaths.PRIVATE;
+import static com.functions.firebase.services.FirebaseService.CollectionPaths.PUBLIC;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entry in the EventLocationIndex collection recording which Events/{Active|InActive}/{Public|Private}
+ * collection currently holds an event. Keyed by eventId.
+ */
+@Data
+@NoArgsConstructor // Required by Firestore
+@AllArgsConstructor
+public class EventLocation {
+    private String collectionPath;
+    private Boolean isActive;
+    private Boolean isPrivate;
+
+    public static EventLocation of(boolean isActive, boolean isPrivate) {
+        return new EventLocation(collectionPathFor(isActive, isPrivate), isActive, isPrivate);
+    }
+
+    /**
+     * Builds the location for one of the FirebaseService.CollectionPaths.EVENT_PATHS entries.
+     */
+    public static EventLocation fromCollectionPath(String collectionPath) {
+        String[] segments = collectionPath.split("/");
+        if (segments.length != 3 || !EVENTS.equals(segments[0])) {
+            throw new IllegalArgumentException("Not an event collection path: " + collectionPath);
+        }
+        return new EventLocation(collectionPath, ACTIVE.equals(segments[1]), PRIVATE.equals(segments[2]));
+    }
+
+    public static String collectionPathFor(boolean isActive, boolean isPrivate) {
+        return EVENTS + "/" + (isActive ? ACTIVE : INACTIVE) + "/" + (isPrivate ? PRIVATE : PUBLIC);
+    }
+}
@@ -9,7 +9,17 @@ import lombok.Data;
 public class EventMetadata {
     private Map<String, Purchaser> purchaserMap;
     private Integer completeTicketCount;
+    /**
+     * @deprecated webhook idempotency now lives in the EventsMetadata/{eventId}/ProcessedStripeObjects
+     *     subcollection. Only read as a fallback until ProcessedStripeObjectsMigrationService has
+     *     drained it; nothing appends to it any more.
+     */
+    @Deprecated
     private List<String> completedStripeCheckoutSessionIds;
+    /**
+     * @deprecated see {@link #completedStripeCheckoutSessionIds}.
+     */
+    @Deprecated
     private List<String> completedStripePaymentIntentIds;
     private String organiserId;
     private List<String> orderIds;
@@ -0,0 +1,39 @@
+package com.functions.events.models;
+
+import javax.annotation.Nullable;
+
+import com.google.cloud.Timestamp;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Tickets set aside for one checkout, stored at InventoryHolds/{holdId}. The hold is created in
+ * the same transaction that takes the tickets out of vacancy and moves ACTIVE -> CONFIRMED on
+ * purchase or ACTIVE -> RELEASED on expiry, so every reservation is returned to vacancy at most
+ * once no matter how many of the revert, expiry webhook and sweeper paths run.
+ */
+@Data
+@Builder
+@NoArgsConstructor // Required by Firestore
+@AllArgsConstructor
+public class InventoryHold {
+    private String holdId;
+    private String eventId;
+    private Boolean isPrivate;
+    private String eventTicketTypeId;
+    private Integer quantity;
+    private InventoryHoldStatus status;
+    private Timestamp createdAt;
+    /** After this the hold is eligible for release by the sweeper if its checkout is not complete. */
+    private Timestamp expiresAt;
+    @Nullable
+    private Timestamp resolvedAt;
+    /** Set once the Stripe checkout session exists; null if session creation never finished. */
+    @Nullable
+    private String checkoutSessionId;
+    @Nullable
+    private String stripeAccountId;
+}
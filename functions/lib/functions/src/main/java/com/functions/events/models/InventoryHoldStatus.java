@@ -0,0 +1,10 @@
+package com.functions.events.models;
+
+public enum InventoryHoldStatus {
+    /** Tickets are taken out of vacancy while the buyer is in Stripe checkout. */
+    ACTIVE,
+    /** The checkout completed and the held tickets became an order. */
+    CONFIRMED,
+    /** The checkout expired or failed and the tickets were returned to vacancy. */
+    RELEASED
+}
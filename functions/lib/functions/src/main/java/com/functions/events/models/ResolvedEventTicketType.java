@@ -7,7 +7,7 @@ import lombok.Value;
  * Immutable snapshot of an event ticket type used for pricing and inventory decisions.
  */
 @Value
-@Builder
+@Builder(toBuilder = true)
 public class ResolvedEventTicketType {
     String id;
     String name;
@@ -16,4 +16,19 @@ public class ResolvedEventTicketType {
     Integer capacity;
     /** True when inventory is stored on top-level event fields (no eventTicketTypes map). */
     boolean legacy;
+    /**
+     * Number of vacancy shards when the event uses sharded counters, otherwise 0 and
+     * {@link #vacancy} comes from the event document.
+     */
+    int vacancyShardCount;
+    /**
+     * Vacancy shards read in the current transaction. Set by
+     * {@code EventTicketTypeRepository.loadShardedVacancy}; required before decrementing a sharded
+     * vacancy.
+     */
+    ShardedCounterSnapshot vacancyShards;
+
+    public boolean isSharded() {
+        return vacancyShardCount > 0;
+    }
 }
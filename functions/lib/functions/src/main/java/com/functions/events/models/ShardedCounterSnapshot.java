@@ -0,0 +1,67 @@
+package com.functions.events.models;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The shards of a sharded event counter that were read inside a transaction, keyed by shard index
+ * in the order they were read. Only shards present here may be decremented, which is what keeps a
+ * sharded vacancy from overselling: every shard a decrement touches is part of the transaction's
+ * read set.
+ */
+public record ShardedCounterSnapshot(String counterName, int shardCount, Map<Integer, Long> shardCounts) {
+
+    public ShardedCounterSnapshot {
+        shardCounts = Collections.unmodifiableMap(new LinkedHashMap<>(shardCounts));
+    }
+
+    /**
+     * Sum of the read shards. Counters that take blind negative increments (completeTicketCount)
+     * can have individual shards below zero, so this is the signed sum.
+     */
+    public long total() {
+        return shardCounts.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    private long available() {
+        return shardCounts.values().stream().mapToLong(count -> Math.max(0L, count)).sum();
+    }
+
+    /** True when every shard of the counter was read, i.e. {@link #total()} is the counter's value. */
+    public boolean isComplete() {
+        return shardCounts.size() == shardCount;
+    }
+
+    /**
+     * Spreads a decrement over the read shards in read order without taking any shard below zero.
+     *
+     * @return the new count for every shard that changes
+     * @throws IllegalStateException if the read shards do not hold {@code amount} in total
+     */
+    public Map<Integer, Long> planDecrement(long amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Decrement amount must not be negative: " + amount);
+        }
+        if (available() < amount) {
+            throw new IllegalStateException(String.format(
+                    "Cannot decrement counter %s by %d: only %d available across %d read shards",
+                    counterName, amount, available(), shardCounts.size()));
+        }
+
+        Map<Integer, Long> newCounts = new LinkedHashMap<>();
+        long remaining = amount;
+        for (Map.Entry<Integer, Long> shard : shardCounts.entrySet()) {
+            if (remaining == 0) {
+                break;
+            }
+            long available = Math.max(0L, shard.getValue());
+            long taken = Math.min(available, remaining);
+            if (taken > 0) {
+                newCounts.put(shard.getKey(), available - taken);
+                remaining -= taken;
+            }
+        }
+        return newCounts;
+    }
+}
@@ -0,0 +1,7 @@
+package com.functions.events.models.requests;
+
+/**
+ * Request to change an event's counter shards. A {@code shardCount} of 0 folds the shards back into
+ * the event.
+ */
+public record EventCounterShardsRequest(String eventId, Integer shardCount) {}
@@ -0,0 +1,6 @@
+package com.functions.events.models.responses;
+
+/**
+ * Response with an event's counter shard count after the change.
+ */
+public record EventCounterShardsResponse(String eventId, int shardCount) {}
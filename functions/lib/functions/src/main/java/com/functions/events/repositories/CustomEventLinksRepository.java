@@ -8,7 +8,9 @@ import org.slf4j.LoggerFactory;
 
 import com.functions.events.models.CustomEventLink;
 import com.functions.firebase.services.FirebaseService;
+import com.functions.metrics.services.RequestMetricsService;
 import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.QuerySnapshot;
 
 public class CustomEventLinksRepository {
   private static final Logger logger = LoggerFactory.getLogger(CustomEventLinksRepository.class);
@@ -31,13 +33,14 @@ public class CustomEventLinksRepository {
   public static List<CustomEventLink> getAllEventLinksPointedToRecurrence(String userId, String recurrenceTemplateId) {
     try {
       logger.info("Getting all event links pointed to recurrence for user {}", userId);
-      return db
+      QuerySnapshot snapshot = db
           .collection("CustomLinks")
           .document("Events")
           .collection(userId)
           .whereEqualTo("type", CustomEventLink.Type.RECURRING_EVENT.getType())
-          .whereEqualTo("referenceId", recurrenceTemplateId).get().get()
-          .toObjects(CustomEventLink.class);
+          .whereEqualTo("referenceId", recurrenceTemplateId).get().get();
+      RequestMetricsService.recordQueryReads(snapshot.size());
+      return snapshot.toObjects(CustomEventLink.class);
     } catch (Exception e) {
       logger.error("Error getting all event links pointed to recurrence", e);
       return Collections.emptyList();
@@ -8,9 +8,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.functions.firebase.services.FirebaseService;
+import com.functions.metrics.services.RequestMetricsService;
 import com.google.cloud.firestore.DocumentSnapshot;
 import com.google.cloud.firestore.FieldValue;
 import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.QuerySnapshot;
 
 public class EventCollectionsRepository {
   private static final Logger logger = LoggerFactory.getLogger(EventCollectionsRepository.class);
@@ -25,6 +27,7 @@ public class EventCollectionsRepository {
           .document(collectionId)
           .update("eventIds", FieldValue.arrayUnion(eventId))
           .get();
+      RequestMetricsService.recordWrites(1);
     } catch (Exception e) {
       logger.error("Error adding event to event collection", e);
       throw e;
@@ -34,13 +37,14 @@ public class EventCollectionsRepository {
   public static List<String> getEventCollectionIdsContainingRecurringTemplate(boolean isPrivate, String recurrenceTemplateId) throws Exception {
     try {
       logger.info("Getting event collection ids containing recurring template {}", recurrenceTemplateId);
-      return db.collection("EventCollections")
+      QuerySnapshot snapshot = db.collection("EventCollections")
           .document("Active")
           .collection(isPrivate ? "Private" : "Public")
           .whereArrayContains("recurringEventTemplateIds", recurrenceTemplateId)
           .get()
-          .get()
-          .getDocuments()
+          .get();
+      RequestMetricsService.recordQueryReads(snapshot.size());
+      return snapshot.getDocuments()
           .stream()
           .map(DocumentSnapshot::getId)     // <-- Get document ID
           .collect(Collectors.toList());
@@ -0,0 +1,150 @@
+package com.functions.events.repositories;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.functions.events.models.ShardedCounterSnapshot;
+import com.functions.firebase.services.FirebaseService;
+import com.functions.firebase.services.FirebaseService.CollectionPaths;
+import com.functions.metrics.services.RequestMetricsService;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.SetOptions;
+import com.google.cloud.firestore.Transaction;
+
+/**
+ * Repository for sharded event counters, stored as
+ * EventsMetadata/{eventId}/CounterShards/{counterName}_{shardIndex} documents with a {@code count}
+ * field. Increments go to one random shard without a read; decrements must read shards first via
+ * {@link #loadShards} so they can never take the counter below zero.
+ */
+public class EventCounterShardsRepository {
+    public static final String COMPLETE_TICKET_COUNT_COUNTER = "completeTicketCount";
+    private static final String VACANCY_COUNTER_PREFIX = "vacancy_";
+    private static final String COUNT_FIELD = "count";
+    /** Events whose shards were written since their display copies were last synced. */
+    private static final Set<String> eventsPendingDisplaySync = ConcurrentHashMap.newKeySet();
+
+    private EventCounterShardsRepository() {
+    }
+
+    public static String vacancyCounterName(String eventTicketTypeId) {
+        return VACANCY_COUNTER_PREFIX + eventTicketTypeId;
+    }
+
+    /**
+     * Reads shards one at a time, starting from a random shard, until the shards read hold at least
+     * {@code required} or every shard has been read. Transactions that need only a few tickets
+     * therefore usually read (and contend on) a single shard. Must be called before any write in
+     * the transaction.
+     */
+    public static ShardedCounterSnapshot loadShards(Transaction transaction, String eventId, String counterName,
+            int shardCount, long required) throws Exception {
+        Map<Integer, Long> shardCounts = new LinkedHashMap<>();
+        int start = ThreadLocalRandom.current().nextInt(shardCount);
+        long total = 0;
+        for (int i = 0; i < shardCount && total < Math.max(required, 1); i++) {
+            int shardIndex = (start + i) % shardCount;
+            RequestMetricsService.recordReads(1);
+            DocumentSnapshot snapshot = transaction.get(getShardDocRef(eventId, counterName, shardIndex)).get();
+            long count = readCount(snapshot);
+            shardCounts.put(shardIndex, count);
+            total += Math.max(0L, count);
+        }
+        return new ShardedCounterSnapshot(counterName, shardCount, shardCounts);
+    }
+
+    /**
+     * Reads every shard outside a transaction and returns the counter's value (the signed sum).
+     */
+    public static long sum(String eventId, String counterName, int shardCount) throws Exception {
+        List<DocumentReference> refs = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            refs.add(getShardDocRef(eventId, counterName, i));
+        }
+        RequestMetricsService.recordReads(shardCount);
+        long total = 0;
+        for (DocumentSnapshot snapshot : FirebaseService.getFirestore().getAll(refs.toArray(new DocumentReference[0])).get()) {
+            total += readCount(snapshot);
+        }
+        return total;
+    }
+
+    /**
+     * Blind increment of one random shard. Negative deltas are only safe for counters that are
+     * allowed to drift below their true value, such as completeTicketCount; use
+     * {@link #applyDecrement} for inventory.
+     */
+    public static void increment(Transaction transaction, String eventId, String counterName, int shardCount,
+            long delta) {
+        int shardIndex = ThreadLocalRandom.current().nextInt(shardCount);
+        transaction.set(getShardDocRef(eventId, counterName, shardIndex),
+                Map.of(COUNT_FIELD, FieldValue.increment(delta)), SetOptions.merge());
+        RequestMetricsService.recordWrites(1);
+        eventsPendingDisplaySync.add(eventId);
+    }
+
+    /**
+     * Decrements shards that were read into {@code snapshot} earlier in the same transaction.
+     *
+     * @throws IllegalStateException if the read shards do not hold {@code amount}
+     */
+    public static void applyDecrement(Transaction transaction, String eventId, ShardedCounterSnapshot snapshot,
+            long amount) {
+        for (Map.Entry<Integer, Long> shard : snapshot.planDecrement(amount).entrySet()) {
+            transaction.set(getShardDocRef(eventId, snapshot.counterName(), shard.getKey()),
+                    Map.of(COUNT_FIELD, shard.getValue()), SetOptions.merge());
+            RequestMetricsService.recordWrites(1);
+        }
+        eventsPendingDisplaySync.add(eventId);
+    }
+
+    /**
+     * Overwrites every shard so the counter holds {@code total}, split as evenly as possible.
+     */
+    public static void initialize(Transaction transaction, String eventId, String counterName, int shardCount,
+            long total) {
+        for (int i = 0; i < shardCount; i++) {
+            long count = total / shardCount + (i < total % shardCount ? 1 : 0);
+            transaction.set(getShardDocRef(eventId, counterName, i), Map.of(COUNT_FIELD, count));
+        }
+        RequestMetricsService.recordWrites(shardCount);
+    }
+
+    public static void delete(Transaction transaction, String eventId, String counterName, int shardCount) {
+        for (int i = 0; i < shardCount; i++) {
+            transaction.delete(getShardDocRef(eventId, counterName, i));
+        }
+        RequestMetricsService.recordWrites(shardCount);
+    }
+
+    public static boolean hasPendingDisplaySync(String eventId) {
+        return eventsPendingDisplaySync.contains(eventId);
+    }
+
+    public static boolean clearPendingDisplaySync(String eventId) {
+        return eventsPendingDisplaySync.remove(eventId);
+    }
+
+    private static long readCount(DocumentSnapshot snapshot) {
+        if (!snapshot.exists()) {
+            return 0L;
+        }
+        Long count = snapshot.getLong(COUNT_FIELD);
+        return count != null ? count : 0L;
+    }
+
+    private static DocumentReference getShardDocRef(String eventId, String counterName, int shardIndex) {
+        return FirebaseService.getFirestore()
+                .collection(CollectionPaths.EVENTS_METADATA)
+                .document(eventId)
+                .collection(CollectionPaths.COUNTER_SHARDS)
+                .document(counterName + "_" + shardIndex);
+    }
+}
@@ -0,0 +1,140 @@
+package com.functions.events.repositories;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.functions.events.models.EventLocation;
+import com.functions.firebase.services.FirebaseService;
+import com.functions.metrics.services.RequestMetricsService;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Transaction;
+import com.google.cloud.firestore.WriteBatch;
+
+/**
+ * Repository for the EventLocationIndex collection, which maps an eventId to the collection path
+ * holding its event document so lookups can be a single point read instead of probing EVENT_PATHS.
+ */
+public class EventLocationIndexRepository {
+    private static final Logger logger = LoggerFactory.getLogger(EventLocationIndexRepository.class);
+    private static final int MAX_BATCH_WRITES = 500;
+
+    private EventLocationIndexRepository() {
+    }
+
+    /**
+     * Reads many index entries in bounded getAll batches.
+     *
+     * @return locations keyed by event ID, for the events that have an entry
+     */
+    public static Map<String, EventLocation> getEventLocations(List<String> eventIds, int maxInFlight,
+            FirebaseService.ChunkProgressListener listener) throws Exception {
+        List<DocumentReference> refs = eventIds.stream()
+                .map(EventLocationIndexRepository::getEventLocationDocRef)
+                .toList();
+        List<DocumentSnapshot> snapshots = FirebaseService.getAllDocuments(refs, maxInFlight, listener);
+        Map<String, EventLocation> locations = new LinkedHashMap<>();
+        for (int i = 0; i < refs.size(); i++) {
+            EventLocation location = snapshots.get(i).exists() ? snapshots.get(i).toObject(EventLocation.class) : null;
+            if (location != null && location.getCollectionPath() != null) {
+                locations.put(eventIds.get(i), location);
+            }
+        }
+        return locations;
+    }
+
+    public static void setEventLocation(String eventId, EventLocation location, Transaction transaction) {
+        transaction.set(getEventLocationDocRef(eventId), location);
+        RequestMetricsService.recordWrites(1);
+    }
+
+    public static void setEventLocation(String eventId, EventLocation location, WriteBatch batch) {
+        batch.set(getEventLocationDocRef(eventId), location);
+        RequestMetricsService.recordWrites(1);
+    }
+
+    /**
+     * Best-effort repair of missing or stale entries found on the read path: writes
+     * {@code locations} and deletes the entries of {@code staleEventIds}, whose events no longer
+     * exist at any path, in one batch. Runs after the reads that found them and outside any
+     * transaction, so a failure only costs a later read another probe.
+     */
+    public static void repairEventLocations(Map<String, EventLocation> locations, List<String> staleEventIds) {
+        if (locations.isEmpty() && staleEventIds.isEmpty()) {
+            return;
+        }
+        if (locations.size() + staleEventIds.size() > MAX_BATCH_WRITES) {
+            // Larger repairs are left to the backfill
+            logger.warn("Skipping repair of {} event location index entries", locations.size() + staleEventIds.size());
+            return;
+        }
+        try {
+            WriteBatch batch = FirebaseService.getFirestore().batch();
+            locations.forEach((eventId, location) -> setEventLocation(eventId, location, batch));
+            for (String eventId : staleEventIds) {
+                batch.delete(getEventLocationDocRef(eventId));
+                RequestMetricsService.recordWrites(1);
+            }
+            batch.commit().get();
+            logger.info("Repaired {} and removed {} event location index entries", locations.size(),
+                    staleEventIds.size());
+        } catch (Exception e) {
+            logger.warn("Failed to repair event location index entries for eventIds: {}, {}", locations.keySet(),
+                    staleEventIds, e);
+        }
+    }
+
+    /**
+     * Lists the IDs of every event document in an event collection without reading document data.
+     *
+     * @param collectionPath One of FirebaseService.CollectionPaths.EVENT_PATHS
+     * @return event IDs in the collection
+     */
+    public static List<String> listEventIdsInCollection(String collectionPath) {
+        Firestore db = FirebaseService.getFirestore();
+        List<String> eventIds = new ArrayList<>();
+        for (DocumentReference docRef : db.collection(collectionPath).listDocuments()) {
+            eventIds.add(docRef.getId());
+        }
+        return eventIds;
+    }
+
+    /**
+     * Writes index entries in batches of at most MAX_BATCH_WRITES documents.
+     *
+     * @param locations eventId to location entries to write
+     * @return number of entries written
+     */
+    public static int setEventLocations(Map<String, EventLocation> locations) throws Exception {
+        Firestore db = FirebaseService.getFirestore();
+        int written = 0;
+        WriteBatch batch = db.batch();
+        int batchSize = 0;
+        for (Map.Entry<String, EventLocation> entry : locations.entrySet()) {
+            setEventLocation(entry.getKey(), entry.getValue(), batch);
+            batchSize++;
+            if (batchSize == MAX_BATCH_WRITES) {
+                batch.commit().get();
+                written += batchSize;
+                batch = db.batch();
+                batchSize = 0;
+            }
+        }
+        if (batchSize > 0) {
+            batch.commit().get();
+            written += batchSize;
+        }
+        return written;
+    }
+
+    private static DocumentReference getEventLocationDocRef(String eventId) {
+        Firestore db = FirebaseService.getFirestore();
+        return db.collection(FirebaseService.CollectionPaths.EVENT_LOCATION_INDEX).document(eventId);
+    }
+}
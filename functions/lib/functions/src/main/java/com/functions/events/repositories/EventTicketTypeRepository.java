@@ -3,23 +3,63 @@ package com.functions.events.repositories;
 import java.util.Map;
 
 import com.functions.events.models.ResolvedEventTicketType;
+import com.functions.events.models.ShardedCounterSnapshot;
+import com.functions.metrics.services.RequestMetricsService;
 import com.google.cloud.firestore.DocumentReference;
 import com.google.cloud.firestore.Transaction;
 
 /**
- * Writes inventory to eventTicketTypes when present, otherwise top-level fields.
+ * Writes inventory to eventTicketTypes when present, otherwise top-level fields. Events with
+ * sharded counters keep vacancy in {@link EventCounterShardsRepository} instead.
  */
 public class EventTicketTypeRepository {
     private EventTicketTypeRepository() {
     }
 
+    /**
+     * For sharded events, reads enough vacancy shards to cover {@code required} and returns the type
+     * with {@code vacancy} set to what those shards hold, so availability checks work unchanged.
+     * Returns {@code type} as-is for unsharded events. Must be called before any write in the
+     * transaction; pass {@link Long#MAX_VALUE} to read the full vacancy.
+     */
+    public static ResolvedEventTicketType loadShardedVacancy(Transaction transaction, String eventId,
+            ResolvedEventTicketType type, long required) throws Exception {
+        if (!type.isSharded()) {
+            return type;
+        }
+        ShardedCounterSnapshot shards = EventCounterShardsRepository.loadShards(transaction, eventId,
+                EventCounterShardsRepository.vacancyCounterName(type.getId()), type.getVacancyShardCount(),
+                required);
+        return type.toBuilder()
+                .vacancy(Math.toIntExact(shards.total()))
+                .vacancyShards(shards)
+                .build();
+    }
+
     public static void setVacancy(Transaction transaction, DocumentReference eventRef,
             ResolvedEventTicketType type, int vacancy) {
+        if (type.isSharded()) {
+            incrementVacancy(transaction, eventRef, type, (long) vacancy - requireLoadedShards(type).total());
+            return;
+        }
         transaction.update(eventRef, vacancyUpdate(type, vacancy));
+        RequestMetricsService.recordWrites(1);
+        EventsRepository.invalidateCachedEventAfterCommit(transaction, eventRef.getId());
     }
 
     public static void incrementVacancy(Transaction transaction, DocumentReference eventRef,
             ResolvedEventTicketType type, long delta) {
+        if (type.isSharded()) {
+            if (delta >= 0) {
+                EventCounterShardsRepository.increment(transaction, eventRef.getId(),
+                        EventCounterShardsRepository.vacancyCounterName(type.getId()), type.getVacancyShardCount(),
+                        delta);
+            } else {
+                EventCounterShardsRepository.applyDecrement(transaction, eventRef.getId(), requireLoadedShards(type),
+                        -delta);
+            }
+            return;
+        }
         Integer currentVacancy = type.getVacancy();
         if (currentVacancy == null) {
             throw new IllegalStateException(
@@ -29,6 +69,14 @@ public class EventTicketTypeRepository {
         setVacancy(transaction, eventRef, type, newVacancy);
     }
 
+    private static ShardedCounterSnapshot requireLoadedShards(ResolvedEventTicketType type) {
+        if (type.getVacancyShards() == null) {
+            throw new IllegalStateException("Vacancy for ticket type " + type.getId()
+                    + " is sharded; call loadShardedVacancy before decrementing it");
+        }
+        return type.getVacancyShards();
+    }
+
     private static Map<String, Object> vacancyUpdate(ResolvedEventTicketType type, int vacancy) {
         if (type.isLegacy()) {
             return Map.of("vacancy", vacancy);
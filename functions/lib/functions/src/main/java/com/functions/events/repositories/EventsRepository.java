@@ -2,16 +2,26 @@ package com.functions.events.repositories;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeSet;
 import java.util.concurrent.ExecutionException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.functions.events.models.EventData;
+import com.functions.events.models.EventLocation;
 import com.functions.events.models.EventMetadata;
 import com.functions.firebase.services.FirebaseService;
+import com.functions.global.handlers.Global;
+import com.functions.metrics.services.RequestMetricsService;
+import com.functions.utils.ExpiringLruCache;
+import com.google.cloud.Timestamp;
 import com.google.cloud.firestore.DocumentReference;
 import com.google.cloud.firestore.DocumentSnapshot;
 import com.google.cloud.firestore.Firestore;
@@ -23,6 +33,20 @@ import com.google.cloud.firestore.Transaction;
 public class EventsRepository {
     private static final Logger logger = LoggerFactory.getLogger(EventsRepository.class);
 
+    private static final String EVENT_CACHE_TTL_SECONDS_ENV_VAR = "EVENT_CACHE_TTL_SECONDS";
+    private static final String EVENT_CACHE_MAX_ENTRIES_ENV_VAR = "EVENT_CACHE_MAX_ENTRIES";
+    private static final long DEFAULT_EVENT_CACHE_TTL_SECONDS = 5;
+    private static final int DEFAULT_EVENT_CACHE_MAX_ENTRIES = 500;
+
+    /**
+     * Instance-local read-through cache of event snapshots for non-transactional reads. Snapshots are
+     * immutable, so each hit maps into a fresh EventData and callers can never mutate a shared copy.
+     * Transactional reads always bypass it. Set EVENT_CACHE_TTL_SECONDS to 0 to disable.
+     */
+    private static final ExpiringLruCache<String, DocumentSnapshot> eventCache = new ExpiringLruCache<>(
+            Global.getIntEnv(EVENT_CACHE_MAX_ENTRIES_ENV_VAR, DEFAULT_EVENT_CACHE_MAX_ENTRIES, 1),
+            Global.getLongEnv(EVENT_CACHE_TTL_SECONDS_ENV_VAR, DEFAULT_EVENT_CACHE_TTL_SECONDS, 0L) * 1000);
+
     public static Optional<EventData> getEventById(String eventId) {
         return getEventById(eventId, Optional.empty());
     }
@@ -43,15 +67,152 @@ public class EventsRepository {
         }
     }
 
+    /**
+     * Gets the raw event document snapshot, for callers that read fields directly rather than
+     * mapping to EventData.
+     *
+     * @param eventId The event ID
+     * @return Optional containing the event snapshot if found in any event collection
+     */
+    public static Optional<DocumentSnapshot> getEventSnapshotById(String eventId) {
+        try {
+            return Optional.of(findEventDocumentSnapshot(eventId, Optional.empty()));
+        } catch (Exception e) {
+            logger.error("Error retrieving event snapshot by ID: {}", eventId, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Reads many events in bounded getAll batches: their location index entries first, then the
+     * indexed event documents. Cached snapshots are reused and fresh ones cached. Events without a
+     * usable index entry are probed at every EVENT_PATHS entry in one more batched read, and their
+     * entries repaired once all reads are done; events that cannot be found are left out.
+     *
+     * @return found events keyed by ID, in input order
+     */
+    public static Map<String, EventData> getEventsByIds(List<String> eventIds, int maxInFlight,
+            FirebaseService.ChunkProgressListener listener) throws Exception {
+        Map<String, DocumentSnapshot> snapshots = new LinkedHashMap<>();
+        List<String> uncachedIds = new ArrayList<>();
+        for (String eventId : new LinkedHashSet<>(eventIds)) {
+            Optional<DocumentSnapshot> cachedSnapshot = eventCache.get(eventId);
+            RequestMetricsService.recordEventCacheLookup(cachedSnapshot.isPresent());
+            cachedSnapshot.ifPresentOrElse(snapshot -> snapshots.put(eventId, snapshot),
+                    () -> uncachedIds.add(eventId));
+        }
+
+        Map<String, EventLocation> locations = EventLocationIndexRepository.getEventLocations(uncachedIds,
+                maxInFlight, listener);
+        List<String> indexedIds = new ArrayList<>();
+        List<DocumentReference> indexedRefs = new ArrayList<>();
+        for (Map.Entry<String, EventLocation> entry : locations.entrySet()) {
+            indexedIds.add(entry.getKey());
+            indexedRefs.add(FirebaseService.getFirestore()
+                    .document(entry.getValue().getCollectionPath() + "/" + entry.getKey()));
+        }
+        List<DocumentSnapshot> indexedSnapshots = FirebaseService.getAllDocuments(indexedRefs, maxInFlight, listener);
+        for (int i = 0; i < indexedIds.size(); i++) {
+            if (indexedSnapshots.get(i).exists()) {
+                snapshots.put(indexedIds.get(i), indexedSnapshots.get(i));
+                eventCache.put(indexedIds.get(i), indexedSnapshots.get(i));
+            } else {
+                logger.warn("Stale event location index entry for eventId: {}, path: {}. Falling back to probing.",
+                        indexedIds.get(i), locations.get(indexedIds.get(i)).getCollectionPath());
+            }
+        }
+
+        // Unindexed or stale index entries: probe every event path, then repair the entries
+        List<String> unresolvedIds = uncachedIds.stream().filter(eventId -> !snapshots.containsKey(eventId)).toList();
+        List<DocumentReference> candidateRefs = new ArrayList<>();
+        for (String eventId : unresolvedIds) {
+            candidateRefs.addAll(getEventPathCandidateRefs(eventId));
+        }
+        List<DocumentSnapshot> candidates = FirebaseService.getAllDocuments(candidateRefs, maxInFlight, listener);
+        Map<String, EventLocation> repairedLocations = new LinkedHashMap<>();
+        List<String> staleIds = new ArrayList<>();
+        int pathCount = FirebaseService.CollectionPaths.EVENT_PATHS.size();
+        for (int i = 0; i < unresolvedIds.size(); i++) {
+            String eventId = unresolvedIds.get(i);
+            Optional<Integer> found = firstExisting(candidates.subList(i * pathCount, (i + 1) * pathCount));
+            if (found.isPresent()) {
+                DocumentSnapshot snapshot = candidates.get(i * pathCount + found.get());
+                snapshots.put(eventId, snapshot);
+                eventCache.put(eventId, snapshot);
+                repairedLocations.put(eventId,
+                        EventLocation.fromCollectionPath(FirebaseService.CollectionPaths.EVENT_PATHS.get(found.get())));
+            } else if (locations.containsKey(eventId)) {
+                // The event is gone from every path, so drop the entry rather than pay for it on every lookup
+                staleIds.add(eventId);
+            }
+        }
+        EventLocationIndexRepository.repairEventLocations(repairedLocations, staleIds);
+
+        Map<String, EventData> events = new LinkedHashMap<>();
+        for (String eventId : new LinkedHashSet<>(eventIds)) {
+            DocumentSnapshot snapshot = snapshots.get(eventId);
+            if (snapshot == null) {
+                continue;
+            }
+            EventData event = snapshot.toObject(EventData.class);
+            if (event != null) {
+                event.setEventId(eventId);
+                events.put(eventId, event);
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Drops the cached snapshot for an event so the next non-transactional read goes to Firestore.
+     * Called from every repository write path that changes an event document.
+     */
+    public static void invalidateCachedEvent(String eventId) {
+        eventCache.invalidate(eventId);
+    }
+
+    /**
+     * Drops the cached snapshot once {@code transaction} commits. Invalidating before the commit
+     * would let a concurrent read re-cache the old document for a full TTL, and would be wasted if
+     * the transaction aborted.
+     */
+    public static void invalidateCachedEventAfterCommit(Transaction transaction, String eventId) {
+        FirebaseService.runAfterCommit(transaction, () -> invalidateCachedEvent(eventId));
+    }
+
+    /**
+     * Lifetime totals of this instance's event snapshot cache, reported by DUMP_ENDPOINT_METRICS.
+     */
+    public static ExpiringLruCache.Stats getEventCacheStats() {
+        return eventCache.getStats();
+    }
+
     private static DocumentSnapshot findEventDocumentSnapshot(String eventId, Optional<Transaction> transaction) throws Exception {
-        Firestore db = FirebaseService.getFirestore();
+        if (transaction.isPresent()) {
+            return loadEventDocumentSnapshot(eventId, transaction);
+        }
+
+        Optional<DocumentSnapshot> cachedSnapshot = eventCache.get(eventId);
+        RequestMetricsService.recordEventCacheLookup(cachedSnapshot.isPresent());
+        if (cachedSnapshot.isPresent()) {
+            return cachedSnapshot.get();
+        }
+        DocumentSnapshot snapshot = loadEventDocumentSnapshot(eventId, transaction);
+        eventCache.put(eventId, snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Resolves an event by reading it at every EVENT_PATHS entry in one getAll round trip. The
+     * location index would make this two serial round trips, so only the batched
+     * {@link #getEventsByIds} reads it.
+     */
+    private static DocumentSnapshot loadEventDocumentSnapshot(String eventId, Optional<Transaction> transaction) throws Exception {
         try {
-            for (String path : FirebaseService.CollectionPaths.EVENT_PATHS) {
-                DocumentReference docRef = db.document(path + "/" + eventId);
-                DocumentSnapshot maybeDocSnapshot = transaction.isPresent() ? transaction.get().get(docRef).get() : docRef.get().get();
-                if (maybeDocSnapshot.exists()) {
-                    return maybeDocSnapshot;
-                }
+            List<DocumentSnapshot> candidates = getEventPathCandidates(eventId, transaction);
+            Optional<Integer> found = firstExisting(candidates);
+            if (found.isPresent()) {
+                return candidates.get(found.get());
             }
 
             // If no document is found, log and throw an exception
@@ -63,6 +224,37 @@ public class EventsRepository {
         }
     }
 
+    /**
+     * Reads the event document at every path in EVENT_PATHS with a single getAll round trip.
+     * Snapshots are returned in EVENT_PATHS order so callers keep the Active-before-InActive precedence.
+     */
+    private static List<DocumentSnapshot> getEventPathCandidates(String eventId, Optional<Transaction> transaction) throws Exception {
+        DocumentReference[] candidateRefs = getEventPathCandidateRefs(eventId).toArray(DocumentReference[]::new);
+        RequestMetricsService.recordReads(candidateRefs.length);
+        return transaction.isPresent()
+                ? transaction.get().getAll(candidateRefs).get()
+                : FirebaseService.getFirestore().getAll(candidateRefs).get();
+    }
+
+    private static List<DocumentReference> getEventPathCandidateRefs(String eventId) {
+        Firestore db = FirebaseService.getFirestore();
+        return FirebaseService.CollectionPaths.EVENT_PATHS.stream()
+                .map(path -> db.document(path + "/" + eventId))
+                .toList();
+    }
+
+    /**
+     * @return the index of the first snapshot that exists
+     */
+    private static Optional<Integer> firstExisting(List<DocumentSnapshot> candidates) {
+        for (int i = 0; i < candidates.size(); i++) {
+            if (candidates.get(i).exists()) {
+                return Optional.of(i);
+            }
+        }
+        return Optional.empty();
+    }
+
     public static Optional<EventMetadata> getEventMetadataById(String eventId) {
         return getEventMetadataById(eventId, Optional.empty());
     }
@@ -71,6 +263,7 @@ public class EventsRepository {
         Firestore db = FirebaseService.getFirestore();
         try {
             DocumentReference docRef = db.document(FirebaseService.CollectionPaths.EVENTS_METADATA + "/" + eventId);
+            RequestMetricsService.recordReads(1);
             DocumentSnapshot maybeDocSnapshot = transaction.isPresent() ? transaction.get().get(docRef).get() : docRef.get().get();
             if (maybeDocSnapshot.exists()) {
                 return Optional.of(maybeDocSnapshot.toObject(EventMetadata.class));
@@ -82,6 +275,27 @@ public class EventsRepository {
         }
     }
 
+    /**
+     * Reads many event metadata documents in bounded getAll batches.
+     *
+     * @return metadata keyed by event ID, for the events that have it
+     */
+    public static Map<String, EventMetadata> getEventMetadataByIds(List<String> eventIds, int maxInFlight,
+            FirebaseService.ChunkProgressListener listener) throws Exception {
+        Firestore db = FirebaseService.getFirestore();
+        List<DocumentReference> refs = eventIds.stream()
+                .map(eventId -> db.collection(FirebaseService.CollectionPaths.EVENTS_METADATA).document(eventId))
+                .toList();
+        List<DocumentSnapshot> snapshots = FirebaseService.getAllDocuments(refs, maxInFlight, listener);
+        Map<String, EventMetadata> metadata = new LinkedHashMap<>();
+        for (int i = 0; i < refs.size(); i++) {
+            if (snapshots.get(i).exists()) {
+                metadata.put(eventIds.get(i), snapshots.get(i).toObject(EventMetadata.class));
+            }
+        }
+        return metadata;
+    }
+
     /**
      * Get all active public events for a specific organiser.
      *
@@ -104,6 +318,7 @@ public class EventsRepository {
                     .whereEqualTo("organiserId", organiserId);
             
             QuerySnapshot querySnapshot = query.get().get();
+            RequestMetricsService.recordQueryReads(querySnapshot.size());
             List<EventData> events = new ArrayList<>();
             
             for (QueryDocumentSnapshot document : querySnapshot.getDocuments()) {
@@ -128,6 +343,39 @@ public class EventsRepository {
         }
     }
 
+    /**
+     * Organisers with at least one event starting in [from, to), across the active, inactive,
+     * public and private event collections. Only the organiserId field is fetched.
+     */
+    public static SortedSet<String> getOrganiserIdsWithEventsStartingBetween(Timestamp from, Timestamp to)
+            throws Exception {
+        Firestore db = FirebaseService.getFirestore();
+        SortedSet<String> organiserIds = new TreeSet<>();
+        for (String activeStatus : List.of(FirebaseService.CollectionPaths.ACTIVE,
+                FirebaseService.CollectionPaths.INACTIVE)) {
+            for (String visibility : List.of(FirebaseService.CollectionPaths.PUBLIC,
+                    FirebaseService.CollectionPaths.PRIVATE)) {
+                QuerySnapshot snapshot = db.collection(FirebaseService.CollectionPaths.EVENTS)
+                        .document(activeStatus)
+                        .collection(visibility)
+                        .whereGreaterThanOrEqualTo("startDate", from)
+                        .whereLessThan("startDate", to)
+                        .select("organiserId")
+                        .get()
+                        .get();
+                RequestMetricsService.recordQueryReads(snapshot.size());
+                for (QueryDocumentSnapshot document : snapshot.getDocuments()) {
+                    String organiserId = document.getString("organiserId");
+                    if (organiserId != null && !organiserId.isBlank()) {
+                        organiserIds.add(organiserId);
+                    }
+                }
+            }
+        }
+        logger.info("Found {} organisers with events starting between {} and {}", organiserIds.size(), from, to);
+        return organiserIds;
+    }
+
     /**
      * Gets the DocumentReference for an event by ID. Performs a read - must be called
      * before any writes in a transaction to satisfy Firestore's read-before-write rule.
@@ -152,6 +400,8 @@ public class EventsRepository {
      */
     public static void updateEventByReference(DocumentReference eventRef, String field, Object value, Transaction transaction) {
         transaction.update(eventRef, field, value);
+        RequestMetricsService.recordWrites(1);
+        invalidateCachedEventAfterCommit(transaction, eventRef.getId());
     }
 
     /**
@@ -167,6 +417,8 @@ public class EventsRepository {
     public static void updateEventById(String eventId, String field, Object value, Transaction transaction) throws Exception {
         DocumentReference docRef = findEventDocumentReference(eventId, transaction);
         transaction.update(docRef, field, value);
+        RequestMetricsService.recordWrites(1);
+        invalidateCachedEventAfterCommit(transaction, eventId);
     }
 
     /**
@@ -181,11 +433,13 @@ public class EventsRepository {
         Firestore db = FirebaseService.getFirestore();
         DocumentReference docRef = db.document(FirebaseService.CollectionPaths.EVENTS_METADATA + "/" + eventId);
         // Read first to ensure it exists (Firestore requires all reads before writes)
+        RequestMetricsService.recordReads(1);
         DocumentSnapshot snapshot = transaction.get(docRef).get();
         if (!snapshot.exists()) {
             throw new Exception("Event metadata not found for eventId: " + eventId);
         }
         transaction.set(docRef, eventMetadata);
+        RequestMetricsService.recordWrites(1);
     }
 
     /**
@@ -199,6 +453,7 @@ public class EventsRepository {
      */
     public static void updateEventMetadataByReference(DocumentReference docRef, EventMetadata eventMetadata, Transaction transaction) throws Exception {
         transaction.set(docRef, eventMetadata);
+        RequestMetricsService.recordWrites(1);
     }
 
     /**
@@ -213,14 +468,6 @@ public class EventsRepository {
     }
 
     private static DocumentReference findEventDocumentReference(String eventId, Transaction transaction) throws Exception {
-        Firestore db = FirebaseService.getFirestore();
-        for (String path : FirebaseService.CollectionPaths.EVENT_PATHS) {
-            DocumentReference docRef = db.document(path + "/" + eventId);
-            DocumentSnapshot snapshot = transaction.get(docRef).get();
-            if (snapshot.exists()) {
-                return docRef;
-            }
-        }
-        throw new Exception("No event document found for eventId: " + eventId);
+        return findEventDocumentSnapshot(eventId, Optional.of(transaction)).getReference();
     }
 }
@@ -0,0 +1,83 @@
+package com.functions.events.repositories;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.functions.events.models.InventoryHold;
+import com.functions.events.models.InventoryHoldStatus;
+import com.functions.firebase.models.DocumentQuery;
+import com.functions.firebase.models.StoredDocument;
+import com.functions.firebase.repositories.DocumentStoreTransaction;
+import com.functions.firebase.services.FirebaseService;
+import com.functions.firebase.services.FirebaseService.CollectionPaths;
+import com.google.cloud.Timestamp;
+
+/**
+ * Repository for the top-level InventoryHolds collection.
+ */
+public class InventoryHoldsRepository {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryHoldsRepository.class);
+
+    private InventoryHoldsRepository() {
+    }
+
+    public static String generateHoldId() {
+        return FirebaseService.getDocumentStore().newDocumentId(CollectionPaths.INVENTORY_HOLDS);
+    }
+
+    /**
+     * Reads a hold inside a transaction. Must be called before any write in the transaction.
+     */
+    public static Optional<InventoryHold> getHold(DocumentStoreTransaction transaction, String holdId)
+            throws Exception {
+        Optional<InventoryHold> hold = transaction.get(getHoldPath(holdId), InventoryHold.class);
+        hold.ifPresent(h -> h.setHoldId(holdId));
+        return hold;
+    }
+
+    public static void createHold(DocumentStoreTransaction transaction, InventoryHold hold) {
+        transaction.create(getHoldPath(hold.getHoldId()), hold);
+    }
+
+    public static void updateStatus(DocumentStoreTransaction transaction, String holdId, InventoryHoldStatus status) {
+        transaction.update(getHoldPath(holdId), Map.of("status", status.name(), "resolvedAt", Timestamp.now()));
+    }
+
+    /**
+     * Records the Stripe checkout session for a hold once it exists, so the sweeper can expire it.
+     * Outside the reservation transaction because the session is created after that commits.
+     */
+    public static void attachCheckoutSession(String holdId, String checkoutSessionId, String stripeAccountId)
+            throws Exception {
+        FirebaseService.getDocumentStore().update(getHoldPath(holdId),
+                Map.of("checkoutSessionId", checkoutSessionId, "stripeAccountId", stripeAccountId));
+    }
+
+    /**
+     * All ACTIVE holds. Only open checkouts are ACTIVE, so this stays small; expiry is filtered by
+     * the caller to avoid needing a composite index.
+     */
+    public static List<InventoryHold> getActiveHolds() throws Exception {
+        List<StoredDocument<InventoryHold>> docs = FirebaseService.getDocumentStore().query(
+                DocumentQuery.collection(CollectionPaths.INVENTORY_HOLDS)
+                        .whereEqualTo("status", InventoryHoldStatus.ACTIVE.name()),
+                InventoryHold.class);
+        List<InventoryHold> holds = new ArrayList<>(docs.size());
+        for (StoredDocument<InventoryHold> doc : docs) {
+            InventoryHold hold = doc.data();
+            hold.setHoldId(doc.id());
+            holds.add(hold);
+        }
+        logger.info("Found {} active inventory holds", holds.size());
+        return holds;
+    }
+
+    private static String getHoldPath(String holdId) {
+        return CollectionPaths.INVENTORY_HOLDS + "/" + holdId;
+    }
+}
@@ -2,6 +2,7 @@ package com.functions.events.repositories;
 
 import com.functions.events.models.RecurrenceTemplate;
 import com.functions.firebase.services.FirebaseService;
+import com.functions.metrics.services.RequestMetricsService;
 import com.functions.utils.JavaUtils;
 import com.google.cloud.firestore.*;
 import org.slf4j.Logger;
@@ -56,6 +57,7 @@ public class RecurrenceTemplateRepository {
         DocumentReference recurrenceTemplateDocRef = getRecurrenceTemplateDocRef(recurrenceTemplateId, isActive, isPrivate);
         try {
             DocumentSnapshot maybeSnapshot;
+            RequestMetricsService.recordReads(1);
             if (transaction == null) {
                 maybeSnapshot = recurrenceTemplateDocRef.get().get();
             } else {
@@ -73,12 +75,14 @@ public class RecurrenceTemplateRepository {
     public static String createRecurrenceTemplate(boolean isActive, boolean isPrivate, RecurrenceTemplate recurrenceTemplate) throws ExecutionException, InterruptedException {
         DocumentReference recurrenceTemplateDocRef = getRecurrenceTemplateDocRef(isActive, isPrivate);
         recurrenceTemplateDocRef.create(recurrenceTemplate).get();
+        RequestMetricsService.recordWrites(1);
         return recurrenceTemplateDocRef.getId();
     }
 
     public static String createRecurrenceTemplate(String recurrenceTemplateId, boolean isActive, boolean isPrivate, RecurrenceTemplate recurrenceTemplate) throws ExecutionException, InterruptedException {
         DocumentReference recurrenceTemplateDocRef = getRecurrenceTemplateDocRef(recurrenceTemplateId, isActive, isPrivate);
         recurrenceTemplateDocRef.create(recurrenceTemplate).get();
+        RequestMetricsService.recordWrites(1);
         return recurrenceTemplateDocRef.getId();
     }
 
@@ -95,6 +99,7 @@ public class RecurrenceTemplateRepository {
         } else {
             transaction.set(recurrenceTemplateDocRef, JavaUtils.toMap(recurrenceTemplate), SetOptions.merge());
         }
+        RequestMetricsService.recordWrites(1);
         return recurrenceTemplateDocRef.getId();
     }
 
@@ -109,6 +114,7 @@ public class RecurrenceTemplateRepository {
         } else {
             transaction.delete(recurrenceTemplateDocRef);
         }
+        RequestMetricsService.recordWrites(1);
         return recurrenceTemplateDocRef.getId();
     }
 
@@ -135,9 +141,13 @@ public class RecurrenceTemplateRepository {
                 .document(ACTIVE).collection(PUBLIC);
 
         try {
+            QuerySnapshot privateTemplates = activePrivateRecurrenceTemplateRef.get().get();
+            QuerySnapshot publicTemplates = activePublicRecurrenceTemplateRef.get().get();
+            RequestMetricsService.recordQueryReads(privateTemplates.size());
+            RequestMetricsService.recordQueryReads(publicTemplates.size());
             return Stream.concat(
-                            activePrivateRecurrenceTemplateRef.get().get().getDocuments().stream(),
-                            activePublicRecurrenceTemplateRef.get().get().getDocuments().stream()
+                            privateTemplates.getDocuments().stream(),
+                            publicTemplates.getDocuments().stream()
                     ).map(snapshot -> Map.entry(snapshot.getId(), snapshot.toObject(RecurrenceTemplate.class)))
                     .collect(Collectors.toMap(
                             Map.Entry::getKey,
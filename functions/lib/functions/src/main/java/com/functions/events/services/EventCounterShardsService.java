@@ -0,0 +1,201 @@
+package com.functions.events.services;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.functions.events.models.EventData;
+import com.functions.events.models.EventMetadata;
+import com.functions.events.models.EventTicketType;
+import com.functions.events.repositories.EventCounterShardsRepository;
+import com.functions.events.repositories.EventsRepository;
+import com.functions.firebase.services.FirebaseService;
+import com.functions.global.handlers.Global;
+import com.functions.metrics.services.RequestMetricsService;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.SetOptions;
+import com.google.cloud.firestore.Transaction;
+
+/**
+ * Optional sharded-counter mode for high-demand events. While an event has
+ * {@code counterShardCount} set, each ticket type's vacancy and the event's completeTicketCount are
+ * spread over that many shard documents so concurrent checkouts stop contending on the event and
+ * metadata documents. The copies on those documents are refreshed by
+ * {@link #syncDisplayCountersIfDue} for the frontend, which reads them directly. Firestore rules
+ * reject client edits to a sharded event's ticket types, vacancy and capacity, since the shards would
+ * override them.
+ */
+public class EventCounterShardsService {
+    private static final Logger logger = LoggerFactory.getLogger(EventCounterShardsService.class);
+
+    public static final int MAX_SHARD_COUNT = 50;
+    private static final long DISPLAY_SYNC_INTERVAL_MS = Global.getLongEnv("COUNTER_SHARD_SYNC_INTERVAL_MS", 5000L, 0L);
+    private static final Map<String, Long> lastDisplaySyncMillis = new ConcurrentHashMap<>();
+
+    private EventCounterShardsService() {
+    }
+
+    /** Shard count for the event, or 0 when its counters live on the event and metadata documents. */
+    public static int getShardCount(EventData event) {
+        Integer shardCount = event != null ? event.getCounterShardCount() : null;
+        return shardCount != null && shardCount > 0 ? shardCount : 0;
+    }
+
+    /**
+     * Adds {@code delta} to completeTicketCount: a random shard for sharded events, otherwise the
+     * metadata field. Blind write, so it can go anywhere in the write phase.
+     */
+    public static void incrementCompleteTicketCount(Transaction transaction, EventData event,
+            DocumentReference metadataRef, long delta) {
+        int shardCount = getShardCount(event);
+        if (shardCount > 0) {
+            EventCounterShardsRepository.increment(transaction, metadataRef.getId(),
+                    EventCounterShardsRepository.COMPLETE_TICKET_COUNT_COUNTER, shardCount, delta);
+            return;
+        }
+        transaction.update(metadataRef, "completeTicketCount", FieldValue.increment(delta));
+        RequestMetricsService.recordWrites(1);
+    }
+
+    /**
+     * Moves an event's vacancies and completeTicketCount into {@code shardCount} shards. The event
+     * document is read and written in the same transaction, so checkouts that raced with this call
+     * retry and see the new mode.
+     */
+    public static void enableSharding(String eventId, int shardCount) throws Exception {
+        if (shardCount < 1 || shardCount > MAX_SHARD_COUNT) {
+            throw new IllegalArgumentException(
+                    "shardCount must be between 1 and " + MAX_SHARD_COUNT + ": " + shardCount);
+        }
+        FirebaseService.createFirestoreTransaction(transaction -> {
+            EventData event = EventsRepository.getEventById(eventId, Optional.of(transaction))
+                    .orElseThrow(() -> new IllegalArgumentException("Event not found: " + eventId));
+            if (getShardCount(event) > 0) {
+                throw new IllegalStateException("Event " + eventId + " already uses sharded counters");
+            }
+            Map<String, EventTicketType> ticketTypes = event.getEventTicketTypes();
+            if (ticketTypes == null || ticketTypes.isEmpty()) {
+                throw new IllegalStateException(
+                        "Event " + eventId + " has no eventTicketTypes; legacy events cannot be sharded");
+            }
+            DocumentReference eventRef = EventsRepository.getEventDocumentReferenceInTransaction(eventId, transaction);
+            long completeTicketCount = EventsRepository.getEventMetadataById(eventId, Optional.of(transaction))
+                    .map(EventMetadata::getCompleteTicketCount)
+                    .map(Integer::longValue)
+                    .orElse(0L);
+
+            for (EventTicketType ticketType : ticketTypes.values()) {
+                long vacancy = ticketType.getVacancy() != null ? ticketType.getVacancy() : 0;
+                EventCounterShardsRepository.initialize(transaction, eventId,
+                        EventCounterShardsRepository.vacancyCounterName(ticketType.getId()), shardCount, vacancy);
+            }
+            EventCounterShardsRepository.initialize(transaction, eventId,
+                    EventCounterShardsRepository.COMPLETE_TICKET_COUNT_COUNTER, shardCount, completeTicketCount);
+            EventsRepository.updateEventByReference(eventRef, "counterShardCount", shardCount, transaction);
+            return null;
+        });
+        logger.info("Enabled {} counter shards for event {}", shardCount, eventId);
+    }
+
+    /**
+     * Folds an event's shards back into the event and metadata documents and deletes them. Organisers
+     * must do this before editing capacity, which the frontend writes on the event document.
+     */
+    public static void disableSharding(String eventId) throws Exception {
+        FirebaseService.createFirestoreTransaction(transaction -> {
+            EventData event = EventsRepository.getEventById(eventId, Optional.of(transaction))
+                    .orElseThrow(() -> new IllegalArgumentException("Event not found: " + eventId));
+            int shardCount = getShardCount(event);
+            if (shardCount == 0) {
+                logger.info("Event {} does not use sharded counters; nothing to disable", eventId);
+                return null;
+            }
+            DocumentReference eventRef = EventsRepository.getEventDocumentReferenceInTransaction(eventId, transaction);
+
+            Map<String, Object> eventUpdates = new HashMap<>();
+            for (EventTicketType ticketType : event.getEventTicketTypes().values()) {
+                long vacancy = EventCounterShardsRepository.loadShards(transaction, eventId,
+                        EventCounterShardsRepository.vacancyCounterName(ticketType.getId()), shardCount,
+                        Long.MAX_VALUE).total();
+                eventUpdates.put("eventTicketTypes." + ticketType.getId() + ".vacancy", Math.toIntExact(vacancy));
+            }
+            long completeTicketCount = EventCounterShardsRepository.loadShards(transaction, eventId,
+                    EventCounterShardsRepository.COMPLETE_TICKET_COUNT_COUNTER, shardCount, Long.MAX_VALUE).total();
+            eventUpdates.put("counterShardCount", FieldValue.delete());
+
+            transaction.update(eventRef, eventUpdates);
+            RequestMetricsService.recordWrites(1);
+            EventsRepository.invalidateCachedEventAfterCommit(transaction, eventId);
+            transaction.set(EventsRepository.getEventMetadataDocumentReference(eventId),
+                    Map.of("completeTicketCount", Math.toIntExact(Math.max(0L, completeTicketCount))),
+                    SetOptions.merge());
+            RequestMetricsService.recordWrites(1);
+
+            for (EventTicketType ticketType : event.getEventTicketTypes().values()) {
+                EventCounterShardsRepository.delete(transaction, eventId,
+                        EventCounterShardsRepository.vacancyCounterName(ticketType.getId()), shardCount);
+            }
+            EventCounterShardsRepository.delete(transaction, eventId,
+                    EventCounterShardsRepository.COMPLETE_TICKET_COUNT_COUNTER, shardCount);
+            return null;
+        });
+        logger.info("Disabled counter shards for event {}", eventId);
+    }
+
+    /**
+     * Best-effort refresh of the display copies of sharded counters, at most once per
+     * COUNTER_SHARD_SYNC_INTERVAL_MS per event per instance. Call after a transaction that may have
+     * changed counters has committed; it is a no-op (no reads) unless this instance wrote shards of
+     * the event since the last sync. Failures are logged and never surface to the caller.
+     */
+    public static void syncDisplayCountersIfDue(String eventId) {
+        if (!EventCounterShardsRepository.hasPendingDisplaySync(eventId)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Long last = lastDisplaySyncMillis.get(eventId);
+        if (last != null && now - last < DISPLAY_SYNC_INTERVAL_MS) {
+            return;
+        }
+        lastDisplaySyncMillis.put(eventId, now);
+        EventCounterShardsRepository.clearPendingDisplaySync(eventId);
+
+        try {
+            Optional<DocumentSnapshot> maybeSnapshot = EventsRepository.getEventSnapshotById(eventId);
+            if (maybeSnapshot.isEmpty()) {
+                return;
+            }
+            DocumentSnapshot snapshot = maybeSnapshot.get();
+            EventData event = snapshot.toObject(EventData.class);
+            int shardCount = getShardCount(event);
+            if (shardCount == 0 || event.getEventTicketTypes() == null) {
+                return;
+            }
+
+            Map<String, Object> eventUpdates = new HashMap<>();
+            for (EventTicketType ticketType : event.getEventTicketTypes().values()) {
+                long vacancy = EventCounterShardsRepository.sum(eventId,
+                        EventCounterShardsRepository.vacancyCounterName(ticketType.getId()), shardCount);
+                eventUpdates.put("eventTicketTypes." + ticketType.getId() + ".vacancy", Math.toIntExact(vacancy));
+            }
+            long completeTicketCount = EventCounterShardsRepository.sum(eventId,
+                    EventCounterShardsRepository.COMPLETE_TICKET_COUNT_COUNTER, shardCount);
+
+            snapshot.getReference().update(eventUpdates).get();
+            EventsRepository.getEventMetadataDocumentReference(eventId)
+                    .set(Map.of("completeTicketCount", Math.toIntExact(Math.max(0L, completeTicketCount))),
+                            SetOptions.merge())
+                    .get();
+            RequestMetricsService.recordWrites(2);
+            EventsRepository.invalidateCachedEvent(eventId);
+        } catch (Exception e) {
+            logger.warn("Failed to sync display counters for sharded event {}", eventId, e);
+        }
+    }
+}
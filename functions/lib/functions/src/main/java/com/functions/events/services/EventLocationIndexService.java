@@ -0,0 +1,41 @@
+package com.functions.events.services;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.functions.events.models.EventLocation;
+import com.functions.events.repositories.EventLocationIndexRepository;
+import com.functions.firebase.services.FirebaseService;
+
+public class EventLocationIndexService {
+    private static final Logger logger = LoggerFactory.getLogger(EventLocationIndexService.class);
+
+    public record BackfillResult(int scanned, int indexed) {
+    }
+
+    /**
+     * One-off backfill of the EventLocationIndex for events created before the index existed.
+     * Safe to re-run: entries are overwritten with each event's current location.
+     */
+    public static BackfillResult backfillEventLocationIndex() throws Exception {
+        // EVENT_PATHS order matches EventsRepository probing, so the first path wins if an event
+        // is ever present in more than one collection.
+        Map<String, EventLocation> locations = new LinkedHashMap<>();
+        int scanned = 0;
+        for (String collectionPath : FirebaseService.CollectionPaths.EVENT_PATHS) {
+            EventLocation location = EventLocation.fromCollectionPath(collectionPath);
+            for (String eventId : EventLocationIndexRepository.listEventIdsInCollection(collectionPath)) {
+                scanned++;
+                locations.putIfAbsent(eventId, location);
+            }
+            logger.info("Scanned {} for event location backfill. Total events so far: {}", collectionPath, scanned);
+        }
+
+        int indexed = EventLocationIndexRepository.setEventLocations(locations);
+        logger.info("Event location index backfill complete. scanned={}, indexed={}", scanned, indexed);
+        return new BackfillResult(scanned, indexed);
+    }
+}
@@ -47,7 +47,7 @@ public class EventTicketTypeService {
                         "Event " + event.getEventId() + " has no General Admission ticket type");
             }
 
-            return toResolved(general, false);
+            return toResolved(event, general, false);
         }
 
         logger.info(
@@ -86,7 +86,7 @@ public class EventTicketTypeService {
                     "Ticket type " + eventTicketTypeId + " not found for event " + event.getEventId());
         }
 
-        return toResolved(ticketType, false);
+        return toResolved(event, ticketType, false);
     }
 
     /**
@@ -108,7 +108,7 @@ public class EventTicketTypeService {
             ticketType = ticketTypes.values().iterator().next();
         }
 
-        return toResolved(ticketType, false);
+        return toResolved(event, ticketType, false);
     }
 
     /**
@@ -173,7 +173,7 @@ public class EventTicketTypeService {
         return Optional.empty();
     }
 
-    private static ResolvedEventTicketType toResolved(EventTicketType ticketType, boolean legacy) {
+    private static ResolvedEventTicketType toResolved(EventData event, EventTicketType ticketType, boolean legacy) {
         return ResolvedEventTicketType.builder()
                 .id(ticketType.getId())
                 .name(ticketType.getName())
@@ -181,6 +181,7 @@ public class EventTicketTypeService {
                 .vacancy(ticketType.getVacancy())
                 .capacity(ticketType.getCapacity())
                 .legacy(legacy)
+                .vacancyShardCount(legacy ? 0 : EventCounterShardsService.getShardCount(event))
                 .build();
     }
 
@@ -0,0 +1,275 @@
+package com.functions.events.services;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.functions.events.exceptions.InventoryOversoldException;
+import com.functions.events.models.EventData;
+import com.functions.events.models.InventoryHold;
+import com.functions.events.models.InventoryHoldStatus;
+import com.functions.events.models.ResolvedEventTicketType;
+import com.functions.events.repositories.EventTicketTypeRepository;
+import com.functions.events.repositories.EventsRepository;
+import com.functions.events.repositories.InventoryHoldsRepository;
+import com.functions.firebase.repositories.DocumentStoreTransaction;
+import com.functions.firebase.repositories.FirestoreDocumentStore;
+import com.functions.firebase.services.FirebaseService;
+import com.functions.stripe.config.StripeConfig;
+import com.functions.stripe.services.StripeService;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.Transaction;
+
+/**
+ * Hold-based ticket reservations for Stripe checkout. A checkout takes tickets out of vacancy and
+ * records an ACTIVE hold in one transaction; the completed webhook confirms the hold, and a failed
+ * session, the expired webhook or {@link #releaseExpiredHolds} release it. Vacancy therefore always
+ * equals capacity minus confirmed sales minus ACTIVE holds, and because only the ACTIVE -> RELEASED
+ * transition restocks, a reservation can never be returned twice.
+ */
+public class InventoryHoldService {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryHoldService.class);
+
+    /** Time past a hold's expiry before the sweeper acts, leaving room for the expired webhook. */
+    static final long SWEEP_GRACE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    public record ReleaseExpiredHoldsResult(int checked, int released, int errors) {
+    }
+
+    private InventoryHoldService() {
+    }
+
+    /**
+     * Records an ACTIVE hold for tickets the caller has just taken out of vacancy in the same
+     * transaction. Write-phase only.
+     *
+     * @return the hold ID, to be carried in the Stripe session metadata
+     */
+    public static String createHold(Transaction transaction, String eventId, boolean isPrivate,
+            ResolvedEventTicketType ticketType, int quantity) {
+        Timestamp now = Timestamp.now();
+        InventoryHold hold = InventoryHold.builder()
+                .holdId(InventoryHoldsRepository.generateHoldId())
+                .eventId(eventId)
+                .isPrivate(isPrivate)
+                .eventTicketTypeId(ticketType.getId())
+                .quantity(quantity)
+                .status(InventoryHoldStatus.ACTIVE)
+                .createdAt(now)
+                .expiresAt(Timestamp.ofTimeSecondsAndNanos(
+                        now.getSeconds() + StripeConfig.CHECKOUT_SESSION_EXPIRY_SECONDS, now.getNanos()))
+                .build();
+        InventoryHoldsRepository.createHold(FirestoreDocumentStore.forTransaction(transaction), hold);
+        logger.info("Created inventory hold {} for {} tickets of type {} on event {}", hold.getHoldId(), quantity,
+                ticketType.getId(), eventId);
+        return hold.getHoldId();
+    }
+
+    /**
+     * Best effort: without the session ID the sweeper releases the hold directly instead of
+     * expiring its session first.
+     */
+    public static void attachCheckoutSession(String holdId, String checkoutSessionId, String stripeAccountId) {
+        try {
+            InventoryHoldsRepository.attachCheckoutSession(holdId, checkoutSessionId, stripeAccountId);
+        } catch (Exception e) {
+            logger.warn("Failed to attach checkout session {} to inventory hold {}", checkoutSessionId, holdId, e);
+        }
+    }
+
+    /**
+     * Reads a hold by the ID from session metadata. Empty for sessions created before holds existed.
+     * Must be called before any write in the transaction.
+     */
+    public static Optional<InventoryHold> getHold(Transaction transaction, String holdId) throws Exception {
+        if (holdId == null || holdId.isBlank()) {
+            return Optional.empty();
+        }
+        Optional<InventoryHold> hold = InventoryHoldsRepository.getHold(
+                FirestoreDocumentStore.forTransaction(transaction), holdId);
+        if (hold.isEmpty()) {
+            logger.warn("Inventory hold {} from session metadata was not found", holdId);
+        }
+        return hold;
+    }
+
+    /**
+     * Releases a hold in its own transaction, returning its tickets to vacancy if it is still
+     * ACTIVE.
+     *
+     * @return true if this call released the hold
+     */
+    public static boolean releaseHold(String holdId) throws Exception {
+        return FirebaseService.createFirestoreTransaction(transaction -> {
+            Optional<InventoryHold> maybeHold = InventoryHoldsRepository.getHold(
+                    FirestoreDocumentStore.forTransaction(transaction), holdId);
+            if (maybeHold.isEmpty()) {
+                throw new IllegalStateException("Inventory hold not found: " + holdId);
+            }
+            InventoryHold hold = maybeHold.get();
+            if (hold.getStatus() != InventoryHoldStatus.ACTIVE) {
+                logger.info("Inventory hold {} is already {}; nothing to release", holdId, hold.getStatus());
+                return false;
+            }
+            EventData eventData = EventsRepository.getEventById(hold.getEventId(), Optional.of(transaction))
+                    .orElseThrow(() -> new IllegalStateException(
+                            "Event not found for inventory hold " + holdId + ": " + hold.getEventId()));
+            DocumentReference eventRef = EventsRepository.getEventDocumentReferenceInTransaction(hold.getEventId(),
+                    transaction);
+            ResolvedEventTicketType ticketType = EventTicketTypeService.resolveById(eventData,
+                    hold.getEventTicketTypeId());
+            return releaseHold(transaction, hold, eventRef, ticketType);
+        });
+    }
+
+    /**
+     * Write-phase release for callers that already read the hold and the event.
+     *
+     * @return true if the hold was ACTIVE and its tickets were returned to vacancy
+     */
+    public static boolean releaseHold(Transaction transaction, InventoryHold hold, DocumentReference eventRef,
+            ResolvedEventTicketType ticketType) {
+        long vacancyDelta = releaseHold(FirestoreDocumentStore.forTransaction(transaction), hold, ticketType);
+        incrementVacancy(transaction, eventRef, ticketType, vacancyDelta);
+        return vacancyDelta != 0;
+    }
+
+    /**
+     * Marks an ACTIVE hold RELEASED.
+     *
+     * @return the tickets to return to vacancy, 0 if the hold was not ACTIVE
+     */
+    static long releaseHold(DocumentStoreTransaction transaction, InventoryHold hold,
+            ResolvedEventTicketType ticketType) {
+        if (hold.getStatus() != InventoryHoldStatus.ACTIVE) {
+            logger.info("Inventory hold {} is already {}; not restocking", hold.getHoldId(), hold.getStatus());
+            return 0;
+        }
+        InventoryHoldsRepository.updateStatus(transaction, hold.getHoldId(), InventoryHoldStatus.RELEASED);
+        logger.info("Released inventory hold {}: restocked {} tickets of type {} on event {}", hold.getHoldId(),
+                hold.getQuantity(), ticketType.getId(), hold.getEventId());
+        return hold.getQuantity();
+    }
+
+    /**
+     * Write-phase restock for an expired checkout. Sessions with a hold restock through it, which
+     * skips holds already released by a failed checkout or the sweeper; sessions created before
+     * holds existed return their {@code quantity} directly.
+     */
+    public static void restockExpiredCheckout(Transaction transaction, Optional<InventoryHold> hold,
+            DocumentReference eventRef, ResolvedEventTicketType ticketType, long quantity) {
+        incrementVacancy(transaction, eventRef, ticketType, restockExpiredCheckout(
+                FirestoreDocumentStore.forTransaction(transaction), hold, ticketType, quantity));
+    }
+
+    /**
+     * @return the tickets to return to vacancy
+     */
+    static long restockExpiredCheckout(DocumentStoreTransaction transaction, Optional<InventoryHold> hold,
+            ResolvedEventTicketType ticketType, long quantity) {
+        if (hold.isPresent()) {
+            return releaseHold(transaction, hold.get(), ticketType);
+        }
+        return quantity;
+    }
+
+    /**
+     * Read-phase step before {@link #confirmHold}: a hold that was released before its purchase
+     * completed has to take its tickets out of vacancy again, which for sharded events needs the
+     * shards loaded now.
+     */
+    public static ResolvedEventTicketType prepareConfirm(Transaction transaction, InventoryHold hold,
+            ResolvedEventTicketType ticketType) throws Exception {
+        if (hold.getStatus() != InventoryHoldStatus.RELEASED) {
+            return ticketType;
+        }
+        return EventTicketTypeRepository.loadShardedVacancy(transaction, hold.getEventId(), ticketType,
+                hold.getQuantity());
+    }
+
+    /**
+     * Write-phase confirmation when the checkout for a hold completes. A hold released before its
+     * checkout completed retakes its tickets from vacancy; if they have been sold again since, the
+     * confirm fails with {@link InventoryOversoldException} rather than oversell the event.
+     */
+    public static void confirmHold(Transaction transaction, InventoryHold hold, DocumentReference eventRef,
+            ResolvedEventTicketType ticketType) {
+        incrementVacancy(transaction, eventRef, ticketType,
+                confirmHold(FirestoreDocumentStore.forTransaction(transaction), hold, ticketType));
+    }
+
+    /**
+     * Marks the hold CONFIRMED.
+     *
+     * @return the change to vacancy: minus the hold's quantity if it had been released, otherwise 0
+     */
+    static long confirmHold(DocumentStoreTransaction transaction, InventoryHold hold,
+            ResolvedEventTicketType ticketType) {
+        if (hold.getStatus() == InventoryHoldStatus.CONFIRMED) {
+            return 0;
+        }
+        long vacancyDelta = 0;
+        if (hold.getStatus() == InventoryHoldStatus.RELEASED) {
+            int vacancy = ticketType.getVacancy() != null ? ticketType.getVacancy() : 0;
+            if (vacancy < hold.getQuantity()) {
+                throw new InventoryOversoldException(String.format(
+                        "Inventory hold %s was released before its checkout completed and only %d of its %d "
+                                + "tickets of type %s are left on event %s",
+                        hold.getHoldId(), vacancy, hold.getQuantity(), ticketType.getId(), hold.getEventId()));
+            }
+            logger.warn("Inventory hold {} was released before its checkout completed; retaking {} tickets "
+                    + "(vacancy {}) for event {}", hold.getHoldId(), hold.getQuantity(), vacancy, hold.getEventId());
+            vacancyDelta = -hold.getQuantity();
+        }
+        InventoryHoldsRepository.updateStatus(transaction, hold.getHoldId(), InventoryHoldStatus.CONFIRMED);
+        return vacancyDelta;
+    }
+
+    /**
+     * Backstop for lost expired webhooks and for checkouts whose Stripe session was never created.
+     * Holds with a session are released only once Stripe confirms the session is expired (expiring
+     * it if still open); a completed session is left for its completed webhook to confirm.
+     */
+    public static ReleaseExpiredHoldsResult releaseExpiredHolds() throws Exception {
+        long cutoffMillis = System.currentTimeMillis() - SWEEP_GRACE_MILLIS;
+        int checked = 0;
+        int released = 0;
+        int errors = 0;
+
+        for (InventoryHold hold : InventoryHoldsRepository.getActiveHolds()) {
+            if (hold.getExpiresAt() == null || hold.getExpiresAt().toDate().getTime() > cutoffMillis) {
+                continue;
+            }
+            checked++;
+            try {
+                if (hold.getCheckoutSessionId() != null && hold.getStripeAccountId() != null
+                        && !StripeService.expireCheckoutSession(hold.getCheckoutSessionId(),
+                                hold.getStripeAccountId())) {
+                    logger.warn("Checkout session {} for hold {} is not expired; leaving hold ACTIVE",
+                            hold.getCheckoutSessionId(), hold.getHoldId());
+                    errors++;
+                    continue;
+                }
+                if (releaseHold(hold.getHoldId())) {
+                    released++;
+                }
+            } catch (Exception e) {
+                logger.error("Failed to release expired inventory hold {}", hold.getHoldId(), e);
+                errors++;
+            }
+        }
+
+        logger.info("releaseExpiredHolds complete. checked={}, released={}, errors={}", checked, released, errors);
+        return new ReleaseExpiredHoldsResult(checked, released, errors);
+    }
+
+    private static void incrementVacancy(Transaction transaction, DocumentReference eventRef,
+            ResolvedEventTicketType ticketType, long delta) {
+        if (delta != 0) {
+            EventTicketTypeRepository.incrementVacancy(transaction, eventRef, ticketType, delta);
+        }
+    }
+}
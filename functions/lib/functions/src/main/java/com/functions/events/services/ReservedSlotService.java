@@ -8,21 +8,26 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.functions.attendee.services.EventAttendeeSummaryService;
 import com.functions.events.models.EventData;
 import com.functions.events.models.ReservedSlot;
 import com.functions.events.models.ResolvedEventTicketType;
 import com.functions.events.repositories.EventTicketTypeRepository;
 import com.functions.events.repositories.EventsRepository;
 import com.functions.events.services.EventTicketTypeService;
+import com.functions.firebase.repositories.DocumentStoreTransaction;
+import com.functions.firebase.repositories.FirestoreDocumentStore;
+import com.functions.tickets.models.EventSalesDelta;
 import com.functions.tickets.models.Order;
 import com.functions.tickets.models.OrderAndTicketStatus;
 import com.functions.tickets.models.OrderAndTicketType;
 import com.functions.tickets.models.Ticket;
 import com.functions.tickets.repositories.OrdersRepository;
 import com.functions.tickets.repositories.TicketsRepository;
+import com.functions.tickets.services.EventSalesAggregateService;
+import com.functions.wrapped.services.WrappedAggregateService;
 import com.google.cloud.Timestamp;
 import com.google.cloud.firestore.DocumentReference;
-import com.google.cloud.firestore.FieldValue;
 import com.google.cloud.firestore.Transaction;
 
 public class ReservedSlotService {
@@ -47,7 +52,8 @@ public class ReservedSlotService {
             throw new Exception("Event not found for eventId: " + eventId);
         }
         EventData eventData = eventDataOpt.get();
-        ResolvedEventTicketType ticketType = EventTicketTypeService.resolveForReservedSlots(eventData);
+        ResolvedEventTicketType ticketType = EventTicketTypeRepository.loadShardedVacancy(transaction, eventId,
+                EventTicketTypeService.resolveForReservedSlots(eventData), Long.MAX_VALUE);
         if (ticketType.getVacancy() == null) {
             throw new IllegalStateException("Ticket type " + ticketType.getId() + " is missing vacancy");
         }
@@ -84,6 +90,8 @@ public class ReservedSlotService {
 
         // Create Order and Tickets for each reserved slot
         int totalTicketsAdded = 0;
+        EventSalesDelta salesDelta = new EventSalesDelta();
+        List<WrappedAggregateService.WrappedOrderChange> wrappedChanges = new ArrayList<>();
         Timestamp now = Timestamp.now();
         DocumentReference metadataRef = EventsRepository.getEventMetadataDocumentReference(eventId);
 
@@ -106,6 +114,7 @@ public class ReservedSlotService {
             order.setType(OrderAndTicketType.MANUAL);
 
             List<String> ticketIds = new ArrayList<>();
+            EventSalesDelta orderSalesDelta = new EventSalesDelta();
             for (int i = 0; i < slots; i++) {
                 Ticket ticket = new Ticket();
                 ticket.setEventId(eventId);
@@ -118,17 +127,26 @@ public class ReservedSlotService {
 
                 String ticketId = TicketsRepository.createTicket(ticket, transaction);
                 ticketIds.add(ticketId);
+                salesDelta.addTicket(ticket);
+                orderSalesDelta.addTicket(ticket);
             }
 
             order.setTickets(ticketIds);
             OrdersRepository.createOrder(order, eventId, orderId, transaction);
+            EventAttendeeSummaryService.recordOrder(FirestoreDocumentStore.forTransaction(transaction), eventId,
+                    orderId, order, ticketIds.size());
+            salesDelta.addOrder(order);
+            wrappedChanges.add(new WrappedAggregateService.WrappedOrderChange(order, orderSalesDelta.addOrder(order)));
 
             totalTicketsAdded += slots;
             logger.info("Created order {} with {} tickets for reserved slot: email={}, name={}", orderId, slots, email, name);
         }
 
         // Increment completeTicketCount
-        transaction.update(metadataRef, "completeTicketCount", FieldValue.increment(totalTicketsAdded));
+        EventCounterShardsService.incrementCompleteTicketCount(transaction, eventData, metadataRef, totalTicketsAdded);
+        DocumentStoreTransaction storeTransaction = FirestoreDocumentStore.forTransaction(transaction);
+        EventSalesAggregateService.apply(storeTransaction, eventId, salesDelta);
+        WrappedAggregateService.recordOrderChanges(storeTransaction, eventData, wrappedChanges);
 
         logger.info("Successfully processed {} reserved slots ({} tickets) for event {}",
                 reservedSlots.size(), totalTicketsAdded, eventId);
@@ -0,0 +1,16 @@
+package com.functions.firebase.exceptions;
+
+/**
+ * Exception thrown when a document store transaction fails optimistic-concurrency validation
+ * because a document it read was modified before it could commit.
+ */
+public class TransactionAbortedException extends RuntimeException {
+
+    public TransactionAbortedException(String message) {
+        super(message);
+    }
+
+    public TransactionAbortedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
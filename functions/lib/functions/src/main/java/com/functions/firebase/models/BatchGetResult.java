@@ -0,0 +1,13 @@
+package com.functions.firebase.models;
+
+import java.util.List;
+
+/**
+ * Result of a multi-document read. {@code found} keeps the order of the requested IDs (minus any
+ * that were missing); {@code missingIds} lists the requested IDs that had no document.
+ */
+public record BatchGetResult<T>(List<T> found, List<String> missingIds) {
+    public boolean hasMissing() {
+        return !missingIds.isEmpty();
+    }
+}
@@ -0,0 +1,59 @@
+package com.functions.firebase.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A query over the documents directly in one collection, as run by DocumentStore.query. Supports
+ * the filters and orderings the store-backed repositories need; range filters follow Firestore's
+ * rule that the first ordering must be on the filtered field, and documents without an ordered or
+ * filtered field are left out.
+ */
+public record DocumentQuery(String collectionPath, List<Filter> filters, List<Ordering> orderings, Integer limit) {
+
+    public enum Operator {
+        EQUAL, LESS_THAN_OR_EQUAL
+    }
+
+    public record Filter(String field, Operator operator, Object value) {
+    }
+
+    public record Ordering(String field, boolean descending) {
+    }
+
+    public static DocumentQuery collection(String collectionPath) {
+        return new DocumentQuery(collectionPath, List.of(), List.of(), null);
+    }
+
+    public DocumentQuery whereEqualTo(String field, Object value) {
+        return withFilter(new Filter(field, Operator.EQUAL, value));
+    }
+
+    public DocumentQuery whereLessThanOrEqualTo(String field, Object value) {
+        return withFilter(new Filter(field, Operator.LESS_THAN_OR_EQUAL, value));
+    }
+
+    public DocumentQuery orderBy(String field) {
+        return withOrdering(new Ordering(field, false));
+    }
+
+    public DocumentQuery orderByDescending(String field) {
+        return withOrdering(new Ordering(field, true));
+    }
+
+    public DocumentQuery limit(int limit) {
+        return new DocumentQuery(collectionPath, filters, orderings, limit);
+    }
+
+    private DocumentQuery withFilter(Filter filter) {
+        List<Filter> updated = new ArrayList<>(filters);
+        updated.add(filter);
+        return new DocumentQuery(collectionPath, List.copyOf(updated), orderings, limit);
+    }
+
+    private DocumentQuery withOrdering(Ordering ordering) {
+        List<Ordering> updated = new ArrayList<>(orderings);
+        updated.add(ordering);
+        return new DocumentQuery(collectionPath, filters, List.copyOf(updated), limit);
+    }
+}
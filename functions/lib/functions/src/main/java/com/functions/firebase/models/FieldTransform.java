@@ -0,0 +1,25 @@
+package com.functions.firebase.models;
+
+/**
+ * Field values applied by the document store rather than written as-is, for DocumentStore merges
+ * and updates. FirestoreDocumentStore maps them to the matching FieldValue sentinels.
+ */
+public sealed interface FieldTransform {
+
+    /** Adds {@code amount} to the field, treating a missing or non-numeric field as 0. */
+    record Increment(long amount) implements FieldTransform {
+    }
+
+    /** Removes the field. */
+    enum Delete implements FieldTransform {
+        INSTANCE
+    }
+
+    static FieldTransform increment(long amount) {
+        return new Increment(amount);
+    }
+
+    static FieldTransform delete() {
+        return Delete.INSTANCE;
+    }
+}
@@ -0,0 +1,17 @@
+package com.functions.firebase.models;
+
+import java.time.Duration;
+
+/**
+ * Simulated per-operation latency for the in-memory document store. Each read, write and
+ * transaction commit sleeps for the configured duration before touching the data.
+ */
+public record LatencyProfile(Duration read, Duration write, Duration commit) {
+    public static final LatencyProfile NONE = new LatencyProfile(Duration.ZERO, Duration.ZERO, Duration.ZERO);
+
+    /**
+     * Roughly what a Cloud Function sees talking to Firestore in the same region.
+     */
+    public static final LatencyProfile SAME_REGION_FIRESTORE =
+            new LatencyProfile(Duration.ofMillis(8), Duration.ofMillis(12), Duration.ofMillis(20));
+}
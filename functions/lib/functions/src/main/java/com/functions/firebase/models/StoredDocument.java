@@ -0,0 +1,9 @@
+package com.functions.firebase.models;
+
+import com.google.cloud.Timestamp;
+
+/**
+ * A document returned by a {@link DocumentQuery}, with its ID and the time it was last written.
+ */
+public record StoredDocument<T>(String id, T data, Timestamp updateTime) {
+}
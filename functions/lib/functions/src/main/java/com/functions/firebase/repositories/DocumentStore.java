@@ -0,0 +1,69 @@
+package com.functions.firebase.repositories;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.functions.firebase.models.DocumentQuery;
+import com.functions.firebase.models.FieldTransform;
+import com.functions.firebase.models.StoredDocument;
+
+/**
+ * Document-level data access that repositories can be written against instead of binding
+ * directly to FirebaseService.getFirestore(). Paths are full document paths
+ * (e.g. "Wrapped/{organiserId}/2025/SPORTSHUB_WRAPPED").
+ *
+ * FirestoreDocumentStore is the production implementation; InMemoryDocumentStore backs tests
+ * that should not need a live project. The Wrapped, attendee summary, sales aggregate, inventory
+ * hold and email outbox repositories are written against it, and take a DocumentStoreTransaction
+ * for their transactional reads and writes. Events, orders and tickets still call
+ * FirebaseService.getFirestore(), so callers that share a transaction with those pass
+ * {@link FirestoreDocumentStore#forTransaction}.
+ */
+public interface DocumentStore {
+
+    @FunctionalInterface
+    interface TransactionFunction<T> {
+        T apply(DocumentStoreTransaction transaction) throws Exception;
+    }
+
+    <T> Optional<T> get(String documentPath, Class<T> type) throws Exception;
+
+    /**
+     * Reads every path in one round trip. Results are in input order, empty where the document
+     * does not exist.
+     */
+    <T> List<Optional<T>> getAll(List<String> documentPaths, Class<T> type) throws Exception;
+
+    <T> List<StoredDocument<T>> query(DocumentQuery query, Class<T> type) throws Exception;
+
+    /**
+     * A new random document ID for the collection, without writing anything.
+     */
+    String newDocumentId(String collectionPath);
+
+    void set(String documentPath, Object data) throws Exception;
+
+    /**
+     * Writes the given fields into the document, creating it if needed. Nested maps are merged
+     * field by field, except that an empty map replaces the field; values may be
+     * {@link FieldTransform}s.
+     */
+    void merge(String documentPath, Map<String, Object> fields) throws Exception;
+
+    /**
+     * Updates the given fields of an existing document. Keys may be dotted field paths, and values
+     * may be {@link FieldTransform}s.
+     */
+    void update(String documentPath, Map<String, Object> fields) throws Exception;
+
+    void delete(String documentPath) throws Exception;
+
+    List<String> listDocumentIds(String collectionPath) throws Exception;
+
+    /**
+     * Runs the function in a transaction, retrying it if the commit is aborted by a
+     * concurrent write. All reads must happen before any writes, as with Firestore.
+     */
+    <T> T runTransaction(TransactionFunction<T> function) throws Exception;
+}
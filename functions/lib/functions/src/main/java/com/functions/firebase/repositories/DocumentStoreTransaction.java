@@ -0,0 +1,38 @@
+package com.functions.firebase.repositories;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.google.cloud.Timestamp;
+
+/**
+ * A transaction handed to DocumentStore.TransactionFunction. Reads must come before writes;
+ * writes are buffered and applied atomically when the function returns. The write methods
+ * follow the DocumentStore methods of the same name.
+ */
+public interface DocumentStoreTransaction {
+
+    <T> Optional<T> get(String documentPath, Class<T> type) throws Exception;
+
+    <T> List<Optional<T>> getAll(List<String> documentPaths, Class<T> type) throws Exception;
+
+    /**
+     * Reads each document's last update time, in input order, empty where the document does not
+     * exist. Like any other read, a concurrent write to one of them aborts the transaction.
+     */
+    List<Optional<Timestamp>> getUpdateTimes(List<String> documentPaths) throws Exception;
+
+    /**
+     * Writes a new document; the commit fails if it already exists.
+     */
+    void create(String documentPath, Object data);
+
+    void set(String documentPath, Object data);
+
+    void merge(String documentPath, Map<String, Object> fields);
+
+    void update(String documentPath, Map<String, Object> fields);
+
+    void delete(String documentPath);
+}
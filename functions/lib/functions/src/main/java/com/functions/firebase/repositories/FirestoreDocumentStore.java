@@ -0,0 +1,230 @@
+package com.functions.firebase.repositories;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.functions.firebase.models.DocumentQuery;
+import com.functions.firebase.models.FieldTransform;
+import com.functions.firebase.models.StoredDocument;
+import com.functions.firebase.services.FirebaseService;
+import com.functions.metrics.services.RequestMetricsService;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.SetOptions;
+import com.google.cloud.firestore.Transaction;
+
+/**
+ * Production DocumentStore backed by the Firestore Admin SDK.
+ */
+public class FirestoreDocumentStore implements DocumentStore {
+
+    /**
+     * The store view of a transaction opened with FirebaseService.createFirestoreTransaction, for
+     * store-backed repositories that write alongside events, orders and tickets.
+     */
+    public static DocumentStoreTransaction forTransaction(Transaction transaction) {
+        return new FirestoreDocumentStoreTransaction(transaction);
+    }
+
+    @Override
+    public <T> Optional<T> get(String documentPath, Class<T> type) throws Exception {
+        RequestMetricsService.recordReads(1);
+        DocumentSnapshot snapshot = documentRef(documentPath).get().get();
+        return toObject(snapshot, type);
+    }
+
+    @Override
+    public <T> List<Optional<T>> getAll(List<String> documentPaths, Class<T> type) throws Exception {
+        return toObjects(FirebaseService.getAllDocuments(documentRefs(documentPaths), Optional.empty()), type);
+    }
+
+    @Override
+    public <T> List<StoredDocument<T>> query(DocumentQuery query, Class<T> type) throws Exception {
+        Query firestoreQuery = FirebaseService.getFirestore().collection(query.collectionPath());
+        for (DocumentQuery.Filter filter : query.filters()) {
+            firestoreQuery = switch (filter.operator()) {
+                case EQUAL -> firestoreQuery.whereEqualTo(filter.field(), filter.value());
+                case LESS_THAN_OR_EQUAL -> firestoreQuery.whereLessThanOrEqualTo(filter.field(), filter.value());
+            };
+        }
+        for (DocumentQuery.Ordering ordering : query.orderings()) {
+            firestoreQuery = firestoreQuery.orderBy(ordering.field(),
+                    ordering.descending() ? Query.Direction.DESCENDING : Query.Direction.ASCENDING);
+        }
+        if (query.limit() != null) {
+            firestoreQuery = firestoreQuery.limit(query.limit());
+        }
+        QuerySnapshot snapshot = firestoreQuery.get().get();
+        RequestMetricsService.recordQueryReads(snapshot.size());
+        List<StoredDocument<T>> documents = new ArrayList<>(snapshot.size());
+        for (QueryDocumentSnapshot doc : snapshot.getDocuments()) {
+            documents.add(new StoredDocument<>(doc.getId(), doc.toObject(type), doc.getUpdateTime()));
+        }
+        return documents;
+    }
+
+    @Override
+    public String newDocumentId(String collectionPath) {
+        return FirebaseService.getFirestore().collection(collectionPath).document().getId();
+    }
+
+    @Override
+    public void set(String documentPath, Object data) throws Exception {
+        documentRef(documentPath).set(data).get();
+        RequestMetricsService.recordWrites(1);
+    }
+
+    @Override
+    public void merge(String documentPath, Map<String, Object> fields) throws Exception {
+        documentRef(documentPath).set(toFirestoreFields(fields), SetOptions.merge()).get();
+        RequestMetricsService.recordWrites(1);
+    }
+
+    @Override
+    public void update(String documentPath, Map<String, Object> fields) throws Exception {
+        documentRef(documentPath).update(toFirestoreFields(fields)).get();
+        RequestMetricsService.recordWrites(1);
+    }
+
+    @Override
+    public void delete(String documentPath) throws Exception {
+        documentRef(documentPath).delete().get();
+        RequestMetricsService.recordWrites(1);
+    }
+
+    @Override
+    public List<String> listDocumentIds(String collectionPath) throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (DocumentReference docRef : FirebaseService.getFirestore().collection(collectionPath).listDocuments()) {
+            ids.add(docRef.getId());
+        }
+        RequestMetricsService.recordQueryReads(ids.size());
+        return ids;
+    }
+
+    @Override
+    public <T> T runTransaction(TransactionFunction<T> function) throws Exception {
+        return FirebaseService.createFirestoreTransaction(
+                transaction -> function.apply(new FirestoreDocumentStoreTransaction(transaction)));
+    }
+
+    private static DocumentReference documentRef(String documentPath) {
+        return FirebaseService.getFirestore().document(documentPath);
+    }
+
+    private static List<DocumentReference> documentRefs(List<String> documentPaths) {
+        Firestore db = FirebaseService.getFirestore();
+        List<DocumentReference> docRefs = new ArrayList<>(documentPaths.size());
+        for (String documentPath : documentPaths) {
+            docRefs.add(db.document(documentPath));
+        }
+        return docRefs;
+    }
+
+    private static <T> Optional<T> toObject(DocumentSnapshot snapshot, Class<T> type) {
+        if (!snapshot.exists()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(snapshot.toObject(type));
+    }
+
+    private static <T> List<Optional<T>> toObjects(List<DocumentSnapshot> snapshots, Class<T> type) {
+        List<Optional<T>> results = new ArrayList<>(snapshots.size());
+        for (DocumentSnapshot snapshot : snapshots) {
+            results.add(toObject(snapshot, type));
+        }
+        return results;
+    }
+
+    /**
+     * Copies the fields with every FieldTransform, at any depth, replaced by its FieldValue.
+     */
+    private static Map<String, Object> toFirestoreFields(Map<String, Object> fields) {
+        Map<String, Object> converted = new HashMap<>(fields.size());
+        fields.forEach((field, value) -> converted.put(field, toFirestoreValue(value)));
+        return converted;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object toFirestoreValue(Object value) {
+        if (value instanceof FieldTransform.Increment increment) {
+            return FieldValue.increment(increment.amount());
+        }
+        if (value instanceof FieldTransform.Delete) {
+            return FieldValue.delete();
+        }
+        if (value instanceof Map<?, ?> map) {
+            return toFirestoreFields((Map<String, Object>) map);
+        }
+        return value;
+    }
+
+    private static class FirestoreDocumentStoreTransaction implements DocumentStoreTransaction {
+        private final Transaction transaction;
+
+        private FirestoreDocumentStoreTransaction(Transaction transaction) {
+            this.transaction = transaction;
+        }
+
+        @Override
+        public <T> Optional<T> get(String documentPath, Class<T> type) throws Exception {
+            RequestMetricsService.recordReads(1);
+            return toObject(transaction.get(documentRef(documentPath)).get(), type);
+        }
+
+        @Override
+        public <T> List<Optional<T>> getAll(List<String> documentPaths, Class<T> type) throws Exception {
+            return toObjects(FirebaseService.getAllDocuments(documentRefs(documentPaths), Optional.of(transaction)), type);
+        }
+
+        @Override
+        public List<Optional<Timestamp>> getUpdateTimes(List<String> documentPaths) throws Exception {
+            List<DocumentSnapshot> snapshots = FirebaseService.getAllDocuments(documentRefs(documentPaths),
+                    Optional.of(transaction));
+            List<Optional<Timestamp>> updateTimes = new ArrayList<>(snapshots.size());
+            for (DocumentSnapshot snapshot : snapshots) {
+                updateTimes.add(snapshot.exists() ? Optional.ofNullable(snapshot.getUpdateTime()) : Optional.empty());
+            }
+            return updateTimes;
+        }
+
+        @Override
+        public void create(String documentPath, Object data) {
+            transaction.create(documentRef(documentPath), data);
+            RequestMetricsService.recordWrites(1);
+        }
+
+        @Override
+        public void set(String documentPath, Object data) {
+            transaction.set(documentRef(documentPath), data);
+            RequestMetricsService.recordWrites(1);
+        }
+
+        @Override
+        public void merge(String documentPath, Map<String, Object> fields) {
+            transaction.set(documentRef(documentPath), toFirestoreFields(fields), SetOptions.merge());
+            RequestMetricsService.recordWrites(1);
+        }
+
+        @Override
+        public void update(String documentPath, Map<String, Object> fields) {
+            transaction.update(documentRef(documentPath), toFirestoreFields(fields));
+            RequestMetricsService.recordWrites(1);
+        }
+
+        @Override
+        public void delete(String documentPath) {
+            transaction.delete(documentRef(documentPath));
+            RequestMetricsService.recordWrites(1);
+        }
+    }
+}
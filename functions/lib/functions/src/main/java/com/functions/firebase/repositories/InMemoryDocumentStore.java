@@ -0,0 +1,607 @@
+package com.functions.firebase.repositories;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.functions.firebase.exceptions.TransactionAbortedException;
+import com.functions.firebase.models.DocumentQuery;
+import com.functions.firebase.models.FieldTransform;
+import com.functions.firebase.models.LatencyProfile;
+import com.functions.firebase.models.StoredDocument;
+import com.functions.metrics.models.RequestMetrics;
+import com.functions.metrics.services.OperationBudgetService;
+import com.functions.metrics.services.RequestMetricsService;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.encoding.CustomClassMapper;
+
+/**
+ * Thread-safe in-memory DocumentStore for tests of store-backed repositories.
+ *
+ * Objects are mapped with Firestore's own CustomClassMapper, so field names, annotations and
+ * Timestamp fields behave as they do through DocumentSnapshot.toObject. Stored values are then
+ * normalised the way Firestore returns them (whole numbers as Long, floating point as Double,
+ * Dates as Timestamps), and every read maps a fresh copy so callers never share state with the
+ * store. {@code @DocumentId} properties are not populated, since there is no DocumentReference to
+ * take the ID from. Every write stamps the document with a strictly increasing update time.
+ * Merges, updates and FieldTransforms follow Firestore's rules, including an empty map replacing
+ * the field it is merged into. Transactions are optimistic: each read records the update time it
+ * saw, writes are buffered, and commit aborts (and the transaction is retried) if any document
+ * read has since changed - the same contention behaviour handlers see from Firestore under load.
+ * Reads, writes and transaction attempts are reported to RequestMetricsService and the operation
+ * budget is checked before each commit, as FirestoreDocumentStore does through FirebaseService.
+ */
+public class InMemoryDocumentStore implements DocumentStore {
+    public static final int DEFAULT_MAX_TRANSACTION_ATTEMPTS = 5;
+
+    public record Stats(long reads, long writes, long commits, long aborts) {
+    }
+
+    private static final String ID_CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+    private static final int ID_LENGTH = 20;
+
+    private record VersionedDocument(Map<String, Object> data, Timestamp updateTime) {
+    }
+
+    private enum WriteKind {
+        CREATE, SET, MERGE, UPDATE, DELETE
+    }
+
+    private record PendingWrite(String documentPath, Map<String, Object> data, WriteKind kind) {
+    }
+
+    private final ConcurrentSkipListMap<String, VersionedDocument> documents = new ConcurrentSkipListMap<>();
+    private final Object commitLock = new Object();
+    private final AtomicLong lastUpdateMicros = new AtomicLong();
+    private final Random idRandom = new Random();
+    private final LatencyProfile latency;
+    private final int maxTransactionAttempts;
+
+    private final AtomicLong reads = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicLong aborts = new AtomicLong();
+
+    public InMemoryDocumentStore() {
+        this(LatencyProfile.NONE, DEFAULT_MAX_TRANSACTION_ATTEMPTS);
+    }
+
+    public InMemoryDocumentStore(LatencyProfile latency) {
+        this(latency, DEFAULT_MAX_TRANSACTION_ATTEMPTS);
+    }
+
+    public InMemoryDocumentStore(LatencyProfile latency, int maxTransactionAttempts) {
+        if (maxTransactionAttempts <= 0) {
+            throw new IllegalArgumentException("maxTransactionAttempts must be positive");
+        }
+        this.latency = latency;
+        this.maxTransactionAttempts = maxTransactionAttempts;
+    }
+
+    @Override
+    public <T> Optional<T> get(String documentPath, Class<T> type) {
+        validateDocumentPath(documentPath);
+        simulateLatency(latency.read());
+        reads.incrementAndGet();
+        RequestMetricsService.recordReads(1);
+        return toObject(documents.get(documentPath), type);
+    }
+
+    @Override
+    public <T> List<Optional<T>> getAll(List<String> documentPaths, Class<T> type) {
+        documentPaths.forEach(InMemoryDocumentStore::validateDocumentPath);
+        simulateLatency(latency.read());
+        reads.addAndGet(documentPaths.size());
+        RequestMetricsService.recordReads(documentPaths.size());
+        List<Optional<T>> results = new ArrayList<>(documentPaths.size());
+        for (String documentPath : documentPaths) {
+            results.add(toObject(documents.get(documentPath), type));
+        }
+        return results;
+    }
+
+    @Override
+    public <T> List<StoredDocument<T>> query(DocumentQuery query, Class<T> type) {
+        String prefix = query.collectionPath() + "/";
+        simulateLatency(latency.read());
+        List<Map.Entry<String, VersionedDocument>> matches = new ArrayList<>();
+        for (Map.Entry<String, VersionedDocument> entry
+                : documents.subMap(prefix, prefix + Character.MAX_VALUE).entrySet()) {
+            if (!entry.getKey().substring(prefix.length()).contains("/")
+                    && matches(entry.getValue().data(), query)) {
+                matches.add(entry);
+            }
+        }
+        for (int i = query.orderings().size() - 1; i >= 0; i--) {
+            DocumentQuery.Ordering ordering = query.orderings().get(i);
+            Comparator<Map.Entry<String, VersionedDocument>> comparator = Comparator.comparing(
+                    entry -> getFieldPath(entry.getValue().data(), ordering.field()),
+                    InMemoryDocumentStore::compareValues);
+            matches.sort(ordering.descending() ? comparator.reversed() : comparator);
+        }
+        if (query.limit() != null && matches.size() > query.limit()) {
+            matches = matches.subList(0, query.limit());
+        }
+        reads.addAndGet(matches.size());
+        RequestMetricsService.recordQueryReads(matches.size());
+        List<StoredDocument<T>> results = new ArrayList<>(matches.size());
+        for (Map.Entry<String, VersionedDocument> entry : matches) {
+            results.add(new StoredDocument<>(entry.getKey().substring(prefix.length()),
+                    toObject(entry.getValue(), type).orElseThrow(), entry.getValue().updateTime()));
+        }
+        return results;
+    }
+
+    @Override
+    public String newDocumentId(String collectionPath) {
+        StringBuilder id = new StringBuilder(ID_LENGTH);
+        synchronized (idRandom) {
+            for (int i = 0; i < ID_LENGTH; i++) {
+                id.append(ID_CHARACTERS.charAt(idRandom.nextInt(ID_CHARACTERS.length())));
+            }
+        }
+        return id.toString();
+    }
+
+    @Override
+    public void set(String documentPath, Object data) {
+        applyWrites(List.of(new PendingWrite(documentPath, toMap(data), WriteKind.SET)));
+    }
+
+    @Override
+    public void merge(String documentPath, Map<String, Object> fields) {
+        applyWrites(List.of(new PendingWrite(documentPath, toMap(fields), WriteKind.MERGE)));
+    }
+
+    @Override
+    public void update(String documentPath, Map<String, Object> fields) {
+        applyWrites(List.of(new PendingWrite(documentPath, toMap(fields), WriteKind.UPDATE)));
+    }
+
+    @Override
+    public void delete(String documentPath) {
+        applyWrites(List.of(new PendingWrite(documentPath, null, WriteKind.DELETE)));
+    }
+
+    @Override
+    public List<String> listDocumentIds(String collectionPath) {
+        String prefix = collectionPath + "/";
+        simulateLatency(latency.read());
+        ConcurrentNavigableMap<String, VersionedDocument> children = documents.subMap(prefix, prefix + Character.MAX_VALUE);
+        List<String> ids = new ArrayList<>();
+        for (String documentPath : children.keySet()) {
+            String remainder = documentPath.substring(prefix.length());
+            if (!remainder.contains("/")) {
+                ids.add(remainder);
+            }
+        }
+        reads.addAndGet(ids.size());
+        RequestMetricsService.recordQueryReads(ids.size());
+        return ids;
+    }
+
+    @Override
+    public <T> T runTransaction(TransactionFunction<T> function) throws Exception {
+        RequestMetrics metrics = RequestMetricsService.current().orElse(null);
+        for (int attempt = 1; ; attempt++) {
+            InMemoryTransaction transaction = new InMemoryTransaction();
+            T result;
+            boolean hasWrites;
+            try (RequestMetricsService.TransactionScope scope = RequestMetricsService.bindTransaction(metrics)) {
+                result = function.apply(transaction);
+                OperationBudgetService.enforce(metrics);
+                hasWrites = scope.hasWrites();
+            }
+            simulateLatency(latency.commit());
+            try {
+                transaction.commit();
+                commits.incrementAndGet();
+                if (metrics != null && hasWrites) {
+                    metrics.markWritesCommitted();
+                }
+                return result;
+            } catch (TransactionAbortedException e) {
+                aborts.incrementAndGet();
+                if (attempt >= maxTransactionAttempts) {
+                    throw new TransactionAbortedException(
+                            "Transaction aborted after " + attempt + " attempts", e);
+                }
+            }
+        }
+    }
+
+    public Stats getStats() {
+        return new Stats(reads.get(), writes.get(), commits.get(), aborts.get());
+    }
+
+    public void clear() {
+        synchronized (commitLock) {
+            documents.clear();
+        }
+    }
+
+    private void applyWrites(List<PendingWrite> pendingWrites) {
+        pendingWrites.forEach(write -> validateDocumentPath(write.documentPath()));
+        simulateLatency(latency.write());
+        commitWrites(pendingWrites);
+        RequestMetricsService.recordWrites(pendingWrites.size());
+    }
+
+    private void commitWrites(List<PendingWrite> pendingWrites) {
+        synchronized (commitLock) {
+            // Stage every write first so a failing update leaves the store untouched.
+            Map<String, Optional<Map<String, Object>>> staged = new LinkedHashMap<>();
+            for (PendingWrite write : pendingWrites) {
+                Optional<Map<String, Object>> current = staged.containsKey(write.documentPath())
+                        ? staged.get(write.documentPath())
+                        : Optional.ofNullable(documents.get(write.documentPath())).map(VersionedDocument::data);
+                staged.put(write.documentPath(), apply(write, current));
+            }
+            Timestamp updateTime = nextUpdateTime();
+            for (Map.Entry<String, Optional<Map<String, Object>>> entry : staged.entrySet()) {
+                if (entry.getValue().isPresent()) {
+                    documents.put(entry.getKey(), new VersionedDocument(entry.getValue().get(), updateTime));
+                } else {
+                    documents.remove(entry.getKey());
+                }
+            }
+            writes.addAndGet(pendingWrites.size());
+        }
+    }
+
+    /**
+     * A commit time later than every earlier one, so update times order writes even when the
+     * clock has not moved on.
+     */
+    private Timestamp nextUpdateTime() {
+        long nowMicros = System.currentTimeMillis() * 1000;
+        long micros = lastUpdateMicros.updateAndGet(last -> Math.max(last + 1, nowMicros));
+        return Timestamp.ofTimeMicroseconds(micros);
+    }
+
+    private static Optional<Map<String, Object>> apply(PendingWrite write, Optional<Map<String, Object>> current) {
+        switch (write.kind()) {
+            case DELETE:
+                return Optional.empty();
+            case CREATE:
+                if (current.isPresent()) {
+                    throw new IllegalStateException("Document already exists: " + write.documentPath());
+                }
+                return Optional.of(mergeFields(new HashMap<>(), write.data()));
+            case SET:
+                return Optional.of(mergeFields(new HashMap<>(), write.data()));
+            case MERGE:
+                return Optional.of(mergeFields(current.map(InMemoryDocumentStore::copyMap).orElseGet(HashMap::new),
+                        write.data()));
+            case UPDATE:
+            default:
+                if (current.isEmpty()) {
+                    throw new IllegalStateException("No document to update: " + write.documentPath());
+                }
+                Map<String, Object> updated = copyMap(current.get());
+                for (Map.Entry<String, Object> field : write.data().entrySet()) {
+                    setFieldPath(updated, field.getKey(), field.getValue());
+                }
+                return Optional.of(updated);
+        }
+    }
+
+    /**
+     * Set-with-merge: nested maps are merged key by key, but an empty map is a value like any
+     * other and replaces whatever the field held.
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> mergeFields(Map<String, Object> target, Map<String, Object> fields) {
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            Object value = field.getValue();
+            Object existing = target.get(field.getKey());
+            if (value instanceof Map<?, ?> map && !map.isEmpty()) {
+                Map<String, Object> child = existing instanceof Map<?, ?> existingMap
+                        ? (Map<String, Object>) existingMap
+                        : new HashMap<>();
+                target.put(field.getKey(), mergeFields(child, (Map<String, Object>) map));
+            } else {
+                putValue(target, field.getKey(), value);
+            }
+        }
+        return target;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void setFieldPath(Map<String, Object> document, String fieldPath, Object value) {
+        String[] segments = fieldPath.split("\\.");
+        Map<String, Object> current = document;
+        for (int i = 0; i < segments.length - 1; i++) {
+            Object child = current.get(segments[i]);
+            if (!(child instanceof Map)) {
+                child = new HashMap<String, Object>();
+                current.put(segments[i], child);
+            }
+            current = (Map<String, Object>) child;
+        }
+        putValue(current, segments[segments.length - 1], value);
+    }
+
+    /**
+     * Stores a plain value, or applies a FieldTransform to the field's current value.
+     */
+    private static void putValue(Map<String, Object> target, String field, Object value) {
+        if (value instanceof FieldTransform.Delete) {
+            target.remove(field);
+        } else if (value instanceof FieldTransform.Increment increment) {
+            Object existing = target.get(field);
+            if (existing instanceof Double number) {
+                target.put(field, number + increment.amount());
+            } else if (existing instanceof Long number) {
+                target.put(field, number + increment.amount());
+            } else {
+                target.put(field, increment.amount());
+            }
+        } else {
+            target.put(field, resolveTransforms(value));
+        }
+    }
+
+    /**
+     * Transforms nested inside a replaced value act on a field that does not exist yet.
+     */
+    @SuppressWarnings("unchecked")
+    private static Object resolveTransforms(Object value) {
+        if (!(value instanceof Map<?, ?> map)) {
+            return value;
+        }
+        Map<String, Object> resolved = new HashMap<>();
+        ((Map<String, Object>) map).forEach((field, child) -> putValue(resolved, field, child));
+        return resolved;
+    }
+
+    private static Object getFieldPath(Map<String, Object> document, String fieldPath) {
+        Object current = document;
+        for (String segment : fieldPath.split("\\.")) {
+            if (!(current instanceof Map<?, ?> map)) {
+                return null;
+            }
+            current = map.get(segment);
+        }
+        return current;
+    }
+
+    private static boolean matches(Map<String, Object> document, DocumentQuery query) {
+        for (DocumentQuery.Filter filter : query.filters()) {
+            Object value = getFieldPath(document, filter.field());
+            Object expected = copyValue(filter.value());
+            if (value == null) {
+                return false;
+            }
+            boolean match = switch (filter.operator()) {
+                case EQUAL -> compareValues(value, expected) == 0;
+                case LESS_THAN_OR_EQUAL -> comparable(value, expected) && compareValues(value, expected) <= 0;
+            };
+            if (!match) {
+                return false;
+            }
+        }
+        for (DocumentQuery.Ordering ordering : query.orderings()) {
+            if (getFieldPath(document, ordering.field()) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean comparable(Object a, Object b) {
+        return (a instanceof Number && b instanceof Number) || (a != null && b != null && a.getClass() == b.getClass());
+    }
+
+    /**
+     * Orders numbers by value and strings, Timestamps and booleans naturally; values of different
+     * types only compare equal if they are equal.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static int compareValues(Object a, Object b) {
+        if (a instanceof Number x && b instanceof Number y) {
+            return Double.compare(x.doubleValue(), y.doubleValue());
+        }
+        if (comparable(a, b) && a instanceof Comparable comparableA) {
+            return comparableA.compareTo(b);
+        }
+        if (Objects.equals(a, b)) {
+            return 0;
+        }
+        return a == null ? -1 : b == null ? 1 : a.getClass().getName().compareTo(b.getClass().getName());
+    }
+
+    private static Map<String, Object> copyMap(Map<?, ?> source) {
+        Map<String, Object> copy = new HashMap<>(source.size());
+        for (Map.Entry<?, ?> entry : source.entrySet()) {
+            copy.put(String.valueOf(entry.getKey()), copyValue(entry.getValue()));
+        }
+        return copy;
+    }
+
+    /**
+     * Deep copy of a plain value, with numbers and dates converted to the types Firestore reads
+     * them back as.
+     */
+    private static Object copyValue(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            return copyMap(map);
+        }
+        if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            list.forEach(element -> copy.add(copyValue(element)));
+            return copy;
+        }
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof Float) {
+            return ((Float) value).doubleValue();
+        }
+        if (value instanceof Date date) {
+            return Timestamp.of(date);
+        }
+        return value;
+    }
+
+    private static Map<String, Object> toMap(Object data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Document data cannot be null");
+        }
+        if (data instanceof Map<?, ?> fields) {
+            return toFields(fields);
+        }
+        Object plain = CustomClassMapper.convertToPlainJavaTypes(data);
+        if (!(plain instanceof Map<?, ?> map)) {
+            throw new IllegalArgumentException("Document data must map to fields: " + data.getClass().getName());
+        }
+        return copyMap(map);
+    }
+
+    /**
+     * Like toMap, but for field maps that may carry FieldTransforms, which the mapper cannot
+     * convert and are kept for the write to apply.
+     */
+    private static Map<String, Object> toFields(Map<?, ?> fields) {
+        Map<String, Object> converted = new HashMap<>(fields.size());
+        for (Map.Entry<?, ?> field : fields.entrySet()) {
+            Object value = field.getValue();
+            if (value instanceof Map<?, ?> map) {
+                value = toFields(map);
+            } else if (!(value instanceof FieldTransform)) {
+                value = copyValue(CustomClassMapper.convertToPlainJavaTypes(value));
+            }
+            converted.put(String.valueOf(field.getKey()), value);
+        }
+        return converted;
+    }
+
+    private static <T> Optional<T> toObject(VersionedDocument document, Class<T> type) {
+        if (document == null) {
+            return Optional.empty();
+        }
+        return Optional.of(CustomClassMapper.convertToCustomClass(copyMap(document.data()), type, null));
+    }
+
+    private static void validateDocumentPath(String documentPath) {
+        if (documentPath == null || documentPath.isBlank() || documentPath.split("/").length % 2 != 0) {
+            throw new IllegalArgumentException("Invalid document path: " + documentPath);
+        }
+    }
+
+    private static void simulateLatency(Duration duration) {
+        if (duration.isZero() || duration.isNegative()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration.toMillis(), duration.toNanosPart() % 1_000_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while simulating document store latency", e);
+        }
+    }
+
+    private class InMemoryTransaction implements DocumentStoreTransaction {
+        private final Map<String, Optional<Timestamp>> readVersions = new HashMap<>();
+        private final List<PendingWrite> pendingWrites = new ArrayList<>();
+
+        @Override
+        public <T> Optional<T> get(String documentPath, Class<T> type) {
+            return getAll(List.of(documentPath), type).get(0);
+        }
+
+        @Override
+        public <T> List<Optional<T>> getAll(List<String> documentPaths, Class<T> type) {
+            List<Optional<T>> results = new ArrayList<>(documentPaths.size());
+            for (VersionedDocument document : read(documentPaths)) {
+                results.add(toObject(document, type));
+            }
+            return results;
+        }
+
+        @Override
+        public List<Optional<Timestamp>> getUpdateTimes(List<String> documentPaths) {
+            List<Optional<Timestamp>> results = new ArrayList<>(documentPaths.size());
+            for (VersionedDocument document : read(documentPaths)) {
+                results.add(Optional.ofNullable(document).map(VersionedDocument::updateTime));
+            }
+            return results;
+        }
+
+        @Override
+        public void create(String documentPath, Object data) {
+            write(new PendingWrite(documentPath, toMap(data), WriteKind.CREATE));
+        }
+
+        @Override
+        public void set(String documentPath, Object data) {
+            write(new PendingWrite(documentPath, toMap(data), WriteKind.SET));
+        }
+
+        @Override
+        public void merge(String documentPath, Map<String, Object> fields) {
+            write(new PendingWrite(documentPath, toMap(fields), WriteKind.MERGE));
+        }
+
+        @Override
+        public void update(String documentPath, Map<String, Object> fields) {
+            write(new PendingWrite(documentPath, toMap(fields), WriteKind.UPDATE));
+        }
+
+        @Override
+        public void delete(String documentPath) {
+            write(new PendingWrite(documentPath, null, WriteKind.DELETE));
+        }
+
+        private List<VersionedDocument> read(List<String> documentPaths) {
+            if (!pendingWrites.isEmpty()) {
+                throw new IllegalStateException(
+                        "Firestore transactions require all reads to be executed before all writes.");
+            }
+            documentPaths.forEach(InMemoryDocumentStore::validateDocumentPath);
+            simulateLatency(latency.read());
+            reads.addAndGet(documentPaths.size());
+            RequestMetricsService.recordReads(documentPaths.size());
+            List<VersionedDocument> results = new ArrayList<>(documentPaths.size());
+            for (String documentPath : documentPaths) {
+                VersionedDocument document = documents.get(documentPath);
+                readVersions.putIfAbsent(documentPath,
+                        Optional.ofNullable(document).map(VersionedDocument::updateTime));
+                results.add(document);
+            }
+            return results;
+        }
+
+        private void write(PendingWrite write) {
+            validateDocumentPath(write.documentPath());
+            pendingWrites.add(write);
+            RequestMetricsService.recordWrites(1);
+        }
+
+        private void commit() {
+            synchronized (commitLock) {
+                for (Map.Entry<String, Optional<Timestamp>> read : readVersions.entrySet()) {
+                    Optional<Timestamp> current = Optional.ofNullable(documents.get(read.getKey()))
+                            .map(VersionedDocument::updateTime);
+                    if (!current.equals(read.getValue())) {
+                        throw new TransactionAbortedException("Document changed since it was read: " + read.getKey());
+                    }
+                }
+                if (!pendingWrites.isEmpty()) {
+                    commitWrites(pendingWrites);
+                }
+            }
+        }
+    }
+}
@@ -3,16 +3,32 @@ package com.functions.firebase.services;
 import static com.functions.utils.JavaUtils.objectMapper;
 
 import java.io.FileInputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.functions.firebase.repositories.DocumentStore;
+import com.functions.firebase.repositories.FirestoreDocumentStore;
 import com.functions.global.handlers.Global;
+import com.functions.metrics.models.RequestMetrics;
+import com.functions.metrics.services.OperationBudgetService;
+import com.functions.metrics.services.RequestMetricsService;
+import com.functions.metrics.services.StartupProfiler;
 import com.google.api.core.ApiFuture;
 import com.google.auth.oauth2.GoogleCredentials;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
 import com.google.cloud.firestore.Firestore;
 import com.google.cloud.firestore.Transaction;
 import com.google.cloud.logging.Logging;
@@ -22,8 +38,6 @@ import com.google.firebase.FirebaseOptions;
 import com.google.firebase.cloud.FirestoreClient;
 import com.posthog.java.PostHog;
 
-import lombok.Getter;
-
 public class FirebaseService {
 
     public static class CollectionPaths {
@@ -35,6 +49,17 @@ public class FirebaseService {
         public static final String USERS = "Users";
         public static final String EVENTS_METADATA = "EventsMetadata";
         public static final String RECURRING_EVENTS = "RecurringEvents";
+        public static final String EVENT_LOCATION_INDEX = "EventLocationIndex";
+        public static final String PROCESSED_STRIPE_OBJECTS = "ProcessedStripeObjects";
+        public static final String COUNTER_SHARDS = "CounterShards";
+        public static final String INVENTORY_HOLDS = "InventoryHolds";
+        public static final String STRIPE_WEBHOOK_EVENTS = "StripeWebhookEvents";
+        public static final String STRIPE_WEBHOOK_QUEUE = "StripeWebhookQueue";
+        public static final String STRIPE_WEBHOOK_DEAD_LETTERS = "StripeWebhookDeadLetters";
+        public static final String EMAIL_OUTBOX = "EmailOutbox";
+        public static final String EVENT_ATTENDEE_SUMMARIES = "EventAttendeeSummaries";
+        public static final String EVENT_SALES_AGGREGATES = "EventSalesAggregates";
+        public static final String WRAPPED_PRECOMPUTE_CHECKPOINTS = "WrappedPrecomputeCheckpoints";
         public static final List<String> EVENT_PATHS = List.of(
                 "Events/Active/Public",
                 "Events/Active/Private",
@@ -54,44 +79,66 @@ public class FirebaseService {
     public static final String REGION = "australia-southeast1";
 
     private static final Logger logger = LoggerFactory.getLogger(FirebaseService.class);
+    // Post-commit actions of the createFirestoreTransaction callbacks currently running, by transaction
+    private static final Map<Transaction, List<Runnable>> afterCommitActions = new ConcurrentHashMap<>();
+    private static final int GET_ALL_CHUNK_SIZE = 100;
+    private static final String POSTHOG_HOST = "https://app.posthog.com";
 
-    private static Firestore db;
-    @Getter
-    private static Logging logging;
-    @Getter
-    private static String posthogApiKey;
-    private static String posthogHost;
-    @Getter
-    private static String firebaseProject;
-    @Getter
-    private static PostHog posthog;
-
-    static {
-        try {
-            if (FirebaseApp.getApps().isEmpty()) {
-                initialize();
+    private static volatile DocumentStore documentStore;
+
+    /**
+     * Firebase is initialized on first use rather than when FirebaseService is loaded, so a cold
+     * instance only pays for it once a request actually touches Firestore.
+     */
+    private static class FirestoreHolder {
+        private static final Firestore db = initializeFirestore();
+
+        private static Firestore initializeFirestore() {
+            try {
+                return StartupProfiler.time("firebase", FirebaseService::initialize);
+            } catch (Exception e) {
+                logger.error("Error initializing FirebaseService: " + e.getMessage());
+                return null;
+            }
+        }
+    }
+
+    private static class LoggingHolder {
+        private static final Logging logging = initializeLogging();
+
+        private static Logging initializeLogging() {
+            try {
+                return StartupProfiler.time("cloudLogging", () -> LoggingOptions.getDefaultInstance().getService());
+            } catch (Exception e) {
+                logger.error("Error initializing Cloud Logging: " + e.getMessage());
+                return null;
+            }
+        }
+    }
+
+    private static class PostHogHolder {
+        private static final PostHog posthog = initializePostHog();
+
+        private static PostHog initializePostHog() {
+            try {
+                return StartupProfiler.time("posthog",
+                        () -> new PostHog.Builder(getPosthogApiKey()).host(POSTHOG_HOST).build());
+            } catch (Exception e) {
+                logger.error("Error initializing PostHog: " + e.getMessage());
+                return null;
             }
-        } catch (Exception e) {
-            logger.error("Error initializing FirebaseService: " + e.getMessage());
         }
     }
 
-    private static void initialize() throws Exception {
+    private static Firestore initialize() throws Exception {
         String credentialsPath = "functions_key.json";
-        posthogApiKey = Global.getEnv("POSTHOG_API_KEY");
-        posthogHost = "https://app.posthog.com";
-        firebaseProject = Global.getEnv("PROJECT_NAME");
+        String firebaseProject = getFirebaseProject();
 
         if (firebaseProject == null) {
             logger.error("Firebase project name is not set in the environment variables.");
             throw new Exception("Firebase project name is not set in the environment variables.");
         }
 
-        FileInputStream serviceAccount = new FileInputStream(credentialsPath);
-        FirebaseOptions options = FirebaseOptions.builder()
-                .setCredentials(GoogleCredentials.fromStream(serviceAccount))
-                .setProjectId(firebaseProject)
-                .build();
         boolean hasBeenInitialised = false;
         List<FirebaseApp> firebaseApps = FirebaseApp.getApps();
         for (FirebaseApp app : firebaseApps) {
@@ -100,29 +147,183 @@ public class FirebaseService {
             }
         }
         if (!hasBeenInitialised) {
+            FileInputStream serviceAccount = new FileInputStream(credentialsPath);
+            FirebaseOptions options = FirebaseOptions.builder()
+                    .setCredentials(GoogleCredentials.fromStream(serviceAccount))
+                    .setProjectId(firebaseProject)
+                    .build();
             FirebaseApp.initializeApp(options);
         }
 
         if (FirebaseApp.getApps().isEmpty()) {
             throw new Exception("Firebase not initialized");
         }
-        db = FirestoreClient.getFirestore();
-        logging = LoggingOptions.getDefaultInstance().getService();
-
-        posthog = new PostHog.Builder(posthogApiKey).host(posthogHost).build();
+        return FirestoreClient.getFirestore();
     }
 
     public static Firestore getFirestore() {
-        return db;
+        return FirestoreHolder.db;
+    }
+
+    public static Logging getLogging() {
+        return LoggingHolder.logging;
+    }
+
+    public static PostHog getPosthog() {
+        return PostHogHolder.posthog;
+    }
+
+    public static String getPosthogApiKey() {
+        return Global.getEnv("POSTHOG_API_KEY");
+    }
+
+    public static String getFirebaseProject() {
+        return Global.getEnv("PROJECT_NAME");
+    }
+
+    /**
+     * The DocumentStore that store-backed repositories read and write through. Defaults to Firestore;
+     * tests swap in an InMemoryDocumentStore to run those repositories without a live project.
+     */
+    public static DocumentStore getDocumentStore() {
+        DocumentStore store = documentStore;
+        if (store == null) {
+            synchronized (FirebaseService.class) {
+                if (documentStore == null) {
+                    documentStore = new FirestoreDocumentStore();
+                }
+                store = documentStore;
+            }
+        }
+        return store;
+    }
+
+    public static void setDocumentStore(DocumentStore store) {
+        documentStore = store;
+    }
+
+    /**
+     * Notified as each chunk of a bounded {@link #getAllDocuments(List, int, ChunkProgressListener)}
+     * read completes.
+     */
+    @FunctionalInterface
+    public interface ChunkProgressListener {
+        ChunkProgressListener NONE = (loadedChunks, totalChunks) -> {
+        };
+
+        void onChunkLoaded(int loadedChunks, int totalChunks);
+    }
+
+    /**
+     * Reads documents with Firestore getAll in chunks of GET_ALL_CHUNK_SIZE, issuing every chunk
+     * before waiting so a multi-document read costs one round trip per chunk at most. Snapshots are
+     * returned in the same order as {@code docRefs}.
+     *
+     * @param docRefs     The document references to read
+     * @param transaction Optional transaction to read within
+     * @return Snapshots in input order, including non-existent documents
+     */
+    public static List<DocumentSnapshot> getAllDocuments(List<DocumentReference> docRefs,
+            Optional<Transaction> transaction) throws Exception {
+        List<ApiFuture<List<DocumentSnapshot>>> chunkFutures = new ArrayList<>();
+        for (int start = 0; start < docRefs.size(); start += GET_ALL_CHUNK_SIZE) {
+            DocumentReference[] chunk = docRefs.subList(start, Math.min(start + GET_ALL_CHUNK_SIZE, docRefs.size()))
+                    .toArray(DocumentReference[]::new);
+            chunkFutures.add(transaction.isPresent() ? transaction.get().getAll(chunk) : getFirestore().getAll(chunk));
+        }
+
+        RequestMetricsService.recordReads(docRefs.size());
+
+        List<DocumentSnapshot> snapshots = new ArrayList<>(docRefs.size());
+        for (ApiFuture<List<DocumentSnapshot>> chunkFuture : chunkFutures) {
+            snapshots.addAll(chunkFuture.get());
+        }
+        return snapshots;
+    }
+
+    /**
+     * Non-transactional getAll for large fan-outs: like {@link #getAllDocuments(List, Optional)} but
+     * with at most {@code maxInFlight} chunks outstanding, so thousands of documents are read in a
+     * sliding window of round trips rather than all at once or one by one.
+     *
+     * @param docRefs     The document references to read
+     * @param maxInFlight Maximum concurrent getAll chunks
+     * @param listener    Notified after each chunk completes
+     * @return Snapshots in input order, including non-existent documents
+     */
+    public static List<DocumentSnapshot> getAllDocuments(List<DocumentReference> docRefs, int maxInFlight,
+            ChunkProgressListener listener) throws Exception {
+        int totalChunks = (docRefs.size() + GET_ALL_CHUNK_SIZE - 1) / GET_ALL_CHUNK_SIZE;
+        Deque<ApiFuture<List<DocumentSnapshot>>> inFlight = new ArrayDeque<>();
+        List<DocumentSnapshot> snapshots = new ArrayList<>(docRefs.size());
+        int loadedChunks = 0;
+
+        for (int start = 0; start < docRefs.size(); start += GET_ALL_CHUNK_SIZE) {
+            if (inFlight.size() >= Math.max(1, maxInFlight)) {
+                snapshots.addAll(inFlight.removeFirst().get());
+                listener.onChunkLoaded(++loadedChunks, totalChunks);
+            }
+            DocumentReference[] chunk = docRefs.subList(start, Math.min(start + GET_ALL_CHUNK_SIZE, docRefs.size()))
+                    .toArray(DocumentReference[]::new);
+            inFlight.addLast(getFirestore().getAll(chunk));
+        }
+        while (!inFlight.isEmpty()) {
+            snapshots.addAll(inFlight.removeFirst().get());
+            listener.onChunkLoaded(++loadedChunks, totalChunks);
+        }
+
+        RequestMetricsService.recordReads(docRefs.size());
+        return snapshots;
+    }
+
+    /**
+     * Runs {@code action} once the transaction has committed, for side effects such as cache
+     * invalidation that must not happen before the write is visible. Actions registered by an
+     * attempt that is aborted and retried are dropped, as are those of a transaction that fails.
+     * Outside a {@link #createFirestoreTransaction} callback the action runs immediately.
+     */
+    public static void runAfterCommit(Transaction transaction, Runnable action) {
+        List<Runnable> actions = afterCommitActions.get(transaction);
+        if (actions == null) {
+            action.run();
+            return;
+        }
+        actions.add(action);
     }
 
     public static <T> T createFirestoreTransaction(Transaction.Function<T> consumer) throws Exception {
         Firestore db = FirebaseService.getFirestore();
-        ApiFuture<T> futureTransaction = db.runTransaction(consumer);
+        // Transaction callbacks run on Firestore executor threads, so carry the request's metrics across.
+        RequestMetrics metrics = RequestMetricsService.current().orElse(null);
+        List<Runnable> afterCommit = Collections.synchronizedList(new ArrayList<>());
+        AtomicBoolean hasWrites = new AtomicBoolean();
+        ApiFuture<T> futureTransaction = db.runTransaction(transaction -> {
+            try (RequestMetricsService.TransactionScope scope = RequestMetricsService.bindTransaction(metrics)) {
+                // A retry runs the callback again from the start, so forget the aborted attempt's actions.
+                afterCommit.clear();
+                afterCommitActions.put(transaction, afterCommit);
+                try {
+                    T result = consumer.updateCallback(transaction);
+                    // Checked before the commit, so a FAIL-mode budget rolls the writes back rather than
+                    // failing the request after they have landed.
+                    OperationBudgetService.enforce(metrics);
+                    hasWrites.set(scope.hasWrites());
+                    return result;
+                } finally {
+                    afterCommitActions.remove(transaction);
+                }
+            }
+        });
         try {
             // Wait for the transaction to complete
             T result = futureTransaction.get(30, TimeUnit.SECONDS);
             logger.info("Transaction completed with result: " + result);
+            if (metrics != null && hasWrites.get()) {
+                metrics.markWritesCommitted();
+            }
+            for (Runnable action : afterCommit) {
+                action.run();
+            }
             return result;
         } catch (ExecutionException e) {
             // Unwrap the ExecutionException to expose the original exception
@@ -2,6 +2,7 @@ package com.functions.forms.repositories;
 
 import com.functions.firebase.services.FirebaseService;
 import com.functions.forms.models.FormResponse;
+import com.functions.metrics.services.RequestMetricsService;
 import com.google.cloud.firestore.DocumentReference;
 import com.google.cloud.firestore.DocumentSnapshot;
 import com.google.cloud.firestore.Firestore;
@@ -50,6 +51,7 @@ public class FormsRepository {
                 DocumentReference docRef = db.document(path + "/" + formId + "/"
                         + eventId + "/" + formResponseId);
                 DocumentSnapshot maybeDocSnapshot = docRef.get().get();
+                RequestMetricsService.recordReads(1);
                 if (maybeDocSnapshot.exists()) {
                     logger.info("Found form response document - formId: {}, eventId: {}, formResponseId: {}, path: {}",
                             formId, eventId, formResponseId, path);
@@ -79,6 +81,7 @@ public class FormsRepository {
                         + formResponseId;
                 DocumentReference docRef = db.document(docPath);
                 transaction.get().delete(docRef);
+                RequestMetricsService.recordWrites(1);
             } else {
                 DocumentSnapshot formResponseSnapshot =
                         findFormResponseDocumentSnapshot(formId, eventId,
@@ -88,6 +91,7 @@ public class FormsRepository {
                     DocumentReference docRef =
                             formResponseSnapshot.getReference();
                     docRef.delete().get();
+                    RequestMetricsService.recordWrites(1);
                     logger.info("Deleted temporary form response - formId: {}, eventId: {}, formResponseId: {}",
                             formId, eventId, formResponseId);
                 } else {
@@ -131,6 +135,7 @@ public class FormsRepository {
                         + formResponseId;
                 DocumentReference docRef = db.document(docPath);
                 DocumentSnapshot snapshot = transaction.get().get(docRef).get();
+                RequestMetricsService.recordReads(1);
 
                 if (!snapshot.exists()) {
                     throw new Exception("Temporary form response not found");
@@ -174,8 +179,10 @@ public class FormsRepository {
 
             if (transaction.isPresent()) {
                 transaction.get().set(docRef, formResponse);
+                RequestMetricsService.recordWrites(1);
             } else {
                 docRef.set(formResponse).get();
+                RequestMetricsService.recordWrites(1);
             }
 
             logger.info("Saved submitted form response - formId: {}, eventId: {}, formResponseId: {}",
@@ -210,6 +217,7 @@ public class FormsRepository {
 
             DocumentReference docRef = db.document(docPath);
             docRef.set(formResponse).get();
+            RequestMetricsService.recordWrites(1);
 
             logger.info("Saved temporary form response - formId: {}, eventId: {}, formResponseId: {}",
                     formResponse.getFormId(), formResponse.getEventId(),
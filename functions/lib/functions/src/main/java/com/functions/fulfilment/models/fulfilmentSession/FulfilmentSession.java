@@ -67,9 +67,22 @@ public abstract class FulfilmentSession {
      * instantiate.
      */
     public static FulfilmentSession fromFirestore(DocumentSnapshot snapshot) {
+        Map<String, Object> data = snapshot.getData();
+        if (data == null) {
+            throw new IllegalArgumentException("Fulfilment session document does not exist: " + snapshot.getId());
+        }
+        return fromFirestoreData(data);
+    }
+
+    /**
+     * Builds a FulfilmentSession from the raw field map of a Firestore document, as returned by
+     * DocumentSnapshot.getData(). Split out from fromFirestore so the mapping can be exercised
+     * without a live DocumentSnapshot.
+     */
+    public static FulfilmentSession fromFirestoreData(Map<String, Object> data) {
         // Read the fulfilmentEntityMap directly from Firestore
         Map<String, Object> rawEntityMap =
-                (Map<String, Object>) snapshot.get("fulfilmentEntityMap");
+                (Map<String, Object>) data.get("fulfilmentEntityMap");
         if (rawEntityMap == null) {
             throw new IllegalArgumentException(
                     "fulfilmentEntityMap is missing in Firestore document");
@@ -119,7 +132,7 @@ public abstract class FulfilmentSession {
         }
 
         // Read the fulfilmentEntityIds directly from Firestore
-        List<String> entityIds = (List<String>) snapshot.get("fulfilmentEntityIds");
+        List<String> entityIds = (List<String>) data.get("fulfilmentEntityIds");
         if (entityIds == null) {
             throw new IllegalArgumentException(
                     "fulfilmentEntityIds is missing in Firestore document");
@@ -127,61 +140,66 @@ public abstract class FulfilmentSession {
 
         // Get the session type from Firestore
         FulfilmentSessionType sessionType =
-                FulfilmentSessionType.valueOf((String) snapshot.get("type"));
+                FulfilmentSessionType.valueOf((String) data.get("type"));
 
         // Create the appropriate session type
         switch (sessionType) {
             case CHECKOUT:
                 Integer numTicketsCheckout = null;
-                Long numTicketsLongCheckout = snapshot.getLong("numTickets");
+                Long numTicketsLongCheckout = getLong(data, "numTickets");
                 if (numTicketsLongCheckout != null) {
                     numTicketsCheckout = numTicketsLongCheckout.intValue();
                 }
                 return CheckoutFulfilmentSession.builder()
-                        .eventData(objectMapper.convertValue(snapshot.get("eventData"),
+                        .eventData(objectMapper.convertValue(data.get("eventData"),
                                 EventData.class))
                         .fulfilmentSessionStartTime(
-                                snapshot.getTimestamp("fulfilmentSessionStartTime"))
+                                (Timestamp) data.get("fulfilmentSessionStartTime"))
                         .fulfilmentEntityMap(entityMap).fulfilmentEntityIds(entityIds)
                         .numTickets(numTicketsCheckout)
-                        .eventTicketTypeId(snapshot.getString("eventTicketTypeId"))
-                        .eventTicketTypeName(snapshot.getString("eventTicketTypeName"))
+                        .eventTicketTypeId((String) data.get("eventTicketTypeId"))
+                        .eventTicketTypeName((String) data.get("eventTicketTypeName"))
                         .build();
             case BOOKING_APPROVAL:
                 Integer numTicketsBookingApproval = null;
-                Long numTicketsLongBookingApproval = snapshot.getLong("numTickets");
+                Long numTicketsLongBookingApproval = getLong(data, "numTickets");
                 if (numTicketsLongBookingApproval != null) {
                     numTicketsBookingApproval = numTicketsLongBookingApproval.intValue();
                 }
                 return BookingApprovalFulfilmentSession.builder()
-                        .eventData(objectMapper.convertValue(snapshot.get("eventData"),
+                        .eventData(objectMapper.convertValue(data.get("eventData"),
                                 EventData.class))
                         .fulfilmentSessionStartTime(
-                                snapshot.getTimestamp("fulfilmentSessionStartTime"))
+                                (Timestamp) data.get("fulfilmentSessionStartTime"))
                         .fulfilmentEntityMap(entityMap).fulfilmentEntityIds(entityIds)
                         .numTickets(numTicketsBookingApproval)
-                        .eventTicketTypeId(snapshot.getString("eventTicketTypeId"))
-                        .eventTicketTypeName(snapshot.getString("eventTicketTypeName"))
+                        .eventTicketTypeId((String) data.get("eventTicketTypeId"))
+                        .eventTicketTypeName((String) data.get("eventTicketTypeName"))
                         .build();
             case WAITLIST:
                 Integer numTicketsWaitlist = null;
-                Long numTicketsLongWaitlist = snapshot.getLong("numTickets");
+                Long numTicketsLongWaitlist = getLong(data, "numTickets");
                 // Firestore does not separate Ints vs Longs 
                 if (numTicketsLongWaitlist != null) {
                     numTicketsWaitlist = numTicketsLongWaitlist.intValue();
                 }
                 return WaitlistFulfilmentSession.builder()
-                        .eventData(objectMapper.convertValue(snapshot.get("eventData"), 
+                        .eventData(objectMapper.convertValue(data.get("eventData"), 
                             EventData.class))
                         .fulfilmentSessionStartTime(
-                            snapshot.getTimestamp("fulfilmentSessionStartTime"))
+                            (Timestamp) data.get("fulfilmentSessionStartTime"))
                         .fulfilmentEntityMap(entityMap).fulfilmentEntityIds(entityIds)
                         .numTickets(numTicketsWaitlist)
-                        .eventTicketTypeId(snapshot.getString("eventTicketTypeId"))
+                        .eventTicketTypeId((String) data.get("eventTicketTypeId"))
                         .build();
             default:
                 throw new IllegalArgumentException(
                         "Unknown FulfilmentSession type: " + sessionType);
         }
     }
+
+    private static Long getLong(Map<String, Object> data, String field) {
+        Object value = data.get(field);
+        return value instanceof Number ? ((Number) value).longValue() : null;
+    }
 }
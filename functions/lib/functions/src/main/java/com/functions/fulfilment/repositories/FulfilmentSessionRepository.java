@@ -2,6 +2,7 @@ package com.functions.fulfilment.repositories;
 
 import com.functions.firebase.services.FirebaseService;
 import com.functions.fulfilment.models.fulfilmentSession.FulfilmentSession;
+import com.functions.metrics.services.RequestMetricsService;
 import com.google.cloud.Timestamp;
 import com.google.cloud.firestore.*;
 import org.slf4j.Logger;
@@ -21,6 +22,7 @@ public class FulfilmentSessionRepository {
         try {
             DocumentReference sessionDocRef = getFulfilmentSessionDocRef(fulfilmentSessionId);
             sessionDocRef.create(fulfilmentSession).get();
+            RequestMetricsService.recordWrites(1);
             return sessionDocRef.getId();
         } catch (Exception e) {
             logger.error("Failed to create fulfilment session for eventId: {}",
@@ -44,8 +46,10 @@ public class FulfilmentSessionRepository {
 
             if (transaction.isPresent()) {
                 maybeSnapshot = transaction.get().get(sessionDocRef).get();
+                RequestMetricsService.recordReads(1);
             } else {
                 maybeSnapshot = sessionDocRef.get().get();
+                RequestMetricsService.recordReads(1);
             }
 
             if (maybeSnapshot.exists()) {
@@ -64,6 +68,7 @@ public class FulfilmentSessionRepository {
         try {
             DocumentReference sessionDocRef = getFulfilmentSessionDocRef(sessionId);
             sessionDocRef.set(updatedSession).get();
+            RequestMetricsService.recordWrites(1);
         } catch (Exception e) {
             logger.error(
                     "Failed to update fulfilment session for sessionId: {}, fulfilmentSession: {}",
@@ -83,6 +88,7 @@ public class FulfilmentSessionRepository {
             DocumentReference sessionDocRef = getFulfilmentSessionDocRef(sessionId);
             String fieldPath = "fulfilmentEntityMap." + fulfilmentEntityId + ".formResponseId";
             sessionDocRef.update(fieldPath, formResponseId).get();
+            RequestMetricsService.recordWrites(1);
         } catch (Exception e) {
             logger.error(
                     "Failed to update formResponseId for sessionId: {}, fulfilmentEntityId: {}, formResponseId: {}",
@@ -102,9 +108,11 @@ public class FulfilmentSessionRepository {
             if (transaction.isPresent()) {
                 // Use transaction
                 transaction.get().delete(sessionDocRef);
+                RequestMetricsService.recordWrites(1);
             } else {
                 // Use regular operation
                 sessionDocRef.delete().get();
+                RequestMetricsService.recordWrites(1);
             }
         } catch (Exception e) {
             logger.error("Failed to delete fulfilment session for sessionId: {}", sessionId, e);
@@ -128,6 +136,7 @@ public class FulfilmentSessionRepository {
                     db.collection(FirebaseService.CollectionPaths.FULFILMENT_SESSIONS_ROOT_PATH)
                             .whereLessThan("fulfilmentSessionStartTime", cutoff);
             QuerySnapshot snapshots = query.get().get();
+            RequestMetricsService.recordQueryReads(snapshots.size());
             List<String> ids = new ArrayList<>();
             for (QueryDocumentSnapshot doc : snapshots.getDocuments()) {
                 ids.add(doc.getId());
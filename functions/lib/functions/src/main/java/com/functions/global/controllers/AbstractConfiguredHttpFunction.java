@@ -1,10 +1,13 @@
 package com.functions.global.controllers;
 
-import com.functions.stripe.config.StripeConfig;
 import com.google.cloud.functions.HttpFunction;
 
+/**
+ * Base class for deployed HTTP functions. Subsystems (Firebase, Stripe, handlers) initialize lazily
+ * on first use, so constructing a function does no I/O and a cold instance can take its first request
+ * as early as possible; see StartupProfiler for the per-phase breakdown.
+ */
 public abstract class AbstractConfiguredHttpFunction implements HttpFunction {
     protected AbstractConfiguredHttpFunction() {
-        StripeConfig.initialize();
     }
 }
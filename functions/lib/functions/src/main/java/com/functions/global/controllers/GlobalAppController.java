@@ -1,18 +1,19 @@
 package com.functions.global.controllers;
 
+import java.nio.charset.StandardCharsets;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.functions.fulfilment.exceptions.FulfilmentEntityNotFoundException;
-import com.functions.fulfilment.exceptions.FulfilmentProgressionBlockedException;
-import com.functions.fulfilment.exceptions.FulfilmentSessionNotFoundException;
-import com.functions.global.handlers.HandlerRegistry;
+import com.functions.global.handlers.EndpointRouter;
+import com.functions.global.handlers.ErrorResponseMapper;
 import com.functions.global.models.EndpointType;
 import com.functions.global.models.requests.UnifiedRequest;
 import com.functions.global.models.responses.ErrorResponse;
 import com.functions.global.models.responses.UnifiedResponse;
-import com.functions.stripe.exceptions.CheckoutDateTimeException;
-import com.functions.stripe.exceptions.CheckoutVacancyException;
+import com.functions.metrics.models.RequestMetrics;
+import com.functions.metrics.services.RequestMetricsService;
+import com.functions.metrics.services.StartupProfiler;
 import com.functions.stripe.handlers.StripeWebhookHandler;
 import com.functions.utils.JavaUtils;
 import com.google.cloud.functions.HttpRequest;
@@ -54,12 +55,15 @@ public class GlobalAppController extends AbstractConfiguredHttpFunction {
             return;
         }
 
+        RequestMetrics metrics = null;
         try {
+            long parseStartNanos = System.nanoTime();
             UnifiedRequest unifiedRequest;
             try {
                 unifiedRequest =
                         JavaUtils.objectMapper.readValue(request.getReader(), UnifiedRequest.class);
             } catch (Exception e) {
+                metrics = startRejected(null, parseStartNanos, e.getClass().getSimpleName());
                 response.setStatusCode(400); // Bad Request
                 logger.error("Could not parse request input:", e);
                 response.getWriter().write(JavaUtils.objectMapper.writeValueAsString(
@@ -68,65 +72,46 @@ public class GlobalAppController extends AbstractConfiguredHttpFunction {
             }
 
             if (unifiedRequest.endpointType() == null || unifiedRequest.data() == null) {
+                metrics = startRejected(unifiedRequest.endpointType(), parseStartNanos, "MissingEndpointTypeOrData");
                 response.setStatusCode(400);
                 response.getWriter().write(JavaUtils.objectMapper.writeValueAsString(
                         new ErrorResponse("Both endpointType and data are required.")));
                 return;
             }
 
-            Object result = routeRequest(unifiedRequest);
+            metrics = RequestMetricsService.start(unifiedRequest.endpointType(), parseStartNanos);
+            Object result = EndpointRouter.route(unifiedRequest, metrics);
+
+            long serializeStartNanos = System.nanoTime();
+            String responseBody = JavaUtils.objectMapper.writeValueAsString(UnifiedResponse.success(result));
+            metrics.setSerializeNanos(System.nanoTime() - serializeStartNanos);
+            metrics.setResponseBytes(responseBody.getBytes(StandardCharsets.UTF_8).length);
 
             response.setStatusCode(200);
-            response.getWriter().write(
-                    JavaUtils.objectMapper.writeValueAsString(UnifiedResponse.success(result)));
+            response.getWriter().write(responseBody);
 
-        } catch (FulfilmentProgressionBlockedException e) {
-            logger.warn("Fulfilment progression blocked: {}", e.getMessage());
-            response.setStatusCode(400);
-            response.getWriter().write(JavaUtils.objectMapper.writeValueAsString(
-                    new ErrorResponse(e.getMessage())));
-        } catch (IllegalArgumentException e) {
-            logger.warn("Bad request: {}", e.getMessage());
-            response.setStatusCode(400);
-            response.getWriter().write(JavaUtils.objectMapper.writeValueAsString(
-                    new ErrorResponse(e.getMessage())));
-        } catch (FulfilmentEntityNotFoundException e) {
-            logger.warn("Resource not found: {}", e.getMessage());
-            response.setStatusCode(404);
-            response.getWriter().write(JavaUtils.objectMapper.writeValueAsString(
-                    new ErrorResponse(e.getMessage())));
-        } catch (FulfilmentSessionNotFoundException e) {
-            logger.warn("Resource not found: {}", e.getMessage());
-            response.setStatusCode(404);
-            response.getWriter().write(JavaUtils.objectMapper.writeValueAsString(
-                    new ErrorResponse(e.getMessage())));
-        } catch (CheckoutVacancyException e) {
-            logger.warn("Checkout vacancy error: {}", e.getMessage());
-            response.setStatusCode(400);
-            response.getWriter().write(JavaUtils.objectMapper.writeValueAsString(
-                    new ErrorResponse("Checkout vacancy error: " + e.getMessage())));
-        } catch (CheckoutDateTimeException e) {
-            logger.warn("Checkout date time error: {}", e.getMessage());
-            response.setStatusCode(400);
-            response.getWriter().write(JavaUtils.objectMapper.writeValueAsString(
-                    new ErrorResponse("Checkout date time error: " + e.getMessage())));
         } catch (Exception e) {
-            logger.error("Error processing request", e);
-            response.setStatusCode(500);
-            response.getWriter().write(JavaUtils.objectMapper.writeValueAsString(
-                    new ErrorResponse("Internal server error")));
+            ErrorResponseMapper.MappedError error = ErrorResponseMapper.map(e);
+            response.setStatusCode(error.statusCode());
+            response.getWriter().write(JavaUtils.objectMapper.writeValueAsString(error.body()));
+        } finally {
+            if (metrics != null) {
+                RequestMetricsService.finish(metrics);
+                StartupProfiler.reportFirstRequest(metrics.getEndpointName(),
+                        System.nanoTime() - metrics.getStartNanos());
+            }
         }
     }
 
-    private Object routeRequest(UnifiedRequest unifiedRequest) throws Exception {
-        EndpointType endpointType = unifiedRequest.endpointType();
-
-        if (!HandlerRegistry.hasHandler(endpointType)) {
-            throw new IllegalArgumentException("No handler registered for endpoint type: " + endpointType);
-        }
-
-        var handler = HandlerRegistry.getHandler(endpointType);
-        return handler.handle(handler.parse(unifiedRequest));
+    /**
+     * Opens metrics for a request rejected before routing, so malformed input still shows up in the
+     * latency and error histograms: under its endpoint type if one was read, otherwise UNKNOWN.
+     */
+    private static RequestMetrics startRejected(EndpointType endpointType, long parseStartNanos, String error) {
+        RequestMetrics metrics = RequestMetricsService.start(endpointType, parseStartNanos);
+        metrics.setParseNanos(System.nanoTime() - parseStartNanos);
+        metrics.setError(error);
+        return metrics;
     }
 
     static boolean shouldRouteToStripeWebhook(HttpRequest request) {
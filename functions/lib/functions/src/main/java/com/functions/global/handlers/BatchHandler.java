@@ -0,0 +1,177 @@
+package com.functions.global.handlers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.functions.global.models.EndpointType;
+import com.functions.global.models.Handler;
+import com.functions.global.models.requests.BatchRequest;
+import com.functions.global.models.requests.BatchRequest.SubRequest;
+import com.functions.global.models.requests.UnifiedRequest;
+import com.functions.global.models.responses.BatchItemResponse;
+import com.functions.global.models.responses.BatchResponse;
+import com.functions.global.models.responses.ErrorResponse;
+import com.functions.metrics.models.RequestMetrics;
+import com.functions.metrics.services.RequestMetricsService;
+import com.functions.utils.JavaUtils;
+
+/**
+ * Executes several GlobalAppController sub-requests in one invocation so a page can load in a
+ * single round trip. Sub-requests run concurrently on a small shared pool unless the batch asks to
+ * be sequential, and each one gets its own status/data/error envelope, so one failing sub-request
+ * does not fail the others.
+ * <p>
+ * Each sub-request is measured and budgeted as a request to its own endpoint type; its Firestore
+ * and Stripe counters are also rolled up into the enclosing BATCH request.
+ */
+public class BatchHandler implements Handler<BatchRequest, BatchResponse> {
+    private static final Logger logger = LoggerFactory.getLogger(BatchHandler.class);
+
+    public static final int MAX_BATCH_SIZE = 20;
+    private static final int DEFAULT_MAX_CONCURRENCY = 4;
+
+    private static class ExecutorHolder {
+        private static final ExecutorService EXECUTOR = createExecutor();
+
+        private static ExecutorService createExecutor() {
+            int concurrency = Global.getIntEnv("BATCH_MAX_CONCURRENCY", DEFAULT_MAX_CONCURRENCY, 1);
+            AtomicInteger threadCount = new AtomicInteger();
+            return Executors.newFixedThreadPool(concurrency, runnable -> {
+                Thread thread = new Thread(runnable, "batch-worker-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    @Override
+    public BatchRequest parse(UnifiedRequest data) {
+        List<JsonNode> items;
+        Boolean sequential;
+        try {
+            if (data.data().isArray()) {
+                items = JavaUtils.objectMapper.convertValue(data.data(), new TypeReference<List<JsonNode>>() {
+                });
+                sequential = false;
+            } else {
+                RawBatchRequest raw = JavaUtils.objectMapper.treeToValue(data.data(), RawBatchRequest.class);
+                items = raw.requests();
+                sequential = raw.sequential();
+            }
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Failed to parse BatchRequest: " + e.getMessage(), e);
+        }
+
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("BATCH requires at least one sub-request.");
+        }
+        if (items.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException(
+                    "BATCH supports at most " + MAX_BATCH_SIZE + " sub-requests, got " + items.size());
+        }
+        List<SubRequest> subRequests = new ArrayList<>(items.size());
+        for (JsonNode item : items) {
+            SubRequest subRequest = parseSubRequest(item);
+            if (subRequest.endpointType() == EndpointType.BATCH) {
+                throw new IllegalArgumentException("BATCH sub-requests cannot themselves be BATCH requests.");
+            }
+            subRequests.add(subRequest);
+        }
+        return new BatchRequest(subRequests, sequential);
+    }
+
+    /**
+     * Validates one sub-request as GlobalAppController validates a request: it must parse as a
+     * UnifiedRequest with both an endpointType and data.
+     */
+    private static SubRequest parseSubRequest(JsonNode item) {
+        EndpointType endpointType = null;
+        JsonNode endpointTypeNode = item != null ? item.get("endpointType") : null;
+        if (endpointTypeNode != null && !endpointTypeNode.isNull()) {
+            try {
+                endpointType = JavaUtils.objectMapper.treeToValue(endpointTypeNode, EndpointType.class);
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                return SubRequest.invalid(null, "Invalid request data: " + e.getMessage());
+            }
+        }
+        JsonNode dataNode = item != null ? item.get("data") : null;
+        if (endpointType == null || dataNode == null || dataNode.isNull()) {
+            return SubRequest.invalid(endpointType, "Both endpointType and data are required.");
+        }
+        return SubRequest.valid(new UnifiedRequest(endpointType, dataNode));
+    }
+
+    @Override
+    public BatchResponse handle(BatchRequest request) throws Exception {
+        Optional<RequestMetrics> parentMetrics = RequestMetricsService.current();
+        List<SubRequest> subRequests = request.requests();
+        List<BatchItemResponse> results = new ArrayList<>(subRequests.size());
+
+        if (Boolean.TRUE.equals(request.sequential())) {
+            for (SubRequest subRequest : subRequests) {
+                results.add(execute(subRequest, parentMetrics));
+            }
+        } else {
+            List<Future<BatchItemResponse>> futures = new ArrayList<>(subRequests.size());
+            for (SubRequest subRequest : subRequests) {
+                futures.add(ExecutorHolder.EXECUTOR.submit(() -> execute(subRequest, parentMetrics)));
+            }
+            for (Future<BatchItemResponse> future : futures) {
+                results.add(awaitResult(future));
+            }
+        }
+
+        logger.info("Handled BATCH of {} sub-requests (sequential={})", subRequests.size(),
+                Boolean.TRUE.equals(request.sequential()));
+        return new BatchResponse(results);
+    }
+
+    private static BatchItemResponse execute(SubRequest subRequest, Optional<RequestMetrics> parentMetrics) {
+        RequestMetrics metrics = new RequestMetrics(subRequest.endpointType(), System.nanoTime());
+        try (RequestMetricsService.Scope scope = RequestMetricsService.bind(metrics)) {
+            try {
+                if (!subRequest.isValid()) {
+                    metrics.setError("InvalidSubRequest");
+                    return BatchItemResponse.error(400, new ErrorResponse(subRequest.error()));
+                }
+                return BatchItemResponse.success(EndpointRouter.route(subRequest.request(), metrics));
+            } catch (Exception e) {
+                ErrorResponseMapper.MappedError error = ErrorResponseMapper.map(e);
+                return BatchItemResponse.error(error.statusCode(), error.body());
+            } finally {
+                RequestMetricsService.finish(metrics);
+                parentMetrics.ifPresent(parent -> parent.addCounters(metrics));
+            }
+        }
+    }
+
+    private static BatchItemResponse awaitResult(Future<BatchItemResponse> future) throws Exception {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            // execute() maps every Exception to an envelope, so only Errors reach here.
+            throw new RuntimeException("BATCH sub-request failed unexpectedly", e.getCause());
+        }
+    }
+
+    /** The object form of a BATCH request's data, before its sub-requests are validated. */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private record RawBatchRequest(List<JsonNode> requests, Boolean sequential) {
+    }
+}
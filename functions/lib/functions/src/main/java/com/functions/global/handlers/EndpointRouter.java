@@ -0,0 +1,41 @@
+package com.functions.global.handlers;
+
+import com.functions.global.models.EndpointType;
+import com.functions.global.models.requests.UnifiedRequest;
+import com.functions.metrics.models.RequestMetrics;
+import com.functions.metrics.services.OperationBudgetService;
+import com.functions.stripe.services.StripeObjectCache;
+
+/**
+ * Parses and handles a single UnifiedRequest with its registered handler, recording parse and
+ * handle time on the request's metrics and enforcing the endpoint's operation budget. Each handler
+ * call gets its own StripeObjectCache scope.
+ */
+public class EndpointRouter {
+
+    public static Object route(UnifiedRequest unifiedRequest, RequestMetrics metrics) throws Exception {
+        EndpointType endpointType = unifiedRequest.endpointType();
+
+        try {
+            if (!HandlerRegistry.hasHandler(endpointType)) {
+                throw new IllegalArgumentException("No handler registered for endpoint type: " + endpointType);
+            }
+
+            var handler = HandlerRegistry.getHandler(endpointType);
+            var parsedRequest = handler.parse(unifiedRequest);
+            long handleStartNanos = System.nanoTime();
+            metrics.setParseNanos(handleStartNanos - metrics.getStartNanos());
+            Object result;
+            try (StripeObjectCache.Scope ignored = StripeObjectCache.open()) {
+                result = handler.handle(parsedRequest);
+            } finally {
+                metrics.setHandleNanos(System.nanoTime() - handleStartNanos);
+            }
+            OperationBudgetService.enforce(metrics);
+            return result;
+        } catch (Exception e) {
+            metrics.setError(e.getClass().getSimpleName());
+            throw e;
+        }
+    }
+}
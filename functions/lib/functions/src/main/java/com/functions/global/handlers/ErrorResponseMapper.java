@@ -0,0 +1,47 @@
+package com.functions.global.handlers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.functions.fulfilment.exceptions.FulfilmentEntityNotFoundException;
+import com.functions.fulfilment.exceptions.FulfilmentProgressionBlockedException;
+import com.functions.fulfilment.exceptions.FulfilmentSessionNotFoundException;
+import com.functions.global.models.responses.ErrorResponse;
+import com.functions.stripe.exceptions.CheckoutDateTimeException;
+import com.functions.stripe.exceptions.CheckoutVacancyException;
+
+/**
+ * Maps handler exceptions to the HTTP status and ErrorResponse returned to the client, so the
+ * GlobalAppController and individual BATCH items report failures identically.
+ */
+public class ErrorResponseMapper {
+    private static final Logger logger = LoggerFactory.getLogger(ErrorResponseMapper.class);
+
+    public record MappedError(int statusCode, ErrorResponse body) {
+    }
+
+    public static MappedError map(Exception e) {
+        if (e instanceof FulfilmentProgressionBlockedException) {
+            logger.warn("Fulfilment progression blocked: {}", e.getMessage());
+            return new MappedError(400, new ErrorResponse(e.getMessage()));
+        }
+        if (e instanceof IllegalArgumentException) {
+            logger.warn("Bad request: {}", e.getMessage());
+            return new MappedError(400, new ErrorResponse(e.getMessage()));
+        }
+        if (e instanceof FulfilmentEntityNotFoundException || e instanceof FulfilmentSessionNotFoundException) {
+            logger.warn("Resource not found: {}", e.getMessage());
+            return new MappedError(404, new ErrorResponse(e.getMessage()));
+        }
+        if (e instanceof CheckoutVacancyException) {
+            logger.warn("Checkout vacancy error: {}", e.getMessage());
+            return new MappedError(400, new ErrorResponse("Checkout vacancy error: " + e.getMessage()));
+        }
+        if (e instanceof CheckoutDateTimeException) {
+            logger.warn("Checkout date time error: {}", e.getMessage());
+            return new MappedError(400, new ErrorResponse("Checkout date time error: " + e.getMessage()));
+        }
+        logger.error("Error processing request", e);
+        return new MappedError(500, new ErrorResponse("Internal server error"));
+    }
+}
@@ -22,4 +22,25 @@ public class Global {
         }
         return dotenv.get(key);
     }
+
+    /**
+     * Reads a whole-number setting, raised to at least {@code minValue}. Unset or unparseable
+     * values fall back to {@code defaultValue}, with a warning for the latter.
+     */
+    public static long getLongEnv(String key, long defaultValue, long minValue) {
+        String value = getEnv(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Math.max(minValue, Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid {}: {}. Using default {}", key, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public static int getIntEnv(String key, int defaultValue, int minValue) {
+        return (int) Math.min(Integer.MAX_VALUE, getLongEnv(key, defaultValue, minValue));
+    }
 }
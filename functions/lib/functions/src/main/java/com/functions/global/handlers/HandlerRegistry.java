@@ -1,7 +1,7 @@
 package com.functions.global.handlers;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.functions.attendee.handlers.AddAttendeeHandler;
 import com.functions.attendee.handlers.GetEventAttendeeNamesHandler;
@@ -19,6 +19,8 @@ import com.functions.fulfilment.handlers.InitFulfilmentSessionHandler;
 import com.functions.fulfilment.handlers.UpdateFulfilmentEntityWithFormResponseIdHandler;
 import com.functions.global.models.EndpointType;
 import com.functions.global.models.Handler;
+import com.functions.metrics.handlers.DumpEndpointMetricsHandler;
+import com.functions.metrics.services.StartupProfiler;
 import com.functions.tickets.handlers.GetOrderHandler;
 import com.functions.tickets.handlers.GetOrdersByEventHandler;
 import com.functions.tickets.handlers.GetTicketHandler;
@@ -30,33 +32,42 @@ import com.functions.wrapped.handlers.GetWrappedHandler;
  * Registry for mapping endpoint types to their corresponding handler
  * implementations.
  * This provides centralized handler management and type-safe routing.
+ * <p>
+ * Handlers are created on first use rather than all at once, so a cold
+ * instance only class-loads the handler (and the services behind it) for
+ * the endpoints it actually serves.
  */
 public class HandlerRegistry {
-    private static final Map<EndpointType, Handler<?, ?>> handlers = new HashMap<>();
+    private static final Map<EndpointType, Handler<?, ?>> handlers = new ConcurrentHashMap<>();
 
-    static {
-        handlers.put(EndpointType.SAVE_TEMP_FORM_RESPONSE, new SaveTempFormResponseHandler());
-        handlers.put(EndpointType.CREATE_EVENT, new CreateEventHandler());
-        handlers.put(EndpointType.INIT_FULFILMENT_SESSION, new InitFulfilmentSessionHandler());
-        handlers.put(EndpointType.UPDATE_FULFILMENT_ENTITY_WITH_FORM_RESPONSE_ID,
-                new UpdateFulfilmentEntityWithFormResponseIdHandler());
-        handlers.put(EndpointType.GET_PREV_FULFILMENT_ENTITY, new GetPrevFulfilmentEntityHandler());
-        handlers.put(EndpointType.GET_NEXT_FULFILMENT_ENTITY, new GetNextFulfilmentEntityHandler());
-        handlers.put(EndpointType.GET_FULFILMENT_SESSION_INFO, new GetFulfilmentSessionInfoHandler());
-        handlers.put(EndpointType.GET_FULFILMENT_ENTITY_INFO, new GetFulfilmentEntityInfoHandler());
-        handlers.put(EndpointType.COMPLETE_FULFILMENT_SESSION, new CompleteFulfilmentSessionHandler());
-        handlers.put(EndpointType.GET_SPORTSHUB_WRAPPED, new GetWrappedHandler());
-        handlers.put(EndpointType.UPDATE_FULFILMENT_ENTITY_WITH_WAITLIST_DATA,
-                new UpdateFulfilmentEntityWithWaitlistDataHandler());
-        handlers.put(EndpointType.GET_SYRIO_EVENTS, new GetSyrioEventsHandler());
-        handlers.put(EndpointType.GET_EVENT_BY_ID, new GetEventByIdHandler());
-        handlers.put(EndpointType.GET_ORDER, new GetOrderHandler());
-        handlers.put(EndpointType.GET_TICKET, new GetTicketHandler());
-        handlers.put(EndpointType.GET_ORDERS_BY_EVENT, new GetOrdersByEventHandler());
-        handlers.put(EndpointType.ADD_ATTENDEE, new AddAttendeeHandler());
-        handlers.put(EndpointType.SET_ATTENDEE_TICKETS, new SetAttendeeTicketsHandler());
-        handlers.put(EndpointType.GET_EVENT_ATTENDEE_NAMES, new GetEventAttendeeNamesHandler());
-        handlers.put(EndpointType.BOOKING_APPROVAL, new BookingApprovalHandler());
+    private static Handler<?, ?> createHandler(EndpointType endpointType) {
+        long startNanos = System.nanoTime();
+        Handler<?, ?> handler = switch (endpointType) {
+            case SAVE_TEMP_FORM_RESPONSE -> new SaveTempFormResponseHandler();
+            case CREATE_EVENT -> new CreateEventHandler();
+            case INIT_FULFILMENT_SESSION -> new InitFulfilmentSessionHandler();
+            case UPDATE_FULFILMENT_ENTITY_WITH_FORM_RESPONSE_ID -> new UpdateFulfilmentEntityWithFormResponseIdHandler();
+            case GET_PREV_FULFILMENT_ENTITY -> new GetPrevFulfilmentEntityHandler();
+            case GET_NEXT_FULFILMENT_ENTITY -> new GetNextFulfilmentEntityHandler();
+            case GET_FULFILMENT_SESSION_INFO -> new GetFulfilmentSessionInfoHandler();
+            case GET_FULFILMENT_ENTITY_INFO -> new GetFulfilmentEntityInfoHandler();
+            case COMPLETE_FULFILMENT_SESSION -> new CompleteFulfilmentSessionHandler();
+            case GET_SPORTSHUB_WRAPPED -> new GetWrappedHandler();
+            case UPDATE_FULFILMENT_ENTITY_WITH_WAITLIST_DATA -> new UpdateFulfilmentEntityWithWaitlistDataHandler();
+            case GET_SYRIO_EVENTS -> new GetSyrioEventsHandler();
+            case GET_EVENT_BY_ID -> new GetEventByIdHandler();
+            case GET_ORDER -> new GetOrderHandler();
+            case GET_TICKET -> new GetTicketHandler();
+            case GET_ORDERS_BY_EVENT -> new GetOrdersByEventHandler();
+            case ADD_ATTENDEE -> new AddAttendeeHandler();
+            case SET_ATTENDEE_TICKETS -> new SetAttendeeTicketsHandler();
+            case GET_EVENT_ATTENDEE_NAMES -> new GetEventAttendeeNamesHandler();
+            case BOOKING_APPROVAL -> new BookingApprovalHandler();
+            case DUMP_ENDPOINT_METRICS -> new DumpEndpointMetricsHandler();
+            case BATCH -> new BatchHandler();
+        };
+        StartupProfiler.record("handler:" + endpointType, System.nanoTime() - startNanos);
+        return handler;
     }
 
     /**
@@ -69,21 +80,22 @@ public class HandlerRegistry {
      */
     @SuppressWarnings("unchecked")
     public static <S, T> Handler<S, T> getHandler(EndpointType endpointType) {
-        Handler<?, ?> handler = handlers.get(endpointType);
-        if (handler == null) {
+        if (endpointType == null) {
             throw new IllegalArgumentException("No handler registered for endpoint type: " + endpointType);
         }
-        // This cast is safe because the handlers map is populated in a type-safe manner
+        Handler<?, ?> handler = handlers.computeIfAbsent(endpointType, HandlerRegistry::createHandler);
+        // This cast is safe because createHandler pairs each endpoint type with its handler
         return (Handler<S, T>) handler;
     }
 
     /**
-     * Check if a handler is registered for the given endpoint type.
+     * Check if a handler is registered for the given endpoint type. The switch in
+     * createHandler is exhaustive, so every non-null endpoint type has one.
      *
      * @param endpointType the endpoint type
      * @return true if a handler is registered, false otherwise
      */
     public static boolean hasHandler(EndpointType endpointType) {
-        return handlers.containsKey(endpointType);
+        return endpointType != null;
     }
 }
@@ -25,6 +25,10 @@ import com.functions.fulfilment.models.responses.GetFulfilmentSessionInfoRespons
 import com.functions.fulfilment.models.responses.GetNextFulfilmentEntityResponse;
 import com.functions.fulfilment.models.responses.GetPrevFulfilmentEntityResponse;
 import com.functions.fulfilment.models.responses.InitCheckoutFulfilmentSessionResponse;
+import com.functions.global.models.requests.BatchRequest;
+import com.functions.global.models.responses.BatchResponse;
+import com.functions.metrics.models.requests.DumpEndpointMetricsRequest;
+import com.functions.metrics.models.responses.DumpEndpointMetricsResponse;
 import com.functions.tickets.models.Ticket;
 import com.functions.tickets.models.requests.BookingApprovalRequest;
 import com.functions.tickets.models.requests.get.GetOrderRequest;
@@ -68,7 +72,9 @@ public enum EndpointType {
     ADD_ATTENDEE(AddAttendeeRequest.class, AddAttendeeResponse.class),
     SET_ATTENDEE_TICKETS(SetAttendeeTicketsRequest.class, SetAttendeeTicketsResponse.class),
     GET_EVENT_ATTENDEE_NAMES(GetEventAttendeeNamesRequest.class, GetEventAttendeeNamesResponse.class),
-    BOOKING_APPROVAL(BookingApprovalRequest.class, BookingApprovalResponse.class);
+    BOOKING_APPROVAL(BookingApprovalRequest.class, BookingApprovalResponse.class),
+    DUMP_ENDPOINT_METRICS(DumpEndpointMetricsRequest.class, DumpEndpointMetricsResponse.class),
+    BATCH(BatchRequest.class, BatchResponse.class);
 
     private final Class<?> requestClass;
     private final Class<?> responseClass;
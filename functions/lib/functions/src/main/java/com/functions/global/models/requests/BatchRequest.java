@@ -0,0 +1,37 @@
+package com.functions.global.models.requests;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.functions.global.models.EndpointType;
+
+/**
+ * Sub-requests for a BATCH call. The data of a BATCH UnifiedRequest is either a bare array of
+ * sub-requests, which run concurrently, or an object with {@code requests} and
+ * {@code sequential: true} when later sub-requests depend on the writes of earlier ones.
+ * <p>
+ * Each sub-request is validated on its own, so one without an endpointType or data is answered
+ * with its own 400 rather than failing the whole batch.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record BatchRequest(List<SubRequest> requests, Boolean sequential) {
+
+    /**
+     * A parsed sub-request, or the reason it could not be parsed. {@code endpointType} is set
+     * whenever it could be read, so a rejected sub-request is still measured under its endpoint.
+     */
+    public record SubRequest(UnifiedRequest request, EndpointType endpointType, String error) {
+
+        public static SubRequest valid(UnifiedRequest request) {
+            return new SubRequest(request, request.endpointType(), null);
+        }
+
+        public static SubRequest invalid(EndpointType endpointType, String error) {
+            return new SubRequest(null, endpointType, error);
+        }
+
+        public boolean isValid() {
+            return error == null;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.functions.global.models.responses;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Result envelope for one BATCH sub-request: the status code the sub-request would have returned
+ * on its own, plus either its response data or its error message.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchItemResponse(int statusCode, Object data, String errorMessage) {
+
+    public static BatchItemResponse success(Object data) {
+        return new BatchItemResponse(200, data, null);
+    }
+
+    public static BatchItemResponse error(int statusCode, ErrorResponse error) {
+        return new BatchItemResponse(statusCode, null, error.errorMessage());
+    }
+}
@@ -0,0 +1,9 @@
+package com.functions.global.models.responses;
+
+import java.util.List;
+
+/**
+ * BATCH results, in the same order as the sub-requests.
+ */
+public record BatchResponse(List<BatchItemResponse> results) {
+}
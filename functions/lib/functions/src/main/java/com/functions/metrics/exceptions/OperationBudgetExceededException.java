@@ -0,0 +1,12 @@
+package com.functions.metrics.exceptions;
+
+/**
+ * Exception thrown in FAIL mode when a request makes more Firestore reads or writes than its
+ * endpoint's OperationBudget allows.
+ */
+public class OperationBudgetExceededException extends RuntimeException {
+
+    public OperationBudgetExceededException(String message) {
+        super(message);
+    }
+}
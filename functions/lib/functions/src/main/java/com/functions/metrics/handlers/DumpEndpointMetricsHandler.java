@@ -0,0 +1,48 @@
+package com.functions.metrics.handlers;
+
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.functions.events.repositories.EventsRepository;
+import com.functions.global.models.Handler;
+import com.functions.global.models.requests.UnifiedRequest;
+import com.functions.metrics.models.EndpointMetricsSnapshot;
+import com.functions.metrics.models.requests.DumpEndpointMetricsRequest;
+import com.functions.metrics.models.responses.DumpEndpointMetricsResponse;
+import com.functions.metrics.services.RequestMetricsService;
+import com.functions.utils.ExpiringLruCache;
+import com.functions.utils.JavaUtils;
+
+/**
+ * Returns and logs the per-endpoint histograms held by the instance that serves the request.
+ * Histograms are in-process, so each scheduled dump samples one warm instance; the per-request
+ * endpoint_metrics log lines remain the complete record across instances. The instance's event
+ * snapshot cache totals are returned and logged alongside.
+ */
+public class DumpEndpointMetricsHandler implements Handler<DumpEndpointMetricsRequest, DumpEndpointMetricsResponse> {
+    private static final Logger logger = LoggerFactory.getLogger(DumpEndpointMetricsHandler.class);
+
+    @Override
+    public DumpEndpointMetricsRequest parse(UnifiedRequest data) {
+        try {
+            return JavaUtils.objectMapper.treeToValue(data.data(), DumpEndpointMetricsRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to parse DumpEndpointMetricsRequest", e);
+        }
+    }
+
+    @Override
+    public DumpEndpointMetricsResponse handle(DumpEndpointMetricsRequest request) throws Exception {
+        Map<String, EndpointMetricsSnapshot> snapshot = RequestMetricsService.snapshot();
+        ExpiringLruCache.Stats eventCacheStats = EventsRepository.getEventCacheStats();
+        logger.info("endpoint_metrics_dump {}", JavaUtils.objectMapper.writeValueAsString(snapshot));
+        logger.info("event_cache_stats {}", JavaUtils.objectMapper.writeValueAsString(eventCacheStats));
+        if (Boolean.TRUE.equals(request.reset())) {
+            RequestMetricsService.reset();
+        }
+        return new DumpEndpointMetricsResponse(snapshot, eventCacheStats);
+    }
+}
@@ -0,0 +1,18 @@
+package com.functions.metrics.models;
+
+/**
+ * Per-endpoint histogram snapshot returned by DUMP_ENDPOINT_METRICS. Durations are in microseconds.
+ */
+public record EndpointMetricsSnapshot(
+        long requests,
+        long errors,
+        Histogram.Snapshot totalMicros,
+        Histogram.Snapshot parseMicros,
+        Histogram.Snapshot handleMicros,
+        Histogram.Snapshot serializeMicros,
+        Histogram.Snapshot documentReads,
+        Histogram.Snapshot documentWrites,
+        Histogram.Snapshot transactionAttempts,
+        Histogram.Snapshot stripeCalls,
+        Histogram.Snapshot responseBytes) {
+}
@@ -0,0 +1,15 @@
+package com.functions.metrics.models;
+
+/**
+ * Upper bound on the Firestore document reads and writes a single request to an endpoint may make.
+ */
+public record OperationBudget(long maxReads, long maxWrites) {
+
+    public static OperationBudget of(long maxReads, long maxWrites) {
+        return new OperationBudget(maxReads, maxWrites);
+    }
+
+    public boolean isExceededBy(long reads, long writes) {
+        return reads > maxReads || writes > maxWrites;
+    }
+}
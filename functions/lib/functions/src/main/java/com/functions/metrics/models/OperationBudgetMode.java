@@ -0,0 +1,22 @@
+package com.functions.metrics.models;
+
+/**
+ * What happens when a request goes over its OperationBudget. Production only warns so a cost
+ * regression never takes an endpoint down; unit tests fail so the regression is caught in review.
+ */
+public enum OperationBudgetMode {
+    OFF,
+    WARN,
+    FAIL;
+
+    public static OperationBudgetMode fromString(String value, OperationBudgetMode defaultMode) {
+        if (value == null || value.isBlank()) {
+            return defaultMode;
+        }
+        try {
+            return OperationBudgetMode.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return defaultMode;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.functions.metrics.models;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.functions.global.models.EndpointType;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Cost and timing counters for a single GlobalAppController request. Counters are atomic because
+ * Firestore transaction callbacks run on SDK executor threads rather than the request thread.
+ */
+@Getter
+public class RequestMetrics {
+    /** Bucket for requests rejected before their endpoint type could be read. */
+    public static final String UNKNOWN_ENDPOINT = "UNKNOWN";
+
+    private final EndpointType endpointType;
+    private final long startNanos;
+
+    private final AtomicLong documentReads = new AtomicLong();
+    private final AtomicLong documentWrites = new AtomicLong();
+    private final AtomicLong transactionAttempts = new AtomicLong();
+    private final AtomicLong stripeCalls = new AtomicLong();
+    private final AtomicLong eventCacheHits = new AtomicLong();
+    private final AtomicLong eventCacheMisses = new AtomicLong();
+
+    // Set once any write has landed; from then on failing the request would not undo it
+    private volatile boolean writesCommitted;
+    // Set the first time the operation budget is found exceeded, so it is only reported once
+    private final AtomicBoolean budgetExceededReported = new AtomicBoolean();
+
+    @Setter
+    private long parseNanos;
+    @Setter
+    private long handleNanos;
+    @Setter
+    private long serializeNanos;
+    @Setter
+    private long responseBytes;
+    @Setter
+    private String error;
+
+    public RequestMetrics(EndpointType endpointType, long startNanos) {
+        this.endpointType = endpointType;
+        this.startNanos = startNanos;
+    }
+
+    public void markWritesCommitted() {
+        writesCommitted = true;
+    }
+
+    public String getEndpointName() {
+        return endpointType != null ? endpointType.name() : UNKNOWN_ENDPOINT;
+    }
+
+    /**
+     * Adds another request's Firestore, Stripe and cache counters to this one, e.g. a BATCH sub-request
+     * rolling up into its parent.
+     */
+    public void addCounters(RequestMetrics other) {
+        documentReads.addAndGet(other.documentReads.get());
+        documentWrites.addAndGet(other.documentWrites.get());
+        transactionAttempts.addAndGet(other.transactionAttempts.get());
+        stripeCalls.addAndGet(other.stripeCalls.get());
+        eventCacheHits.addAndGet(other.eventCacheHits.get());
+        eventCacheMisses.addAndGet(other.eventCacheMisses.get());
+        if (other.writesCommitted) {
+            writesCommitted = true;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.functions.metrics.models.requests;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * @param reset clear this instance's histograms after taking the snapshot, so each scheduled dump
+ *              covers only the interval since the previous one
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record DumpEndpointMetricsRequest(
+        @JsonProperty("reset") Boolean reset) {
+}
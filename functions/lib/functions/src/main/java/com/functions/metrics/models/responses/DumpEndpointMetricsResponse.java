@@ -0,0 +1,12 @@
+package com.functions.metrics.models.responses;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.functions.metrics.models.EndpointMetricsSnapshot;
+import com.functions.utils.ExpiringLruCache;
+
+public record DumpEndpointMetricsResponse(
+        @JsonProperty("endpoints") Map<String, EndpointMetricsSnapshot> endpoints,
+        @JsonProperty("eventCache") ExpiringLruCache.Stats eventCache) {
+}
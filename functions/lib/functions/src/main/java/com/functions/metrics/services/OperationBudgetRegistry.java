@@ -0,0 +1,64 @@
+package com.functions.metrics.services;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+import com.functions.global.models.EndpointType;
+import com.functions.metrics.models.OperationBudget;
+
+/**
+ * Declares the Firestore read/write budget for each EndpointType, measured per request through the
+ * repository layer. Point-lookup endpoints get tight budgets so a refactor that adds a read shows
+ * up straight away; endpoints that fan out over orders or events get a ceiling sized for the
+ * largest organisers we expect, and should be revisited when their read pattern changes.
+ * <p>
+ * Raising a budget is a deliberate, reviewable change - do it here alongside the code that
+ * needed it rather than switching enforcement off.
+ */
+public class OperationBudgetRegistry {
+    private static final Map<EndpointType, OperationBudget> budgets = new EnumMap<>(EndpointType.class);
+
+    static {
+        budgets.put(EndpointType.SAVE_TEMP_FORM_RESPONSE, OperationBudget.of(10, 2));
+        budgets.put(EndpointType.CREATE_EVENT, OperationBudget.of(10, 10));
+        budgets.put(EndpointType.INIT_FULFILMENT_SESSION, OperationBudget.of(20, 10));
+        budgets.put(EndpointType.UPDATE_FULFILMENT_ENTITY_WITH_FORM_RESPONSE_ID, OperationBudget.of(5, 2));
+        budgets.put(EndpointType.GET_PREV_FULFILMENT_ENTITY, OperationBudget.of(5, 2));
+        budgets.put(EndpointType.GET_NEXT_FULFILMENT_ENTITY, OperationBudget.of(5, 2));
+        budgets.put(EndpointType.GET_FULFILMENT_SESSION_INFO, OperationBudget.of(5, 0));
+        budgets.put(EndpointType.GET_FULFILMENT_ENTITY_INFO, OperationBudget.of(5, 0));
+        budgets.put(EndpointType.COMPLETE_FULFILMENT_SESSION, OperationBudget.of(20, 10));
+        // Reads every event the organiser hosted this year plus their orders and tickets.
+        budgets.put(EndpointType.GET_SPORTSHUB_WRAPPED, OperationBudget.of(5_000, 1));
+        budgets.put(EndpointType.UPDATE_FULFILMENT_ENTITY_WITH_WAITLIST_DATA, OperationBudget.of(5, 2));
+        // Single organiser query; billed per event returned.
+        budgets.put(EndpointType.GET_SYRIO_EVENTS, OperationBudget.of(500, 0));
+        // Index hit is two reads; a stale or missing index entry probes every event path and repairs it.
+        budgets.put(EndpointType.GET_EVENT_BY_ID, OperationBudget.of(6, 1));
+        budgets.put(EndpointType.GET_ORDER, OperationBudget.of(2, 0));
+        budgets.put(EndpointType.GET_TICKET, OperationBudget.of(2, 0));
+        // Scales with the number of orders (and their tickets) on the event.
+        budgets.put(EndpointType.GET_ORDERS_BY_EVENT, OperationBudget.of(2_000, 0));
+        budgets.put(EndpointType.ADD_ATTENDEE, OperationBudget.of(20, 20));
+        budgets.put(EndpointType.SET_ATTENDEE_TICKETS, OperationBudget.of(100, 100));
+        // Event, metadata and then every order referenced by the metadata.
+        budgets.put(EndpointType.GET_EVENT_ATTENDEE_NAMES, OperationBudget.of(1_000, 0));
+        budgets.put(EndpointType.BOOKING_APPROVAL, OperationBudget.of(100, 100));
+        budgets.put(EndpointType.DUMP_ENDPOINT_METRICS, OperationBudget.of(0, 0));
+        // Each sub-request is checked against its own endpoint's budget; the batch total is not capped.
+        budgets.put(EndpointType.BATCH, OperationBudget.of(Long.MAX_VALUE, Long.MAX_VALUE));
+    }
+
+    public static Optional<OperationBudget> getBudget(EndpointType endpointType) {
+        return Optional.ofNullable(budgets.get(endpointType));
+    }
+
+    /**
+     * Replaces an endpoint's budget and returns the previous one, for tests that need a budget they
+     * can exceed without thousands of documents.
+     */
+    static Optional<OperationBudget> setBudget(EndpointType endpointType, OperationBudget budget) {
+        return Optional.ofNullable(budgets.put(endpointType, budget));
+    }
+}
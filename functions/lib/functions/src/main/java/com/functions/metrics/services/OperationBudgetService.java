@@ -0,0 +1,76 @@
+package com.functions.metrics.services;
+
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.functions.global.handlers.Global;
+import com.functions.metrics.exceptions.OperationBudgetExceededException;
+import com.functions.metrics.models.OperationBudget;
+import com.functions.metrics.models.OperationBudgetMode;
+import com.functions.metrics.models.RequestMetrics;
+
+/**
+ * Checks a request's Firestore reads and writes against its endpoint's OperationBudget.
+ * <p>
+ * FirebaseService checks before each transaction commits as well as EndpointRouter at the end of
+ * the request, so a request is failed before its writes land where possible. Once a write has
+ * committed, failing would leave it in place while the caller saw an error, so an exceeded budget
+ * is only logged from then on, even in FAIL mode.
+ * <p>
+ * The mode comes from OPERATION_BUDGET_MODE (OFF, WARN or FAIL) and defaults to WARN, so production
+ * only logs. Unit tests switch to FAIL with {@link #setMode(OperationBudgetMode)} so a handler that
+ * starts reading more than it should fails its test instead of quietly costing more.
+ */
+public class OperationBudgetService {
+    private static final Logger logger = LoggerFactory.getLogger(OperationBudgetService.class);
+
+    private static volatile OperationBudgetMode mode =
+            OperationBudgetMode.fromString(Global.getEnv("OPERATION_BUDGET_MODE"), OperationBudgetMode.WARN);
+
+    public static OperationBudgetMode getMode() {
+        return mode;
+    }
+
+    public static void setMode(OperationBudgetMode newMode) {
+        mode = newMode;
+    }
+
+    /**
+     * Logs or throws if the request has gone over its endpoint budget. Endpoints without a declared
+     * budget, and calls outside a request, are not checked.
+     *
+     * @throws OperationBudgetExceededException in FAIL mode when the budget is exceeded and none of
+     *         the request's writes have committed
+     */
+    public static void enforce(RequestMetrics metrics) {
+        if (metrics == null || mode == OperationBudgetMode.OFF) {
+            return;
+        }
+        Optional<OperationBudget> maybeBudget = OperationBudgetRegistry.getBudget(metrics.getEndpointType());
+        if (maybeBudget.isEmpty()) {
+            return;
+        }
+
+        OperationBudget budget = maybeBudget.get();
+        long reads = metrics.getDocumentReads().get();
+        long writes = metrics.getDocumentWrites().get();
+        if (!budget.isExceededBy(reads, writes)) {
+            return;
+        }
+
+        String message = String.format(
+                "Firestore operation budget exceeded for %s: reads=%d/%d, writes=%d/%d",
+                metrics.getEndpointType(), reads, budget.maxReads(), writes, budget.maxWrites());
+        if (mode == OperationBudgetMode.FAIL && !metrics.isWritesCommitted()) {
+            throw new OperationBudgetExceededException(message);
+        }
+        if (mode == OperationBudgetMode.FAIL) {
+            message += " (not failed, writes already committed)";
+        }
+        if (metrics.getBudgetExceededReported().compareAndSet(false, true)) {
+            logger.warn(message);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.functions.metrics.services;
+
+import static com.functions.utils.JavaUtils.objectMapper;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.functions.global.models.EndpointType;
+import com.functions.metrics.models.EndpointMetricsSnapshot;
+import com.functions.metrics.models.Histogram;
+import com.functions.metrics.models.RequestMetrics;
+
+/**
+ * Request-scoped cost accounting for GlobalAppController.
+ * <p>
+ * GlobalAppController opens a RequestMetrics for each request; repositories, FirebaseService and the
+ * Stripe HTTP client report into whichever one is bound to the current thread. On finish the
+ * request is written as one structured log line and folded into per-endpoint in-process
+ * histograms, which DUMP_ENDPOINT_METRICS exposes. Calls made outside a request are ignored.
+ * <p>
+ * Writes recorded outside a transaction are counted as committed straight away. Writes recorded
+ * under {@link #bindTransaction} only count as committed once the caller sees the commit succeed,
+ * which is what lets OperationBudgetService still fail a request before its first write lands.
+ */
+public final class RequestMetricsService {
+    private static final Logger logger = LoggerFactory.getLogger(RequestMetricsService.class);
+
+    private static final ThreadLocal<RequestMetrics> currentMetrics = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> inTransaction = new ThreadLocal<>();
+    private static final Map<String, EndpointHistograms> endpointHistograms = new ConcurrentHashMap<>();
+
+    private RequestMetricsService() {
+    }
+
+    /**
+     * Restores the previously bound RequestMetrics when closed.
+     */
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * A bound transaction attempt, which knows whether it recorded any writes.
+     */
+    public interface TransactionScope extends Scope {
+        boolean hasWrites();
+    }
+
+    public static RequestMetrics start(EndpointType endpointType, long startNanos) {
+        RequestMetrics metrics = new RequestMetrics(endpointType, startNanos);
+        currentMetrics.set(metrics);
+        return metrics;
+    }
+
+    public static Optional<RequestMetrics> current() {
+        return Optional.ofNullable(currentMetrics.get());
+    }
+
+    /**
+     * Binds metrics to the current thread, for work handed to another thread (e.g. a Firestore
+     * transaction callback). Passing null leaves the thread unbound.
+     */
+    public static Scope bind(RequestMetrics metrics) {
+        RequestMetrics previous = currentMetrics.get();
+        if (metrics == null) {
+            currentMetrics.remove();
+        } else {
+            currentMetrics.set(metrics);
+        }
+        return () -> {
+            if (previous == null) {
+                currentMetrics.remove();
+            } else {
+                currentMetrics.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Binds metrics for one attempt of a transaction callback and records the attempt. Writes
+     * recorded under the scope are not marked committed; once the commit succeeds, the caller marks
+     * them with {@link RequestMetrics#markWritesCommitted()} if {@link TransactionScope#hasWrites()}.
+     */
+    public static TransactionScope bindTransaction(RequestMetrics metrics) {
+        Scope bound = bind(metrics);
+        Boolean previousInTransaction = inTransaction.get();
+        inTransaction.set(Boolean.TRUE);
+        recordTransactionAttempt();
+        long writesBefore = metrics != null ? metrics.getDocumentWrites().get() : 0L;
+        return new TransactionScope() {
+            @Override
+            public boolean hasWrites() {
+                return metrics != null && metrics.getDocumentWrites().get() > writesBefore;
+            }
+
+            @Override
+            public void close() {
+                if (previousInTransaction == null) {
+                    inTransaction.remove();
+                } else {
+                    inTransaction.set(previousInTransaction);
+                }
+                bound.close();
+            }
+        };
+    }
+
+    public static void recordReads(long documents) {
+        RequestMetrics metrics = currentMetrics.get();
+        if (metrics != null) {
+            metrics.getDocumentReads().addAndGet(documents);
+        }
+    }
+
+    /**
+     * Firestore bills a query for every document it returns, with a minimum of one read.
+     */
+    public static void recordQueryReads(long documentsReturned) {
+        recordReads(Math.max(1, documentsReturned));
+    }
+
+    public static void recordWrites(long documents) {
+        RequestMetrics metrics = currentMetrics.get();
+        if (metrics != null) {
+            metrics.getDocumentWrites().addAndGet(documents);
+            if (!Boolean.TRUE.equals(inTransaction.get())) {
+                metrics.markWritesCommitted();
+            }
+        }
+    }
+
+    public static void recordTransactionAttempt() {
+        RequestMetrics metrics = currentMetrics.get();
+        if (metrics != null) {
+            metrics.getTransactionAttempts().incrementAndGet();
+        }
+    }
+
+    public static void recordStripeCall() {
+        RequestMetrics metrics = currentMetrics.get();
+        if (metrics != null) {
+            metrics.getStripeCalls().incrementAndGet();
+        }
+    }
+
+    /**
+     * Records a lookup in the instance-local event snapshot cache, so the endpoint_metrics line
+     * shows how many of a request's event reads the cache saved.
+     */
+    public static void recordEventCacheLookup(boolean hit) {
+        RequestMetrics metrics = currentMetrics.get();
+        if (metrics != null) {
+            (hit ? metrics.getEventCacheHits() : metrics.getEventCacheMisses()).incrementAndGet();
+        }
+    }
+
+    /**
+     * Unbinds the request, logs its structured metrics line and records it in the endpoint histograms.
+     */
+    public static void finish(RequestMetrics metrics) {
+        currentMetrics.remove();
+        if (metrics == null) {
+            return;
+        }
+        long totalNanos = System.nanoTime() - metrics.getStartNanos();
+
+        endpointHistograms.computeIfAbsent(metrics.getEndpointName(), name -> new EndpointHistograms())
+                .record(metrics, totalNanos);
+
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("endpointType", metrics.getEndpointName());
+        line.put("totalMicros", toMicros(totalNanos));
+        line.put("parseMicros", toMicros(metrics.getParseNanos()));
+        line.put("handleMicros", toMicros(metrics.getHandleNanos()));
+        line.put("serializeMicros", toMicros(metrics.getSerializeNanos()));
+        line.put("documentReads", metrics.getDocumentReads().get());
+        line.put("documentWrites", metrics.getDocumentWrites().get());
+        line.put("transactionAttempts", metrics.getTransactionAttempts().get());
+        line.put("stripeCalls", metrics.getStripeCalls().get());
+        line.put("eventCacheHits", metrics.getEventCacheHits().get());
+        line.put("eventCacheMisses", metrics.getEventCacheMisses().get());
+        line.put("responseBytes", metrics.getResponseBytes());
+        line.put("error", metrics.getError());
+        try {
+            logger.info("endpoint_metrics {}", objectMapper.writeValueAsString(line));
+        } catch (Exception e) {
+            logger.warn("Failed to serialize endpoint metrics for {}", metrics.getEndpointName(), e);
+        }
+    }
+
+    public static Map<String, EndpointMetricsSnapshot> snapshot() {
+        Map<String, EndpointMetricsSnapshot> snapshots = new TreeMap<>();
+        endpointHistograms.forEach((name, histograms) -> snapshots.put(name, histograms.snapshot()));
+        return snapshots;
+    }
+
+    public static void reset() {
+        endpointHistograms.values().forEach(EndpointHistograms::reset);
+    }
+
+    private static long toMicros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    private static final class EndpointHistograms {
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final Histogram totalMicros = new Histogram();
+        private final Histogram parseMicros = new Histogram();
+        private final Histogram handleMicros = new Histogram();
+        private final Histogram serializeMicros = new Histogram();
+        private final Histogram documentReads = new Histogram();
+        private final Histogram documentWrites = new Histogram();
+        private final Histogram transactionAttempts = new Histogram();
+        private final Histogram stripeCalls = new Histogram();
+        private final Histogram responseBytes = new Histogram();
+
+        private void record(RequestMetrics metrics, long totalNanos) {
+            requests.incrementAndGet();
+            if (metrics.getError() != null) {
+                errors.incrementAndGet();
+            }
+            totalMicros.record(toMicros(totalNanos));
+            parseMicros.record(toMicros(metrics.getParseNanos()));
+            handleMicros.record(toMicros(metrics.getHandleNanos()));
+            serializeMicros.record(toMicros(metrics.getSerializeNanos()));
+            documentReads.record(metrics.getDocumentReads().get());
+            documentWrites.record(metrics.getDocumentWrites().get());
+            transactionAttempts.record(metrics.getTransactionAttempts().get());
+            stripeCalls.record(metrics.getStripeCalls().get());
+            responseBytes.record(metrics.getResponseBytes());
+        }
+
+        private EndpointMetricsSnapshot snapshot() {
+            return new EndpointMetricsSnapshot(
+                    requests.get(),
+                    errors.get(),
+                    totalMicros.snapshot(),
+                    parseMicros.snapshot(),
+                    handleMicros.snapshot(),
+                    serializeMicros.snapshot(),
+                    documentReads.snapshot(),
+                    documentWrites.snapshot(),
+                    transactionAttempts.snapshot(),
+                    stripeCalls.snapshot(),
+                    responseBytes.snapshot());
+        }
+
+        private void reset() {
+            requests.set(0);
+            errors.set(0);
+            totalMicros.reset();
+            parseMicros.reset();
+            handleMicros.reset();
+            serializeMicros.reset();
+            documentReads.reset();
+            documentWrites.reset();
+            transactionAttempts.reset();
+            stripeCalls.reset();
+            responseBytes.reset();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.functions.metrics.services;
+
+import static com.functions.utils.JavaUtils.objectMapper;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Breaks cold-start time down by phase. Subsystems time their lazy initialization through
+ * {@link #time(String, Callable)}, and the first request an instance serves logs a single
+ * startup_timing line with JVM uptime at that point and every phase recorded so far, so cold starts
+ * can be compared across deploys. Phases that initialize after the first request are logged as they
+ * happen.
+ */
+public class StartupProfiler {
+    private static final Logger logger = LoggerFactory.getLogger(StartupProfiler.class);
+
+    private static final Map<String, Long> phaseMicros = new LinkedHashMap<>();
+    private static final AtomicBoolean firstRequestReported = new AtomicBoolean();
+
+    public static <T> T time(String phase, Callable<T> initializer) throws Exception {
+        long startNanos = System.nanoTime();
+        try {
+            return initializer.call();
+        } finally {
+            record(phase, System.nanoTime() - startNanos);
+        }
+    }
+
+    public static void record(String phase, long nanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        synchronized (phaseMicros) {
+            phaseMicros.put(phase, micros);
+        }
+        if (firstRequestReported.get()) {
+            logger.info("startup_phase {} initialized in {}us after first request", phase, micros);
+        }
+    }
+
+    public static Map<String, Long> getPhaseMicros() {
+        synchronized (phaseMicros) {
+            return new LinkedHashMap<>(phaseMicros);
+        }
+    }
+
+    /**
+     * Logs the startup report the first time it is called on this instance; later calls do nothing.
+     *
+     * @param firstRequestNanos Time spent serving the first request, including any lazy initialization
+     */
+    public static void reportFirstRequest(String endpointType, long firstRequestNanos) {
+        if (!firstRequestReported.compareAndSet(false, true)) {
+            return;
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("jvmUptimeMillis", ManagementFactory.getRuntimeMXBean().getUptime());
+        report.put("firstRequestEndpointType", endpointType);
+        report.put("firstRequestMicros", TimeUnit.NANOSECONDS.toMicros(firstRequestNanos));
+        report.put("phaseMicros", getPhaseMicros());
+        try {
+            logger.info("startup_timing {}", objectMapper.writeValueAsString(report));
+        } catch (Exception e) {
+            logger.warn("Failed to serialize startup timing report", e);
+        }
+    }
+}
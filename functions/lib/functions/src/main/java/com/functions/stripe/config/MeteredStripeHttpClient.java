@@ -0,0 +1,27 @@
+package com.functions.stripe.config;
+
+import com.functions.metrics.services.RequestMetricsService;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.net.HttpURLConnectionClient;
+import com.stripe.net.StripeRequest;
+import com.stripe.net.StripeResponse;
+import com.stripe.net.StripeResponseStream;
+
+/**
+ * Stripe's default HTTP client, counting every HTTP attempt (including SDK retries) against the
+ * current request's metrics.
+ */
+public class MeteredStripeHttpClient extends HttpURLConnectionClient {
+
+    @Override
+    public StripeResponse request(StripeRequest request) throws ApiConnectionException {
+        RequestMetricsService.recordStripeCall();
+        return super.request(request);
+    }
+
+    @Override
+    public StripeResponseStream requestStream(StripeRequest request) throws ApiConnectionException {
+        RequestMetricsService.recordStripeCall();
+        return super.requestStream(request);
+    }
+}
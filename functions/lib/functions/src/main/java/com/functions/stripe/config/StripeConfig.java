@@ -6,7 +6,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.functions.global.handlers.Global;
+import com.functions.metrics.services.StartupProfiler;
 import com.stripe.Stripe;
+import com.stripe.net.ApiResource;
+import com.stripe.net.LiveStripeResponseGetter;
 
 /**
  * Configuration class for Stripe integration.
@@ -36,39 +39,49 @@ public class StripeConfig {
     // Webhook configuration
     public static final String STRIPE_WEBHOOK_ENDPOINT_SECRET = Global.getEnv("STRIPE_WEBHOOK_ENDPOINT_SECRET");
 
-    private static boolean initialized = false;
+    private static volatile boolean initialized = false;
 
     /**
-     * Explicitly initializes Stripe configuration with the API key.
+     * Initializes the Stripe SDK with the API key on first use. Called by the Stripe entry points
+     * (StripeService, CheckoutService, StripeWebhookHandler) rather than at function construction, so
+     * instances that never talk to Stripe skip loading the SDK on cold start. Safe to call from
+     * concurrent requests; only the first call does any work.
      * 
      * @throws IllegalStateException if STRIPE_API_KEY environment variable is not set
      * @throws RuntimeException if initialization fails
      */
     public static void initialize() {
         if (initialized) {
-            logger.info("Stripe configuration already initialized");
             return;
         }
+        synchronized (StripeConfig.class) {
+            if (initialized) {
+                return;
+            }
 
-        logger.info("Initializing Stripe configuration");
+            logger.info("Initializing Stripe configuration");
+            long startNanos = System.nanoTime();
 
-        try {
-            String stripeApiKey = Global.getEnv("STRIPE_API_KEY");
-            if (stripeApiKey == null || stripeApiKey.isEmpty()) {
-                logger.error("STRIPE_API_KEY environment variable is not set");
-                throw new IllegalStateException("STRIPE_API_KEY environment variable is not set");
-            }
-            if (STRIPE_WEBHOOK_ENDPOINT_SECRET == null || STRIPE_WEBHOOK_ENDPOINT_SECRET.isBlank()) {
-                logger.error("STRIPE_WEBHOOK_ENDPOINT_SECRET must be set");
-                throw new IllegalStateException(
-                        "STRIPE_WEBHOOK_ENDPOINT_SECRET must be set");
+            try {
+                String stripeApiKey = Global.getEnv("STRIPE_API_KEY");
+                if (stripeApiKey == null || stripeApiKey.isEmpty()) {
+                    logger.error("STRIPE_API_KEY environment variable is not set");
+                    throw new IllegalStateException("STRIPE_API_KEY environment variable is not set");
+                }
+                if (STRIPE_WEBHOOK_ENDPOINT_SECRET == null || STRIPE_WEBHOOK_ENDPOINT_SECRET.isBlank()) {
+                    logger.error("STRIPE_WEBHOOK_ENDPOINT_SECRET must be set");
+                    throw new IllegalStateException(
+                            "STRIPE_WEBHOOK_ENDPOINT_SECRET must be set");
+                }
+                Stripe.apiKey = stripeApiKey;
+                ApiResource.setGlobalResponseGetter(new LiveStripeResponseGetter(new MeteredStripeHttpClient()));
+                initialized = true;
+                StartupProfiler.record("stripe", System.nanoTime() - startNanos);
+                logger.info("Stripe API key initialized successfully");
+            } catch (Exception e) {
+                logger.error("Failed to initialize Stripe configuration", e);
+                throw new RuntimeException("Failed to initialize Stripe configuration", e);
             }
-            Stripe.apiKey = stripeApiKey;
-            initialized = true;
-            logger.info("Stripe API key initialized successfully");
-        } catch (Exception e) {
-            logger.error("Failed to initialize Stripe configuration", e);
-            throw new RuntimeException("Failed to initialize Stripe configuration", e);
         }
     }
 
@@ -0,0 +1,52 @@
+package com.functions.stripe.controllers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.functions.global.controllers.AbstractConfiguredHttpFunction;
+import com.functions.stripe.services.ProcessedStripeObjectsMigrationService;
+import com.functions.stripe.services.ProcessedStripeObjectsMigrationService.MigrationResult;
+import com.google.cloud.functions.HttpRequest;
+import com.google.cloud.functions.HttpResponse;
+
+/**
+ * One-off endpoint that moves the legacy processed Stripe id arrays on EventMetadata into the
+ * ProcessedStripeObjects subcollections.
+ */
+public class MigrateProcessedStripeObjectsEndpoint extends AbstractConfiguredHttpFunction {
+    private static final Logger logger = LoggerFactory.getLogger(MigrateProcessedStripeObjectsEndpoint.class);
+
+    @Override
+    public void service(HttpRequest request, HttpResponse response) throws Exception {
+        response.appendHeader("Access-Control-Allow-Origin", "*");
+        response.appendHeader("Access-Control-Allow-Methods", "GET, OPTIONS");
+        response.appendHeader("Access-Control-Allow-Headers", "Content-Type, Authorization");
+        response.appendHeader("Access-Control-Max-Age", "3600");
+
+        if ("OPTIONS".equalsIgnoreCase(request.getMethod())) {
+            logger.info("Handling OPTIONS request: {}", request);
+            response.setStatusCode(204);
+            return;
+        }
+
+        if (!request.getMethod().equalsIgnoreCase("GET")) {
+            response.setStatusCode(405);
+            response.appendHeader("Allow", "GET");
+            response.getWriter().write(
+                    "The MigrateProcessedStripeObjectsEndpoint only supports GET requests.");
+            return;
+        }
+
+        try {
+            MigrationResult result = ProcessedStripeObjectsMigrationService.migrateLegacyProcessedIds();
+            response.setStatusCode(200);
+            response.getWriter().write(String.format(
+                    "{\"eventsScanned\":%d,\"eventsMigrated\":%d,\"objectsMigrated\":%d}",
+                    result.eventsScanned(), result.eventsMigrated(), result.objectsMigrated()));
+        } catch (Exception e) {
+            logger.error("Error during processed Stripe objects migration", e);
+            response.setStatusCode(500);
+            response.getWriter().write("Processed Stripe objects migration failed: " + e.getMessage());
+        }
+    }
+}
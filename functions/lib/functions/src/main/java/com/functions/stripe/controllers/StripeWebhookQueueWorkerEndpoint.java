@@ -0,0 +1,73 @@
+package com.functions.stripe.controllers;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.functions.global.controllers.AbstractConfiguredHttpFunction;
+import com.functions.stripe.handlers.StripeWebhookHandler;
+import com.functions.stripe.repositories.FirestoreWebhookEventQueue;
+import com.functions.stripe.services.WebhookQueueWorker;
+import com.functions.stripe.services.WebhookQueueWorker.DrainResult;
+import com.google.cloud.functions.HttpRequest;
+import com.google.cloud.functions.HttpResponse;
+
+/**
+ * Cron endpoint that drains the StripeWebhookQueue filled by the webhook handler when
+ * STRIPE_WEBHOOK_ASYNC is enabled.
+ *
+ * <p>Designed to be triggered by Cloud Scheduler every minute. Returns HTTP 200 with a JSON-like
+ * summary of {@code leased}, {@code succeeded}, {@code retried} and {@code deadLettered} counts
+ * for observability.
+ */
+public class StripeWebhookQueueWorkerEndpoint extends AbstractConfiguredHttpFunction {
+    private static final Logger logger = LoggerFactory.getLogger(StripeWebhookQueueWorkerEndpoint.class);
+
+    /** Stops leasing new rounds after this long, leaving headroom inside the function timeout. */
+    private static final Duration DRAIN_BUDGET = Duration.ofSeconds(45);
+
+    private static class WorkerHolder {
+        private static final WebhookQueueWorker WORKER = new WebhookQueueWorker(new FirestoreWebhookEventQueue(),
+                StripeWebhookHandler::processQueuedEvent, WebhookQueueWorker.Settings.fromEnv(),
+                Clock.systemUTC());
+    }
+
+    @Override
+    public void service(HttpRequest request, HttpResponse response) throws Exception {
+        response.appendHeader("Access-Control-Allow-Origin", "*");
+        response.appendHeader("Access-Control-Allow-Methods", "GET, OPTIONS");
+        response.appendHeader("Access-Control-Allow-Headers", "Content-Type, Authorization");
+        response.appendHeader("Access-Control-Max-Age", "3600");
+
+        if ("OPTIONS".equalsIgnoreCase(request.getMethod())) {
+            logger.info("Handling OPTIONS request: {}", request);
+            response.setStatusCode(204);
+            return;
+        }
+
+        if (!request.getMethod().equalsIgnoreCase("GET")) {
+            response.setStatusCode(405);
+            response.appendHeader("Allow", "GET");
+            response.getWriter().write(
+                    "The StripeWebhookQueueWorkerEndpoint only supports GET requests.");
+            return;
+        }
+
+        DrainResult result;
+        try {
+            result = WorkerHolder.WORKER.drain(DRAIN_BUDGET);
+        } catch (Exception e) {
+            logger.error("Error draining Stripe webhook queue", e);
+            response.setStatusCode(500);
+            response.getWriter().write("Stripe webhook queue drain failed: " + e.getMessage());
+            return;
+        }
+
+        response.setStatusCode(200);
+        response.getWriter().write(String.format(
+                "{\"leased\":%d,\"succeeded\":%d,\"retried\":%d,\"deadLettered\":%d}",
+                result.leased(), result.succeeded(), result.retried(), result.deadLettered()));
+    }
+}
@@ -5,6 +5,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
@@ -14,9 +15,15 @@ import org.slf4j.LoggerFactory;
 import com.functions.global.handlers.Global;
 import com.functions.stripe.config.StripeConfig;
 import com.functions.stripe.config.StripeCustomFieldKeys;
+import com.functions.stripe.models.QueuedWebhookEvent;
 import com.functions.stripe.models.SessionMetadata;
+import com.functions.stripe.models.StripeWebhookEvent;
+import com.functions.stripe.repositories.FirestoreWebhookEventQueue;
+import com.functions.stripe.repositories.WebhookEventQueue;
+import com.functions.stripe.services.StripeWebhookEventsService;
 import com.functions.stripe.services.WebhookService;
 import com.functions.utils.JavaUtils;
+import com.google.cloud.Timestamp;
 import com.google.cloud.functions.HttpRequest;
 import com.google.cloud.functions.HttpResponse;
 import com.stripe.exception.SignatureVerificationException;
@@ -24,13 +31,18 @@ import com.stripe.model.Event;
 import com.stripe.model.LineItem;
 import com.stripe.model.LineItemCollection;
 import com.stripe.model.PaymentIntent;
+import com.stripe.model.StripeObject;
 import com.stripe.model.checkout.Session;
+import com.stripe.net.ApiResource;
 import com.stripe.net.Webhook;
 
 /**
  * Handler for processing Stripe webhook events.
  * This is shared by the dedicated Stripe webhook endpoint and the legacy
  * GlobalAppController webhook route.
+ * <p>
+ * With STRIPE_WEBHOOK_ASYNC=true, verified events are written to the StripeWebhookQueue and
+ * acknowledged straight away; StripeWebhookQueueWorkerEndpoint processes them from there.
  */
 public class StripeWebhookHandler {
     private static final Logger logger = LoggerFactory.getLogger(StripeWebhookHandler.class);
@@ -38,6 +50,9 @@ public class StripeWebhookHandler {
     private static final Set<String> IGNORED_EVENT_IDS = Set.of("evt_1SAvvn05pkiJLNbsHt1mHThW");
     private static final String SPORTSHUB_URL_DOMAIN = "sportshub";
     static final int MAX_PAYLOAD_SIZE = 1024 * 1024; // 1MB max payload size
+    private static final Set<String> HANDLED_EVENT_TYPES = Set.of(
+            "checkout.session.completed", "checkout.session.expired", "payment_intent.canceled");
+    private static final WebhookEventQueue WEBHOOK_EVENT_QUEUE = new FirestoreWebhookEventQueue();
     
     /**
      * Processes a Stripe webhook request.
@@ -65,6 +80,8 @@ public class StripeWebhookHandler {
             response.setStatusCode(500);
             return;
         }
+
+        StripeConfig.initialize();
         
         // Get the request body with size limit to prevent DOS attacks
         String payload;
@@ -123,10 +140,65 @@ public class StripeWebhookHandler {
             response.setStatusCode(200);
             return;
         }
-        // Route based on event type
+
+        // Redeliveries of an event we already handled are acknowledged before any Stripe API call
+        Optional<StripeWebhookEvent> processedEvent = StripeWebhookEventsService.findProcessedEvent(eventId);
+        if (processedEvent.isPresent()) {
+            logger.info("[Webhook-{}] Event {} was already processed at {}. Acknowledging duplicate delivery.",
+                    uuid, eventId, processedEvent.get().getProcessedAt());
+            response.setStatusCode(200);
+            return;
+        }
+
         String eventType = event.getType();
-        boolean success = false;
-        
+        if (!HANDLED_EVENT_TYPES.contains(eventType)) {
+            logger.error("[Webhook-{}] Stripe sent a webhook request which does not match any handled events. " +
+                        "eventType={}, eventId={}", uuid, eventType, event.getId());
+            // We intentionally acknowledge unhandled event types so Stripe does not keep retrying
+            // events that this endpoint is not meant to process.
+            response.setStatusCode(200);
+            return;
+        }
+
+        if (isAsyncIngestionEnabled()) {
+            response.setStatusCode(enqueueEvent(uuid, event, payload) ? 200 : 500);
+            return;
+        }
+
+        response.setStatusCode(processEvent(uuid, event) ? 200 : 500);
+    }
+
+    /**
+     * Processes an event taken off the StripeWebhookQueue by the queue worker. The payload was
+     * signature-checked before it was enqueued, so it is only parsed here.
+     *
+     * @return true if the event was handled and can be removed from the queue
+     */
+    public static boolean processQueuedEvent(QueuedWebhookEvent queuedEvent) {
+        String uuid = UUID.randomUUID().toString();
+        StripeConfig.initialize();
+
+        Event event = StripeObject.deserializeStripeObject(queuedEvent.getPayload(), Event.class,
+                ApiResource.getGlobalResponseGetter());
+        logger.info("[Webhook-{}] Processing queued webhook event: type={}, eventId={}, attempt={}",
+                uuid, event.getType(), event.getId(), queuedEvent.getAttempts());
+
+        Optional<StripeWebhookEvent> processedEvent = StripeWebhookEventsService.findProcessedEvent(event.getId());
+        if (processedEvent.isPresent()) {
+            logger.info("[Webhook-{}] Queued event {} was already processed at {}. Skipping.",
+                    uuid, event.getId(), processedEvent.get().getProcessedAt());
+            return true;
+        }
+        return processEvent(uuid, event);
+    }
+
+    /**
+     * Routes a verified event to its handler and records it in the ledger on success.
+     */
+    private static boolean processEvent(String uuid, Event event) {
+        String eventType = event.getType();
+        boolean success;
+
         switch (eventType) {
             case "checkout.session.completed":
                 success = handleCheckoutSessionCompleted(uuid, event);
@@ -138,20 +210,48 @@ public class StripeWebhookHandler {
                 success = handlePaymentIntentCanceled(uuid, event);
                 break;
             default:
-                logger.error("[Webhook-{}] Stripe sent a webhook request which does not match any handled events. " +
-                            "eventType={}, eventId={}", uuid, eventType, event.getId());
-                // We intentionally acknowledge unhandled event types so Stripe does not keep retrying
-                // events that this endpoint is not meant to process.
-                response.setStatusCode(200);
-                return;
+                logger.error("[Webhook-{}] No handler for event type {}. eventId={}", uuid, eventType, event.getId());
+                return true;
         }
-        
+
         if (success) {
-            response.setStatusCode(200);
-        } else {
-            response.setStatusCode(500);
+            StripeWebhookEventsService.recordProcessedEvent(event.getId(), eventType, event.getAccount(), 200);
+        }
+        return success;
+    }
+
+    /**
+     * Durably queues a verified event for the queue worker. Only once the entry is written can the
+     * request be acknowledged; if the write fails Stripe has to retry the delivery.
+     */
+    private static boolean enqueueEvent(String uuid, Event event, String payload) {
+        Timestamp now = Timestamp.now();
+        QueuedWebhookEvent queuedEvent = QueuedWebhookEvent.builder()
+                .eventId(event.getId())
+                .eventType(event.getType())
+                .stripeAccount(event.getAccount())
+                .payload(payload)
+                .attempts(0)
+                .enqueuedAt(now)
+                .availableAt(now)
+                .build();
+        try {
+            if (WEBHOOK_EVENT_QUEUE.enqueue(queuedEvent)) {
+                logger.info("[Webhook-{}] Queued event {} for asynchronous processing", uuid, event.getId());
+            } else {
+                logger.info("[Webhook-{}] Event {} is already queued. Acknowledging duplicate delivery.",
+                        uuid, event.getId());
+            }
+            return true;
+        } catch (Exception e) {
+            logger.error("[Webhook-{}] Failed to queue event {}: {}", uuid, event.getId(), e.getMessage(), e);
+            return false;
         }
     }
+
+    private static boolean isAsyncIngestionEnabled() {
+        return Boolean.parseBoolean(Global.getEnv("STRIPE_WEBHOOK_ASYNC"));
+    }
     
     /**
      * Handles checkout.session.completed webhook event.
@@ -339,7 +439,8 @@ public class StripeWebhookHandler {
                 sessionMetadata.getEndFulfilmentEntityId(),
                 paymentIntentId,
                 captureMethod,
-                sessionMetadata.getEventTicketTypeId()
+                sessionMetadata.getEventTicketTypeId(),
+                sessionMetadata.getInventoryHoldId()
             );
             
             return success;
@@ -425,7 +526,8 @@ public class StripeWebhookHandler {
                 sessionMetadata.getEventId(),
                 sessionMetadata.getIsPrivate(),
                 lineItems,
-                sessionMetadata.getEventTicketTypeId()
+                sessionMetadata.getEventTicketTypeId(),
+                sessionMetadata.getInventoryHoldId()
             );
             
             return success;
@@ -0,0 +1,25 @@
+package com.functions.stripe.models;
+
+import com.google.cloud.Timestamp;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Idempotency marker for a Stripe checkout session or payment intent whose webhook side effects
+ * have been applied to an event. Stored at EventsMetadata/{eventId}/ProcessedStripeObjects/{objectId}
+ * so a duplicate webhook is detected with a single point read.
+ */
+@Data
+@NoArgsConstructor // Required by Firestore
+@AllArgsConstructor
+public class ProcessedStripeObject {
+    private String objectId;
+    private ProcessedStripeObjectType objectType;
+    private Timestamp processedAt;
+
+    public static ProcessedStripeObject of(String objectId, ProcessedStripeObjectType objectType) {
+        return new ProcessedStripeObject(objectId, objectType, Timestamp.now());
+    }
+}
@@ -0,0 +1,9 @@
+package com.functions.stripe.models;
+
+/**
+ * Kind of Stripe object recorded in an event's ProcessedStripeObjects subcollection.
+ */
+public enum ProcessedStripeObjectType {
+    CHECKOUT_SESSION,
+    PAYMENT_INTENT
+}
@@ -0,0 +1,34 @@
+package com.functions.stripe.models;
+
+import com.google.cloud.Timestamp;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A verified Stripe webhook event waiting to be processed, stored at StripeWebhookQueue/{evt_id}
+ * and, once it has run out of attempts, at StripeWebhookDeadLetters/{evt_id}. {@code payload} is
+ * the raw request body Stripe signed.
+ *
+ * An entry is eligible for leasing once {@code availableAt} has passed. Leasing pushes
+ * {@code availableAt} out by the lease duration, so an entry whose worker died becomes eligible
+ * again without a separate lease-expiry field.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor // Required by Firestore
+@AllArgsConstructor
+public class QueuedWebhookEvent {
+    private String eventId;
+    private String eventType;
+    private String stripeAccount;
+    private String payload;
+    private int attempts;
+    private Timestamp enqueuedAt;
+    private Timestamp availableAt;
+    private String leaseOwner;
+    private String lastError;
+    private Timestamp deadLetteredAt;
+}
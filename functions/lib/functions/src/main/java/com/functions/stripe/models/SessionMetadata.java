@@ -21,6 +21,8 @@ public class SessionMetadata {
     private String endFulfilmentEntityId;
     /** Required; identifies which ticket type was purchased for fulfill and restock. */
     private String eventTicketTypeId;
+    /** Inventory hold created at checkout; null for sessions created before holds existed. */
+    private String inventoryHoldId;
 
     /**
      * Validates the session metadata.
@@ -69,6 +71,7 @@ public class SessionMetadata {
             .fulfilmentSessionId(normalizeBlankToNull(metadata.get("fulfilmentSessionId")))
             .endFulfilmentEntityId(normalizeBlankToNull(metadata.get("endFulfilmentEntityId")))
             .eventTicketTypeId(normalizeBlankToNull(metadata.get("eventTicketTypeId")))
+            .inventoryHoldId(normalizeBlankToNull(metadata.get("inventoryHoldId")))
             .build();
         sessionMetadata.validate();
         return sessionMetadata;
@@ -0,0 +1,24 @@
+package com.functions.stripe.models;
+
+import com.google.cloud.Timestamp;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ledger entry for a Stripe webhook event that was handled successfully, stored at
+ * StripeWebhookEvents/{evt_id}. Lets the webhook handler acknowledge redeliveries of the event with
+ * one read, before any Stripe API call. {@code expireAt} is intended for a Firestore TTL policy.
+ */
+@Data
+@NoArgsConstructor // Required by Firestore
+@AllArgsConstructor
+public class StripeWebhookEvent {
+    private String eventId;
+    private String eventType;
+    private String stripeAccount;
+    private Integer responseStatus;
+    private Timestamp processedAt;
+    private Timestamp expireAt;
+}
@@ -0,0 +1,167 @@
+package com.functions.stripe.repositories;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.functions.firebase.services.FirebaseService;
+import com.functions.firebase.services.FirebaseService.CollectionPaths;
+import com.functions.metrics.services.RequestMetricsService;
+import com.functions.stripe.models.QueuedWebhookEvent;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.Transaction;
+
+/**
+ * WebhookEventQueue over the global StripeWebhookQueue and StripeWebhookDeadLetters collections.
+ * Candidates are found with a single-field range query on availableAt (no composite index needed)
+ * and each one is claimed in its own transaction, so two workers racing for the same entry cannot
+ * both lease it.
+ */
+public class FirestoreWebhookEventQueue implements WebhookEventQueue {
+    private static final Logger logger = LoggerFactory.getLogger(FirestoreWebhookEventQueue.class);
+
+    @Override
+    public boolean enqueue(QueuedWebhookEvent event) throws Exception {
+        return FirebaseService.createFirestoreTransaction(transaction -> {
+            DocumentReference docRef = getQueueRef().document(event.getEventId());
+            RequestMetricsService.recordReads(1);
+            if (transaction.get(docRef).get().exists()) {
+                return false;
+            }
+            transaction.create(docRef, event);
+            RequestMetricsService.recordWrites(1);
+            return true;
+        });
+    }
+
+    @Override
+    public List<QueuedWebhookEvent> lease(int maxEvents, String leaseOwner, Duration leaseDuration, Instant now)
+            throws Exception {
+        Timestamp nowTimestamp = toTimestamp(now);
+        Timestamp leaseExpiry = toTimestamp(now.plus(leaseDuration));
+
+        QuerySnapshot candidates = getQueueRef()
+                .whereLessThanOrEqualTo("availableAt", nowTimestamp)
+                .orderBy("availableAt")
+                .limit(maxEvents)
+                .get()
+                .get();
+        RequestMetricsService.recordQueryReads(candidates.size());
+
+        List<QueuedWebhookEvent> leased = new ArrayList<>();
+        for (QueryDocumentSnapshot candidate : candidates.getDocuments()) {
+            try {
+                claim(candidate.getReference(), leaseOwner, nowTimestamp, leaseExpiry).ifPresent(leased::add);
+            } catch (Exception e) {
+                logger.warn("Failed to lease queued webhook event {}", candidate.getId(), e);
+            }
+        }
+        return leased;
+    }
+
+    @Override
+    public boolean complete(QueuedWebhookEvent event, String leaseOwner) throws Exception {
+        return FirebaseService.createFirestoreTransaction(transaction -> {
+            DocumentReference docRef = getQueueRef().document(event.getEventId());
+            if (!isLeasedBy(transaction, docRef, leaseOwner)) {
+                return false;
+            }
+            transaction.delete(docRef);
+            RequestMetricsService.recordWrites(1);
+            return true;
+        });
+    }
+
+    @Override
+    public boolean retry(QueuedWebhookEvent event, String leaseOwner, Instant nextAvailableAt, String error)
+            throws Exception {
+        return FirebaseService.createFirestoreTransaction(transaction -> {
+            DocumentReference docRef = getQueueRef().document(event.getEventId());
+            if (!isLeasedBy(transaction, docRef, leaseOwner)) {
+                return false;
+            }
+            Map<String, Object> updates = new HashMap<>();
+            updates.put("availableAt", toTimestamp(nextAvailableAt));
+            updates.put("leaseOwner", null);
+            updates.put("lastError", error);
+            transaction.update(docRef, updates);
+            RequestMetricsService.recordWrites(1);
+            return true;
+        });
+    }
+
+    @Override
+    public boolean deadLetter(QueuedWebhookEvent event, String leaseOwner, String error, Instant now)
+            throws Exception {
+        return FirebaseService.createFirestoreTransaction(transaction -> {
+            DocumentReference docRef = getQueueRef().document(event.getEventId());
+            RequestMetricsService.recordReads(1);
+            DocumentSnapshot snapshot = transaction.get(docRef).get();
+            if (!snapshot.exists() || !Objects.equals(leaseOwner, snapshot.getString("leaseOwner"))) {
+                return false;
+            }
+            QueuedWebhookEvent deadLetter = snapshot.toObject(QueuedWebhookEvent.class).toBuilder()
+                    .leaseOwner(null)
+                    .lastError(error)
+                    .deadLetteredAt(toTimestamp(now))
+                    .build();
+            transaction.set(FirebaseService.getFirestore().collection(CollectionPaths.STRIPE_WEBHOOK_DEAD_LETTERS)
+                    .document(event.getEventId()), deadLetter);
+            transaction.delete(docRef);
+            RequestMetricsService.recordWrites(2);
+            return true;
+        });
+    }
+
+    private static Optional<QueuedWebhookEvent> claim(DocumentReference docRef, String leaseOwner,
+            Timestamp now, Timestamp leaseExpiry) throws Exception {
+        return FirebaseService.createFirestoreTransaction(transaction -> {
+            RequestMetricsService.recordReads(1);
+            DocumentSnapshot snapshot = transaction.get(docRef).get();
+            if (!snapshot.exists()) {
+                return Optional.empty();
+            }
+            QueuedWebhookEvent event = snapshot.toObject(QueuedWebhookEvent.class);
+            if (event == null || event.getAvailableAt() == null || event.getAvailableAt().compareTo(now) > 0) {
+                // Claimed by another worker since the candidate query ran
+                return Optional.empty();
+            }
+            QueuedWebhookEvent leased = event.toBuilder()
+                    .attempts(event.getAttempts() + 1)
+                    .availableAt(leaseExpiry)
+                    .leaseOwner(leaseOwner)
+                    .build();
+            transaction.set(docRef, leased);
+            RequestMetricsService.recordWrites(1);
+            return Optional.of(leased);
+        });
+    }
+
+    private static boolean isLeasedBy(Transaction transaction, DocumentReference docRef, String leaseOwner)
+            throws Exception {
+        RequestMetricsService.recordReads(1);
+        DocumentSnapshot snapshot = transaction.get(docRef).get();
+        return snapshot.exists() && Objects.equals(leaseOwner, snapshot.getString("leaseOwner"));
+    }
+
+    private static Timestamp toTimestamp(Instant instant) {
+        return Timestamp.ofTimeSecondsAndNanos(instant.getEpochSecond(), instant.getNano());
+    }
+
+    private static CollectionReference getQueueRef() {
+        return FirebaseService.getFirestore().collection(CollectionPaths.STRIPE_WEBHOOK_QUEUE);
+    }
+}
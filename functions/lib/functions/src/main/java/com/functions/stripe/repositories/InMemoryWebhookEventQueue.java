@@ -0,0 +1,110 @@
+package com.functions.stripe.repositories;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.functions.stripe.models.QueuedWebhookEvent;
+import com.google.cloud.Timestamp;
+
+/**
+ * Thread-safe in-memory WebhookEventQueue for unit tests. Entries are copied on the way in and
+ * out, so callers never share state with the queue.
+ */
+public class InMemoryWebhookEventQueue implements WebhookEventQueue {
+    private final Map<String, QueuedWebhookEvent> queue = new HashMap<>();
+    private final Map<String, QueuedWebhookEvent> deadLetters = new LinkedHashMap<>();
+
+    @Override
+    public synchronized boolean enqueue(QueuedWebhookEvent event) {
+        if (queue.containsKey(event.getEventId())) {
+            return false;
+        }
+        queue.put(event.getEventId(), event.toBuilder().build());
+        return true;
+    }
+
+    @Override
+    public synchronized List<QueuedWebhookEvent> lease(int maxEvents, String leaseOwner, Duration leaseDuration,
+            Instant now) {
+        Timestamp nowTimestamp = toTimestamp(now);
+        List<QueuedWebhookEvent> candidates = queue.values().stream()
+                .filter(event -> event.getAvailableAt().compareTo(nowTimestamp) <= 0)
+                .sorted(Comparator.comparing(QueuedWebhookEvent::getAvailableAt))
+                .limit(maxEvents)
+                .toList();
+
+        List<QueuedWebhookEvent> leased = new ArrayList<>();
+        for (QueuedWebhookEvent candidate : candidates) {
+            QueuedWebhookEvent claimed = candidate.toBuilder()
+                    .attempts(candidate.getAttempts() + 1)
+                    .availableAt(toTimestamp(now.plus(leaseDuration)))
+                    .leaseOwner(leaseOwner)
+                    .build();
+            queue.put(claimed.getEventId(), claimed);
+            leased.add(claimed.toBuilder().build());
+        }
+        return leased;
+    }
+
+    @Override
+    public synchronized boolean complete(QueuedWebhookEvent event, String leaseOwner) {
+        if (!isLeasedBy(event.getEventId(), leaseOwner)) {
+            return false;
+        }
+        queue.remove(event.getEventId());
+        return true;
+    }
+
+    @Override
+    public synchronized boolean retry(QueuedWebhookEvent event, String leaseOwner, Instant nextAvailableAt,
+            String error) {
+        if (!isLeasedBy(event.getEventId(), leaseOwner)) {
+            return false;
+        }
+        queue.put(event.getEventId(), queue.get(event.getEventId()).toBuilder()
+                .availableAt(toTimestamp(nextAvailableAt))
+                .leaseOwner(null)
+                .lastError(error)
+                .build());
+        return true;
+    }
+
+    @Override
+    public synchronized boolean deadLetter(QueuedWebhookEvent event, String leaseOwner, String error,
+            Instant now) {
+        if (!isLeasedBy(event.getEventId(), leaseOwner)) {
+            return false;
+        }
+        QueuedWebhookEvent removed = queue.remove(event.getEventId());
+        deadLetters.put(event.getEventId(), removed.toBuilder()
+                .leaseOwner(null)
+                .lastError(error)
+                .deadLetteredAt(toTimestamp(now))
+                .build());
+        return true;
+    }
+
+    public synchronized int size() {
+        return queue.size();
+    }
+
+    public synchronized List<QueuedWebhookEvent> getDeadLetters() {
+        return deadLetters.values().stream().map(event -> event.toBuilder().build()).toList();
+    }
+
+    private boolean isLeasedBy(String eventId, String leaseOwner) {
+        QueuedWebhookEvent current = queue.get(eventId);
+        return current != null && Objects.equals(leaseOwner, current.getLeaseOwner());
+    }
+
+    private static Timestamp toTimestamp(Instant instant) {
+        return Timestamp.ofTimeSecondsAndNanos(instant.getEpochSecond(), instant.getNano());
+    }
+}
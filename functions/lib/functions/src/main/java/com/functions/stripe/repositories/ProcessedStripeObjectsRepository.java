@@ -0,0 +1,59 @@
+package com.functions.stripe.repositories;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.functions.firebase.services.FirebaseService;
+import com.functions.firebase.services.FirebaseService.CollectionPaths;
+import com.functions.metrics.services.RequestMetricsService;
+import com.functions.stripe.models.ProcessedStripeObject;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Transaction;
+import com.google.cloud.firestore.WriteBatch;
+
+/**
+ * Repository for the per-event ProcessedStripeObjects subcollection, which replaces the
+ * completedStripeCheckoutSessionIds and completedStripePaymentIntentIds arrays on EventMetadata as
+ * the webhook idempotency record.
+ */
+public class ProcessedStripeObjectsRepository {
+    private static final Logger logger = LoggerFactory.getLogger(ProcessedStripeObjectsRepository.class);
+
+    private ProcessedStripeObjectsRepository() {
+    }
+
+    /**
+     * Point read of the marker for a checkout session or payment intent. Must be called before any
+     * write in the transaction.
+     */
+    public static boolean isProcessed(Transaction transaction, String eventId, String objectId) throws Exception {
+        RequestMetricsService.recordReads(1);
+        DocumentSnapshot snapshot = transaction.get(getProcessedStripeObjectDocRef(eventId, objectId)).get();
+        return snapshot.exists();
+    }
+
+    public static void markProcessed(Transaction transaction, String eventId, ProcessedStripeObject processedObject) {
+        transaction.set(getProcessedStripeObjectDocRef(eventId, processedObject.getObjectId()), processedObject);
+        RequestMetricsService.recordWrites(1);
+        logger.info("Marked {} {} as processed for event {}", processedObject.getObjectType(),
+                processedObject.getObjectId(), eventId);
+    }
+
+    public static void markProcessed(WriteBatch batch, String eventId, ProcessedStripeObject processedObject) {
+        batch.set(getProcessedStripeObjectDocRef(eventId, processedObject.getObjectId()), processedObject);
+        RequestMetricsService.recordWrites(1);
+    }
+
+    private static CollectionReference getProcessedStripeObjectsRef(String eventId) {
+        return FirebaseService.getFirestore()
+                .collection(CollectionPaths.EVENTS_METADATA)
+                .document(eventId)
+                .collection(CollectionPaths.PROCESSED_STRIPE_OBJECTS);
+    }
+
+    private static DocumentReference getProcessedStripeObjectDocRef(String eventId, String objectId) {
+        return getProcessedStripeObjectsRef(eventId).document(objectId);
+    }
+}
@@ -0,0 +1,36 @@
+package com.functions.stripe.repositories;
+
+import java.util.Optional;
+
+import com.functions.firebase.services.FirebaseService;
+import com.functions.firebase.services.FirebaseService.CollectionPaths;
+import com.functions.metrics.services.RequestMetricsService;
+import com.functions.stripe.models.StripeWebhookEvent;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+
+/**
+ * Repository for the global StripeWebhookEvents ledger, keyed by Stripe event ID.
+ */
+public class StripeWebhookEventsRepository {
+    private StripeWebhookEventsRepository() {
+    }
+
+    public static Optional<StripeWebhookEvent> getEvent(String eventId) throws Exception {
+        RequestMetricsService.recordReads(1);
+        DocumentSnapshot snapshot = getEventDocRef(eventId).get().get();
+        if (!snapshot.exists()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(snapshot.toObject(StripeWebhookEvent.class));
+    }
+
+    public static void recordEvent(StripeWebhookEvent webhookEvent) throws Exception {
+        getEventDocRef(webhookEvent.getEventId()).set(webhookEvent).get();
+        RequestMetricsService.recordWrites(1);
+    }
+
+    private static DocumentReference getEventDocRef(String eventId) {
+        return FirebaseService.getFirestore().collection(CollectionPaths.STRIPE_WEBHOOK_EVENTS).document(eventId);
+    }
+}
@@ -0,0 +1,44 @@
+package com.functions.stripe.repositories;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import com.functions.stripe.models.QueuedWebhookEvent;
+
+/**
+ * Durable queue of verified Stripe webhook events. The webhook handler enqueues and acknowledges;
+ * WebhookQueueWorker leases, processes and settles entries.
+ *
+ * FirestoreWebhookEventQueue is the production implementation; InMemoryWebhookEventQueue backs
+ * unit tests. Every settle call names the lease owner and is a no-op returning false if the entry
+ * has since been leased by someone else, so a worker that overran its lease cannot clobber the
+ * worker that took over.
+ */
+public interface WebhookEventQueue {
+
+    /**
+     * Adds the event if it is not already queued.
+     *
+     * @return false if an entry for the event ID already exists
+     */
+    boolean enqueue(QueuedWebhookEvent event) throws Exception;
+
+    /**
+     * Claims up to {@code maxEvents} entries whose availableAt has passed, oldest first. Each
+     * claimed entry has its attempts incremented and is hidden from other leases until
+     * {@code now + leaseDuration}.
+     */
+    List<QueuedWebhookEvent> lease(int maxEvents, String leaseOwner, Duration leaseDuration, Instant now)
+            throws Exception;
+
+    /** Removes a processed entry. */
+    boolean complete(QueuedWebhookEvent event, String leaseOwner) throws Exception;
+
+    /** Releases the lease and makes the entry available again at {@code nextAvailableAt}. */
+    boolean retry(QueuedWebhookEvent event, String leaseOwner, Instant nextAvailableAt, String error)
+            throws Exception;
+
+    /** Moves the entry to the dead-letter collection. */
+    boolean deadLetter(QueuedWebhookEvent event, String leaseOwner, String error, Instant now) throws Exception;
+}
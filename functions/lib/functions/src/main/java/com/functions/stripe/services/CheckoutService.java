@@ -12,9 +12,12 @@ import com.functions.events.models.EventData;
 import com.functions.events.models.ResolvedEventTicketType;
 import com.functions.events.repositories.EventTicketTypeRepository;
 import com.functions.events.repositories.EventsRepository;
+import com.functions.events.services.EventCounterShardsService;
 import com.functions.events.services.EventTicketTypeService;
+import com.functions.events.services.InventoryHoldService;
 import com.functions.events.utils.EventsUtils;
 import com.functions.firebase.services.FirebaseService;
+import com.functions.metrics.services.RequestMetricsService;
 import com.functions.stripe.config.StripeConfig;
 import com.functions.stripe.config.StripeCustomFieldKeys;
 import com.functions.stripe.exceptions.CheckoutVacancyException;
@@ -24,7 +27,6 @@ import com.functions.users.models.PrivateUserData;
 import com.functions.users.services.Users;
 import com.functions.users.utils.UsersUtils;
 import com.google.cloud.firestore.DocumentReference;
-import com.google.cloud.firestore.DocumentSnapshot;
 import com.google.cloud.firestore.Firestore;
 import com.google.cloud.firestore.Transaction;
 import com.stripe.exception.StripeException;
@@ -46,7 +48,8 @@ public class CheckoutService {
     /**
      * Data transfer object holding the result of the checkout transaction.
      */
-    private static record CheckoutTransactionResult(@Nonnull EventData eventData, @Nonnull String stripeAccountId) {}
+    private static record CheckoutTransactionResult(@Nonnull EventData eventData, @Nonnull String stripeAccountId,
+            @Nonnull String inventoryHoldId) {}
 
     /**
      * Creates a Stripe checkout session for an event.
@@ -60,6 +63,7 @@ public class CheckoutService {
      */
     public static CreateStripeCheckoutSessionResponse createStripeCheckoutSession(
             CreateStripeCheckoutSessionRequest request) throws Exception {
+        StripeConfig.initialize();
         logger.info("Creating checkout session for event {} ({} tickets)", request.eventId(), request.quantity());
 
         // Section A: Perform SPORTSHUB domain specific operations
@@ -80,16 +84,21 @@ public class CheckoutService {
             
             String stripeAccountId = validateAndGetStripeAccount(organiserId, privateUserData);
 
-            commitReservation(transaction, request, eventData, privateUserData);
-            logger.info("Reservation committed successfully for event {}", request.eventId());
+            String inventoryHoldId = commitReservation(transaction, request, eventData, privateUserData);
+            logger.info("Reservation committed successfully for event {} (hold {})", request.eventId(),
+                    inventoryHoldId);
 
-            return new CheckoutTransactionResult(eventData, stripeAccountId);
+            return new CheckoutTransactionResult(eventData, stripeAccountId, inventoryHoldId);
         });
+        EventCounterShardsService.syncDisplayCountersIfDue(request.eventId());
 
         // Section B: Create Stripe session (external I/O) with retries
-        StripeSessionResult sessionResult = createStripeSessionWithRetries(request, checkoutTransactionResult.eventData(), checkoutTransactionResult.stripeAccountId());
+        StripeSessionResult sessionResult = createStripeSessionWithRetries(request, checkoutTransactionResult.eventData(),
+                checkoutTransactionResult.stripeAccountId(), checkoutTransactionResult.inventoryHoldId());
         logger.info("Stripe session {} created successfully for event {}", 
                 sessionResult.sessionId(), checkoutTransactionResult.eventData().getEventId());
+        InventoryHoldService.attachCheckoutSession(checkoutTransactionResult.inventoryHoldId(),
+                sessionResult.sessionId(), checkoutTransactionResult.stripeAccountId());
 
         logger.info("Checkout complete for event {}, organiser {}, account {}", 
                 request.eventId(), EventsUtils.extractOrganiserIdForEvent(checkoutTransactionResult.eventData()), checkoutTransactionResult.stripeAccountId());
@@ -137,9 +146,12 @@ public class CheckoutService {
      * @param request Original checkout request - contains event ID, quantity, etc.
      * @param eventData Event data - contains event details
      * @param privateUserData Private user data - contains organiser details
+     * @return ID of the inventory hold recording the reservation
      */
-    private static void commitReservation(Transaction transaction, CreateStripeCheckoutSessionRequest request, EventData eventData, PrivateUserData privateUserData) throws Exception {
-        ResolvedEventTicketType ticketType = EventTicketTypeService.resolveById(eventData, request.eventTicketTypeId());
+    private static String commitReservation(Transaction transaction, CreateStripeCheckoutSessionRequest request, EventData eventData, PrivateUserData privateUserData) throws Exception {
+        ResolvedEventTicketType ticketType = EventTicketTypeRepository.loadShardedVacancy(transaction,
+                request.eventId(), EventTicketTypeService.resolveById(eventData, request.eventTicketTypeId()),
+                request.quantity());
         validateEventForCheckout(eventData, ticketType, request.quantity());
 
         Firestore db = FirebaseService.getFirestore();
@@ -157,45 +169,32 @@ public class CheckoutService {
         logger.info("Reserved {} tickets for event {} type {} at {} cents (vacancy: {} -> {})",
                 request.quantity(), request.eventId(), ticketType.getId(), ticketType.getPrice(), currentVacancy,
                 newVacancy);
+        String inventoryHoldId = InventoryHoldService.createHold(transaction, request.eventId(), request.isPrivate(),
+                ticketType, request.quantity());
         
         // Activate Stripe account if needed
         if (needsActivation) {
             transaction.update(organiserRef, "stripeAccountActive", true);
+            RequestMetricsService.recordWrites(1);
             logger.info("Activated Stripe account for organiser {}", organiserId);
         }
+        return inventoryHoldId;
     }
 
     /**
-     * Reverts the ticket reservation in case of Stripe session creation failure.
+     * Reverts the ticket reservation in case of Stripe session creation failure by releasing its
+     * inventory hold. Releasing is idempotent, so a later sweep of the same hold is harmless.
      * 
      * @param request Original checkout request
+     * @param inventoryHoldId Hold created by the reservation transaction
      */
-    private static void revertReservation(CreateStripeCheckoutSessionRequest request) {
+    private static void revertReservation(CreateStripeCheckoutSessionRequest request, String inventoryHoldId) {
         try {
-            FirebaseService.createFirestoreTransaction(transaction -> {
-                Firestore db = FirebaseService.getFirestore();
-                DocumentReference eventRef = EventsUtils.getEventRef(db, request.eventId(), request.isPrivate());
-                
-                DocumentSnapshot eventSnapshot = transaction.get(eventRef).get();
-                
-                if (eventSnapshot.exists()) {
-                    EventData eventData = eventSnapshot.toObject(EventData.class);
-                    if (eventData == null) {
-                        throw new RuntimeException(
-                                "Could not revert reservation: Event data null for " + request.eventId());
-                    }
-                    eventData.setEventId(request.eventId());
-                    ResolvedEventTicketType ticketType = EventTicketTypeService.resolveById(eventData, request.eventTicketTypeId());
-                    EventTicketTypeRepository.incrementVacancy(transaction, eventRef, ticketType,
-                            request.quantity());
-                    logger.info("Reverted reservation of {} tickets for event {} type {}",
-                            request.quantity(), request.eventId(), ticketType.getId());
-                } else {
-                    logger.error("Could not revert reservation: Event {} not found", request.eventId());
-                    throw new RuntimeException("Could not revert reservation: Event " + request.eventId() + " not found");
-                }
-                return null;
-            });
+            if (InventoryHoldService.releaseHold(inventoryHoldId)) {
+                logger.info("Reverted reservation of {} tickets for event {} type {}",
+                        request.quantity(), request.eventId(), request.eventTicketTypeId());
+            }
+            EventCounterShardsService.syncDisplayCountersIfDue(request.eventId());
         } catch (Exception e) {
             logger.error("Failed to revert reservation for event {}: {}", request.eventId(), e.getMessage(), e);
             throw new RuntimeException("Failed to revert reservation: " + e.getMessage(), e);
@@ -207,7 +206,8 @@ public class CheckoutService {
      * If all retries fail, it triggers a reservation revert.
      */
     private static StripeSessionResult createStripeSessionWithRetries(
-            CreateStripeCheckoutSessionRequest request, EventData eventData, String stripeAccountId) {
+            CreateStripeCheckoutSessionRequest request, EventData eventData, String stripeAccountId,
+            String inventoryHoldId) {
         
         StripeSessionResult sessionResult = null;
         int maxRetries = 5;
@@ -217,7 +217,7 @@ public class CheckoutService {
 
         while (retryCount < maxRetries) {
             try {
-                sessionResult = createStripeSession(request, eventData, stripeAccountId);
+                sessionResult = createStripeSession(request, eventData, stripeAccountId, inventoryHoldId);
                 success = true;
                 break; 
             } catch (StripeException e) {
@@ -245,7 +245,7 @@ public class CheckoutService {
 
         if (!success || sessionResult == null) {
              logger.info("Reverting reservation due to Stripe session failure...");
-             revertReservation(request);
+             revertReservation(request, inventoryHoldId);
              throw new RuntimeException("Stripe session creation failed and reservation was reverted.");
         }
         
@@ -256,7 +256,8 @@ public class CheckoutService {
      * Creates a Stripe checkout session OUTSIDE any transaction.
      */
     private static StripeSessionResult createStripeSession(
-            CreateStripeCheckoutSessionRequest request, EventData eventData, String stripeAccountId) throws StripeException {
+            CreateStripeCheckoutSessionRequest request, EventData eventData, String stripeAccountId,
+            String inventoryHoldId) throws StripeException {
         
         ResolvedEventTicketType ticketType = EventTicketTypeService.resolveById(eventData, request.eventTicketTypeId());
         long unitAmount = ticketType.getPrice() != null ? ticketType.getPrice().longValue() : 0L;
@@ -284,6 +285,7 @@ public class CheckoutService {
                 .putMetadata("endFulfilmentEntityId", 
                         request.endFulfilmentEntityId() != null ? request.endFulfilmentEntityId() : "")
                 .putMetadata("eventTicketTypeId", ticketType.getId())
+                .putMetadata("inventoryHoldId", inventoryHoldId)
                 .addCustomField(SessionCreateParams.CustomField.builder()
                         .setKey(StripeCustomFieldKeys.ATTENDEE_FULL_NAME)
                         .setLabel(SessionCreateParams.CustomField.Label.builder()
@@ -0,0 +1,136 @@
+package com.functions.stripe.services;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.functions.firebase.services.FirebaseService;
+import com.functions.firebase.services.FirebaseService.CollectionPaths;
+import com.functions.stripe.models.ProcessedStripeObject;
+import com.functions.stripe.models.ProcessedStripeObjectType;
+import com.functions.stripe.repositories.ProcessedStripeObjectsRepository;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.WriteBatch;
+
+/**
+ * One-off migration that drains the completedStripeCheckoutSessionIds and
+ * completedStripePaymentIntentIds arrays on every EventMetadata document into the event's
+ * ProcessedStripeObjects subcollection, then deletes the arrays.
+ * <p>
+ * Run it only after the webhook code that writes ProcessedStripeObjects is deployed, so nothing
+ * appends to the arrays while they are being drained. Markers are committed before the arrays are
+ * deleted, so the migration is safe to re-run after a partial failure.
+ */
+public class ProcessedStripeObjectsMigrationService {
+    private static final Logger logger = LoggerFactory.getLogger(ProcessedStripeObjectsMigrationService.class);
+
+    static final String LEGACY_CHECKOUT_SESSION_IDS_FIELD = "completedStripeCheckoutSessionIds";
+    static final String LEGACY_PAYMENT_INTENT_IDS_FIELD = "completedStripePaymentIntentIds";
+    private static final int PAGE_SIZE = 200;
+    private static final int MAX_BATCH_WRITES = 500;
+
+    public record MigrationResult(int eventsScanned, int eventsMigrated, int objectsMigrated) {
+    }
+
+    public static MigrationResult migrateLegacyProcessedIds() throws Exception {
+        Firestore db = FirebaseService.getFirestore();
+        // Only the two legacy arrays are fetched, not purchaserMap or orderIds.
+        Query pageQuery = db.collection(CollectionPaths.EVENTS_METADATA)
+                .select(LEGACY_CHECKOUT_SESSION_IDS_FIELD, LEGACY_PAYMENT_INTENT_IDS_FIELD)
+                .orderBy(FieldPath.documentId())
+                .limit(PAGE_SIZE);
+
+        int eventsScanned = 0;
+        int eventsMigrated = 0;
+        int objectsMigrated = 0;
+        QueryDocumentSnapshot lastDocument = null;
+        while (true) {
+            Query query = lastDocument == null ? pageQuery : pageQuery.startAfter(lastDocument);
+            QuerySnapshot page = query.get().get();
+            for (QueryDocumentSnapshot document : page.getDocuments()) {
+                eventsScanned++;
+                if (!document.contains(LEGACY_CHECKOUT_SESSION_IDS_FIELD)
+                        && !document.contains(LEGACY_PAYMENT_INTENT_IDS_FIELD)) {
+                    continue;
+                }
+                List<ProcessedStripeObject> processedObjects = toProcessedStripeObjects(
+                        toStringList(document.get(LEGACY_CHECKOUT_SESSION_IDS_FIELD)),
+                        toStringList(document.get(LEGACY_PAYMENT_INTENT_IDS_FIELD)));
+                migrateEvent(db, document.getReference(), processedObjects);
+                eventsMigrated++;
+                objectsMigrated += processedObjects.size();
+            }
+            logger.info("Processed Stripe objects migration progress. scanned={}, migrated={}, objects={}",
+                    eventsScanned, eventsMigrated, objectsMigrated);
+            if (page.size() < PAGE_SIZE) {
+                break;
+            }
+            lastDocument = page.getDocuments().get(page.size() - 1);
+        }
+
+        logger.info("Processed Stripe objects migration complete. scanned={}, migrated={}, objects={}",
+                eventsScanned, eventsMigrated, objectsMigrated);
+        return new MigrationResult(eventsScanned, eventsMigrated, objectsMigrated);
+    }
+
+    /**
+     * Builds one marker per distinct, non-blank legacy id. A checkout session id and a payment
+     * intent id can never collide since Stripe prefixes them differently (cs_ / pi_).
+     */
+    static List<ProcessedStripeObject> toProcessedStripeObjects(List<String> checkoutSessionIds,
+            List<String> paymentIntentIds) {
+        Map<String, ProcessedStripeObject> processedObjects = new LinkedHashMap<>();
+        addAll(processedObjects, checkoutSessionIds, ProcessedStripeObjectType.CHECKOUT_SESSION);
+        addAll(processedObjects, paymentIntentIds, ProcessedStripeObjectType.PAYMENT_INTENT);
+        return new ArrayList<>(processedObjects.values());
+    }
+
+    private static void addAll(Map<String, ProcessedStripeObject> processedObjects, List<String> ids,
+            ProcessedStripeObjectType objectType) {
+        for (String id : ids) {
+            if (id != null && !id.isBlank()) {
+                processedObjects.putIfAbsent(id, ProcessedStripeObject.of(id, objectType));
+            }
+        }
+    }
+
+    private static void migrateEvent(Firestore db, DocumentReference eventMetadataRef,
+            List<ProcessedStripeObject> processedObjects) throws Exception {
+        String eventId = eventMetadataRef.getId();
+        for (int start = 0; start < processedObjects.size(); start += MAX_BATCH_WRITES) {
+            WriteBatch batch = db.batch();
+            for (ProcessedStripeObject processedObject : processedObjects.subList(start,
+                    Math.min(start + MAX_BATCH_WRITES, processedObjects.size()))) {
+                ProcessedStripeObjectsRepository.markProcessed(batch, eventId, processedObject);
+            }
+            batch.commit().get();
+        }
+
+        Map<String, Object> deletes = new LinkedHashMap<>();
+        deletes.put(LEGACY_CHECKOUT_SESSION_IDS_FIELD, FieldValue.delete());
+        deletes.put(LEGACY_PAYMENT_INTENT_IDS_FIELD, FieldValue.delete());
+        eventMetadataRef.update(deletes).get();
+    }
+
+    private static List<String> toStringList(Object value) {
+        List<String> ids = new ArrayList<>();
+        if (value instanceof List<?> values) {
+            for (Object id : values) {
+                if (id instanceof String stringId) {
+                    ids.add(stringId);
+                }
+            }
+        }
+        return ids;
+    }
+}
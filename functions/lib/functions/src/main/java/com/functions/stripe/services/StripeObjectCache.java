@@ -0,0 +1,91 @@
+package com.functions.stripe.services;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.stripe.exception.StripeException;
+
+/**
+ * Request-scoped cache of Stripe objects, keyed by type, object ID and connected account.
+ * <p>
+ * EndpointRouter opens a scope around each handler call, so repeated StripeService lookups of the
+ * same object within a request (e.g. booking approval retrieving a PaymentIntent and then capturing
+ * it) make one Stripe call. Mutating StripeService calls store the object Stripe returns and evict
+ * it if the call fails, since the failure usually means the object changed underneath us. Outside a
+ * scope every lookup goes to Stripe.
+ */
+public final class StripeObjectCache {
+    private static final ThreadLocal<Map<Key, Object>> currentCache = new ThreadLocal<>();
+
+    private record Key(Class<?> type, String id, String stripeAccount) {
+    }
+
+    @FunctionalInterface
+    public interface StripeLoader<T> {
+        T load() throws StripeException;
+    }
+
+    /**
+     * Restores the previously open scope when closed.
+     */
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private StripeObjectCache() {
+    }
+
+    /**
+     * Opens a fresh cache on the current thread. Scopes nest; closing one restores the outer cache.
+     */
+    public static Scope open() {
+        Map<Key, Object> previous = currentCache.get();
+        currentCache.set(new HashMap<>());
+        return () -> {
+            if (previous == null) {
+                currentCache.remove();
+            } else {
+                currentCache.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Returns the cached object, or loads and caches it. Failed loads are not cached.
+     */
+    public static <T> T get(Class<T> type, String id, String stripeAccount, StripeLoader<T> loader)
+            throws StripeException {
+        Map<Key, Object> cache = currentCache.get();
+        if (cache == null) {
+            return loader.load();
+        }
+        Key key = new Key(type, id, stripeAccount);
+        Object cached = cache.get(key);
+        if (cached != null) {
+            return type.cast(cached);
+        }
+        T loaded = loader.load();
+        if (loaded != null) {
+            cache.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Replaces the cached copy with the object a mutating call returned.
+     */
+    public static <T> void put(Class<T> type, String id, String stripeAccount, T value) {
+        Map<Key, Object> cache = currentCache.get();
+        if (cache != null && value != null) {
+            cache.put(new Key(type, id, stripeAccount), value);
+        }
+    }
+
+    public static void evict(Class<?> type, String id, String stripeAccount) {
+        Map<Key, Object> cache = currentCache.get();
+        if (cache != null) {
+            cache.remove(new Key(type, id, stripeAccount));
+        }
+    }
+}
@@ -5,6 +5,7 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.functions.stripe.config.StripeConfig;
 import com.functions.stripe.exceptions.CheckoutDateTimeException;
 import com.functions.stripe.exceptions.CheckoutVacancyException;
 import com.functions.stripe.models.requests.CreateStripeCheckoutSessionRequest;
@@ -172,17 +173,26 @@ public class StripeService {
      */
     public static boolean expireCheckoutSession(String checkoutSessionId, String stripeAccountId)
             throws StripeException {
+        StripeConfig.initialize();
         RequestOptions requestOptions = RequestOptions.builder()
                 .setStripeAccount(stripeAccountId)
                 .build();
 
-        Session stripeSession = Session.retrieve(checkoutSessionId, requestOptions);
+        Session stripeSession = StripeObjectCache.get(Session.class, checkoutSessionId, stripeAccountId,
+                () -> Session.retrieve(checkoutSessionId, requestOptions));
         if (isSessionExpired(stripeSession)) {
             logger.info("Stripe checkout session {} is already expired", checkoutSessionId);
             return true;
         }
 
-        Session expiredSession = stripeSession.expire(requestOptions);
+        Session expiredSession;
+        try {
+            expiredSession = stripeSession.expire(requestOptions);
+        } catch (StripeException e) {
+            StripeObjectCache.evict(Session.class, checkoutSessionId, stripeAccountId);
+            throw e;
+        }
+        StripeObjectCache.put(Session.class, checkoutSessionId, stripeAccountId, expiredSession);
         if (isSessionExpired(expiredSession)) {
             logger.info("Expired Stripe checkout session {}", checkoutSessionId);
             return true;
@@ -203,13 +213,10 @@ public class StripeService {
      */
     public static PaymentIntent retrievePaymentIntent(String paymentIntentId, String stripeAccountId)
             throws StripeException {
+        StripeConfig.initialize();
         logger.info("Retrieving PaymentIntent: {} for Stripe account: {}", paymentIntentId, stripeAccountId);
 
-        PaymentIntent paymentIntent = PaymentIntent.retrieve(
-                paymentIntentId,
-                RequestOptions.builder()
-                        .setStripeAccount(stripeAccountId)
-                        .build());
+        PaymentIntent paymentIntent = getPaymentIntent(paymentIntentId, stripeAccountId);
 
         logger.info("Retrieved PaymentIntent: {}, status: {}", paymentIntent.getId(), paymentIntent.getStatus());
         return paymentIntent;
@@ -228,21 +235,25 @@ public class StripeService {
      */
     public static PaymentIntent capturePaymentIntent(String paymentIntentId, String stripeAccountId)
             throws StripeException {
+        StripeConfig.initialize();
         logger.info("Capturing PaymentIntent: {} for Stripe account: {}", paymentIntentId, stripeAccountId);
 
-        PaymentIntent paymentIntent = PaymentIntent.retrieve(
-                paymentIntentId,
-                RequestOptions.builder()
-                        .setStripeAccount(stripeAccountId)
-                        .build());
+        PaymentIntent paymentIntent = getPaymentIntent(paymentIntentId, stripeAccountId);
 
         PaymentIntentCaptureParams params = PaymentIntentCaptureParams.builder().build();
 
-        PaymentIntent capturedPaymentIntent = paymentIntent.capture(
-                params,
-                RequestOptions.builder()
-                        .setStripeAccount(stripeAccountId)
-                        .build());
+        PaymentIntent capturedPaymentIntent;
+        try {
+            capturedPaymentIntent = paymentIntent.capture(
+                    params,
+                    RequestOptions.builder()
+                            .setStripeAccount(stripeAccountId)
+                            .build());
+        } catch (StripeException e) {
+            StripeObjectCache.evict(PaymentIntent.class, paymentIntentId, stripeAccountId);
+            throw e;
+        }
+        StripeObjectCache.put(PaymentIntent.class, paymentIntentId, stripeAccountId, capturedPaymentIntent);
 
         logger.info("Successfully captured PaymentIntent: {}, status: {}",
                 capturedPaymentIntent.getId(), capturedPaymentIntent.getStatus());
@@ -261,21 +272,25 @@ public class StripeService {
      */
     public static PaymentIntent cancelPaymentIntent(String paymentIntentId, String stripeAccountId)
             throws StripeException {
+        StripeConfig.initialize();
         logger.info("Canceling PaymentIntent: {} for Stripe account: {}", paymentIntentId, stripeAccountId);
 
-        PaymentIntent paymentIntent = PaymentIntent.retrieve(
-                paymentIntentId,
-                RequestOptions.builder()
-                        .setStripeAccount(stripeAccountId)
-                        .build());
+        PaymentIntent paymentIntent = getPaymentIntent(paymentIntentId, stripeAccountId);
 
         PaymentIntentCancelParams params = PaymentIntentCancelParams.builder().build();
 
-        PaymentIntent canceledPaymentIntent = paymentIntent.cancel(
-                params,
-                RequestOptions.builder()
-                        .setStripeAccount(stripeAccountId)
-                        .build());
+        PaymentIntent canceledPaymentIntent;
+        try {
+            canceledPaymentIntent = paymentIntent.cancel(
+                    params,
+                    RequestOptions.builder()
+                            .setStripeAccount(stripeAccountId)
+                            .build());
+        } catch (StripeException e) {
+            StripeObjectCache.evict(PaymentIntent.class, paymentIntentId, stripeAccountId);
+            throw e;
+        }
+        StripeObjectCache.put(PaymentIntent.class, paymentIntentId, stripeAccountId, canceledPaymentIntent);
 
         logger.info("Successfully canceled PaymentIntent: {}, status: {}",
                 canceledPaymentIntent.getId(), canceledPaymentIntent.getStatus());
@@ -283,6 +298,19 @@ public class StripeService {
         return canceledPaymentIntent;
     }
 
+    /**
+     * Reads a PaymentIntent through the request's StripeObjectCache.
+     */
+    private static PaymentIntent getPaymentIntent(String paymentIntentId, String stripeAccountId)
+            throws StripeException {
+        return StripeObjectCache.get(PaymentIntent.class, paymentIntentId, stripeAccountId,
+                () -> PaymentIntent.retrieve(
+                        paymentIntentId,
+                        RequestOptions.builder()
+                                .setStripeAccount(stripeAccountId)
+                                .build()));
+    }
+
     private static boolean isSessionExpired(Session session) {
         return "expired".equals(session.getStatus());
     }
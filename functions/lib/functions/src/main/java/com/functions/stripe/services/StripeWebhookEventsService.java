@@ -0,0 +1,54 @@
+package com.functions.stripe.services;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.functions.stripe.models.StripeWebhookEvent;
+import com.functions.stripe.repositories.StripeWebhookEventsRepository;
+import com.google.cloud.Timestamp;
+
+/**
+ * Event-level webhook dedupe. This is a fast path only: both methods fail open, and the
+ * transactional ProcessedStripeObjects markers remain what makes webhook side effects idempotent.
+ */
+public class StripeWebhookEventsService {
+    private static final Logger logger = LoggerFactory.getLogger(StripeWebhookEventsService.class);
+
+    /** Stripe retries for up to three days; keep entries comfortably longer than that. */
+    static final long RETENTION_SECONDS = TimeUnit.DAYS.toSeconds(30);
+
+    private StripeWebhookEventsService() {
+    }
+
+    /**
+     * @return the ledger entry if the event was already handled successfully; empty if not, or if
+     *         the ledger could not be read
+     */
+    public static Optional<StripeWebhookEvent> findProcessedEvent(String eventId) {
+        try {
+            return StripeWebhookEventsRepository.getEvent(eventId);
+        } catch (Exception e) {
+            logger.warn("Failed to read StripeWebhookEvents ledger for {}; processing normally", eventId, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Records a successfully handled event. Failures are logged only: a missing entry just means a
+     * redelivery takes the slow path.
+     */
+    public static void recordProcessedEvent(String eventId, String eventType, String stripeAccount,
+            int responseStatus) {
+        Timestamp now = Timestamp.now();
+        StripeWebhookEvent webhookEvent = new StripeWebhookEvent(eventId, eventType, stripeAccount, responseStatus,
+                now, Timestamp.ofTimeSecondsAndNanos(now.getSeconds() + RETENTION_SECONDS, now.getNanos()));
+        try {
+            StripeWebhookEventsRepository.recordEvent(webhookEvent);
+        } catch (Exception e) {
+            logger.warn("Failed to record Stripe webhook event {} in ledger", eventId, e);
+        }
+    }
+}
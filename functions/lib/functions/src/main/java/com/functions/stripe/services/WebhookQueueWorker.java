@@ -0,0 +1,172 @@
+package com.functions.stripe.services;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.functions.global.handlers.Global;
+import com.functions.stripe.models.QueuedWebhookEvent;
+import com.functions.stripe.repositories.WebhookEventQueue;
+
+/**
+ * Drains a WebhookEventQueue with bounded concurrency. Each round leases at most
+ * {@code concurrency} entries, processes them in parallel and settles each one: a success is
+ * removed, a failure is made available again after an exponential backoff, and an entry that has
+ * failed {@code maxAttempts} times is moved to the dead-letter collection.
+ */
+public class WebhookQueueWorker {
+    private static final Logger logger = LoggerFactory.getLogger(WebhookQueueWorker.class);
+
+    @FunctionalInterface
+    public interface WebhookEventProcessor {
+        /**
+         * @return true if the event was handled and can be removed from the queue
+         */
+        boolean process(QueuedWebhookEvent event) throws Exception;
+    }
+
+    public record Settings(int concurrency, Duration leaseDuration, int maxAttempts, Duration initialBackoff,
+            Duration maxBackoff) {
+
+        public static final Settings DEFAULT = new Settings(4, Duration.ofMinutes(5), 8, Duration.ofSeconds(30),
+                Duration.ofMinutes(30));
+
+        public static Settings fromEnv() {
+            return new Settings(
+                    Global.getIntEnv("WEBHOOK_WORKER_CONCURRENCY", DEFAULT.concurrency(), 1),
+                    DEFAULT.leaseDuration(),
+                    Global.getIntEnv("WEBHOOK_WORKER_MAX_ATTEMPTS", DEFAULT.maxAttempts(), 1),
+                    DEFAULT.initialBackoff(),
+                    DEFAULT.maxBackoff());
+        }
+    }
+
+    public record DrainResult(int leased, int succeeded, int retried, int deadLettered) {
+    }
+
+    private enum Outcome {
+        SUCCEEDED, RETRIED, DEAD_LETTERED, LOST_LEASE
+    }
+
+    private final WebhookEventQueue queue;
+    private final WebhookEventProcessor processor;
+    private final Settings settings;
+    private final Clock clock;
+    private final ExecutorService executor;
+
+    public WebhookQueueWorker(WebhookEventQueue queue, WebhookEventProcessor processor, Settings settings,
+            Clock clock) {
+        this.queue = queue;
+        this.processor = processor;
+        this.settings = settings;
+        this.clock = clock;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(settings.concurrency(), runnable -> {
+            Thread thread = new Thread(runnable, "webhook-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Leases and processes rounds of events until the queue has nothing available or
+     * {@code budget} has elapsed. A round that starts before the deadline always finishes, so the
+     * budget should leave room for one round inside the function timeout.
+     */
+    public DrainResult drain(Duration budget) throws Exception {
+        String leaseOwner = UUID.randomUUID().toString();
+        Instant deadline = clock.instant().plus(budget);
+        int leased = 0;
+        int succeeded = 0;
+        int retried = 0;
+        int deadLettered = 0;
+
+        while (clock.instant().isBefore(deadline)) {
+            List<QueuedWebhookEvent> batch = queue.lease(settings.concurrency(), leaseOwner,
+                    settings.leaseDuration(), clock.instant());
+            if (batch.isEmpty()) {
+                break;
+            }
+            leased += batch.size();
+
+            List<Future<Outcome>> futures = new ArrayList<>(batch.size());
+            for (QueuedWebhookEvent event : batch) {
+                futures.add(executor.submit(() -> processAndSettle(event, leaseOwner)));
+            }
+            for (Future<Outcome> future : futures) {
+                switch (awaitOutcome(future)) {
+                    case SUCCEEDED -> succeeded++;
+                    case RETRIED -> retried++;
+                    case DEAD_LETTERED -> deadLettered++;
+                    case LOST_LEASE -> {
+                    }
+                }
+            }
+        }
+
+        logger.info("Webhook queue drain complete. leased={}, succeeded={}, retried={}, deadLettered={}", leased,
+                succeeded, retried, deadLettered);
+        return new DrainResult(leased, succeeded, retried, deadLettered);
+    }
+
+    /**
+     * Delay before the next attempt after {@code attempts} failures: initialBackoff doubled per
+     * failure, capped at maxBackoff.
+     */
+    Duration backoff(int attempts) {
+        int doublings = Math.max(0, Math.min(attempts - 1, 30));
+        Duration delay = settings.initialBackoff().multipliedBy(1L << doublings);
+        return delay.compareTo(settings.maxBackoff()) > 0 ? settings.maxBackoff() : delay;
+    }
+
+    private Outcome processAndSettle(QueuedWebhookEvent event, String leaseOwner) throws Exception {
+        String error;
+        try {
+            if (processor.process(event)) {
+                return queue.complete(event, leaseOwner) ? Outcome.SUCCEEDED : lostLease(event);
+            }
+            error = "Processor reported failure";
+        } catch (Exception e) {
+            logger.error("Error processing queued webhook event {} (attempt {})", event.getEventId(),
+                    event.getAttempts(), e);
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        }
+
+        Instant now = clock.instant();
+        if (event.getAttempts() >= settings.maxAttempts()) {
+            logger.error("Queued webhook event {} ({}) failed {} times; moving to dead letters. lastError={}",
+                    event.getEventId(), event.getEventType(), event.getAttempts(), error);
+            return queue.deadLetter(event, leaseOwner, error, now) ? Outcome.DEAD_LETTERED : lostLease(event);
+        }
+        Duration delay = backoff(event.getAttempts());
+        logger.warn("Queued webhook event {} failed attempt {}; retrying in {}s. error={}", event.getEventId(),
+                event.getAttempts(), delay.toSeconds(), error);
+        return queue.retry(event, leaseOwner, now.plus(delay), error) ? Outcome.RETRIED : lostLease(event);
+    }
+
+    private static Outcome lostLease(QueuedWebhookEvent event) {
+        logger.warn("Lease on queued webhook event {} expired before it was settled", event.getEventId());
+        return Outcome.LOST_LEASE;
+    }
+
+    private static Outcome awaitOutcome(Future<Outcome> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            // Settling failed; the lease expires and the entry is picked up again
+            logger.error("Failed to settle queued webhook event", e.getCause());
+            return Outcome.LOST_LEASE;
+        }
+    }
+}
@@ -11,30 +11,49 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.functions.attendee.services.EventAttendeeSummaryService;
+import com.functions.emails.EmailOutboxService;
 import com.functions.emails.EmailService;
+import com.functions.emails.models.EmailOutboxKind;
+import com.functions.firebase.repositories.DocumentStoreTransaction;
+import com.functions.firebase.repositories.FirestoreDocumentStore;
+import com.functions.metrics.services.RequestMetricsService;
 import com.functions.utils.TimeUtils;
 import com.functions.events.models.Attendee;
 import com.functions.events.models.EventData;
 import com.functions.events.models.EventMetadata;
+import com.functions.events.models.InventoryHold;
 import com.functions.events.models.Purchaser;
 import com.functions.events.models.ResolvedEventTicketType;
 import com.functions.events.repositories.EventTicketTypeRepository;
+import com.functions.events.repositories.EventsRepository;
+import com.functions.events.services.EventCounterShardsService;
 import com.functions.events.services.EventTicketTypeService;
+import com.functions.events.services.InventoryHoldService;
+import com.functions.firebase.models.BatchGetResult;
 import com.functions.firebase.services.FirebaseService;
 import com.functions.firebase.services.FirebaseService.CollectionPaths;
 import com.functions.fulfilment.models.fulfilmentEntities.FormsFulfilmentEntity;
 import com.functions.fulfilment.models.fulfilmentEntities.FulfilmentEntity;
 import com.functions.fulfilment.models.fulfilmentSession.FulfilmentSession;
 import com.functions.fulfilment.services.FulfilmentService;
+import com.functions.global.handlers.Global;
+import com.functions.stripe.models.ProcessedStripeObject;
+import com.functions.stripe.models.ProcessedStripeObjectType;
+import com.functions.stripe.repositories.ProcessedStripeObjectsRepository;
+import com.functions.tickets.models.EventSalesDelta;
 import com.functions.tickets.models.Order;
 import com.functions.tickets.models.OrderAndTicketStatus;
 import com.functions.tickets.models.Ticket;
 import com.functions.tickets.repositories.OrdersRepository;
 import com.functions.tickets.repositories.TicketsRepository;
+import com.functions.tickets.services.EventSalesAggregateService;
+import com.functions.wrapped.services.WrappedAggregateService;
 import com.google.api.core.ApiFuture;
 import com.google.cloud.Timestamp;
 import com.google.cloud.firestore.DocumentReference;
@@ -55,6 +74,10 @@ public class WebhookService {
     private static final int MAX_PURCHASE_EMAIL_RETRIES = 3;
     private static final long FULFILMENT_RETRY_DELAY_MS = 2000;
     private static final long PURCHASE_EMAIL_INITIAL_RETRY_DELAY_MS = 1000;
+    // Set PROCESSED_STRIPE_OBJECTS_LEGACY_FALLBACK=false once the ProcessedStripeObjects migration has
+    // drained the legacy EventMetadata arrays, so duplicate checks stop reading the metadata document.
+    private static final boolean LEGACY_PROCESSED_IDS_FALLBACK =
+            !"false".equalsIgnoreCase(Global.getEnv("PROCESSED_STRIPE_OBJECTS_LEGACY_FALLBACK"));
 
     private enum PaymentIntentCancellationTransactionResult {
         PROCESSED,
@@ -92,6 +115,7 @@ public class WebhookService {
             DocumentReference fulfilmentSessionRef = db.collection(CollectionPaths.FULFILMENT_SESSIONS_ROOT_PATH)
                 .document(fulfilmentSessionId);
             
+            RequestMetricsService.recordReads(1);
             DocumentSnapshot fulfilmentSessionSnapshot = transaction.get(fulfilmentSessionRef).get();
             
             if (!fulfilmentSessionSnapshot.exists()) {
@@ -170,23 +194,11 @@ public class WebhookService {
      */
     private static boolean checkIfSessionHasBeenProcessedAlready(
             Transaction transaction, String checkoutSessionId, String eventId) throws Exception {
-        
-        Firestore db = FirebaseService.getFirestore();
-        DocumentReference eventMetadataRef = db.collection(CollectionPaths.EVENTS_METADATA).document(eventId);
-        
-        DocumentSnapshot eventMetadataSnapshot = transaction.get(eventMetadataRef).get();
-        
-        if (!eventMetadataSnapshot.exists()) {
-            logger.error("Unable to find event provided in datastore to fulfill purchase. eventId={}", eventId);
-            return false;
-        }
-        
-        EventMetadata eventMetadata = eventMetadataSnapshot.toObject(EventMetadata.class);
-        if (eventMetadata == null) {
-            return false;
+        if (ProcessedStripeObjectsRepository.isProcessed(transaction, eventId, checkoutSessionId)) {
+            return true;
         }
-        
-        return getProcessedCheckoutSessionIds(eventMetadata).contains(checkoutSessionId);
+        return LEGACY_PROCESSED_IDS_FALLBACK && legacyProcessedIdsContain(
+                transaction, eventId, checkoutSessionId, EventMetadata::getCompletedStripeCheckoutSessionIds);
     }
 
     /**
@@ -199,9 +211,27 @@ public class WebhookService {
      */
     private static boolean checkIfPaymentIntentHasBeenProcessedAlready(
             Transaction transaction, String paymentIntentId, String eventId) throws Exception {
+        if (ProcessedStripeObjectsRepository.isProcessed(transaction, eventId, paymentIntentId)) {
+            return true;
+        }
+        return LEGACY_PROCESSED_IDS_FALLBACK && legacyProcessedIdsContain(
+                transaction, eventId, paymentIntentId, EventMetadata::getCompletedStripePaymentIntentIds);
+    }
+
+    /**
+     * Checks the legacy id arrays on EventMetadata for objects processed before the
+     * ProcessedStripeObjects subcollection existed. Only needed until
+     * ProcessedStripeObjectsMigrationService has drained every event.
+     */
+    private static boolean legacyProcessedIdsContain(
+            Transaction transaction,
+            String eventId,
+            String objectId,
+            Function<EventMetadata, List<String>> legacyIds) throws Exception {
 
         Firestore db = FirebaseService.getFirestore();
         DocumentReference eventMetadataRef = db.collection(CollectionPaths.EVENTS_METADATA).document(eventId);
+        RequestMetricsService.recordReads(1);
         DocumentSnapshot eventMetadataSnapshot = transaction.get(eventMetadataRef).get();
 
         if (!eventMetadataSnapshot.exists()) {
@@ -214,24 +244,8 @@ public class WebhookService {
             return false;
         }
 
-        List<String> completedPaymentIntents = eventMetadata.getCompletedStripePaymentIntentIds();
-        if (completedPaymentIntents == null) {
-            return false;
-        }
-
-        return completedPaymentIntents.contains(paymentIntentId);
-    }
-
-    private static List<String> getProcessedCheckoutSessionIds(EventMetadata eventMetadata) {
-        List<String> processedSessionIds = new ArrayList<>();
-        if (eventMetadata == null) {
-            return processedSessionIds;
-        }
-
-        if (eventMetadata.getCompletedStripeCheckoutSessionIds() != null) {
-            processedSessionIds.addAll(eventMetadata.getCompletedStripeCheckoutSessionIds());
-        }
-        return processedSessionIds;
+        List<String> processedIds = legacyIds.apply(eventMetadata);
+        return processedIds != null && processedIds.contains(objectId);
     }
 
     private static String hashEmail(String email) {
@@ -348,12 +362,6 @@ public class WebhookService {
         if (resolvedMetadata.getCompleteTicketCount() == null) {
             resolvedMetadata.setCompleteTicketCount(0);
         }
-        if (resolvedMetadata.getCompletedStripeCheckoutSessionIds() == null) {
-            resolvedMetadata.setCompletedStripeCheckoutSessionIds(new ArrayList<>());
-        }
-        if (resolvedMetadata.getCompletedStripePaymentIntentIds() == null) {
-            resolvedMetadata.setCompletedStripePaymentIntentIds(new ArrayList<>());
-        }
         if (resolvedMetadata.getOrderIds() == null) {
             resolvedMetadata.setOrderIds(new ArrayList<>());
         }
@@ -534,6 +542,7 @@ public class WebhookService {
             DocumentReference eventMetadataRef,
             String organiserId) throws Exception {
 
+        RequestMetricsService.recordReads(1);
         DocumentSnapshot metadataSnapshot = transaction.get(eventMetadataRef).get();
         EventMetadata existingEventMetadata = metadataSnapshot.exists()
                 ? metadataSnapshot.toObject(EventMetadata.class)
@@ -557,6 +566,7 @@ public class WebhookService {
      * @param fulfilmentSessionId The fulfilment session ID (can be null)
      * @param paymentIntentId The Stripe payment intent ID
      * @param captureMethod The Stripe payment intent capture method
+     * @param inventoryHoldId The inventory hold from checkout (null for sessions created before holds)
      * @return The order ID if successful, null otherwise
      */
     private static String fulfillCompletedEventTicketPurchase(
@@ -572,7 +582,8 @@ public class WebhookService {
             String fulfilmentSessionId,
             String paymentIntentId,
             String captureMethod,
-            String eventTicketTypeId) throws Exception {
+            String eventTicketTypeId,
+            String inventoryHoldId) throws Exception {
         
         Firestore db = FirebaseService.getFirestore();
         String privacyPath = isPrivate ? CollectionPaths.PRIVATE : CollectionPaths.PUBLIC;
@@ -586,6 +597,7 @@ public class WebhookService {
         List<String> formResponseIds = getFormResponseIdsFromFulfilmentSession(transaction, fulfilmentSessionId);
         
         // Read event data
+        RequestMetricsService.recordReads(1);
         ApiFuture<DocumentSnapshot> eventFuture = transaction.get(eventRef);
         DocumentSnapshot eventSnapshot = eventFuture.get();
         
@@ -603,6 +615,10 @@ public class WebhookService {
         event.setEventId(eventId);
 
         ResolvedEventTicketType ticketType = EventTicketTypeService.resolveById(event, eventTicketTypeId);
+        Optional<InventoryHold> inventoryHold = InventoryHoldService.getHold(transaction, inventoryHoldId);
+        if (inventoryHold.isPresent()) {
+            ticketType = InventoryHoldService.prepareConfirm(transaction, inventoryHold.get(), ticketType);
+        }
         
         LineItem item = getSingleCheckoutLineItem(lineItems, checkoutSessionId, false);
         if (item == null) {
@@ -622,6 +638,7 @@ public class WebhookService {
         }
         
         // Read event metadata
+        RequestMetricsService.recordReads(1);
         ApiFuture<DocumentSnapshot> metadataFuture = transaction.get(eventMetadataRef);
         DocumentSnapshot maybeEventMetadata = metadataFuture.get();
         
@@ -642,11 +659,15 @@ public class WebhookService {
         // completeTicketCount is used by dashboards (EventDrilldownStatBanner, AttendeeService,
         // ReservedSlotService) so it is kept up to date; purchaserMap is deprecated and no
         // longer written.
-        eventMetadata.setCompleteTicketCount(eventMetadata.getCompleteTicketCount() + quantity.intValue());
+        boolean shardedCounters = EventCounterShardsService.getShardCount(event) > 0;
+        if (!shardedCounters) {
+            eventMetadata.setCompleteTicketCount(eventMetadata.getCompleteTicketCount() + quantity.intValue());
+        }
         logger.info("Incremented completeTicketCount for event {}. email={}, name={}",
                 eventId, customerEmail, fullName);
         
         List<String> ticketIds = new ArrayList<>();
+        EventSalesDelta salesDelta = new EventSalesDelta();
         
         // Create tickets
         for (int i = 0; i < quantity; i++) {
@@ -668,7 +689,9 @@ public class WebhookService {
             EventTicketTypeService.stampTicket(ticket, ticketType);
             
             transaction.create(ticketRef, ticket);
+            RequestMetricsService.recordWrites(1);
             ticketIds.add(ticketRef.getId());
+            salesDelta.addTicket(ticket);
         }
         
         // Create order
@@ -685,10 +708,23 @@ public class WebhookService {
         order.setStatus(status);
         
         transaction.set(orderRef, order);
+        RequestMetricsService.recordWrites(1);
+        DocumentStoreTransaction storeTransaction = FirestoreDocumentStore.forTransaction(transaction);
+        EventAttendeeSummaryService.recordOrder(storeTransaction, eventId, orderRef.getId(), order, ticketIds.size());
+        EventSalesAggregateService.apply(storeTransaction, eventId, salesDelta.addOrder(order));
+        WrappedAggregateService.recordOrderChange(storeTransaction, event, order, salesDelta);
 
         appendUniqueValue(eventMetadata.getOrderIds(), orderRef.getId());
-        appendUniqueValue(eventMetadata.getCompletedStripeCheckoutSessionIds(), checkoutSessionId);
         transaction.set(eventMetadataRef, eventMetadata);
+        RequestMetricsService.recordWrites(1);
+        if (shardedCounters) {
+            EventCounterShardsService.incrementCompleteTicketCount(transaction, event, eventMetadataRef, quantity);
+        }
+        if (inventoryHold.isPresent()) {
+            InventoryHoldService.confirmHold(transaction, inventoryHold.get(), eventRef, ticketType);
+        }
+        ProcessedStripeObjectsRepository.markProcessed(transaction, eventId,
+                ProcessedStripeObject.of(checkoutSessionId, ProcessedStripeObjectType.CHECKOUT_SESSION));
         
         return orderRef.getId();
     }
@@ -719,7 +755,7 @@ public class WebhookService {
         throw new IllegalArgumentException("Tickets are missing eventTicketTypeId");
     }
 
-    private static void restockTickets(
+    private static EventData restockTickets(
             Transaction transaction,
             String eventId,
             boolean isPrivate,
@@ -733,6 +769,7 @@ public class WebhookService {
                 .collection(privacyPath)
                 .document(eventId);
 
+        RequestMetricsService.recordReads(1);
         DocumentSnapshot eventSnapshot = transaction.get(eventRef).get();
         if (!eventSnapshot.exists()) {
             throw new IllegalStateException("Event does not exist for restock. eventId=" + eventId);
@@ -750,6 +787,7 @@ public class WebhookService {
 
         ResolvedEventTicketType ticketType = EventTicketTypeService.resolveById(eventData, eventTicketTypeId);
         EventTicketTypeRepository.incrementVacancy(transaction, eventRef, ticketType, ticketCount);
+        return eventData;
     }
 
     private static void updateTicketsStatusToRejected(
@@ -760,6 +798,7 @@ public class WebhookService {
         for (String ticketId : ticketIds) {
             DocumentReference ticketRef = db.collection(CollectionPaths.TICKETS).document(ticketId);
             transaction.update(ticketRef, "status", OrderAndTicketStatus.REJECTED.name());
+            RequestMetricsService.recordWrites(1);
             logger.info("Updated ticket {} status to REJECTED", ticketId);
         }
     }
@@ -771,6 +810,7 @@ public class WebhookService {
         Firestore db = FirebaseService.getFirestore();
         DocumentReference orderRef = db.collection(CollectionPaths.ORDERS).document(orderId);
         transaction.update(orderRef, "status", OrderAndTicketStatus.REJECTED.name());
+        RequestMetricsService.recordWrites(1);
         logger.info("Updated order {} status to REJECTED", orderId);
     }
 
@@ -791,29 +831,47 @@ public class WebhookService {
         EventMetadata eventMetadata = getOrInitializeEventMetadata(transaction, eventMetadataRef, organiserId);
         Order order = OrdersRepository.getOrderById(orderId, Optional.of(transaction))
                 .orElseThrow(() -> new IllegalStateException("Order not found for payment intent cancellation: " + orderId));
-        List<Ticket> tickets = TicketsRepository.getTicketsByIds(ticketIds, Optional.of(transaction));
-        if (tickets.size() != ticketIds.size()) {
+        BatchGetResult<Ticket> ticketsResult = TicketsRepository.getTicketsBatch(ticketIds, Optional.of(transaction));
+        if (ticketsResult.hasMissing()) {
             throw new IllegalStateException(String.format(
-                    "Expected %d tickets for order %s but found %d",
+                    "Expected %d tickets for order %s but tickets %s were not found",
                     ticketIds.size(),
                     orderId,
-                    tickets.size()));
+                    ticketsResult.missingIds()));
         }
+        List<Ticket> tickets = ticketsResult.found();
 
         // purchaserMap is deprecated — only decrement completeTicketCount.
         int canceledTicketCount = tickets.size();
-        int currentCount = eventMetadata.getCompleteTicketCount() != null ? eventMetadata.getCompleteTicketCount() : 0;
-        eventMetadata.setCompleteTicketCount(Math.max(0, currentCount - canceledTicketCount));
-
-        restockTickets(transaction, eventId, isPrivate, tickets.size(),
+        EventData eventData = restockTickets(transaction, eventId, isPrivate, canceledTicketCount,
                 resolveEventTicketTypeIdFromTickets(tickets));
+        boolean shardedCounters = EventCounterShardsService.getShardCount(eventData) > 0;
+        if (!shardedCounters) {
+            int currentCount = eventMetadata.getCompleteTicketCount() != null ? eventMetadata.getCompleteTicketCount() : 0;
+            eventMetadata.setCompleteTicketCount(Math.max(0, currentCount - canceledTicketCount));
+        }
         updateTicketsStatusToRejected(transaction, ticketIds);
         updateOrderStatusToRejected(transaction, orderId);
+        DocumentStoreTransaction storeTransaction = FirestoreDocumentStore.forTransaction(transaction);
+        EventAttendeeSummaryService.removeOrder(storeTransaction, eventId, orderId);
+        EventSalesDelta salesDelta = new EventSalesDelta().removeOrder(order);
+        for (Ticket ticket : tickets) {
+            salesDelta.removeTicket(ticket);
+            ticket.setStatus(OrderAndTicketStatus.REJECTED);
+            salesDelta.addTicket(ticket);
+        }
+        order.setStatus(OrderAndTicketStatus.REJECTED);
+        EventSalesAggregateService.apply(storeTransaction, eventId, salesDelta.addOrder(order));
+        WrappedAggregateService.recordOrderChange(storeTransaction, eventData, order, salesDelta);
 
-        appendUniqueValue(eventMetadata.getCompletedStripePaymentIntentIds(), paymentIntentId);
         transaction.set(eventMetadataRef, eventMetadata);
-        logger.info("Added payment intent {} to completedStripePaymentIntentIds for event {}",
-                paymentIntentId, eventId);
+        RequestMetricsService.recordWrites(1);
+        if (shardedCounters) {
+            EventCounterShardsService.incrementCompleteTicketCount(transaction, eventData, eventMetadataRef,
+                    -canceledTicketCount);
+        }
+        ProcessedStripeObjectsRepository.markProcessed(transaction, eventId,
+                ProcessedStripeObject.of(paymentIntentId, ProcessedStripeObjectType.PAYMENT_INTENT));
     }
 
     public static boolean sendPurchaseEmailWithRetries(
@@ -876,6 +934,7 @@ public class WebhookService {
         data.put("checkout_sessions", FieldValue.arrayUnion(serializeCheckoutSessionForFirestore(checkoutSession)));
         
         transaction.set(attendeeRef, data, com.google.cloud.firestore.SetOptions.merge());
+        RequestMetricsService.recordWrites(1);
     }
 
     private static LineItem getSingleCheckoutLineItem(
@@ -938,7 +997,8 @@ public class WebhookService {
             String eventId,
             boolean isPrivate,
             List<LineItem> lineItems,
-            String eventTicketTypeId) throws Exception {
+            String eventTicketTypeId,
+            String inventoryHoldId) throws Exception {
         
         Firestore db = FirebaseService.getFirestore();
         String privacyPath = isPrivate ? CollectionPaths.PRIVATE : CollectionPaths.PUBLIC;
@@ -952,6 +1012,7 @@ public class WebhookService {
         long quantity = getRequiredCheckoutQuantity(lineItems, checkoutSessionId, true);
         
         // Verify event exists before updating vacancy to avoid transaction commit failures
+        RequestMetricsService.recordReads(1);
         ApiFuture<DocumentSnapshot> eventFuture = transaction.get(eventRef);
         DocumentSnapshot eventSnapshot = eventFuture.get();
         
@@ -969,15 +1030,17 @@ public class WebhookService {
         ResolvedEventTicketType ticketType = EventTicketTypeService.resolveById(eventData, eventTicketTypeId);
         
         // Firestore transactions require all reads to complete before the first write.
+        Optional<InventoryHold> inventoryHold = InventoryHoldService.getHold(transaction, inventoryHoldId);
         EventMetadata eventMetadata = getOrInitializeEventMetadata(
                 transaction,
                 eventMetadataRef,
                 eventSnapshot.getString("organiserId"));
-        appendUniqueValue(eventMetadata.getCompletedStripeCheckoutSessionIds(), checkoutSessionId);
 
-        // Restock General Admission vacancy
-        EventTicketTypeRepository.incrementVacancy(transaction, eventRef, ticketType, quantity);
+        InventoryHoldService.restockExpiredCheckout(transaction, inventoryHold, eventRef, ticketType, quantity);
         transaction.set(eventMetadataRef, eventMetadata);
+        RequestMetricsService.recordWrites(1);
+        ProcessedStripeObjectsRepository.markProcessed(transaction, eventId,
+                ProcessedStripeObject.of(checkoutSessionId, ProcessedStripeObjectType.CHECKOUT_SESSION));
     }
     
     /**
@@ -996,6 +1059,7 @@ public class WebhookService {
      * @param endFulfilmentEntityId The end fulfilment entity ID
      * @param paymentIntentId The Stripe payment intent ID
      * @param captureMethod The Stripe payment intent capture method
+     * @param inventoryHoldId The inventory hold from checkout, if any
      * @return true if successful, false otherwise
      */
     public static boolean fulfilmentWorkflowOnTicketPurchase(
@@ -1011,9 +1075,13 @@ public class WebhookService {
             String endFulfilmentEntityId,
             String paymentIntentId,
             String captureMethod,
-            String eventTicketTypeId) {
+            String eventTicketTypeId,
+            String inventoryHoldId) {
         
         try {
+            boolean queueEmails = EmailOutboxService.isEnabled();
+            String visibility = isPrivate ? "Private" : "Public";
+
             // Run the fulfillment logic in a transaction
             String orderId = FirebaseService.createFirestoreTransaction(transaction -> {
                 try {
@@ -1037,7 +1105,8 @@ public class WebhookService {
                         fulfilmentSessionId,
                         paymentIntentId,
                         captureMethod,
-                        eventTicketTypeId
+                        eventTicketTypeId,
+                        inventoryHoldId
                     );
                     
                     if (orderIdResult == null) {
@@ -1049,6 +1118,11 @@ public class WebhookService {
                     
                     // Record checkout session by customer email
                     recordCheckoutSessionByCustomerEmail(transaction, eventId, checkoutSession, customerEmail);
+
+                    if (queueEmails) {
+                        enqueueCheckoutEmails(transaction, eventId, visibility, customerEmail, fullName,
+                                orderIdResult, captureMethod);
+                    }
                     
                     return orderIdResult;
                 } catch (Exception e) {
@@ -1061,6 +1135,7 @@ public class WebhookService {
                 // Already processed
                 return true;
             }
+            EventCounterShardsService.syncDisplayCountersIfDue(eventId);
             
             // Keep fulfilment completion out of the checkout transaction. It opens its own
             // Firestore transaction and touches additional workflow state, so coupling it to
@@ -1079,46 +1154,8 @@ public class WebhookService {
                         fulfilmentSessionId, MAX_FULFILMENT_RETRIES);
             }
             
-            String visibility = isPrivate ? "Private" : "Public";
-            if (shouldSendPurchaseEmailAfterCheckout(captureMethod)) {
-                boolean emailSuccess = sendPurchaseEmailWithRetries(
-                        eventId,
-                        visibility,
-                        customerEmail,
-                        fullName,
-                        orderId);
-
-                if (!emailSuccess) {
-                    logger.warn("Was unable to send purchase email after EmailClient retries. orderId={}, customer={}",
-                            orderId, customerEmail);
-                }
-            } else if ("manual".equalsIgnoreCase(captureMethod)) {
-                // Booking-approval flow: buyer is pending organiser approval, so send the
-                // pending booking email rather than a purchase confirmation.
-                boolean pendingEmailSuccess = EmailService.sendBookingPendingEmail(
-                        eventId,
-                        visibility,
-                        customerEmail,
-                        fullName,
-                        orderId);
-                if (!pendingEmailSuccess) {
-                    logger.warn("Was unable to send pending booking email. orderId={}, customer={}",
-                            orderId, customerEmail);
-                }
-
-                // Also notify the organiser that a new booking request is awaiting approval.
-                try {
-                    boolean organiserEmailSuccess = EmailService.sendOrganiserPendingBookingEmail(
-                            eventId,
-                            visibility,
-                            fullName,
-                            orderId);
-                    if (!organiserEmailSuccess) {
-                        logger.warn("Was unable to send organiser pending booking notification. orderId={}", orderId);
-                    }
-                } catch (Exception e) {
-                    logger.warn("Failed to send organiser pending booking notification. orderId={}", orderId, e);
-                }
+            if (!queueEmails) {
+                sendCheckoutEmails(eventId, visibility, customerEmail, fullName, orderId, captureMethod);
             }
             
             logger.info("Successfully handled checkout.session.completed webhook event. session={}", checkoutSessionId);
@@ -1130,6 +1167,70 @@ public class WebhookService {
         }
     }
     
+    /**
+     * Queues the emails for a completed checkout in the fulfilment transaction. Write-phase only.
+     */
+    private static void enqueueCheckoutEmails(Transaction transaction, String eventId, String visibility,
+            String customerEmail, String fullName, String orderId, String captureMethod) {
+        DocumentStoreTransaction storeTransaction = FirestoreDocumentStore.forTransaction(transaction);
+        if (shouldSendPurchaseEmailAfterCheckout(captureMethod)) {
+            EmailOutboxService.enqueue(storeTransaction, EmailOutboxKind.PURCHASE, eventId, visibility, customerEmail,
+                    fullName, orderId);
+        } else if ("manual".equalsIgnoreCase(captureMethod)) {
+            EmailOutboxService.enqueue(storeTransaction, EmailOutboxKind.BOOKING_PENDING, eventId, visibility,
+                    customerEmail, fullName, orderId);
+            EmailOutboxService.enqueue(storeTransaction, EmailOutboxKind.ORGANISER_PENDING_BOOKING, eventId,
+                    visibility, null, fullName, orderId);
+        }
+    }
+
+    /**
+     * Sends the emails for a completed checkout inline, when the email outbox is disabled.
+     */
+    private static void sendCheckoutEmails(String eventId, String visibility, String customerEmail,
+            String fullName, String orderId, String captureMethod) {
+        if (shouldSendPurchaseEmailAfterCheckout(captureMethod)) {
+            boolean emailSuccess = sendPurchaseEmailWithRetries(
+                    eventId,
+                    visibility,
+                    customerEmail,
+                    fullName,
+                    orderId);
+
+            if (!emailSuccess) {
+                logger.warn("Was unable to send purchase email after EmailClient retries. orderId={}, customer={}",
+                        orderId, customerEmail);
+            }
+        } else if ("manual".equalsIgnoreCase(captureMethod)) {
+            // Booking-approval flow: buyer is pending organiser approval, so send the
+            // pending booking email rather than a purchase confirmation.
+            boolean pendingEmailSuccess = EmailService.sendBookingPendingEmail(
+                    eventId,
+                    visibility,
+                    customerEmail,
+                    fullName,
+                    orderId);
+            if (!pendingEmailSuccess) {
+                logger.warn("Was unable to send pending booking email. orderId={}, customer={}",
+                        orderId, customerEmail);
+            }
+
+            // Also notify the organiser that a new booking request is awaiting approval.
+            try {
+                boolean organiserEmailSuccess = EmailService.sendOrganiserPendingBookingEmail(
+                        eventId,
+                        visibility,
+                        fullName,
+                        orderId);
+                if (!organiserEmailSuccess) {
+                    logger.warn("Was unable to send organiser pending booking notification. orderId={}", orderId);
+                }
+            } catch (Exception e) {
+                logger.warn("Failed to send organiser pending booking notification. orderId={}", orderId, e);
+            }
+        }
+    }
+
     /**
      * Orchestrates the workflow for processing an expired checkout session.
      * Runs within a Firestore transaction to ensure atomicity.
@@ -1138,6 +1239,7 @@ public class WebhookService {
      * @param eventId The event ID
      * @param isPrivate Whether the event is private
      * @param lineItems The line items from the expired session
+     * @param inventoryHoldId The inventory hold from checkout, if any
      * @return true if successful, false otherwise
      */
     public static boolean fulfilmentWorkflowOnExpiredSession(
@@ -1145,7 +1247,8 @@ public class WebhookService {
             String eventId,
             boolean isPrivate,
             List<LineItem> lineItems,
-            String eventTicketTypeId) {
+            String eventTicketTypeId,
+            String inventoryHoldId) {
         
         try {
             Boolean result = FirebaseService.createFirestoreTransaction(transaction -> {
@@ -1159,7 +1262,7 @@ public class WebhookService {
                     
                     // Restock tickets
                     restockTicketsAfterExpiredCheckout(transaction, checkoutSessionId, eventId, isPrivate, lineItems,
-                            eventTicketTypeId);
+                            eventTicketTypeId, inventoryHoldId);
                     
                     return true;
                 } catch (Exception e) {
@@ -1169,6 +1272,7 @@ public class WebhookService {
             });
             
             if (result) {
+                EventCounterShardsService.syncDisplayCountersIfDue(eventId);
                 logger.info("Successfully handled checkout.session.expired webhook event. session={}", checkoutSessionId);
             } else {
                 logger.error("Failed to handle checkout.session.expired webhook event. session={}", checkoutSessionId);
@@ -1224,27 +1328,34 @@ public class WebhookService {
                 return false;
             }
 
-            Firestore db = FirebaseService.getFirestore();
-            DocumentReference privateEventRef = db.collection(CollectionPaths.EVENTS)
-                    .document(CollectionPaths.ACTIVE)
-                    .collection(CollectionPaths.PRIVATE)
-                    .document(eventId);
-            DocumentReference publicEventRef = db.collection(CollectionPaths.EVENTS)
-                    .document(CollectionPaths.ACTIVE)
-                    .collection(CollectionPaths.PUBLIC)
-                    .document(eventId);
-            List<DocumentSnapshot> eventSnapshots = db.getAll(privateEventRef, publicEventRef).get();
-            DocumentSnapshot privateEvent = eventSnapshots.get(0);
-            DocumentSnapshot publicEvent = eventSnapshots.get(1);
-
-            if (!privateEvent.exists() && !publicEvent.exists()) {
-                logger.error("Event {} not found in either Private or Public collections", eventId);
+            Optional<DocumentSnapshot> maybeEventSnapshot = EventsRepository.getEventSnapshotById(eventId);
+            if (maybeEventSnapshot.isEmpty()) {
+                logger.error("Event {} not found in any event collection", eventId);
                 return false;
             }
-            boolean isPrivate = privateEvent.exists();
-            DocumentSnapshot eventSnapshot = isPrivate ? privateEvent : publicEvent;
+            DocumentSnapshot eventSnapshot = maybeEventSnapshot.get();
+            boolean isPrivate = CollectionPaths.PRIVATE.equals(eventSnapshot.getReference().getParent().getId());
             String organiserId = eventSnapshot.getString("organiserId");
 
+            String eventName = "Event";
+            if (eventSnapshot.exists()) {
+                String resolvedName = eventSnapshot.getString("name");
+                if (resolvedName != null && !resolvedName.isBlank()) {
+                    eventName = resolvedName;
+                }
+            }
+            String email = order.getEmail();
+            boolean hasEmail = email != null && !email.isBlank();
+            boolean queueEmail = hasEmail && EmailOutboxService.isEnabled();
+            String startDate = formatEventTimestampOrEmpty(eventSnapshot, "startDate");
+            String endDate = formatEventTimestampOrEmpty(eventSnapshot, "endDate");
+            String location = eventSnapshot.exists()
+                    ? Optional.ofNullable(eventSnapshot.getString("location")).orElse("")
+                    : "";
+            Map<String, String> rejectEmailVariables = EmailService.buildRejectBookingEmailVariables(
+                    order.getFullName(), eventName, organiserId, orderId, ticketIds.size(), startDate, endDate,
+                    location);
+
             PaymentIntentCancellationTransactionResult transactionResult =
                     FirebaseService.createFirestoreTransaction(transaction -> {
                         try {
@@ -1262,6 +1373,11 @@ public class WebhookService {
                                     isPrivate,
                                     orderId,
                                     ticketIds);
+                            if (queueEmail) {
+                                EmailOutboxService.enqueue(FirestoreDocumentStore.forTransaction(transaction),
+                                        EmailOutboxKind.BOOKING_REJECTED, eventId, isPrivate ? "Private" : "Public",
+                                        email, order.getFullName(), orderId, rejectEmailVariables);
+                            }
 
                             return PaymentIntentCancellationTransactionResult.PROCESSED;
                         } catch (Exception e) {
@@ -1274,22 +1390,11 @@ public class WebhookService {
             if (transactionResult == PaymentIntentCancellationTransactionResult.ALREADY_PROCESSED) {
                 return true;
             }
+            EventCounterShardsService.syncDisplayCountersIfDue(eventId);
 
-            String eventName = "Event";
-            if (eventSnapshot.exists()) {
-                String resolvedName = eventSnapshot.getString("name");
-                if (resolvedName != null && !resolvedName.isBlank()) {
-                    eventName = resolvedName;
-                }
-            }
-
-            String email = order.getEmail();
-            if (email != null && !email.isBlank()) {
-                String startDate = formatEventTimestampOrEmpty(eventSnapshot, "startDate");
-                String endDate = formatEventTimestampOrEmpty(eventSnapshot, "endDate");
-                String location = eventSnapshot.exists()
-                        ? Optional.ofNullable(eventSnapshot.getString("location")).orElse("")
-                        : "";
+            if (queueEmail) {
+                logger.info("Queued reject booking email to {}. orderId={}", email, orderId);
+            } else if (hasEmail) {
                 boolean emailSent = EmailService.sendRejectBookingEmail(
                         email,
                         order.getFullName(),
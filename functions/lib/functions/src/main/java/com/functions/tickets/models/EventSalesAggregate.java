@@ -0,0 +1,120 @@
+package com.functions.tickets.models;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.cloud.Timestamp;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Running sales totals for one event, stored at EventSalesAggregates/{eventId}. Ticket totals are
+ * keyed by eventTicketTypeId and then by ticket status, order totals by order status, so a status
+ * change moves amounts between buckets rather than losing them. Maintained through
+ * {@link EventSalesDelta} in the transactions that create or change orders.
+ */
+@Data
+@NoArgsConstructor // Required by Firestore
+@AllArgsConstructor
+public class EventSalesAggregate {
+    /** Bucket for tickets created before ticket types existed. */
+    public static final String UNTYPED_TICKETS = "untyped";
+
+    private Map<String, Map<String, TicketTotals>> ticketTypes = new HashMap<>();
+    private Map<String, OrderTotals> orders = new HashMap<>();
+    /**
+     * Set once the aggregate has been built from the event's orders. Delta writes alone create the
+     * document without it, so until then readers rebuild it.
+     */
+    private Boolean complete;
+    private Timestamp updatedAt;
+
+    @Data
+    @NoArgsConstructor // Required by Firestore
+    @AllArgsConstructor
+    public static class TicketTotals {
+        private long ticketCount;
+        private long grossSales; // in cents
+    }
+
+    @Data
+    @NoArgsConstructor // Required by Firestore
+    @AllArgsConstructor
+    public static class OrderTotals {
+        private long orderCount;
+        private long discounts; // in cents
+        private long applicationFees; // in cents
+    }
+
+    /** Tickets in every status, matching {@code TicketsService.calculateTotalTicketCount}. */
+    public long totalTicketCount() {
+        long total = 0;
+        for (Map<String, TicketTotals> byStatus : ticketTypes.values()) {
+            for (TicketTotals totals : byStatus.values()) {
+                total += totals.getTicketCount();
+            }
+        }
+        return total;
+    }
+
+    public long ticketCount(OrderAndTicketStatus status) {
+        long total = 0;
+        for (Map<String, TicketTotals> byStatus : ticketTypes.values()) {
+            TicketTotals totals = byStatus.get(status.name());
+            if (totals != null) {
+                total += totals.getTicketCount();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Ticket prices minus order discounts over every status, matching
+     * {@code TicketsService.calculateNetSales}.
+     */
+    public long netSales() {
+        long gross = 0;
+        for (Map<String, TicketTotals> byStatus : ticketTypes.values()) {
+            for (TicketTotals totals : byStatus.values()) {
+                gross += totals.getGrossSales();
+            }
+        }
+        long discounts = 0;
+        for (OrderTotals totals : orders.values()) {
+            discounts += totals.getDiscounts();
+        }
+        return gross - discounts;
+    }
+
+    /** Ticket prices minus order discounts for the given status. */
+    public long netSales(OrderAndTicketStatus status) {
+        long gross = 0;
+        for (Map<String, TicketTotals> byStatus : ticketTypes.values()) {
+            TicketTotals totals = byStatus.get(status.name());
+            if (totals != null) {
+                gross += totals.getGrossSales();
+            }
+        }
+        OrderTotals orderTotals = orders.get(status.name());
+        return gross - (orderTotals != null ? orderTotals.getDiscounts() : 0L);
+    }
+
+    /**
+     * Builds an aggregate from scratch, e.g. for events whose orders predate the aggregate.
+     */
+    public static EventSalesAggregate fromOrders(Map<Order, ? extends Iterable<Ticket>> orderTickets,
+            Timestamp now) {
+        EventSalesDelta delta = new EventSalesDelta();
+        for (Map.Entry<Order, ? extends Iterable<Ticket>> entry : orderTickets.entrySet()) {
+            delta.addOrder(entry.getKey());
+            for (Ticket ticket : entry.getValue()) {
+                delta.addTicket(ticket);
+            }
+        }
+        EventSalesAggregate aggregate = new EventSalesAggregate(new HashMap<>(), new HashMap<>(), true, now);
+        delta.applyTo(aggregate);
+        return aggregate;
+    }
+}
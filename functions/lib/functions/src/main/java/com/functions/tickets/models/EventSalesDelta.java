@@ -0,0 +1,117 @@
+package com.functions.tickets.models;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Changes to an {@link EventSalesAggregate} collected over one transaction and written as a single
+ * set of increments. For a status change, remove the order or ticket before changing its status and
+ * add it again afterwards.
+ */
+public class EventSalesDelta {
+    private final Map<String, Map<String, EventSalesAggregate.TicketTotals>> ticketTypes = new HashMap<>();
+    private final Map<String, EventSalesAggregate.OrderTotals> orders = new HashMap<>();
+
+    public EventSalesDelta addOrder(Order order) {
+        return applyOrder(order, 1);
+    }
+
+    public EventSalesDelta removeOrder(Order order) {
+        return applyOrder(order, -1);
+    }
+
+    public EventSalesDelta addTicket(Ticket ticket) {
+        return applyTicket(ticket, 1);
+    }
+
+    public EventSalesDelta removeTicket(Ticket ticket) {
+        return applyTicket(ticket, -1);
+    }
+
+    public boolean isEmpty() {
+        return ticketTypes.values().stream().flatMap(m -> m.values().stream())
+                .allMatch(t -> t.getTicketCount() == 0 && t.getGrossSales() == 0)
+                && orders.values().stream()
+                        .allMatch(o -> o.getOrderCount() == 0 && o.getDiscounts() == 0
+                                && o.getApplicationFees() == 0);
+    }
+
+    /** Net change in tickets of the given status, across ticket types. */
+    public long ticketCount(OrderAndTicketStatus status) {
+        return ticketTypes.values().stream()
+                .map(byStatus -> byStatus.get(status.name()))
+                .filter(totals -> totals != null)
+                .mapToLong(EventSalesAggregate.TicketTotals::getTicketCount)
+                .sum();
+    }
+
+    /** Net change in ticket prices minus order discounts for the given status. */
+    public long netSales(OrderAndTicketStatus status) {
+        long gross = ticketTypes.values().stream()
+                .map(byStatus -> byStatus.get(status.name()))
+                .filter(totals -> totals != null)
+                .mapToLong(EventSalesAggregate.TicketTotals::getGrossSales)
+                .sum();
+        EventSalesAggregate.OrderTotals orderTotals = orders.get(status.name());
+        return gross - (orderTotals != null ? orderTotals.getDiscounts() : 0L);
+    }
+
+    /** Net change in orders of the given status. */
+    public long orderCount(OrderAndTicketStatus status) {
+        EventSalesAggregate.OrderTotals orderTotals = orders.get(status.name());
+        return orderTotals != null ? orderTotals.getOrderCount() : 0L;
+    }
+
+    public Map<String, Map<String, EventSalesAggregate.TicketTotals>> getTicketTypes() {
+        return ticketTypes;
+    }
+
+    public Map<String, EventSalesAggregate.OrderTotals> getOrders() {
+        return orders;
+    }
+
+    /**
+     * Adds this delta onto an in-memory aggregate.
+     */
+    public void applyTo(EventSalesAggregate aggregate) {
+        ticketTypes.forEach((ticketTypeId, byStatus) -> byStatus.forEach((status, delta) -> {
+            EventSalesAggregate.TicketTotals totals = aggregate.getTicketTypes()
+                    .computeIfAbsent(ticketTypeId, k -> new HashMap<>())
+                    .computeIfAbsent(status, k -> new EventSalesAggregate.TicketTotals());
+            totals.setTicketCount(totals.getTicketCount() + delta.getTicketCount());
+            totals.setGrossSales(totals.getGrossSales() + delta.getGrossSales());
+        }));
+        orders.forEach((status, delta) -> {
+            EventSalesAggregate.OrderTotals totals = aggregate.getOrders()
+                    .computeIfAbsent(status, k -> new EventSalesAggregate.OrderTotals());
+            totals.setOrderCount(totals.getOrderCount() + delta.getOrderCount());
+            totals.setDiscounts(totals.getDiscounts() + delta.getDiscounts());
+            totals.setApplicationFees(totals.getApplicationFees() + delta.getApplicationFees());
+        });
+    }
+
+    private EventSalesDelta applyOrder(Order order, int sign) {
+        EventSalesAggregate.OrderTotals totals = orders.computeIfAbsent(statusKey(order.getStatus()),
+                k -> new EventSalesAggregate.OrderTotals());
+        totals.setOrderCount(totals.getOrderCount() + sign);
+        totals.setDiscounts(totals.getDiscounts() + sign * order.getDiscounts());
+        totals.setApplicationFees(totals.getApplicationFees() + sign * order.getApplicationFees());
+        return this;
+    }
+
+    private EventSalesDelta applyTicket(Ticket ticket, int sign) {
+        String ticketTypeId = ticket.getEventTicketTypeId() != null && !ticket.getEventTicketTypeId().isBlank()
+                ? ticket.getEventTicketTypeId()
+                : EventSalesAggregate.UNTYPED_TICKETS;
+        EventSalesAggregate.TicketTotals totals = ticketTypes
+                .computeIfAbsent(ticketTypeId, k -> new HashMap<>())
+                .computeIfAbsent(statusKey(ticket.getStatus()), k -> new EventSalesAggregate.TicketTotals());
+        totals.setTicketCount(totals.getTicketCount() + sign);
+        totals.setGrossSales(totals.getGrossSales() + sign * ticket.getPrice());
+        return this;
+    }
+
+    private static String statusKey(OrderAndTicketStatus status) {
+        return (status != null ? status : OrderAndTicketStatus.APPROVED).name();
+    }
+}
@@ -0,0 +1,94 @@
+package com.functions.tickets.repositories;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.functions.firebase.models.FieldTransform;
+import com.functions.firebase.repositories.DocumentStoreTransaction;
+import com.functions.firebase.services.FirebaseService;
+import com.functions.firebase.services.FirebaseService.CollectionPaths;
+import com.functions.tickets.models.EventSalesAggregate;
+import com.functions.tickets.models.EventSalesDelta;
+import com.google.cloud.Timestamp;
+
+/**
+ * Repository for EventSalesAggregates/{eventId}. Deltas are written as merged increments, so they
+ * need no read and can go anywhere in a transaction's write phase.
+ */
+public class EventSalesAggregateRepository {
+
+    private EventSalesAggregateRepository() {
+    }
+
+    public static Optional<EventSalesAggregate> getAggregate(String eventId) throws Exception {
+        return FirebaseService.getDocumentStore().get(getAggregatePath(eventId), EventSalesAggregate.class);
+    }
+
+    /**
+     * @return each event's aggregate, keyed by event ID; events without one are left out
+     */
+    public static Map<String, EventSalesAggregate> getAggregates(List<String> eventIds) throws Exception {
+        List<Optional<EventSalesAggregate>> aggregates = FirebaseService.getDocumentStore().getAll(
+                eventIds.stream().map(EventSalesAggregateRepository::getAggregatePath).toList(),
+                EventSalesAggregate.class);
+        Map<String, EventSalesAggregate> aggregatesById = new LinkedHashMap<>();
+        for (int i = 0; i < eventIds.size(); i++) {
+            String eventId = eventIds.get(i);
+            aggregates.get(i).ifPresent(aggregate -> aggregatesById.put(eventId, aggregate));
+        }
+        return aggregatesById;
+    }
+
+    /**
+     * Reads when the aggregate was last written, empty if it does not exist. Must be called before
+     * any write in the transaction.
+     */
+    public static Optional<Timestamp> getUpdateTime(DocumentStoreTransaction transaction, String eventId)
+            throws Exception {
+        return transaction.getUpdateTimes(List.of(getAggregatePath(eventId))).get(0);
+    }
+
+    public static void applyDelta(DocumentStoreTransaction transaction, String eventId, EventSalesDelta delta) {
+        Map<String, Object> ticketTypes = new HashMap<>();
+        delta.getTicketTypes().forEach((ticketTypeId, byStatus) -> {
+            Map<String, Object> statuses = new HashMap<>();
+            byStatus.forEach((status, totals) -> statuses.put(status, Map.of(
+                    "ticketCount", FieldTransform.increment(totals.getTicketCount()),
+                    "grossSales", FieldTransform.increment(totals.getGrossSales()))));
+            ticketTypes.put(ticketTypeId, statuses);
+        });
+        Map<String, Object> orders = new HashMap<>();
+        delta.getOrders().forEach((status, totals) -> orders.put(status, Map.of(
+                "orderCount", FieldTransform.increment(totals.getOrderCount()),
+                "discounts", FieldTransform.increment(totals.getDiscounts()),
+                "applicationFees", FieldTransform.increment(totals.getApplicationFees()))));
+
+        // A merged empty map would replace the stored one, so a delta that only moves tickets or only
+        // moves orders leaves the other out
+        Map<String, Object> fields = new HashMap<>();
+        if (!ticketTypes.isEmpty()) {
+            fields.put("ticketTypes", ticketTypes);
+        }
+        if (!orders.isEmpty()) {
+            fields.put("orders", orders);
+        }
+        fields.put("updatedAt", Timestamp.now());
+        transaction.merge(getAggregatePath(eventId), fields);
+    }
+
+    /**
+     * Replaces the whole aggregate. Callers must have checked its update time in the same
+     * transaction so concurrent deltas are not lost.
+     */
+    public static void replaceAggregate(DocumentStoreTransaction transaction, String eventId,
+            EventSalesAggregate aggregate) {
+        transaction.set(getAggregatePath(eventId), aggregate);
+    }
+
+    private static String getAggregatePath(String eventId) {
+        return CollectionPaths.EVENT_SALES_AGGREGATES + "/" + eventId;
+    }
+}
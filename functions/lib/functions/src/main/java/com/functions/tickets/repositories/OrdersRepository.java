@@ -3,11 +3,14 @@ package com.functions.tickets.repositories;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.functions.firebase.models.BatchGetResult;
 import com.functions.firebase.services.FirebaseService;
+import com.functions.metrics.services.RequestMetricsService;
 import com.functions.tickets.models.Order;
 import com.functions.utils.JavaUtils;
 import com.google.cloud.firestore.DocumentReference;
@@ -39,6 +42,7 @@ public class OrdersRepository {
         try {
             Firestore db = FirebaseService.getFirestore();
             DocumentReference docRef = db.collection(ORDERS_COLLECTION).document(orderId);
+            RequestMetricsService.recordReads(1);
             DocumentSnapshot snapshot = transaction.isPresent() ? transaction.get().get(docRef).get()
                     : docRef.get().get();
 
@@ -62,16 +66,62 @@ public class OrdersRepository {
      * @param orderIds List of order IDs
      * @return List of orders found
      */
-    public static List<Order> getOrdersByIds(List<String> orderIds) {
+    public static List<Order> getOrdersByIds(List<String> orderIds) throws Exception {
         return getOrdersByIds(orderIds, Optional.empty());
     }
 
-    public static List<Order> getOrdersByIds(List<String> orderIds, Optional<Transaction> transaction) {
+    public static List<Order> getOrdersByIds(List<String> orderIds, Optional<Transaction> transaction)
+            throws Exception {
+        return getOrdersBatch(orderIds, transaction).found();
+    }
+
+    /**
+     * Gets multiple orders with chunked getAll reads (one round trip per chunk) instead of one read per ID.
+     *
+     * @param orderIds   List of order IDs
+     * @param transaction Optional transaction to read within
+     * @return Orders found, in input order, plus the IDs that had no order document.
+     *         A failed read throws rather than reporting every ID as missing.
+     */
+    public static BatchGetResult<Order> getOrdersBatch(List<String> orderIds, Optional<Transaction> transaction)
+            throws Exception {
+        Firestore db = FirebaseService.getFirestore();
+        List<DocumentReference> docRefs = orderIds.stream()
+                .map(orderId -> db.collection(ORDERS_COLLECTION).document(orderId))
+                .collect(Collectors.toList());
+        return toBatchResult(orderIds, FirebaseService.getAllDocuments(docRefs, transaction));
+    }
+
+    /**
+     * Non-transactional batch read for large fan-outs, with at most {@code maxInFlight} getAll
+     * chunks outstanding.
+     */
+    public static BatchGetResult<Order> getOrdersBatch(List<String> orderIds, int maxInFlight,
+            FirebaseService.ChunkProgressListener listener) throws Exception {
+        Firestore db = FirebaseService.getFirestore();
+        List<DocumentReference> docRefs = orderIds.stream()
+                .map(orderId -> db.collection(ORDERS_COLLECTION).document(orderId))
+                .collect(Collectors.toList());
+        return toBatchResult(orderIds, FirebaseService.getAllDocuments(docRefs, maxInFlight, listener));
+    }
+
+    private static BatchGetResult<Order> toBatchResult(List<String> orderIds, List<DocumentSnapshot> snapshots) {
         List<Order> orders = new ArrayList<>();
-        for (String orderId : orderIds) {
-            getOrderById(orderId, transaction).ifPresent(orders::add);
+        List<String> missingIds = new ArrayList<>();
+        for (int i = 0; i < snapshots.size(); i++) {
+            DocumentSnapshot snapshot = snapshots.get(i);
+            Order order = snapshot.exists() ? snapshot.toObject(Order.class) : null;
+            if (order == null) {
+                missingIds.add(orderIds.get(i));
+                continue;
+            }
+            order.setOrderId(orderIds.get(i));
+            orders.add(order);
+        }
+        if (!missingIds.isEmpty()) {
+            logger.warn("Orders not found for IDs: {}", missingIds);
         }
-        return orders;
+        return new BatchGetResult<>(orders, missingIds);
     }
 
     public static void updateOrder(String orderId, Order order) {
@@ -84,8 +134,10 @@ public class OrdersRepository {
             DocumentReference docRef = db.collection(ORDERS_COLLECTION).document(orderId);
             if (transaction.isPresent()) {
                 transaction.get().update(docRef, JavaUtils.toMap(order));
+                RequestMetricsService.recordWrites(1);
             } else {
                 docRef.update(JavaUtils.toMap(order)).get();
+                RequestMetricsService.recordWrites(1);
             }
         } catch (Exception e) {
             logger.error("Failed to update order: {}", orderId, e);
@@ -114,6 +166,7 @@ public class OrdersRepository {
                     .get()
                     .get();
 
+            RequestMetricsService.recordQueryReads(querySnapshot.size());
             if (querySnapshot.isEmpty()) {
                 return Optional.empty();
             }
@@ -176,10 +229,12 @@ public class OrdersRepository {
         DocumentReference docRef = db.collection(ORDERS_COLLECTION).document(orderId);
         order.setOrderId(orderId);
         transaction.set(docRef, JavaUtils.toMap(order));
+        RequestMetricsService.recordWrites(1);
 
         DocumentReference metadataRef = db.collection(FirebaseService.CollectionPaths.EVENTS_METADATA)
                 .document(eventId);
         transaction.update(metadataRef, "orderIds", FieldValue.arrayUnion(orderId));
+        RequestMetricsService.recordWrites(1);
 
         return orderId;
     }
@@ -8,7 +8,9 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.functions.firebase.models.BatchGetResult;
 import com.functions.firebase.services.FirebaseService;
+import com.functions.metrics.services.RequestMetricsService;
 import com.functions.tickets.models.Ticket;
 import com.functions.utils.JavaUtils;
 import com.google.cloud.firestore.DocumentReference;
@@ -38,6 +40,7 @@ public class TicketsRepository {
         try {
             Firestore db = FirebaseService.getFirestore();
             DocumentReference docRef = db.collection(TICKETS_COLLECTION).document(ticketId);
+            RequestMetricsService.recordReads(1);
             DocumentSnapshot snapshot = transaction.isPresent() ? transaction.get().get(docRef).get()
                     : docRef.get().get();
 
@@ -62,16 +65,62 @@ public class TicketsRepository {
      * @return List of tickets found
      */
 
-    public static List<Ticket> getTicketsByIds(List<String> ticketIds) {
+    public static List<Ticket> getTicketsByIds(List<String> ticketIds) throws Exception {
         return getTicketsByIds(ticketIds, Optional.empty());
     }
 
-    public static List<Ticket> getTicketsByIds(List<String> ticketIds, Optional<Transaction> transaction) {
+    public static List<Ticket> getTicketsByIds(List<String> ticketIds, Optional<Transaction> transaction)
+            throws Exception {
+        return getTicketsBatch(ticketIds, transaction).found();
+    }
+
+    /**
+     * Gets multiple tickets with chunked getAll reads (one round trip per chunk) instead of one read per ID.
+     *
+     * @param ticketIds   List of ticket IDs
+     * @param transaction Optional transaction to read within
+     * @return Tickets found, in input order, plus the IDs that had no ticket document.
+     *         A failed read throws rather than reporting every ID as missing.
+     */
+    public static BatchGetResult<Ticket> getTicketsBatch(List<String> ticketIds, Optional<Transaction> transaction)
+            throws Exception {
+        Firestore db = FirebaseService.getFirestore();
+        List<DocumentReference> docRefs = ticketIds.stream()
+                .map(ticketId -> db.collection(TICKETS_COLLECTION).document(ticketId))
+                .collect(Collectors.toList());
+        return toBatchResult(ticketIds, FirebaseService.getAllDocuments(docRefs, transaction));
+    }
+
+    /**
+     * Non-transactional batch read for large fan-outs, with at most {@code maxInFlight} getAll
+     * chunks outstanding.
+     */
+    public static BatchGetResult<Ticket> getTicketsBatch(List<String> ticketIds, int maxInFlight,
+            FirebaseService.ChunkProgressListener listener) throws Exception {
+        Firestore db = FirebaseService.getFirestore();
+        List<DocumentReference> docRefs = ticketIds.stream()
+                .map(ticketId -> db.collection(TICKETS_COLLECTION).document(ticketId))
+                .collect(Collectors.toList());
+        return toBatchResult(ticketIds, FirebaseService.getAllDocuments(docRefs, maxInFlight, listener));
+    }
+
+    private static BatchGetResult<Ticket> toBatchResult(List<String> ticketIds, List<DocumentSnapshot> snapshots) {
         List<Ticket> tickets = new ArrayList<>();
-        for (String ticketId : ticketIds) {
-            getTicketById(ticketId, transaction).ifPresent(tickets::add);
+        List<String> missingIds = new ArrayList<>();
+        for (int i = 0; i < snapshots.size(); i++) {
+            DocumentSnapshot snapshot = snapshots.get(i);
+            Ticket ticket = snapshot.exists() ? snapshot.toObject(Ticket.class) : null;
+            if (ticket == null) {
+                missingIds.add(ticketIds.get(i));
+                continue;
+            }
+            ticket.setTicketId(ticketIds.get(i));
+            tickets.add(ticket);
+        }
+        if (!missingIds.isEmpty()) {
+            logger.warn("Tickets not found for IDs: {}", missingIds);
         }
-        return tickets;
+        return new BatchGetResult<>(tickets, missingIds);
     }
 
     public static void updateTicket(String ticketId, Ticket ticket) {
@@ -84,8 +133,10 @@ public class TicketsRepository {
             DocumentReference docRef = db.collection(TICKETS_COLLECTION).document(ticketId);
             if (transaction.isPresent()) {
                 transaction.get().update(docRef, JavaUtils.toMap(ticket));
+                RequestMetricsService.recordWrites(1);
             } else {
                 docRef.update(JavaUtils.toMap(ticket)).get();
+                RequestMetricsService.recordWrites(1);
             }
         } catch (Exception e) {
             logger.error("Failed to update ticket: {}", ticketId, e);
@@ -107,6 +158,7 @@ public class TicketsRepository {
         String ticketId = docRef.getId();
         ticket.setTicketId(ticketId);
         transaction.set(docRef, JavaUtils.toMap(ticket));
+        RequestMetricsService.recordWrites(1);
         return ticketId;
     }
 
@@ -123,6 +175,7 @@ public class TicketsRepository {
                     .whereEqualTo("eventId", eventId)
                     .get().get().getDocuments();
 
+            RequestMetricsService.recordQueryReads(docs.size());
             return docs.stream().map(doc -> {
                 Ticket ticket = doc.toObject(Ticket.class);
                 ticket.setTicketId(doc.getId());
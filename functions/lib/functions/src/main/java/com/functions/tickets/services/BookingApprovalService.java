@@ -4,13 +4,17 @@ import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.functions.emails.EmailOutboxService;
 import com.functions.emails.EmailService;
+import com.functions.emails.models.EmailOutboxKind;
 import com.functions.events.models.EventData;
 import com.functions.events.repositories.EventsRepository;
+import com.functions.firebase.repositories.FirestoreDocumentStore;
 import com.functions.firebase.services.FirebaseService;
 import com.functions.stripe.models.PaymentIntentStatus;
 import com.functions.stripe.services.StripeService;
@@ -27,6 +31,7 @@ import com.functions.users.services.Users;
 import com.google.cloud.firestore.Firestore;
 import com.google.cloud.firestore.QueryDocumentSnapshot;
 import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.Transaction;
 import com.stripe.exception.InvalidRequestException;
 import com.stripe.exception.StripeException;
 import com.stripe.model.PaymentIntent;
@@ -153,6 +158,15 @@ public class BookingApprovalService {
                 "Successfully captured PaymentIntent for stripePaymentIntentId: {}, stripeAccountId: {}, orderId: {}",
                 stripePaymentIntentId, stripeAccountId, orderId);
 
+        if (EmailOutboxService.isEnabled()) {
+            String visibility = Boolean.TRUE.equals(eventData.getIsPrivate()) ? "Private" : "Public";
+            updateOrderAndTicketStatusWithRetry(orderId, OrderAndTicketStatus.APPROVED,
+                    transaction -> EmailOutboxService.enqueue(FirestoreDocumentStore.forTransaction(transaction),
+                            EmailOutboxKind.BOOKING_APPROVED, eventData.getEventId(), visibility, order.getEmail(),
+                            order.getFullName(), orderId));
+            return;
+        }
+
         updateOrderAndTicketStatusWithRetry(orderId, OrderAndTicketStatus.APPROVED);
 
         // Send purchase confirmation email — isolated so a failure doesn't mask the
@@ -429,9 +443,15 @@ public class BookingApprovalService {
      * inconsistency.
      */
     private static void updateOrderAndTicketStatusWithRetry(String orderId, OrderAndTicketStatus status) {
+        updateOrderAndTicketStatusWithRetry(orderId, status, transaction -> {
+        });
+    }
+
+    private static void updateOrderAndTicketStatusWithRetry(String orderId, OrderAndTicketStatus status,
+            Consumer<Transaction> additionalWrites) {
         for (int attempt = 1; attempt <= MAX_FIRESTORE_RETRIES; attempt++) {
             try {
-                TicketsService.updateOrderAndTicketStatus(orderId, status);
+                TicketsService.updateOrderAndTicketStatus(orderId, status, additionalWrites);
                 logger.info("Successfully updated order and ticket status for orderId: {} on attempt {}", orderId,
                         attempt);
                 return;
@@ -0,0 +1,138 @@
+package com.functions.tickets.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.functions.events.models.EventMetadata;
+import com.functions.events.repositories.EventsRepository;
+import com.functions.firebase.repositories.DocumentStore;
+import com.functions.firebase.repositories.DocumentStoreTransaction;
+import com.functions.firebase.services.FirebaseService;
+import com.functions.tickets.models.EventSalesAggregate;
+import com.functions.tickets.models.EventSalesDelta;
+import com.functions.tickets.models.Order;
+import com.functions.tickets.models.Ticket;
+import com.functions.tickets.repositories.EventSalesAggregateRepository;
+import com.functions.tickets.repositories.OrdersRepository;
+import com.functions.tickets.repositories.TicketsRepository;
+import com.google.cloud.Timestamp;
+
+/**
+ * Reads and maintains {@link EventSalesAggregate}s so sales figures cost one read per event instead
+ * of a read per order and ticket.
+ */
+public class EventSalesAggregateService {
+    private static final Logger logger = LoggerFactory.getLogger(EventSalesAggregateService.class);
+
+    /** Times a rebuild reads the orders again when order changes keep landing while it reads. */
+    static final int MAX_REBUILD_ATTEMPTS = 3;
+
+    private EventSalesAggregateService() {
+    }
+
+    /**
+     * Writes the delta in the caller's transaction. Write-phase only; a no-op for empty deltas.
+     */
+    public static void apply(DocumentStoreTransaction transaction, String eventId, EventSalesDelta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        EventSalesAggregateRepository.applyDelta(transaction, eventId, delta);
+    }
+
+    /**
+     * Each event's aggregate, keyed by event ID, building any that have not been built yet from the
+     * orders first.
+     */
+    public static Map<String, EventSalesAggregate> getAggregates(List<String> eventIds) throws Exception {
+        Map<String, EventSalesAggregate> aggregates = new LinkedHashMap<>();
+        if (eventIds.isEmpty()) {
+            return aggregates;
+        }
+        Map<String, EventSalesAggregate> stored = EventSalesAggregateRepository.getAggregates(eventIds);
+        for (String eventId : eventIds) {
+            EventSalesAggregate aggregate = stored.get(eventId);
+            aggregates.put(eventId, aggregate != null && Boolean.TRUE.equals(aggregate.getComplete())
+                    ? aggregate
+                    : rebuildAggregate(eventId));
+        }
+        return aggregates;
+    }
+
+    /**
+     * Builds the aggregate from EventMetadata.orderIds. The orders and tickets are read outside any
+     * transaction, and the result is only written if the aggregate has not changed since before they
+     * were read: every order change also writes the aggregate, so a change that raced with the reads
+     * makes the rebuild read again, up to MAX_REBUILD_ATTEMPTS times.
+     *
+     * @throws IllegalStateException if the aggregate kept changing on every attempt
+     */
+    public static EventSalesAggregate rebuildAggregate(String eventId) throws Exception {
+        DocumentStore store = FirebaseService.getDocumentStore();
+        for (int attempt = 1; attempt <= MAX_REBUILD_ATTEMPTS; attempt++) {
+            Optional<Timestamp> version = store.runTransaction(
+                    transaction -> EventSalesAggregateRepository.getUpdateTime(transaction, eventId));
+            List<String> orderIds = EventsRepository.getEventMetadataById(eventId)
+                    .map(EventMetadata::getOrderIds)
+                    .orElse(List.of());
+            EventSalesAggregate rebuilt = EventSalesAggregate.fromOrders(loadOrderTickets(orderIds),
+                    Timestamp.now());
+
+            boolean written = store.runTransaction(transaction -> {
+                if (!EventSalesAggregateRepository.getUpdateTime(transaction, eventId).equals(version)) {
+                    return false;
+                }
+                EventSalesAggregateRepository.replaceAggregate(transaction, eventId, rebuilt);
+                return true;
+            });
+            if (written) {
+                logger.info("Rebuilt sales aggregate for event {}: {} tickets, net sales {}", eventId,
+                        rebuilt.totalTicketCount(), rebuilt.netSales());
+                return rebuilt;
+            }
+            logger.info("Sales aggregate for event {} changed while rebuilding (attempt {}); reading again",
+                    eventId, attempt);
+        }
+        throw new IllegalStateException("Sales aggregate for event " + eventId + " kept changing while rebuilding");
+    }
+
+    private static Map<Order, List<Ticket>> loadOrderTickets(List<String> orderIds) throws Exception {
+        Map<Order, List<Ticket>> orderTickets = new LinkedHashMap<>();
+        if (orderIds.isEmpty()) {
+            return orderTickets;
+        }
+        List<Order> orders = OrdersRepository.getOrdersBatch(orderIds, Optional.empty()).found();
+        List<String> ticketIds = new ArrayList<>();
+        for (Order order : orders) {
+            if (order.getTickets() != null) {
+                ticketIds.addAll(order.getTickets());
+            }
+        }
+        Map<String, Ticket> ticketsById = new HashMap<>();
+        if (!ticketIds.isEmpty()) {
+            for (Ticket ticket : TicketsRepository.getTicketsBatch(ticketIds, Optional.empty()).found()) {
+                ticketsById.put(ticket.getTicketId(), ticket);
+            }
+        }
+        for (Order order : orders) {
+            List<Ticket> tickets = new ArrayList<>();
+            if (order.getTickets() != null) {
+                for (String ticketId : order.getTickets()) {
+                    Ticket ticket = ticketsById.get(ticketId);
+                    if (ticket != null) {
+                        tickets.add(ticket);
+                    }
+                }
+            }
+            orderTickets.put(order, tickets);
+        }
+        return orderTickets;
+    }
+}
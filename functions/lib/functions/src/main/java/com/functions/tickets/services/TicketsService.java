@@ -1,17 +1,24 @@
 package com.functions.tickets.services;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.functions.attendee.services.EventAttendeeSummaryService;
+import com.functions.events.models.EventData;
 import com.functions.events.models.EventMetadata;
 import com.functions.events.repositories.EventsRepository;
+import com.functions.firebase.repositories.DocumentStoreTransaction;
+import com.functions.firebase.repositories.FirestoreDocumentStore;
 import com.functions.firebase.services.FirebaseService;
+import com.functions.tickets.models.EventSalesDelta;
 import com.functions.tickets.models.Order;
 import com.functions.tickets.models.OrderAndTicketStatus;
 import com.functions.tickets.models.Ticket;
@@ -19,7 +26,9 @@ import com.functions.tickets.models.requests.create.CreateOrderRequest;
 import com.functions.tickets.models.responses.create.CreateOrderResponse;
 import com.functions.tickets.repositories.OrdersRepository;
 import com.functions.tickets.repositories.TicketsRepository;
+import com.functions.wrapped.services.WrappedAggregateService;
 import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.Transaction;
 
 /**
  * Service for ticket and order related operations.
@@ -33,20 +42,95 @@ public class TicketsService {
      * @param orderIds The list of order IDs from event metadata
      * @return Map of Order -> List of Tickets
      */
-    public static Map<Order, List<Ticket>> getOrdersAndTickets(List<String> orderIds) {
+    public static Map<Order, List<Ticket>> getOrdersAndTickets(List<String> orderIds) throws Exception {
         logger.info("Getting orders and tickets for {} orders", orderIds.size());
 
         Map<Order, List<Ticket>> orderTicketsMap = new LinkedHashMap<>();
 
         List<Order> orders = OrdersRepository.getOrdersByIds(orderIds);
+
+        // Read every order's tickets in one batched pass rather than one getAll per order.
+        List<String> allTicketIds = new ArrayList<>();
         for (Order order : orders) {
-            List<Ticket> tickets = TicketsRepository.getTicketsByIds(order.getTickets());
+            if (order.getTickets() != null) {
+                allTicketIds.addAll(order.getTickets());
+            }
+        }
+        Map<String, Ticket> ticketsById = new HashMap<>();
+        for (Ticket ticket : TicketsRepository.getTicketsByIds(allTicketIds)) {
+            ticketsById.put(ticket.getTicketId(), ticket);
+        }
+
+        for (Order order : orders) {
+            List<Ticket> tickets = new ArrayList<>();
+            if (order.getTickets() != null) {
+                for (String ticketId : order.getTickets()) {
+                    Ticket ticket = ticketsById.get(ticketId);
+                    if (ticket != null) {
+                        tickets.add(ticket);
+                    }
+                }
+            }
             orderTicketsMap.put(order, tickets);
         }
 
         return orderTicketsMap;
     }
 
+    /**
+     * Gets the orders and tickets of many events with one bounded batch read for all the orders and
+     * one for all their tickets, rather than reads per event.
+     *
+     * @param orderIdsByEvent Event ID -> the event metadata's orderIds
+     * @param maxInFlight     Maximum concurrent getAll chunks
+     * @param listener        Notified as each chunk completes
+     * @return Event ID -> (Order -> List of Tickets)
+     */
+    public static Map<String, Map<Order, List<Ticket>>> getOrdersAndTicketsByEvent(
+            Map<String, List<String>> orderIdsByEvent, int maxInFlight,
+            FirebaseService.ChunkProgressListener listener) throws Exception {
+        List<String> allOrderIds = new ArrayList<>();
+        orderIdsByEvent.values().forEach(allOrderIds::addAll);
+        Map<String, Order> ordersById = new HashMap<>();
+        for (Order order : OrdersRepository.getOrdersBatch(allOrderIds, maxInFlight, listener).found()) {
+            ordersById.put(order.getOrderId(), order);
+        }
+
+        List<String> allTicketIds = new ArrayList<>();
+        for (Order order : ordersById.values()) {
+            if (order.getTickets() != null) {
+                allTicketIds.addAll(order.getTickets());
+            }
+        }
+        Map<String, Ticket> ticketsById = new HashMap<>();
+        for (Ticket ticket : TicketsRepository.getTicketsBatch(allTicketIds, maxInFlight, listener).found()) {
+            ticketsById.put(ticket.getTicketId(), ticket);
+        }
+
+        Map<String, Map<Order, List<Ticket>>> result = new LinkedHashMap<>();
+        orderIdsByEvent.forEach((eventId, orderIds) -> {
+            Map<Order, List<Ticket>> orderTicketsMap = new LinkedHashMap<>();
+            for (String orderId : orderIds) {
+                Order order = ordersById.get(orderId);
+                if (order == null) {
+                    continue;
+                }
+                List<Ticket> tickets = new ArrayList<>();
+                if (order.getTickets() != null) {
+                    for (String ticketId : order.getTickets()) {
+                        Ticket ticket = ticketsById.get(ticketId);
+                        if (ticket != null) {
+                            tickets.add(ticket);
+                        }
+                    }
+                }
+                orderTicketsMap.put(order, tickets);
+            }
+            result.put(eventId, orderTicketsMap);
+        });
+        return result;
+    }
+
     /**
      * Calculates the total number of tickets from orders.
      *
@@ -85,21 +169,75 @@ public class TicketsService {
 
     public static void updateOrderAndTicketStatus(String orderId, OrderAndTicketStatus orderAndTicketStatus)
             throws Exception {
+        updateOrderAndTicketStatus(orderId, orderAndTicketStatus, transaction -> {
+        });
+    }
+
+    /**
+     * Updates the order and its tickets, running {@code additionalWrites} in the same transaction
+     * after the status writes (e.g. to queue the email announcing the change).
+     */
+    public static void updateOrderAndTicketStatus(String orderId, OrderAndTicketStatus orderAndTicketStatus,
+            Consumer<Transaction> additionalWrites) throws Exception {
         FirebaseService.createFirestoreTransaction(transaction -> {
             Order order = OrdersRepository.getOrderById(orderId, Optional.of(transaction))
                     .orElseThrow(() -> new RuntimeException("Order not found " + orderId));
             List<Ticket> tickets = TicketsRepository.getTicketsByIds(order.getTickets(), Optional.of(transaction));
 
+            EventSalesDelta salesDelta = new EventSalesDelta().removeOrder(order);
             for (Ticket ticket : tickets) {
+                salesDelta.removeTicket(ticket);
                 ticket.setStatus(orderAndTicketStatus);
                 TicketsRepository.updateTicket(ticket.getTicketId(), ticket, Optional.of(transaction));
+                salesDelta.addTicket(ticket);
             }
             order.setStatus(orderAndTicketStatus);
             OrdersRepository.updateOrder(orderId, order, Optional.of(transaction));
+            salesDelta.addOrder(order);
+            recordDenormalisedViews(transaction, orderId, order, tickets, salesDelta);
+            additionalWrites.accept(transaction);
             return null;
         });
     }
 
+    /**
+     * Updates the attendee summary, sales aggregate and Wrapped aggregates of the order's event,
+     * found from its tickets.
+     */
+    private static void recordDenormalisedViews(Transaction transaction, String orderId, Order order,
+            List<Ticket> tickets, EventSalesDelta salesDelta) {
+        String eventId = tickets.stream()
+                .map(Ticket::getEventId)
+                .filter(id -> id != null && !id.isBlank())
+                .findFirst()
+                .orElse(null);
+        if (eventId == null) {
+            logger.warn("Order {} has no tickets with an eventId; not updating its event's attendee summary "
+                    + "or sales aggregate", orderId);
+            return;
+        }
+        int approvedTicketCount = order.getStatus() == OrderAndTicketStatus.APPROVED ? tickets.size() : 0;
+        DocumentStoreTransaction storeTransaction = FirestoreDocumentStore.forTransaction(transaction);
+        EventAttendeeSummaryService.recordOrder(storeTransaction, eventId, orderId, order, approvedTicketCount);
+        EventSalesAggregateService.apply(storeTransaction, eventId, salesDelta);
+        recordWrappedOrderChange(storeTransaction, eventId, order, salesDelta);
+    }
+
+    /**
+     * The event is read through the non-transactional cache: Wrapped only needs its organiser, start
+     * date and display fields, and a transactional read would make every order update contend with
+     * checkouts on the event document.
+     */
+    private static void recordWrappedOrderChange(DocumentStoreTransaction transaction, String eventId, Order order,
+            EventSalesDelta salesDelta) {
+        Optional<EventData> event = EventsRepository.getEventById(eventId);
+        if (event.isEmpty()) {
+            logger.warn("Event {} not found; not updating its Wrapped aggregates", eventId);
+            return;
+        }
+        WrappedAggregateService.recordOrderChange(transaction, event.get(), order, salesDelta);
+    }
+
     /**
      * Creates an order and its tickets atomically within a Firestore transaction.
      * Also appends the new orderId to the event metadata's orderIds list.
@@ -126,6 +264,7 @@ public class TicketsService {
             order.setStatus(status);
 
             List<String> ticketIds = new ArrayList<>();
+            EventSalesDelta salesDelta = new EventSalesDelta();
             for (CreateOrderRequest.TicketInput ticketInput : request.tickets()) {
                 Ticket ticket = new Ticket();
                 ticket.setEventId(request.eventId());
@@ -137,10 +276,16 @@ public class TicketsService {
 
                 String ticketId = TicketsRepository.createTicket(ticket, transaction);
                 ticketIds.add(ticketId);
+                salesDelta.addTicket(ticket);
             }
 
             order.setTickets(ticketIds);
             OrdersRepository.createOrder(order, request.eventId(), orderId, transaction);
+            DocumentStoreTransaction storeTransaction = FirestoreDocumentStore.forTransaction(transaction);
+            EventAttendeeSummaryService.recordOrder(storeTransaction, request.eventId(), orderId, order,
+                    ticketIds.size());
+            EventSalesAggregateService.apply(storeTransaction, request.eventId(), salesDelta.addOrder(order));
+            recordWrappedOrderChange(storeTransaction, request.eventId(), order, salesDelta);
 
             logger.info("Created order {} with {} tickets for eventId: {}", orderId, ticketIds.size(),
                     request.eventId());
@@ -155,7 +300,7 @@ public class TicketsService {
      * @param eventId The event ID
      * @return Map of Order -> List of Tickets
      */
-    public static Map<Order, List<Ticket>> getOrdersAndTicketsByEventId(String eventId) {
+    public static Map<Order, List<Ticket>> getOrdersAndTicketsByEventId(String eventId) throws Exception {
         logger.info("Getting orders and tickets for eventId: {}", eventId);
 
         EventMetadata metadata = EventsRepository.getEventMetadataById(eventId)
@@ -0,0 +1,13 @@
+package com.functions.users.models;
+
+/**
+ * The caller of an HTTP endpoint, as identified by its Authorization header. {@code userId} is null
+ * for the ops bearer token, which authenticates an admin rather than a user.
+ */
+public record AuthenticatedUser(String userId, boolean admin) {
+
+    /** Whether the caller may change an event organised by {@code organiserId}. */
+    public boolean canManage(String organiserId) {
+        return admin || (userId != null && userId.equals(organiserId));
+    }
+}
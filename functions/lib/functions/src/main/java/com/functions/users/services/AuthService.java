@@ -0,0 +1,72 @@
+package com.functions.users.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.functions.firebase.services.FirebaseService;
+import com.functions.global.handlers.Global;
+import com.functions.users.models.AuthenticatedUser;
+import com.google.cloud.functions.HttpRequest;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseToken;
+
+/**
+ * Authenticates callers of organiser and admin endpoints from {@code Authorization: Bearer <token>}.
+ * The ops token in BEARER_TOKEN, the same one the Python functions accept, authenticates an admin;
+ * any other token must be a Firebase ID token, whose user is an admin if it carries the
+ * {@code admin} custom claim.
+ */
+public class AuthService {
+    private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String ADMIN_CLAIM = "admin";
+
+    @FunctionalInterface
+    interface IdTokenVerifier {
+        AuthenticatedUser verify(String idToken) throws Exception;
+    }
+
+    private AuthService() {
+    }
+
+    /**
+     * @return the caller, or empty when the header is missing or its token is not valid
+     */
+    public static Optional<AuthenticatedUser> authenticate(HttpRequest request) {
+        return authenticate(request.getFirstHeader("Authorization").orElse(null), Global.getEnv("BEARER_TOKEN"),
+                AuthService::verifyFirebaseIdToken);
+    }
+
+    static Optional<AuthenticatedUser> authenticate(String authorization, String adminToken,
+            IdTokenVerifier verifier) {
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            return Optional.empty();
+        }
+        String token = authorization.substring(BEARER_PREFIX.length()).trim();
+        if (token.isEmpty()) {
+            return Optional.empty();
+        }
+        if (adminToken != null && !adminToken.isBlank() && MessageDigest.isEqual(
+                token.getBytes(StandardCharsets.UTF_8), adminToken.getBytes(StandardCharsets.UTF_8))) {
+            return Optional.of(new AuthenticatedUser(null, true));
+        }
+        try {
+            return Optional.of(verifier.verify(token));
+        } catch (Exception e) {
+            logger.warn("Rejected bearer token: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static AuthenticatedUser verifyFirebaseIdToken(String idToken) throws Exception {
+        // FirebaseAuth uses the default app, which FirebaseService initializes along with Firestore
+        FirebaseService.getFirestore();
+        FirebaseToken decoded = FirebaseAuth.getInstance().verifyIdToken(idToken);
+        return new AuthenticatedUser(decoded.getUid(), Boolean.TRUE.equals(decoded.getClaims().get(ADMIN_CLAIM)));
+    }
+}
@@ -7,6 +7,7 @@ import java.util.Optional;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.functions.firebase.services.FirebaseService;
 import com.functions.firebase.services.FirebaseService.CollectionPaths;
+import com.functions.metrics.services.RequestMetricsService;
 import com.functions.users.models.PrivateUserData;
 import com.functions.users.models.PublicUserData;
 import com.functions.users.models.UserData;
@@ -30,18 +31,21 @@ public class Users {
 
 		PrivateUserData privateUserData = UsersUtils.extracPrivateUserData(newData);
 		privateUserInfoDocRef.update(JavaUtils.toMap(privateUserData));
+		RequestMetricsService.recordWrites(2);
 	}
 
 	public static void updatePublicUserData(String userId, PublicUserData newData) {
 		Firestore db = FirebaseService.getFirestore();
 		db.collection(CollectionPaths.USERS).document(CollectionPaths.ACTIVE).collection(CollectionPaths.PUBLIC)
 				.document(userId).update(JavaUtils.toMap(newData));
+		RequestMetricsService.recordWrites(1);
 	}
 
 	public static void updatePrivateUserData(String userId, PrivateUserData newData) {
 		Firestore db = FirebaseService.getFirestore();
 		db.collection(CollectionPaths.USERS).document(CollectionPaths.ACTIVE).collection(CollectionPaths.PRIVATE)
 				.document(userId).update(JavaUtils.toMap(newData));
+		RequestMetricsService.recordWrites(1);
 	}
 
 	public static UserData getUserDataById(String userId) throws Exception {
@@ -54,6 +58,7 @@ public class Users {
 		Firestore db = FirebaseService.getFirestore();
 		DocumentReference docRef = db.collection(CollectionPaths.USERS).document(CollectionPaths.ACTIVE)
 				.collection(CollectionPaths.PUBLIC).document(userId);
+		RequestMetricsService.recordReads(1);
 		return docRef.get().get().toObject(PublicUserData.class);
 	}
 
@@ -65,6 +70,7 @@ public class Users {
 		Firestore db = FirebaseService.getFirestore();
 		DocumentReference docRef = db.collection(CollectionPaths.USERS).document(CollectionPaths.ACTIVE)
 				.collection(CollectionPaths.PRIVATE).document(userId);
+		RequestMetricsService.recordReads(1);
 		return transaction.isPresent() ? transaction.get().get(docRef).get().toObject(PrivateUserData.class) : docRef.get().get().toObject(PrivateUserData.class);
 	}
 
@@ -1,6 +1,7 @@
 package com.functions.waitlist.repositories;
 
 import com.functions.firebase.services.FirebaseService;
+import com.functions.metrics.services.RequestMetricsService;
 import com.functions.waitlist.models.WaitlistEntry;
 import com.google.cloud.Timestamp;
 import com.google.cloud.firestore.CollectionReference;
@@ -43,6 +44,7 @@ public class WaitlistRepository {
     try {
       CollectionReference collectionRef = getWaitlistPoolRef(eventId);
       List<WaitlistEntry> waitlistEntries = collectionRef.get().get().toObjects(WaitlistEntry.class);
+      RequestMetricsService.recordQueryReads(waitlistEntries.size());
 
       return waitlistEntries;
     } catch (Exception e) {
@@ -61,6 +63,7 @@ public class WaitlistRepository {
 
       // Use emailHash as document ID to enable lookups/updates/deletes
       collectionRef.document(emailHash).set(entry).get();
+      RequestMetricsService.recordWrites(1);
 
       logger.info("Added user {} to waitlist for event {}", emailHash, eventId);
     } catch (Exception e) {
@@ -80,12 +83,14 @@ public class WaitlistRepository {
       String emailHash = hashEmail(email);
 
       DocumentSnapshot snapshot = collectionRef.document(emailHash).get().get();
+      RequestMetricsService.recordReads(1);
       if (!snapshot.exists()) {
         logger.warn("No waitlist entry found with hash {} for event {}", emailHash, eventId);
         return;
       }
 
       collectionRef.document(emailHash).delete().get();
+      RequestMetricsService.recordWrites(1);
 
       logger.info("Removed user {} from waitlist for event {}", emailHash, eventId);
     } catch (Exception e) {
@@ -103,12 +108,14 @@ public class WaitlistRepository {
       CollectionReference collectionRef = getWaitlistPoolRef(eventId);
       
       DocumentSnapshot snapshot = collectionRef.document(emailHash).get().get();
+      RequestMetricsService.recordReads(1);
       if (!snapshot.exists()) {
         logger.warn("No waitlist entry found with hash {} for event {}", emailHash, eventId);
         return;
       }
 
       collectionRef.document(emailHash).delete().get();
+      RequestMetricsService.recordWrites(1);
       logger.info("Removed user with hash {} from waitlist for event {}", emailHash, eventId);
     } catch (Exception e) {
       logger.error("Error removing from waitlist by hash for event: {}", eventId, e);
@@ -124,6 +131,7 @@ public class WaitlistRepository {
       CollectionReference collectionRef = getWaitlistPoolRef(eventId);
       String emailHash = hashEmail(email);
       DocumentSnapshot maybeSnapshot = collectionRef.document(emailHash).get().get();
+      RequestMetricsService.recordReads(1);
       if (maybeSnapshot.exists()) {
         return Optional.of(maybeSnapshot.toObject(WaitlistEntry.class));
       }
@@ -147,6 +155,7 @@ public class WaitlistRepository {
         notifiedAt.getNano()
       );
       collectionRef.document(emailHash).update("notifiedAt", timestamp).get();
+      RequestMetricsService.recordWrites(1);
 
       logger.info("Updated notifiedAt for user {} in waitlist for event {}", emailHash, eventId);
     } catch (Exception e) {
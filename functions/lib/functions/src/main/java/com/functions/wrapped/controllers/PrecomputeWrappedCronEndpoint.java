@@ -0,0 +1,74 @@
+package com.functions.wrapped.controllers;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.functions.global.controllers.AbstractConfiguredHttpFunction;
+import com.functions.wrapped.services.WrappedPrecomputeService;
+import com.functions.wrapped.services.WrappedPrecomputeService.PrecomputeResult;
+import com.google.cloud.functions.HttpRequest;
+import com.google.cloud.functions.HttpResponse;
+
+/**
+ * Cron endpoint that precomputes Wrapped for every organiser with events in a year, resuming from
+ * the last checkpoint on each call. {@code ?year=YYYY} defaults to the current year in Sydney;
+ * {@code restart=true} starts a new pass instead of resuming.
+ */
+public class PrecomputeWrappedCronEndpoint extends AbstractConfiguredHttpFunction {
+    private static final Logger logger = LoggerFactory.getLogger(PrecomputeWrappedCronEndpoint.class);
+
+    @Override
+    public void service(HttpRequest request, HttpResponse response) throws Exception {
+        response.appendHeader("Access-Control-Allow-Origin", "*");
+        response.appendHeader("Access-Control-Allow-Methods", "GET, OPTIONS");
+        response.appendHeader("Access-Control-Allow-Headers", "Content-Type, Authorization");
+        response.appendHeader("Access-Control-Max-Age", "3600");
+
+        if ("OPTIONS".equalsIgnoreCase(request.getMethod())) {
+            logger.info("Handling OPTIONS request: {}", request);
+            response.setStatusCode(204);
+            return;
+        }
+
+        if (!request.getMethod().equalsIgnoreCase("GET")) {
+            response.setStatusCode(405);
+            response.appendHeader("Allow", "GET");
+            response.getWriter().write("The PrecomputeWrappedCronEndpoint only supports GET requests.");
+            return;
+        }
+
+        Optional<String> yearParam = request.getFirstQueryParameter("year").filter(value -> !value.isBlank());
+        int year;
+        try {
+            year = yearParam.isPresent() ? Integer.parseInt(yearParam.get().trim())
+                    : LocalDate.now(ZoneId.of("Australia/Sydney")).getYear();
+        } catch (NumberFormatException e) {
+            response.setStatusCode(400);
+            response.getWriter().write("year must be an integer.");
+            return;
+        }
+        boolean restart = request.getFirstQueryParameter("restart").map(Boolean::parseBoolean).orElse(false);
+
+        try {
+            PrecomputeResult result = WrappedPrecomputeService.precompute(year, restart);
+            response.setStatusCode(200);
+            response.getWriter().write(String.format(
+                    "{\"year\":%d,\"organisers\":%d,\"processedThisRun\":%d,\"generated\":%d,\"skipped\":%d,"
+                            + "\"failed\":%d,\"complete\":%b}",
+                    result.year(), result.organisers(), result.processedThisRun(), result.generated(),
+                    result.skipped(), result.failed(), result.complete()));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected Wrapped precompute request: {}", e.getMessage());
+            response.setStatusCode(400);
+            response.getWriter().write(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error during Wrapped precompute for year {}", year, e);
+            response.setStatusCode(500);
+            response.getWriter().write("Wrapped precompute failed: " + e.getMessage());
+        }
+    }
+}
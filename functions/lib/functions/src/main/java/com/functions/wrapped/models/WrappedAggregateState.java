@@ -0,0 +1,24 @@
+package com.functions.wrapped.models;
+
+import com.google.cloud.Timestamp;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Wrapped/{organiserId}/{year}/AGGREGATES. Its Attendees subcollection receives increments from the
+ * moment it is deployed, but only covers an organiser's earlier orders once a rebuild has seeded it
+ * and set {@code complete}.
+ */
+@Data
+@NoArgsConstructor // Required by Firestore
+@AllArgsConstructor
+public class WrappedAggregateState {
+    /** Aggregates seeded with an older layout, e.g. 64-character email keys, are seeded again. */
+    public static final int CURRENT_VERSION = 2;
+
+    private Boolean complete;
+    private Timestamp builtAt;
+    private Integer version;
+}
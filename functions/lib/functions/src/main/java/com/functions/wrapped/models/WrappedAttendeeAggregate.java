@@ -0,0 +1,50 @@
+package com.functions.wrapped.models;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.cloud.Timestamp;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One attendee's running Wrapped totals across an organiser's events in a year, stored at
+ * Wrapped/{organiserId}/{year}/AGGREGATES/Attendees/{emailKey}. Names are keyed by a hash so any
+ * name is a safe field path, and counted per approved order to pick the most frequent one.
+ */
+@Data
+@Builder
+@NoArgsConstructor // Required by Firestore
+@AllArgsConstructor
+public class WrappedAttendeeAggregate {
+    private String email;
+    private long ticketCount;
+    @Builder.Default
+    private Map<String, NameCount> names = new HashMap<>();
+    private Timestamp updatedAt;
+
+    @Data
+    @NoArgsConstructor // Required by Firestore
+    @AllArgsConstructor
+    public static class NameCount {
+        private String name;
+        private long orderCount;
+    }
+
+    /**
+     * The name used on most of this attendee's orders, or "Unknown".
+     */
+    public String mostFrequentName() {
+        if (names == null) {
+            return "Unknown";
+        }
+        return names.values().stream()
+                .filter(nameCount -> nameCount.getOrderCount() > 0)
+                .max((a, b) -> Long.compare(a.getOrderCount(), b.getOrderCount()))
+                .map(NameCount::getName)
+                .orElse("Unknown");
+    }
+}
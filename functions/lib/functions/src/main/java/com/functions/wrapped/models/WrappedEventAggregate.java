@@ -0,0 +1,26 @@
+package com.functions.wrapped.models;
+
+import com.google.cloud.Timestamp;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One organiser event's Wrapped details and totals, taken from the event and its sales. Counts
+ * APPROVED tickets and orders only, so rejections and refunds take their tickets and sales back out.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor // Required by Firestore
+@AllArgsConstructor
+public class WrappedEventAggregate {
+    private String eventId;
+    private String name;
+    private String image;
+    private Timestamp startDate;
+    private Integer accessCount;
+    private long ticketsSold;
+    private long netSales; // in cents
+}
@@ -0,0 +1,30 @@
+package com.functions.wrapped.models;
+
+import com.google.cloud.Timestamp;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress of a Wrapped precompute pass over a year's organisers, stored at
+ * WrappedPrecomputeCheckpoints/{year}. Organisers are processed in ID order, so a run that stops
+ * part way resumes after {@code lastOrganiserId}.
+ */
+@Data
+@Builder
+@NoArgsConstructor // Required by Firestore
+@AllArgsConstructor
+public class WrappedPrecomputeCheckpoint {
+    private int year;
+    /** Last organiser of the last finished batch, or null before the first batch. */
+    private String lastOrganiserId;
+    private int generated;
+    private int skipped;
+    private int failed;
+    private Boolean complete;
+    private Timestamp startedAt;
+    private Timestamp updatedAt;
+    private Timestamp completedAt;
+}
@@ -0,0 +1,147 @@
+package com.functions.wrapped.repositories;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.functions.firebase.models.DocumentQuery;
+import com.functions.firebase.models.FieldTransform;
+import com.functions.firebase.models.StoredDocument;
+import com.functions.firebase.repositories.DocumentStoreTransaction;
+import com.functions.firebase.services.FirebaseService;
+import com.functions.wrapped.models.WrappedAggregateState;
+import com.functions.wrapped.models.WrappedAttendeeAggregate;
+import com.google.cloud.Timestamp;
+
+/**
+ * Repository for the incremental Wrapped aggregates.
+ *
+ * Firestore structure: /Wrapped/{organiserId}/{year}/AGGREGATES, with an Attendees/{emailKey}
+ * subcollection. Per-event totals come from the events' EventSalesAggregates.
+ */
+public class WrappedAggregateRepository {
+    private static final Logger logger = LoggerFactory.getLogger(WrappedAggregateRepository.class);
+    private static final String WRAPPED_ROOT_COLLECTION = "Wrapped";
+    private static final String AGGREGATES_DOC = "AGGREGATES";
+    private static final String ATTENDEES_SUBCOLLECTION = "Attendees";
+    /** Most documents {@link #replaceIfUnchanged} writes in one transaction. */
+    public static final int MAX_TRANSACTION_WRITES = 500;
+
+    private WrappedAggregateRepository() {
+    }
+
+    public static Optional<WrappedAggregateState> getState(String organiserId, int year) throws Exception {
+        return FirebaseService.getDocumentStore().get(getStatePath(organiserId, year), WrappedAggregateState.class);
+    }
+
+    /**
+     * Attendees with the most tickets, using the automatic single-field index on ticketCount.
+     */
+    public static List<WrappedAttendeeAggregate> getTopAttendees(String organiserId, int year, int limit)
+            throws Exception {
+        List<StoredDocument<WrappedAttendeeAggregate>> docs = FirebaseService.getDocumentStore().query(
+                DocumentQuery.collection(getAttendeesPath(organiserId, year))
+                        .orderByDescending("ticketCount")
+                        .limit(limit),
+                WrappedAttendeeAggregate.class);
+        List<WrappedAttendeeAggregate> attendees = new ArrayList<>(docs.size());
+        for (StoredDocument<WrappedAttendeeAggregate> doc : docs) {
+            attendees.add(doc.data());
+        }
+        return attendees;
+    }
+
+    /**
+     * Blind merge of increments to an attendee's ticket count and per-name order counts.
+     * Write-phase only.
+     *
+     * @param nameOrderDeltas name key -> (display name, order count delta)
+     */
+    public static void incrementAttendee(DocumentStoreTransaction transaction, String organiserId, int year,
+            String emailKey, String email, long ticketCountDelta,
+            Map<String, WrappedAttendeeAggregate.NameCount> nameOrderDeltas) {
+        Map<String, Object> names = new HashMap<>();
+        nameOrderDeltas.forEach((nameKey, nameCount) -> names.put(nameKey, Map.of(
+                "name", nameCount.getName(),
+                "orderCount", FieldTransform.increment(nameCount.getOrderCount()))));
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("email", email);
+        fields.put("ticketCount", FieldTransform.increment(ticketCountDelta));
+        // A merged empty map would replace the stored one
+        if (!names.isEmpty()) {
+            fields.put("names", names);
+        }
+        fields.put("updatedAt", Timestamp.now());
+        transaction.merge(getAttendeesPath(organiserId, year) + "/" + emailKey, fields);
+    }
+
+    public static void saveState(String organiserId, int year, WrappedAggregateState state) throws Exception {
+        FirebaseService.getDocumentStore().set(getStatePath(organiserId, year), state);
+    }
+
+    /**
+     * Last update time of every attendee aggregate, keyed by email key, for
+     * {@link #replaceIfUnchanged}.
+     */
+    public static Map<String, Timestamp> getVersions(String organiserId, int year) throws Exception {
+        Map<String, Timestamp> versions = new HashMap<>();
+        for (StoredDocument<Map> doc : FirebaseService.getDocumentStore()
+                .query(DocumentQuery.collection(getAttendeesPath(organiserId, year)), Map.class)) {
+            versions.put(doc.id(), doc.updateTime());
+        }
+        return versions;
+    }
+
+    /**
+     * Writes attendee aggregates, deleting those mapped to null, in one transaction of at most
+     * MAX_TRANSACTION_WRITES documents. The transaction first checks that none of its documents has
+     * changed since {@code versions} was read, so an increment committed while the aggregates were
+     * being computed is never overwritten.
+     *
+     * @param writes email key -> new contents, or null to delete
+     * @return false, with nothing written, if one had changed
+     */
+    public static boolean replaceIfUnchanged(String organiserId, int year, Map<String, Timestamp> versions,
+            Map<String, WrappedAttendeeAggregate> writes) throws Exception {
+        if (writes.size() > MAX_TRANSACTION_WRITES) {
+            throw new IllegalArgumentException("At most " + MAX_TRANSACTION_WRITES + " writes per transaction");
+        }
+        List<String> emailKeys = new ArrayList<>(writes.keySet());
+        List<String> documentPaths = emailKeys.stream()
+                .map(emailKey -> getAttendeesPath(organiserId, year) + "/" + emailKey)
+                .toList();
+        return FirebaseService.getDocumentStore().runTransaction(transaction -> {
+            List<Optional<Timestamp>> updateTimes = transaction.getUpdateTimes(documentPaths);
+            for (int i = 0; i < documentPaths.size(); i++) {
+                if (!Objects.equals(updateTimes.get(i).orElse(null), versions.get(emailKeys.get(i)))) {
+                    logger.info("Wrapped attendee {} for organiserId: {}, year: {} changed during the rebuild",
+                            emailKeys.get(i), organiserId, year);
+                    return false;
+                }
+            }
+            for (int i = 0; i < documentPaths.size(); i++) {
+                WrappedAttendeeAggregate attendee = writes.get(emailKeys.get(i));
+                if (attendee == null) {
+                    transaction.delete(documentPaths.get(i));
+                } else {
+                    transaction.set(documentPaths.get(i), attendee);
+                }
+            }
+            return true;
+        });
+    }
+
+    private static String getStatePath(String organiserId, int year) {
+        return WRAPPED_ROOT_COLLECTION + "/" + organiserId + "/" + year + "/" + AGGREGATES_DOC;
+    }
+
+    private static String getAttendeesPath(String organiserId, int year) {
+        return getStatePath(organiserId, year) + "/" + ATTENDEES_SUBCOLLECTION;
+    }
+}
@@ -0,0 +1,30 @@
+package com.functions.wrapped.repositories;
+
+import java.util.Optional;
+
+import com.functions.firebase.services.FirebaseService;
+import com.functions.firebase.services.FirebaseService.CollectionPaths;
+import com.functions.wrapped.models.WrappedPrecomputeCheckpoint;
+
+/**
+ * Repository for Wrapped precompute checkpoints.
+ *
+ * Firestore structure: /WrappedPrecomputeCheckpoints/{year}
+ */
+public class WrappedPrecomputeCheckpointRepository {
+
+    private WrappedPrecomputeCheckpointRepository() {
+    }
+
+    public static Optional<WrappedPrecomputeCheckpoint> getCheckpoint(int year) throws Exception {
+        return FirebaseService.getDocumentStore().get(getCheckpointPath(year), WrappedPrecomputeCheckpoint.class);
+    }
+
+    public static void saveCheckpoint(WrappedPrecomputeCheckpoint checkpoint) throws Exception {
+        FirebaseService.getDocumentStore().set(getCheckpointPath(checkpoint.getYear()), checkpoint);
+    }
+
+    private static String getCheckpointPath(int year) {
+        return CollectionPaths.WRAPPED_PRECOMPUTE_CHECKPOINTS + "/" + year;
+    }
+}
@@ -7,9 +7,6 @@ import org.slf4j.LoggerFactory;
 
 import com.functions.firebase.services.FirebaseService;
 import com.functions.wrapped.models.SportshubWrappedData;
-import com.google.cloud.firestore.DocumentReference;
-import com.google.cloud.firestore.DocumentSnapshot;
-import com.google.cloud.firestore.Firestore;
 
 /**
  * Repository for storing and retrieving pre-calculated Wrapped data.
@@ -22,15 +19,11 @@ public class WrappedRepository {
     private static final String SPORTSHUB_WRAPPED_DOC = "SPORTSHUB_WRAPPED";
 
     /**
-     * Gets the document reference for a wrapped data entry.
+     * Gets the document path for a wrapped data entry.
      * Path: /Wrapped/{organiserId}/{year}/SPORTSHUB_WRAPPED
      */
-    private static DocumentReference getWrappedDocRef(String organiserId, int year) {
-        Firestore db = FirebaseService.getFirestore();
-        return db.collection(WRAPPED_ROOT_COLLECTION)
-                .document(organiserId)
-                .collection(String.valueOf(year))
-                .document(SPORTSHUB_WRAPPED_DOC);
+    private static String getWrappedDocPath(String organiserId, int year) {
+        return WRAPPED_ROOT_COLLECTION + "/" + organiserId + "/" + year + "/" + SPORTSHUB_WRAPPED_DOC;
     }
 
     /**
@@ -43,10 +36,9 @@ public class WrappedRepository {
      */
     public static String saveWrappedData(String organiserId, int year, SportshubWrappedData wrappedData) throws Exception {
         try {
-            DocumentReference docRef = getWrappedDocRef(organiserId, year);
-            docRef.set(wrappedData).get();
+            FirebaseService.getDocumentStore().set(getWrappedDocPath(organiserId, year), wrappedData);
             logger.info("Successfully saved wrapped data for organiserId: {}, year: {}", organiserId, year);
-            return docRef.getId();
+            return SPORTSHUB_WRAPPED_DOC;
         } catch (Exception e) {
             logger.error("Failed to save wrapped data for organiserId: {}, year: {}", organiserId, year, e);
             throw new Exception("Failed to save wrapped data", e);
@@ -62,15 +54,13 @@ public class WrappedRepository {
      */
     public static Optional<SportshubWrappedData> getWrappedData(String organiserId, int year) throws Exception {
         try {
-            DocumentReference docRef = getWrappedDocRef(organiserId, year);
-            DocumentSnapshot snapshot = docRef.get().get();
-            
-            if (snapshot.exists()) {
-                SportshubWrappedData data = snapshot.toObject(SportshubWrappedData.class);
+            Optional<SportshubWrappedData> data = FirebaseService.getDocumentStore()
+                    .get(getWrappedDocPath(organiserId, year), SportshubWrappedData.class);
+            if (data.isPresent()) {
                 logger.info("Successfully retrieved wrapped data for organiserId: {}, year: {}", organiserId, year);
-                return Optional.ofNullable(data);
+                return data;
             }
-            
+
             logger.info("No wrapped data found for organiserId: {}, year: {}", organiserId, year);
             return Optional.empty();
         } catch (Exception e) {
@@ -0,0 +1,308 @@
+package com.functions.wrapped.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.functions.events.models.EventData;
+import com.functions.tickets.models.Order;
+import com.functions.tickets.models.OrderAndTicketStatus;
+import com.functions.tickets.models.Ticket;
+import com.functions.wrapped.models.WrappedAttendeeAggregate;
+import com.functions.wrapped.models.WrappedEventAggregate;
+import com.google.cloud.Timestamp;
+
+/**
+ * Folds orders into Wrapped aggregates one at a time, so a rebuild can read orders page by page and
+ * drop each page once it is counted. Totals are held in columns: primitive arrays indexed by event
+ * and by attendee, with attendees found by their 64-bit email hash in an open-addressed table and
+ * names dictionary-encoded, so counting an order allocates nothing once its attendee has been seen
+ * with that name. Emails are only kept for the running top attendees, and aggregate objects are
+ * only built when the results are read.
+ */
+public class WrappedAggregateAccumulator {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Timestamp updatedAt;
+    private final int topAttendeeCount;
+
+    // Event columns, indexed in the order events were added
+    private final Map<String, Integer> eventIndexes = new HashMap<>();
+    private final List<WrappedEventAggregate> eventDetails = new ArrayList<>();
+    private long[] eventTicketsSold = new long[INITIAL_CAPACITY];
+    private long[] eventNetSales = new long[INITIAL_CAPACITY];
+
+    // Attendee columns, indexed by first approved order. attendeeSlots maps an email hash to its
+    // attendee index plus one by linear probing, with 0 marking an empty slot.
+    private int attendeeCount;
+    private long[] attendeeKeys = new long[INITIAL_CAPACITY];
+    private long[] attendeeTicketCounts = new long[INITIAL_CAPACITY];
+    private long[] slotKeys = new long[INITIAL_CAPACITY * 2];
+    private int[] attendeeSlots = new int[INITIAL_CAPACITY * 2];
+
+    // The topAttendeeCount attendees with the most tickets so far, unordered, with their emails.
+    // Ticket counts only grow while orders are added, so an attendee outside this set can only
+    // join it while one of its own orders, and so its email, is being counted.
+    private final int[] topIndexes;
+    private final String[] topEmails;
+    private int topSize;
+
+    // Name dictionary, and each attendee's approved order counts by name index: the first
+    // attendeeNameSizes[i] entries of attendeeNameIndexes[i] and attendeeNameOrderCounts[i]. Most
+    // attendees only ever order under one name, so these are scanned rather than hashed.
+    private final Map<String, Integer> nameIndexes = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private int[][] attendeeNameIndexes = new int[INITIAL_CAPACITY][];
+    private long[][] attendeeNameOrderCounts = new long[INITIAL_CAPACITY][];
+    private int[] attendeeNameSizes = new int[INITIAL_CAPACITY];
+
+    /**
+     * @param topAttendeeCount how many attendees {@link #topAttendees} returns
+     */
+    public WrappedAggregateAccumulator(Timestamp updatedAt, int topAttendeeCount) {
+        this.updatedAt = updatedAt;
+        this.topAttendeeCount = topAttendeeCount;
+        this.topIndexes = new int[topAttendeeCount];
+        this.topEmails = new String[topAttendeeCount];
+    }
+
+    public void addEvent(EventData event) {
+        if (eventIndexes.containsKey(event.getEventId())) {
+            return;
+        }
+        int index = eventDetails.size();
+        eventIndexes.put(event.getEventId(), index);
+        eventDetails.add(WrappedAggregateService.toEventDetails(event.getEventId(), event));
+        eventTicketsSold = ensureCapacity(eventTicketsSold, index);
+        eventNetSales = ensureCapacity(eventNetSales, index);
+    }
+
+    /**
+     * Counts an order of an event already passed to {@link #addEvent}. Matches the APPROVED totals
+     * of an {@code EventSalesDelta} for a newly created order, which is what
+     * {@link WrappedAggregateService#recordOrderChanges} writes: tickets without a status count as
+     * APPROVED, and an order's discounts only count if the order is APPROVED.
+     */
+    public void addOrder(String eventId, Order order, List<Ticket> tickets) {
+        Integer eventIndex = eventIndexes.get(eventId);
+        if (eventIndex == null) {
+            throw new IllegalArgumentException("Order for an event that was not added: " + eventId);
+        }
+        long ticketCount = 0L;
+        long netSales = 0L;
+        for (Ticket ticket : tickets) {
+            if (isApproved(ticket.getStatus())) {
+                ticketCount++;
+                netSales += ticket.getPrice();
+            }
+        }
+        boolean orderApproved = isApproved(order.getStatus());
+        if (orderApproved) {
+            netSales -= order.getDiscounts();
+        }
+        eventTicketsSold[eventIndex] += ticketCount;
+        eventNetSales[eventIndex] += netSales;
+        addAttendee(order, ticketCount, orderApproved ? 1L : 0L);
+    }
+
+    public List<WrappedEventAggregate> events() {
+        List<WrappedEventAggregate> events = new ArrayList<>(eventDetails.size());
+        for (int i = 0; i < eventDetails.size(); i++) {
+            WrappedEventAggregate details = eventDetails.get(i);
+            events.add(details.toBuilder()
+                    .ticketsSold(eventTicketsSold[i])
+                    .netSales(eventNetSales[i])
+                    .build());
+        }
+        return events;
+    }
+
+    public int attendeeCount() {
+        return attendeeCount;
+    }
+
+    /**
+     * The email key of the attendee at {@code index}, for {@code 0 <= index < attendeeCount()}.
+     */
+    public String attendeeKey(int index) {
+        return WrappedAggregateService.toEmailKey(attendeeKeys[index]);
+    }
+
+    /**
+     * The aggregate of the attendee at {@code index}, built from the columns. Only the top attendees
+     * have an email; the others get theirs back from their next order's increment.
+     */
+    public WrappedAttendeeAggregate attendee(int index) {
+        return toAttendee(index);
+    }
+
+    /**
+     * Whether an attendee with this email key has been counted.
+     */
+    public boolean hasAttendee(String emailKey) {
+        return WrappedAggregateService.parseEmailKey(emailKey)
+                .map(key -> attendeeSlots[findSlot(key)] != 0)
+                .orElse(false);
+    }
+
+    /**
+     * The attendees with the most tickets, most first, with ties going to the lowest email key.
+     */
+    public List<WrappedAttendeeAggregate> topAttendees() {
+        List<Integer> top = new ArrayList<>(topSize);
+        for (int i = 0; i < topSize; i++) {
+            top.add(topIndexes[i]);
+        }
+        top.sort(this::compareAttendees);
+        return top.stream().map(this::toAttendee).toList();
+    }
+
+    private void addAttendee(Order order, long ticketCount, long orderCount) {
+        if (order.getEmail() == null || order.getEmail().isBlank() || (ticketCount == 0L && orderCount == 0L)) {
+            return;
+        }
+        long key = WrappedAggregateService.emailHash(order.getEmail());
+        int slot = findSlot(key);
+        int attendeeIndex;
+        if (attendeeSlots[slot] != 0) {
+            attendeeIndex = attendeeSlots[slot] - 1;
+        } else {
+            attendeeIndex = attendeeCount++;
+            slotKeys[slot] = key;
+            attendeeSlots[slot] = attendeeIndex + 1;
+            if (attendeeCount * 2 > attendeeSlots.length) {
+                growSlots();
+            }
+            attendeeKeys = ensureCapacity(attendeeKeys, attendeeIndex);
+            attendeeKeys[attendeeIndex] = key;
+            attendeeTicketCounts = ensureCapacity(attendeeTicketCounts, attendeeIndex);
+            if (attendeeIndex == attendeeNameSizes.length) {
+                int capacity = attendeeNameSizes.length * 2;
+                attendeeNameIndexes = Arrays.copyOf(attendeeNameIndexes, capacity);
+                attendeeNameOrderCounts = Arrays.copyOf(attendeeNameOrderCounts, capacity);
+                attendeeNameSizes = Arrays.copyOf(attendeeNameSizes, capacity);
+            }
+        }
+        attendeeTicketCounts[attendeeIndex] += ticketCount;
+        offerTopAttendee(attendeeIndex, order.getEmail().trim());
+        if (orderCount != 0L) {
+            String name = WrappedAggregateService.attendeeName(order);
+            int nameIndex = nameIndexes.computeIfAbsent(name, k -> {
+                names.add(k);
+                return names.size() - 1;
+            });
+            addNameOrders(attendeeIndex, nameIndex, orderCount);
+        }
+    }
+
+    private void addNameOrders(int attendeeIndex, int nameIndex, long orderCount) {
+        int size = attendeeNameSizes[attendeeIndex];
+        int[] nameIndexesOfAttendee = attendeeNameIndexes[attendeeIndex];
+        for (int i = 0; i < size; i++) {
+            if (nameIndexesOfAttendee[i] == nameIndex) {
+                attendeeNameOrderCounts[attendeeIndex][i] += orderCount;
+                return;
+            }
+        }
+        if (nameIndexesOfAttendee == null) {
+            attendeeNameIndexes[attendeeIndex] = new int[1];
+            attendeeNameOrderCounts[attendeeIndex] = new long[1];
+        } else if (size == nameIndexesOfAttendee.length) {
+            attendeeNameIndexes[attendeeIndex] = Arrays.copyOf(nameIndexesOfAttendee, size * 2);
+            attendeeNameOrderCounts[attendeeIndex] = Arrays.copyOf(attendeeNameOrderCounts[attendeeIndex], size * 2);
+        }
+        attendeeNameIndexes[attendeeIndex][size] = nameIndex;
+        attendeeNameOrderCounts[attendeeIndex][size] = orderCount;
+        attendeeNameSizes[attendeeIndex] = size + 1;
+    }
+
+    /**
+     * Keeps the attendee in the top set if it now has more tickets than the last one there.
+     */
+    private void offerTopAttendee(int index, String email) {
+        if (topAttendeeCount == 0 || attendeeTicketCounts[index] <= 0) {
+            return;
+        }
+        int last = -1;
+        for (int i = 0; i < topSize; i++) {
+            if (topIndexes[i] == index) {
+                return;
+            }
+            if (last < 0 || compareAttendees(topIndexes[i], topIndexes[last]) > 0) {
+                last = i;
+            }
+        }
+        if (topSize < topAttendeeCount) {
+            topIndexes[topSize] = index;
+            topEmails[topSize++] = email;
+        } else if (compareAttendees(index, topIndexes[last]) < 0) {
+            topIndexes[last] = index;
+            topEmails[last] = email;
+        }
+    }
+
+    private String topEmail(int index) {
+        for (int i = 0; i < topSize; i++) {
+            if (topIndexes[i] == index) {
+                return topEmails[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The slot holding {@code key}, or the empty slot where it belongs.
+     */
+    private int findSlot(long key) {
+        int mask = attendeeSlots.length - 1;
+        int slot = (int) (key ^ (key >>> 32)) & mask;
+        while (attendeeSlots[slot] != 0 && slotKeys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void growSlots() {
+        long[] oldKeys = slotKeys;
+        int[] oldSlots = attendeeSlots;
+        slotKeys = new long[oldKeys.length * 2];
+        attendeeSlots = new int[oldSlots.length * 2];
+        for (int i = 0; i < oldSlots.length; i++) {
+            if (oldSlots[i] != 0) {
+                int slot = findSlot(oldKeys[i]);
+                slotKeys[slot] = oldKeys[i];
+                attendeeSlots[slot] = oldSlots[i];
+            }
+        }
+    }
+
+    private WrappedAttendeeAggregate toAttendee(int index) {
+        Map<String, WrappedAttendeeAggregate.NameCount> attendeeNames = new HashMap<>();
+        for (int i = 0; i < attendeeNameSizes[index]; i++) {
+            String name = names.get(attendeeNameIndexes[index][i]);
+            attendeeNames.put(WrappedAggregateService.nameKey(name),
+                    new WrappedAttendeeAggregate.NameCount(name, attendeeNameOrderCounts[index][i]));
+        }
+        return WrappedAttendeeAggregate.builder()
+                .email(topEmail(index))
+                .ticketCount(attendeeTicketCounts[index])
+                .names(attendeeNames)
+                .updatedAt(updatedAt)
+                .build();
+    }
+
+    private int compareAttendees(int a, int b) {
+        int byTicketCount = Long.compare(attendeeTicketCounts[b], attendeeTicketCounts[a]);
+        return byTicketCount != 0 ? byTicketCount : Long.compareUnsigned(attendeeKeys[a], attendeeKeys[b]);
+    }
+
+    private static boolean isApproved(OrderAndTicketStatus status) {
+        return status == null || status == OrderAndTicketStatus.APPROVED;
+    }
+
+    private static long[] ensureCapacity(long[] column, int index) {
+        return index < column.length ? column : Arrays.copyOf(column, Math.max(column.length * 2, index + 1));
+    }
+}
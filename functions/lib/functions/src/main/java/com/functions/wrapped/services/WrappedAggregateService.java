@@ -0,0 +1,257 @@
+package com.functions.wrapped.services;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.functions.events.models.AbstractEventData;
+import com.functions.events.models.EventData;
+import com.functions.firebase.repositories.DocumentStoreTransaction;
+import com.functions.tickets.models.EventSalesDelta;
+import com.functions.tickets.models.Order;
+import com.functions.tickets.models.OrderAndTicketStatus;
+import com.functions.wrapped.models.WrappedAggregateState;
+import com.functions.wrapped.models.WrappedAttendeeAggregate;
+import com.functions.wrapped.models.WrappedEventAggregate;
+import com.functions.wrapped.repositories.WrappedAggregateRepository;
+import com.google.cloud.Timestamp;
+
+/**
+ * Keeps each organiser's Wrapped attendee totals current as orders change, so Wrapped is assembled
+ * from a handful of aggregate documents and the events' EventSalesAggregates instead of every order
+ * and ticket of the year. Totals are bucketed by the year of the event's start date, and only
+ * APPROVED orders and tickets count.
+ */
+public class WrappedAggregateService {
+    private static final Logger logger = LoggerFactory.getLogger(WrappedAggregateService.class);
+
+    private static final ZoneId SYDNEY_TIMEZONE = ZoneId.of("Australia/Sydney");
+    private static final int NAME_KEY_LENGTH = 16;
+    private static final int EMAIL_KEY_LENGTH = 16;
+    /** Times a rebuild recomputes the aggregates when order changes keep landing while it reads. */
+    static final int MAX_SEED_ATTEMPTS = 3;
+
+    /** One order's change within a transaction, as recorded in its {@link EventSalesDelta}. */
+    public record WrappedOrderChange(Order order, EventSalesDelta salesDelta) {
+    }
+
+    /** Computes an organiser's aggregates for a year from their events and orders. */
+    @FunctionalInterface
+    public interface AggregateComputation {
+        WrappedAggregateAccumulator compute() throws Exception;
+    }
+
+    private WrappedAggregateService() {
+    }
+
+    /**
+     * Seeds an organiser's aggregates for a year and marks them complete. Orders keep changing while
+     * {@code computation} reads them, so the aggregate documents' versions are read first and the
+     * computed totals only replace documents that no increment has touched since; if one has, the
+     * totals are computed again, up to MAX_SEED_ATTEMPTS times. The aggregates stay incomplete until
+     * then, so Wrapped is served from its cached snapshot in the meantime.
+     *
+     * @return the computed aggregates that were written
+     * @throws IllegalStateException if the aggregates kept changing on every attempt
+     */
+    public static WrappedAggregateAccumulator seed(String organiserId, int year, AggregateComputation computation)
+            throws Exception {
+        WrappedAggregateRepository.saveState(organiserId, year,
+                new WrappedAggregateState(false, null, WrappedAggregateState.CURRENT_VERSION));
+        for (int attempt = 1; attempt <= MAX_SEED_ATTEMPTS; attempt++) {
+            Map<String, Timestamp> versions = WrappedAggregateRepository.getVersions(organiserId, year);
+            WrappedAggregateAccumulator computed = computation.compute();
+            if (replaceAttendees(organiserId, year, versions, computed)) {
+                WrappedAggregateRepository.saveState(organiserId, year,
+                        new WrappedAggregateState(true, Timestamp.now(), WrappedAggregateState.CURRENT_VERSION));
+                return computed;
+            }
+            logger.info("Wrapped aggregates for organiserId: {}, year: {} changed while seeding (attempt {}); "
+                    + "recomputing", organiserId, year, attempt);
+        }
+        throw new IllegalStateException(String.format(
+                "Wrapped aggregates for organiserId: %s, year: %d kept changing while seeding", organiserId, year));
+    }
+
+    /**
+     * Writes the computed attendees, and deletes stored ones that were not computed, a transaction
+     * of at most MAX_TRANSACTION_WRITES documents at a time, building each chunk's aggregates only
+     * as it is written.
+     *
+     * @return false, with the remaining documents left unwritten, if a document had changed since
+     *         {@code versions} was read
+     */
+    private static boolean replaceAttendees(String organiserId, int year, Map<String, Timestamp> versions,
+            WrappedAggregateAccumulator computed) throws Exception {
+        Map<String, WrappedAttendeeAggregate> chunk = new LinkedHashMap<>();
+        for (int i = 0; i < computed.attendeeCount(); i++) {
+            chunk.put(computed.attendeeKey(i), computed.attendee(i));
+            if (chunk.size() == WrappedAggregateRepository.MAX_TRANSACTION_WRITES) {
+                if (!WrappedAggregateRepository.replaceIfUnchanged(organiserId, year, versions, chunk)) {
+                    return false;
+                }
+                chunk.clear();
+            }
+        }
+        int removed = 0;
+        for (String emailKey : versions.keySet()) {
+            if (computed.hasAttendee(emailKey)) {
+                continue;
+            }
+            chunk.put(emailKey, null);
+            removed++;
+            if (chunk.size() == WrappedAggregateRepository.MAX_TRANSACTION_WRITES) {
+                if (!WrappedAggregateRepository.replaceIfUnchanged(organiserId, year, versions, chunk)) {
+                    return false;
+                }
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty() && !WrappedAggregateRepository.replaceIfUnchanged(organiserId, year, versions, chunk)) {
+            return false;
+        }
+        logger.info("Rebuilt Wrapped aggregates for organiserId: {}, year: {}: {} attendees, {} removed",
+                organiserId, year, computed.attendeeCount(), removed);
+        return true;
+    }
+
+    public static void recordOrderChange(DocumentStoreTransaction transaction, EventData event, Order order,
+            EventSalesDelta salesDelta) {
+        recordOrderChanges(transaction, event, List.of(new WrappedOrderChange(order, salesDelta)));
+    }
+
+    /**
+     * Writes the changes to one event's orders as one increment to each attendee's aggregate, since
+     * a transaction may not write the same document twice. Write-phase only; {@code event} must have
+     * been read before any write.
+     */
+    public static void recordOrderChanges(DocumentStoreTransaction transaction, EventData event,
+            List<WrappedOrderChange> changes) {
+        if (!hasBucket(event != null ? event.getEventId() : null, event)) {
+            logger.debug("Skipping Wrapped aggregates for event without organiser or start date");
+            return;
+        }
+        Map<String, WrappedAttendeeAggregate> attendeeDeltas = new LinkedHashMap<>();
+        for (WrappedOrderChange change : changes) {
+            EventSalesDelta salesDelta = change.salesDelta();
+            addAttendee(attendeeDeltas, change.order(), salesDelta.ticketCount(OrderAndTicketStatus.APPROVED),
+                    salesDelta.orderCount(OrderAndTicketStatus.APPROVED));
+        }
+
+        String organiserId = event.getOrganiserId();
+        int year = yearOf(event.getStartDate());
+        attendeeDeltas.forEach((emailKey, attendee) -> WrappedAggregateRepository.incrementAttendee(transaction,
+                organiserId, year, emailKey, attendee.getEmail(), attendee.getTicketCount(), attendee.getNames()));
+    }
+
+    /**
+     * Year bucket of an event, by its start date in Sydney time.
+     */
+    public static int yearOf(Timestamp startDate) {
+        return Instant.ofEpochSecond(startDate.getSeconds(), startDate.getNanos()).atZone(SYDNEY_TIMEZONE).getYear();
+    }
+
+    static String emailKey(String email) {
+        return toEmailKey(emailHash(email));
+    }
+
+    /**
+     * The first 64 bits of the SHA-256 of the normalised email, which its email key spells out in hex.
+     */
+    static long emailHash(String email) {
+        return ByteBuffer.wrap(sha256(email.toLowerCase().trim())).getLong();
+    }
+
+    static String toEmailKey(long emailHash) {
+        return String.format("%016x", emailHash);
+    }
+
+    /**
+     * The email hash an email key spells out, empty for keys from before email keys were shortened.
+     */
+    static Optional<Long> parseEmailKey(String emailKey) {
+        if (emailKey.length() != EMAIL_KEY_LENGTH) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Long.parseUnsignedLong(emailKey, 16));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    static String nameKey(String name) {
+        return sha256Hex(name).substring(0, NAME_KEY_LENGTH);
+    }
+
+    private static boolean hasBucket(String eventId, AbstractEventData event) {
+        return event != null && eventId != null && event.getOrganiserId() != null
+                && event.getStartDate() != null;
+    }
+
+    static WrappedEventAggregate toEventDetails(String eventId, AbstractEventData event) {
+        return WrappedEventAggregate.builder()
+                .eventId(eventId)
+                .name(event.getName() != null ? event.getName() : "Unnamed Event")
+                .image(event.getImage() != null ? event.getImage() : "")
+                .startDate(event.getStartDate())
+                .accessCount(event.getAccessCount() != null ? event.getAccessCount() : 0)
+                .build();
+    }
+
+    static String attendeeName(Order order) {
+        return order.getFullName() != null && !order.getFullName().isEmpty() ? order.getFullName() : "Unknown";
+    }
+
+    /**
+     * Adds an order's change to its attendee's delta, keyed by hashed email. Orders without an email
+     * and changes that move neither tickets nor approved orders are skipped, and a name is only
+     * counted when the approved order count changes.
+     */
+    static void addAttendee(Map<String, WrappedAttendeeAggregate> attendees, Order order, long ticketDelta,
+            long orderDelta) {
+        if (order == null || order.getEmail() == null || order.getEmail().isBlank()
+                || (ticketDelta == 0L && orderDelta == 0L)) {
+            return;
+        }
+        String fullName = attendeeName(order);
+        WrappedAttendeeAggregate attendee = attendees.computeIfAbsent(emailKey(order.getEmail()),
+                k -> WrappedAttendeeAggregate.builder().email(order.getEmail().trim()).build());
+        attendee.setTicketCount(attendee.getTicketCount() + ticketDelta);
+        if (orderDelta != 0L) {
+            WrappedAttendeeAggregate.NameCount nameCount = attendee.getNames().computeIfAbsent(nameKey(fullName),
+                    k -> new WrappedAttendeeAggregate.NameCount(fullName, 0L));
+            nameCount.setOrderCount(nameCount.getOrderCount() + orderDelta);
+        }
+    }
+
+    private static String sha256Hex(String value) {
+        StringBuilder hexString = new StringBuilder();
+        for (byte b : sha256(value)) {
+            String hex = Integer.toHexString(0xff & b);
+            if (hex.length() == 1) {
+                hexString.append('0');
+            }
+            hexString.append(hex);
+        }
+        return hexString.toString();
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.functions.wrapped.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.functions.events.repositories.EventsRepository;
+import com.functions.global.handlers.Global;
+import com.functions.utils.TimeUtils;
+import com.functions.wrapped.models.WrappedPrecomputeCheckpoint;
+import com.functions.wrapped.repositories.WrappedPrecomputeCheckpointRepository;
+import com.google.cloud.Timestamp;
+
+/**
+ * Precomputes Wrapped for every organiser with events in a year, so opening Wrapped is served from
+ * the aggregates and cache instead of generating inside the request. Organisers are processed in ID
+ * order in batches, with a checkpoint saved after each batch; a run stops starting batches once its
+ * time budget is spent and the next run resumes from the checkpoint.
+ */
+public class WrappedPrecomputeService {
+    private static final Logger logger = LoggerFactory.getLogger(WrappedPrecomputeService.class);
+
+    private static final ZoneId SYDNEY_TIMEZONE = ZoneId.of("Australia/Sydney");
+
+    // Organisers generated between checkpoints
+    private static final int BATCH_SIZE = Global.getIntEnv("WRAPPED_PRECOMPUTE_BATCH_SIZE", 10, 1);
+    // Organisers generated at once; each generation also bounds its own in-flight reads
+    private static final int CONCURRENCY = Global.getIntEnv("WRAPPED_PRECOMPUTE_CONCURRENCY", 4, 1);
+    // No batch starts after this long, leaving room for one batch inside the function timeout
+    private static final Duration RUN_BUDGET = Duration.ofSeconds(
+            Global.getIntEnv("WRAPPED_PRECOMPUTE_BUDGET_SECONDS", 420, 1));
+
+    public record PrecomputeResult(int year, int organisers, int processedThisRun, int generated, int skipped,
+            int failed, boolean complete) {
+    }
+
+    private WrappedPrecomputeService() {
+    }
+
+    /**
+     * Continues the year's precompute pass from its checkpoint, starting a new pass if the last one
+     * completed or {@code restart} is set. A new pass skips organisers whose Wrapped is already
+     * current, so re-running it only picks up organisers who are new or were never seeded.
+     */
+    public static PrecomputeResult precompute(int year, boolean restart) throws Exception {
+        if (year < 2020 || year > LocalDate.now(SYDNEY_TIMEZONE).getYear()) {
+            throw new IllegalArgumentException("Invalid year: " + year);
+        }
+        Instant deadline = Instant.now().plus(RUN_BUDGET);
+
+        WrappedPrecomputeCheckpoint checkpoint = WrappedPrecomputeCheckpointRepository.getCheckpoint(year)
+                .filter(existing -> !restart && !Boolean.TRUE.equals(existing.getComplete()))
+                .orElseGet(() -> newCheckpoint(year));
+        logger.info("Wrapped precompute for year {} {} after organiser {}", year,
+                checkpoint.getLastOrganiserId() == null ? "starting" : "resuming", checkpoint.getLastOrganiserId());
+
+        SortedSet<String> organiserIds = EventsRepository.getOrganiserIdsWithEventsStartingBetween(
+                startOfYear(year), startOfYear(year + 1));
+        List<List<String>> batches = pendingBatches(organiserIds, checkpoint.getLastOrganiserId(), BATCH_SIZE);
+
+        int processedThisRun = 0;
+        int batchesRun = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            for (List<String> batch : batches) {
+                if (!Instant.now().isBefore(deadline)) {
+                    logger.info("Wrapped precompute for year {} stopping at its time budget with {} batches left",
+                            year, batches.size() - batchesRun);
+                    break;
+                }
+                runBatch(executor, batch, year, checkpoint);
+                processedThisRun += batch.size();
+                batchesRun++;
+                checkpoint.setLastOrganiserId(batch.get(batch.size() - 1));
+                checkpoint.setUpdatedAt(Timestamp.now());
+                WrappedPrecomputeCheckpointRepository.saveCheckpoint(checkpoint);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (batchesRun == batches.size()) {
+            checkpoint.setComplete(true);
+            checkpoint.setCompletedAt(Timestamp.now());
+            checkpoint.setUpdatedAt(checkpoint.getCompletedAt());
+            WrappedPrecomputeCheckpointRepository.saveCheckpoint(checkpoint);
+        }
+
+        logger.info("Wrapped precompute for year {} ran {} organisers. generated={}, skipped={}, failed={}, "
+                + "complete={}", year, processedThisRun, checkpoint.getGenerated(), checkpoint.getSkipped(),
+                checkpoint.getFailed(), Boolean.TRUE.equals(checkpoint.getComplete()));
+        return new PrecomputeResult(year, organiserIds.size(), processedThisRun, checkpoint.getGenerated(),
+                checkpoint.getSkipped(), checkpoint.getFailed(), Boolean.TRUE.equals(checkpoint.getComplete()));
+    }
+
+    /**
+     * Splits the organisers after {@code lastOrganiserId} into batches of at most {@code batchSize},
+     * in ID order.
+     */
+    static List<List<String>> pendingBatches(SortedSet<String> organiserIds, String lastOrganiserId, int batchSize) {
+        SortedSet<String> pending = lastOrganiserId == null ? organiserIds
+                : organiserIds.tailSet(lastOrganiserId + "\0");
+        List<List<String>> batches = new ArrayList<>();
+        List<String> batch = new ArrayList<>(batchSize);
+        for (String organiserId : pending) {
+            batch.add(organiserId);
+            if (batch.size() == batchSize) {
+                batches.add(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    /**
+     * Generates a batch's organisers concurrently and waits for all of them, so the checkpoint only
+     * moves past organisers that have finished. A failed organiser is counted and left for the next
+     * pass rather than blocking the rest.
+     */
+    private static void runBatch(ExecutorService executor, List<String> batch, int year,
+            WrappedPrecomputeCheckpoint checkpoint) throws InterruptedException {
+        List<Future<Boolean>> futures = new ArrayList<>(batch.size());
+        for (String organiserId : batch) {
+            futures.add(executor.submit(() -> WrappedService.precomputeWrappedData(organiserId, year)));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                if (futures.get(i).get()) {
+                    checkpoint.setGenerated(checkpoint.getGenerated() + 1);
+                } else {
+                    checkpoint.setSkipped(checkpoint.getSkipped() + 1);
+                }
+            } catch (ExecutionException e) {
+                logger.error("Failed to precompute Wrapped for organiserId: {}, year: {}", batch.get(i), year,
+                        e.getCause());
+                checkpoint.setFailed(checkpoint.getFailed() + 1);
+            }
+        }
+    }
+
+    private static WrappedPrecomputeCheckpoint newCheckpoint(int year) {
+        Timestamp now = Timestamp.now();
+        return WrappedPrecomputeCheckpoint.builder()
+                .year(year)
+                .complete(false)
+                .startedAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    private static Timestamp startOfYear(int year) {
+        return TimeUtils.convertZonedDateTimeToTimestamp(LocalDate.of(year, 1, 1).atStartOfDay(SYDNEY_TIMEZONE));
+    }
+}
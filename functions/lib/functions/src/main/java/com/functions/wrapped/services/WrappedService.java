@@ -3,14 +3,13 @@ package com.functions.wrapped.services;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,8 +17,13 @@ import org.slf4j.LoggerFactory;
 import com.functions.events.models.EventData;
 import com.functions.events.models.EventMetadata;
 import com.functions.events.repositories.EventsRepository;
+import com.functions.firebase.services.FirebaseService;
+import com.functions.global.handlers.Global;
+import com.functions.tickets.models.EventSalesAggregate;
 import com.functions.tickets.models.Order;
+import com.functions.tickets.models.OrderAndTicketStatus;
 import com.functions.tickets.models.Ticket;
+import com.functions.tickets.services.EventSalesAggregateService;
 import com.functions.tickets.services.TicketsService;
 import com.functions.users.models.UserData;
 import com.functions.users.services.Users;
@@ -28,7 +32,12 @@ import com.functions.wrapped.models.SportshubWrappedData;
 import com.functions.wrapped.models.SportshubWrappedData.DateRange;
 import com.functions.wrapped.models.SportshubWrappedData.MostPopularEvent;
 import com.functions.wrapped.models.SportshubWrappedData.TopAttendee;
+import com.functions.wrapped.models.WrappedAggregateState;
+import com.functions.wrapped.models.WrappedAttendeeAggregate;
+import com.functions.wrapped.models.WrappedEventAggregate;
+import com.functions.wrapped.repositories.WrappedAggregateRepository;
 import com.functions.wrapped.repositories.WrappedRepository;
+import com.google.cloud.Timestamp;
 
 /**
  * Service for generating and managing Sportshub Wrapped data.
@@ -53,6 +62,15 @@ public class WrappedService {
     private static final long STRIPE_FEE_PER_TICKET_CENTS = 30L;
     private static final double SPORTSHUB_FEE_PERCENTAGE = 0.01;
 
+    // Number of attendees shown in topRegularAttendees
+    private static final int TOP_ATTENDEE_COUNT = 5;
+
+    // Maximum concurrent batched Firestore reads while gathering an organiser's data
+    private static final int MAX_IN_FLIGHT_READS = Global.getIntEnv("WRAPPED_MAX_IN_FLIGHT_READS", 8, 1);
+
+    // Orders read, with their tickets, before they are counted and released
+    private static final int ORDER_PAGE_SIZE = 1000;
+
     /**
      * Gets or generates wrapped data for an organiser.
      * First checks if cached data exists, otherwise generates fresh data.
@@ -95,6 +113,13 @@ public class WrappedService {
                 }
                 logger.info("wrappedId verified successfully for organiserId: {}, year: {}", organiserId, year);
             }
+
+            // Once the incremental aggregates are built they are current, so serve them under the
+            // cached name and wrappedId rather than the snapshot taken at generation time
+            if (hasCompleteAggregates(organiserId, year)) {
+                logger.info("Assembling wrapped data from aggregates for organiserId: {}, year: {}", organiserId, year);
+                return assembleFromAggregates(organiserId, year, data.getOrganiserName(), data.getWrappedId());
+            }
             
             logger.info("Found cached wrapped data for organiserId: {}, year: {}", organiserId, year);
             return data;
@@ -120,6 +145,31 @@ public class WrappedService {
      * @return The generated wrapped data
      */
     public static SportshubWrappedData generateWrappedData(String organiserId, int year) throws Exception {
+        return generateWrappedData(organiserId, year, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Generates wrapped data ahead of the organiser opening it, unless the aggregates and cached
+     * snapshot already exist. Keeps the wrappedId of an existing snapshot so share links survive.
+     *
+     * @param organiserId The organiser's user ID
+     * @param year        The year for the wrapped data
+     * @return true if the data was generated, false if it was already current
+     */
+    public static boolean precomputeWrappedData(String organiserId, int year) throws Exception {
+        Optional<SportshubWrappedData> cachedData = WrappedRepository.getWrappedData(organiserId, year);
+        if (cachedData.isPresent() && hasCompleteAggregates(organiserId, year)) {
+            return false;
+        }
+        String wrappedId = cachedData.map(SportshubWrappedData::getWrappedId)
+                .filter(id -> id != null && !id.isEmpty())
+                .orElseGet(() -> UUID.randomUUID().toString());
+        generateWrappedData(organiserId, year, wrappedId);
+        return true;
+    }
+
+    private static SportshubWrappedData generateWrappedData(String organiserId, int year, String wrappedId)
+            throws Exception {
         logger.info("Generating wrapped data for organiserId: {}, year: {}", organiserId, year);
 
         // Validate input
@@ -127,8 +177,6 @@ public class WrappedService {
             throw new IllegalArgumentException("organiserId cannot be null or empty");
         }
 
-        String wrappedId = UUID.randomUUID().toString();
-
         UserData userData = Users.getUserDataById(organiserId);
         if (userData == null) {
             logger.error("User not found for organiserId: {}", organiserId);
@@ -147,37 +195,28 @@ public class WrappedService {
             organiserEventIds = Collections.emptyList();
         }
 
-        List<EventData> eventData = getAllOrganiserEventsInDateRange(organiserEventIds, dateRange);
-
-        Map<String, EventMetadata> eventMetadataMap = getAllOrganiserEventMetadataForEventsInDateRange(eventData);
-
-        // Build the eventOrderTicketMap: Map<EventId, Map<Order, List<Ticket>>>
-        Map<String, Map<Order, List<Ticket>>> eventOrderTicketMap = buildEventOrderTicketMap(eventData, eventMetadataMap);
-
-        // Calculate all metrics
-        int eventsCreated = calculateEventsCreated(eventData);
-        int ticketsSold = calculateTicketsSold(eventOrderTicketMap);
-        long totalSales = calculateTotalSales(eventOrderTicketMap);
-        int totalEventViews = calculateTotalEventViews(eventData);
-        List<TopAttendee> topRegularAttendees = calculateTopRegularAttendees(eventOrderTicketMap);
-        MostPopularEvent mostPopularEvent = calculateMostPopularEventByRevenue(eventData, eventOrderTicketMap);
-        int minutesSavedBookkeeping = calculateMinutesSavedBookkeeping(ticketsSold);
-        long feesSavedVsEventbrite = calculateFeesSavedVsEventbrite(totalSales, ticketsSold);
-
-        SportshubWrappedData wrappedData = new SportshubWrappedData(
-                organiserName,
-                organiserId,
-                year,
-                dateRange,
-                eventsCreated,
-                ticketsSold,
-                totalSales,
-                totalEventViews,
-                topRegularAttendees,
-                mostPopularEvent,
-                minutesSavedBookkeeping,
-                feesSavedVsEventbrite,
-                wrappedId);
+        GenerationProgress progress = new GenerationProgress(organiserId, year);
+        List<String> eventIds = organiserEventIds;
+
+        // Seed the incremental aggregates, then derive the metrics from them exactly as later reads will.
+        // Each seeding attempt reads the events and metadata afresh, so it sees the order IDs of every
+        // order whose increment it has to account for.
+        WrappedAggregateAccumulator accumulator = WrappedAggregateService.seed(organiserId, year, () -> {
+            // The aggregates cover the whole year, including events after today, so they stay complete
+            // as the year goes on
+            List<EventData> eventData = getAllOrganiserEventsInYear(eventIds, year, progress);
+            Map<String, EventMetadata> eventMetadataMap = getAllOrganiserEventMetadataForEventsInDateRange(eventData,
+                    progress);
+
+            WrappedAggregateAccumulator computed = new WrappedAggregateAccumulator(Timestamp.now(),
+                    TOP_ATTENDEE_COUNT);
+            eventData.forEach(computed::addEvent);
+            accumulateOrders(eventData, eventMetadataMap, computed, progress);
+            return computed;
+        });
+        List<WrappedEventAggregate> events = accumulator.events();
+        SportshubWrappedData wrappedData = assembleWrappedData(organiserName, organiserId, year, dateRange,
+                events, accumulator.topAttendees(), wrappedId);
 
         // Cache the generated data
         WrappedRepository.saveWrappedData(organiserId, year, wrappedData);
@@ -214,221 +253,198 @@ public class WrappedService {
                 to.format(DateTimeFormatter.ISO_LOCAL_DATE));
     }
 
-    private static List<EventData> getAllOrganiserEventsInDateRange(List<String> eventIds, DateRange dateRange) {
+    private static List<EventData> getAllOrganiserEventsInYear(List<String> eventIds, int year,
+            GenerationProgress progress) throws Exception {
         if (eventIds == null || eventIds.isEmpty()) {
             return Collections.emptyList();
         }
-        return eventIds.stream()
+        List<String> validEventIds = eventIds.stream()
                 .filter(id -> id != null && !id.isEmpty())
-                .map(EventsRepository::getEventById)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .filter(event -> event.getStartDate() != null && TimeUtils.isTimestampInRange(event.getStartDate(), dateRange))
+                .toList();
+        return EventsRepository.getEventsByIds(validEventIds, MAX_IN_FLIGHT_READS, progress.stage("events"))
+                .values()
+                .stream()
+                .filter(event -> event.getStartDate() != null && WrappedAggregateService.yearOf(event.getStartDate()) == year)
                 .toList();
     }
 
-    private static Map<String, EventMetadata> getAllOrganiserEventMetadataForEventsInDateRange(List<EventData> eventData) {
-        return eventData.stream()
-                .map(EventData::getEventId)
-                .collect(Collectors.toMap(Function.identity(), eventId -> EventsRepository.getEventMetadataById(eventId).orElse(null)))
-                .entrySet()
-                .stream()
-                .filter(entry -> entry.getValue() != null)
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    private static Map<String, EventMetadata> getAllOrganiserEventMetadataForEventsInDateRange(List<EventData> eventData,
+            GenerationProgress progress) throws Exception {
+        List<String> eventIds = eventData.stream().map(EventData::getEventId).toList();
+        return EventsRepository.getEventMetadataByIds(eventIds, MAX_IN_FLIGHT_READS, progress.stage("event metadata"));
     }
 
     /**
-     * Builds a map of EventId -> Map<Order, List<Ticket>> for all events.
-     * This consolidates all order and ticket data for metric calculations.
+     * Reads every event's orders and their tickets in pages of ORDER_PAGE_SIZE orders and folds each
+     * page into the accumulator before reading the next, so at most one page of orders and tickets is
+     * held at a time however many orders the organiser has.
      *
-     * @param eventData List of event data
-     * @param eventMetadata List of event metadata
-     * @return Map of EventId -> Map<Order, List<Ticket>>
+     * @param eventData List of event data, already added to the accumulator
+     * @param eventMetadataMap Map of EventId -> EventMetadata
+     * @param accumulator Accumulator the orders are counted into
+     * @param progress Progress reporter for this generation
      */
-    private static Map<String, Map<Order, List<Ticket>>> buildEventOrderTicketMap(
-            List<EventData> eventData, 
-            Map<String, EventMetadata> eventMetadataMap) {
-        
-        Map<String, Map<Order, List<Ticket>>> eventOrderTicketMap = new HashMap<>();
+    private static void accumulateOrders(
+            List<EventData> eventData,
+            Map<String, EventMetadata> eventMetadataMap,
+            WrappedAggregateAccumulator accumulator,
+            GenerationProgress progress) throws Exception {
 
+        List<Map.Entry<String, String>> eventOrderIds = new ArrayList<>();
         for (EventData event : eventData) {
             String eventId = event.getEventId();
             EventMetadata metadata = eventMetadataMap.get(eventId);
             
-            if (metadata != null && metadata.getOrderIds() != null && !metadata.getOrderIds().isEmpty()) {
-                Map<Order, List<Ticket>> orderTicketsMap = TicketsService.getOrdersAndTickets(metadata.getOrderIds());
-                eventOrderTicketMap.put(eventId, orderTicketsMap);
+            if (metadata != null && metadata.getOrderIds() != null) {
+                metadata.getOrderIds().forEach(orderId -> eventOrderIds.add(Map.entry(eventId, orderId)));
             }
         }
 
-        logger.info("Built eventOrderTicketMap for {} events", eventOrderTicketMap.size());
-        return eventOrderTicketMap;
-    }
+        int pageCount = (eventOrderIds.size() + ORDER_PAGE_SIZE - 1) / ORDER_PAGE_SIZE;
+        for (int page = 0; page < pageCount; page++) {
+            Map<String, List<String>> orderIdsByEvent = new LinkedHashMap<>();
+            for (Map.Entry<String, String> entry : eventOrderIds.subList(page * ORDER_PAGE_SIZE,
+                    Math.min((page + 1) * ORDER_PAGE_SIZE, eventOrderIds.size()))) {
+                orderIdsByEvent.computeIfAbsent(entry.getKey(), k -> new ArrayList<>()).add(entry.getValue());
+            }
+            Map<String, Map<Order, List<Ticket>>> pageOrders = TicketsService.getOrdersAndTicketsByEvent(
+                    orderIdsByEvent, MAX_IN_FLIGHT_READS,
+                    progress.stage("orders and tickets page " + (page + 1) + "/" + pageCount));
+            pageOrders.forEach((eventId, orderTickets) -> orderTickets
+                    .forEach((order, tickets) -> accumulator.addOrder(eventId, order, tickets)));
+        }
 
-    /**
-     * Calculates the number of events created by the organiser in the given year.
-     * @param eventData The list of event data
-     * @return The number of events created
-     */
-    private static int calculateEventsCreated(List<EventData> eventData) {
-        return (eventData != null) ? eventData.size() : 0;
+        logger.info("Accumulated {} orders across {} events in {} pages", eventOrderIds.size(), eventData.size(),
+                pageCount);
     }
 
     /**
-     * Calculates the total number of tickets sold across all events.
-     *
-     * @param eventOrderTicketMap Map of EventId -> Map<Order, List<Ticket>>
-     * @return The total tickets sold
+     * Logs each completed batch of a generation's reads, so slow generations show where they are.
      */
-    private static int calculateTicketsSold(Map<String, Map<Order, List<Ticket>>> eventOrderTicketMap) {
-        if (eventOrderTicketMap == null || eventOrderTicketMap.isEmpty()) {
-            return 0;
+    private static class GenerationProgress {
+        private final String organiserId;
+        private final int year;
+
+        GenerationProgress(String organiserId, int year) {
+            this.organiserId = organiserId;
+            this.year = year;
+        }
+
+        FirebaseService.ChunkProgressListener stage(String stage) {
+            return (loadedChunks, totalChunks) -> logger.info(
+                    "Wrapped generation for organiserId: {}, year: {}: {} batch {}/{}",
+                    organiserId, year, stage, loadedChunks, totalChunks);
         }
-        return eventOrderTicketMap.values().stream()
-                .filter(map -> map != null)
-                .map(TicketsService::calculateTotalTicketCount)
-                .reduce(0, Integer::sum);
     }
 
     /**
-     * Calculates the total sales volume in cents for the given year.
-     *
-     * @param eventOrderTicketMap Map of EventId -> Map<Order, List<Ticket>>
-     * @return The total sales in cents
+     * Whether the organiser's incremental aggregates for the year have been seeded by a generation
+     * with the current layout.
      */
-    private static long calculateTotalSales(Map<String, Map<Order, List<Ticket>>> eventOrderTicketMap) {
-        if (eventOrderTicketMap == null || eventOrderTicketMap.isEmpty()) {
-            return 0L;
-        }
-        return eventOrderTicketMap.values().stream()
-                .filter(map -> map != null)
-                .map(TicketsService::calculateNetSales)
-                .reduce(0L, Long::sum);
+    private static boolean hasCompleteAggregates(String organiserId, int year) throws Exception {
+        return WrappedAggregateRepository.getState(organiserId, year)
+                .map(state -> Boolean.TRUE.equals(state.getComplete())
+                        && Integer.valueOf(WrappedAggregateState.CURRENT_VERSION).equals(state.getVersion()))
+                .orElse(false);
     }
 
     /**
-     * Calculates the total event views across all events in the given year.
-     *
-     * @param eventData List of event data
-     * @return The total event views
+     * Builds current wrapped data from the incremental aggregates: the year's events with their
+     * EventSalesAggregates, and one query for the top attendees, however many orders the organiser
+     * has.
      */
-    private static int calculateTotalEventViews(List<EventData> eventData) {
-        if (eventData == null || eventData.isEmpty()) {
-            return 0;
-        }
-        return eventData.stream()
-                .filter(event -> event != null)
-                .map(EventData::getAccessCount)
-                .reduce(0, Integer::sum);
+    private static SportshubWrappedData assembleFromAggregates(String organiserId, int year, String organiserName,
+            String wrappedId) throws Exception {
+        UserData userData = Users.getUserDataById(organiserId);
+        List<String> eventIds = userData != null && userData.getOrganiserEvents() != null
+                ? userData.getOrganiserEvents()
+                : Collections.emptyList();
+        List<EventData> eventData = getAllOrganiserEventsInYear(eventIds, year,
+                new GenerationProgress(organiserId, year));
+        List<WrappedEventAggregate> events = withSalesTotals(eventData, EventSalesAggregateService.getAggregates(
+                eventData.stream().map(EventData::getEventId).toList()));
+        List<WrappedAttendeeAggregate> topAttendees = WrappedAggregateRepository.getTopAttendees(organiserId, year,
+                TOP_ATTENDEE_COUNT);
+        return assembleWrappedData(organiserName, organiserId, year, calculateDateRange(year), events, topAttendees,
+                wrappedId);
     }
 
     /**
-     * Calculates the top 5 regular attendees for the organiser's events.
-     * Groups by email and uses the most frequently appearing fullName for each email.
+     * Each event's details with its APPROVED ticket and sales totals from its sales aggregate.
      *
-     * @param eventOrderTicketMap Map of EventId -> Map<Order, List<Ticket>>
-     * @return List of top 5 attendees sorted by ticket count descending
+     * @param eventData The organiser's events starting in the year
+     * @param salesAggregates EventId -> the event's sales aggregate
      */
-    private static List<TopAttendee> calculateTopRegularAttendees(
-            Map<String, Map<Order, List<Ticket>>> eventOrderTicketMap) {
-        
-        if (eventOrderTicketMap == null || eventOrderTicketMap.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        // Map of email -> (Map of fullName -> count, total tickets)
-        Map<String, AttendeeData> attendeeMap = new HashMap<>();
-
-        for (Map<Order, List<Ticket>> orderTicketsMap : eventOrderTicketMap.values()) {
-            if (orderTicketsMap == null) {
-                continue;
-            }
-            for (Order order : orderTicketsMap.keySet()) {
-                if (order == null) {
-                    continue;
-                }
-                
-                String email = order.getEmail();
-                if (email == null || email.isEmpty()) {
-                    continue;
-                }
-
-                String fullName = order.getFullName();
-                if (fullName == null || fullName.isEmpty()) {
-                    fullName = "Unknown";
-                }
-                
-                List<String> tickets = order.getTickets();
-                int ticketCount = (tickets != null) ? tickets.size() : 0;
-
-                AttendeeData data = attendeeMap.computeIfAbsent(email, k -> new AttendeeData());
-                data.totalTickets += ticketCount;
-                data.nameFrequency.merge(fullName, 1, Integer::sum);
+    static List<WrappedEventAggregate> withSalesTotals(List<EventData> eventData,
+            Map<String, EventSalesAggregate> salesAggregates) {
+        List<WrappedEventAggregate> events = new ArrayList<>(eventData.size());
+        for (EventData event : eventData) {
+            WrappedEventAggregate details = WrappedAggregateService.toEventDetails(event.getEventId(), event);
+            EventSalesAggregate sales = salesAggregates.get(event.getEventId());
+            if (sales != null) {
+                details.setTicketsSold(sales.ticketCount(OrderAndTicketStatus.APPROVED));
+                details.setNetSales(sales.netSales(OrderAndTicketStatus.APPROVED));
             }
+            events.add(details);
         }
-
-        // Convert to TopAttendee list and sort by ticket count
-        return attendeeMap.entrySet().stream()
-                .map(entry -> {
-                    String email = entry.getKey();
-                    AttendeeData data = entry.getValue();
-                    // Get the most frequent name
-                    String mostFrequentName = data.nameFrequency.entrySet().stream()
-                            .max(Map.Entry.comparingByValue())
-                            .map(Map.Entry::getKey)
-                            .orElse("Unknown");
-                    return new TopAttendee(mostFrequentName, email, data.totalTickets);
-                })
-                .sorted((a, b) -> Integer.compare(b.getAttendanceCount(), a.getAttendanceCount()))
-                .limit(5)
-                .toList();
+        return events;
     }
 
     /**
-     * Helper class to track attendee data during calculation.
-     */
-    private static class AttendeeData {
-        int totalTickets = 0;
-        Map<String, Integer> nameFrequency = new HashMap<>();
-    }
-
-    /**
-     * Finds the most popular event based on revenue.
+     * Calculates every metric from the aggregates of the events that start within the date range.
+     * Tickets and sales count APPROVED orders only.
      *
-     * @param eventData List of event data
-     * @param eventOrderTicketMap Map of event orders and tickets
-     * @return The most popular event details
+     * @param events The organiser's event aggregates for the year
+     * @param topAttendees The attendees with the most tickets, most first
      */
-    private static MostPopularEvent calculateMostPopularEventByRevenue(List<EventData> eventData, Map<String, Map<Order, List<Ticket>>> eventOrderTicketMap) {
+    static SportshubWrappedData assembleWrappedData(String organiserName, String organiserId, int year,
+            DateRange dateRange, List<WrappedEventAggregate> events, List<WrappedAttendeeAggregate> topAttendees,
+            String wrappedId) {
+        // One pass over the events for every per-event metric
+        int eventsCreated = 0;
+        long ticketsSoldTotal = 0L;
+        long totalSales = 0L;
+        int totalEventViews = 0;
         MostPopularEvent mostPopularEvent = new MostPopularEvent("", "", "", 0, 0L);
-
-        if (eventData == null || eventData.isEmpty()) {
-            return mostPopularEvent;
-        }
-
-        for (EventData event : eventData) {
-            if (event == null) {
+        for (WrappedEventAggregate event : events) {
+            if (event.getStartDate() == null || !TimeUtils.isTimestampInRange(event.getStartDate(), dateRange)) {
                 continue;
             }
-            
-            String eventId = event.getEventId();
-            if (eventId == null) {
-                continue;
-            }
-            
-            Map<Order, List<Ticket>> orderTicketsMap = (eventOrderTicketMap != null) 
-                    ? eventOrderTicketMap.getOrDefault(eventId, Map.of()) 
-                    : Map.of();
-            long revenue = TicketsService.calculateNetSales(orderTicketsMap);
-            
-            if (revenue > mostPopularEvent.getRevenue()) {
-                String image = (event.getImage() != null) ? event.getImage() : "";
-                String name = (event.getName() != null) ? event.getName() : "Unnamed Event";
-                int accessCount = event.getAccessCount();
-                mostPopularEvent = new MostPopularEvent(eventId, image, name, accessCount, revenue);
+            int accessCount = event.getAccessCount() != null ? event.getAccessCount() : 0;
+            eventsCreated++;
+            ticketsSoldTotal += event.getTicketsSold();
+            totalSales += event.getNetSales();
+            totalEventViews += accessCount;
+            // Most popular event is the one with the highest revenue
+            if (event.getNetSales() > mostPopularEvent.getRevenue()) {
+                mostPopularEvent = new MostPopularEvent(event.getEventId(), event.getImage(), event.getName(),
+                        accessCount, event.getNetSales());
             }
         }
-        return mostPopularEvent;
+        int ticketsSold = Math.toIntExact(ticketsSoldTotal);
+        List<TopAttendee> topRegularAttendees = topAttendees.stream()
+                .filter(attendee -> attendee.getTicketCount() > 0)
+                .map(attendee -> new TopAttendee(attendee.mostFrequentName(), attendee.getEmail(),
+                        Math.toIntExact(attendee.getTicketCount())))
+                .limit(TOP_ATTENDEE_COUNT)
+                .toList();
+        int minutesSavedBookkeeping = calculateMinutesSavedBookkeeping(ticketsSold);
+        long feesSavedVsEventbrite = calculateFeesSavedVsEventbrite(totalSales, ticketsSold);
+
+        return new SportshubWrappedData(
+                organiserName,
+                organiserId,
+                year,
+                dateRange,
+                eventsCreated,
+                ticketsSold,
+                totalSales,
+                totalEventViews,
+                topRegularAttendees,
+                mostPopularEvent,
+                minutesSavedBookkeeping,
+                feesSavedVsEventbrite,
+                wrappedId);
     }
 
     /**
@@ -0,0 +1,114 @@
+package com.functions.attendee.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.functions.attendee.models.EventAttendeeSummary;
+import com.functions.events.models.EventData;
+import com.functions.firebase.repositories.InMemoryDocumentStore;
+import com.functions.firebase.services.FirebaseService;
+import com.functions.firebase.services.FirebaseService.CollectionPaths;
+import com.functions.tickets.models.EventSalesAggregate;
+import com.functions.tickets.models.EventSalesDelta;
+import com.functions.tickets.models.Order;
+import com.functions.tickets.models.OrderAndTicketStatus;
+import com.functions.tickets.models.Ticket;
+import com.functions.tickets.services.EventSalesAggregateService;
+import com.functions.wrapped.models.WrappedAttendeeAggregate;
+import com.functions.wrapped.services.WrappedAggregateService;
+import com.google.cloud.Timestamp;
+
+public class AttendeeServiceTest {
+    private static final String EVENT_ID = "event-1";
+    private static final String ORDER_ID = "order-1";
+    private static final String WRAPPED_PATH = "Wrapped/organiser-1/2025/AGGREGATES";
+
+    private InMemoryDocumentStore store;
+    private EventData event;
+    private Order order;
+    private List<Ticket> tickets;
+
+    @Before
+    public void setUp() throws Exception {
+        store = new InMemoryDocumentStore();
+        FirebaseService.setDocumentStore(store);
+
+        event = new EventData();
+        event.setEventId(EVENT_ID);
+        event.setOrganiserId("organiser-1");
+        event.setStartDate(Timestamp.parseTimestamp("2025-03-01T09:00:00Z"));
+
+        order = new Order();
+        order.setOrderId(ORDER_ID);
+        order.setEmail("jane@example.com");
+        order.setFullName("Jane Doe");
+        order.setStatus(OrderAndTicketStatus.APPROVED);
+        order.setDatePurchased(Timestamp.parseTimestamp("2025-02-01T09:00:00Z"));
+        tickets = new ArrayList<>();
+        EventSalesDelta salesDelta = new EventSalesDelta();
+        for (int i = 0; i < 2; i++) {
+            Ticket ticket = new Ticket();
+            ticket.setTicketId("ticket-" + i);
+            ticket.setOrderId(ORDER_ID);
+            ticket.setPrice(1500);
+            ticket.setStatus(OrderAndTicketStatus.APPROVED);
+            tickets.add(ticket);
+            salesDelta.addTicket(ticket);
+        }
+        store.runTransaction(transaction -> {
+            EventAttendeeSummaryService.recordOrder(transaction, EVENT_ID, ORDER_ID, order, tickets.size());
+            EventSalesAggregateService.apply(transaction, EVENT_ID, salesDelta.addOrder(order));
+            WrappedAggregateService.recordOrderChange(transaction, event, order, salesDelta);
+            return null;
+        });
+    }
+
+    @After
+    public void tearDown() {
+        FirebaseService.setDocumentStore(null);
+    }
+
+    private WrappedAttendeeAggregate attendeeAggregate() throws Exception {
+        List<String> emailKeys = store.listDocumentIds(WRAPPED_PATH + "/Attendees");
+        assertEquals(1, emailKeys.size());
+        return store.get(WRAPPED_PATH + "/Attendees/" + emailKeys.get(0), WrappedAttendeeAggregate.class)
+                .orElseThrow();
+    }
+
+    @Test
+    public void rejectOrderRemovesTheOrderFromEveryProjectionOnce() throws Exception {
+        assertEquals(2L, attendeeAggregate().getTicketCount());
+
+        store.runTransaction(transaction -> {
+            AttendeeService.rejectOrder(transaction, EVENT_ID, event, order, tickets);
+            return null;
+        });
+
+        assertEquals(OrderAndTicketStatus.REJECTED, order.getStatus());
+        for (Ticket ticket : tickets) {
+            assertEquals(OrderAndTicketStatus.REJECTED, ticket.getStatus());
+        }
+
+        WrappedAttendeeAggregate attendee = attendeeAggregate();
+        assertEquals(0L, attendee.getTicketCount());
+        attendee.getNames().values().forEach(name -> assertEquals(0L, name.getOrderCount()));
+        EventSalesAggregate sales = store.get(CollectionPaths.EVENT_SALES_AGGREGATES + "/" + EVENT_ID,
+                EventSalesAggregate.class).orElseThrow();
+        assertEquals(0L, sales.ticketCount(OrderAndTicketStatus.APPROVED));
+        assertEquals(0L, sales.netSales(OrderAndTicketStatus.APPROVED));
+        assertEquals(2L, sales.ticketCount(OrderAndTicketStatus.REJECTED));
+
+        EventAttendeeSummary summary = store.get(CollectionPaths.EVENT_ATTENDEE_SUMMARIES + "/" + EVENT_ID,
+                EventAttendeeSummary.class).orElseThrow();
+        assertFalse(summary.getAttendees().containsKey(ORDER_ID));
+        assertTrue(summary.getAttendees().isEmpty());
+    }
+}
@@ -0,0 +1,54 @@
+package com.functions.attendee.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.functions.attendee.models.EventAttendeeNameAndTicketCount;
+import com.functions.attendee.models.EventAttendeeSummary;
+import com.functions.tickets.models.Order;
+import com.functions.tickets.models.OrderAndTicketStatus;
+import com.google.cloud.Timestamp;
+
+public class EventAttendeeSummaryServiceTest {
+
+    private static Order order(String fullName, OrderAndTicketStatus status) {
+        Order order = new Order();
+        order.setFullName(fullName);
+        order.setStatus(status);
+        order.setDatePurchased(Timestamp.ofTimeSecondsAndNanos(100, 0));
+        return order;
+    }
+
+    @Test
+    public void toEntry_listsOnlyNamedApprovedOrdersWithTickets() {
+        EventAttendeeSummary.Entry entry = EventAttendeeSummaryService
+                .toEntry(order("  Alex Smith ", OrderAndTicketStatus.APPROVED), 3).orElseThrow();
+        assertEquals("Alex Smith", entry.getName());
+        assertEquals(3, entry.getTicketCount());
+
+        assertTrue(EventAttendeeSummaryService.toEntry(order("Alex", OrderAndTicketStatus.PENDING), 3).isEmpty());
+        assertTrue(EventAttendeeSummaryService.toEntry(order("Alex", OrderAndTicketStatus.REJECTED), 3).isEmpty());
+        assertTrue(EventAttendeeSummaryService.toEntry(order("Alex", OrderAndTicketStatus.APPROVED), 0).isEmpty());
+        assertTrue(EventAttendeeSummaryService.toEntry(order(" ", OrderAndTicketStatus.APPROVED), 1).isEmpty());
+    }
+
+    @Test
+    public void toAttendeeList_returnsAttendeesInPurchaseOrder() {
+        Map<String, EventAttendeeSummary.Entry> attendees = new HashMap<>();
+        attendees.put("order-c", new EventAttendeeSummary.Entry("Casey", 1, Timestamp.ofTimeSecondsAndNanos(300, 0)));
+        attendees.put("order-a", new EventAttendeeSummary.Entry("Avery", 2, Timestamp.ofTimeSecondsAndNanos(100, 0)));
+        attendees.put("order-b", new EventAttendeeSummary.Entry("Blake", 1, Timestamp.ofTimeSecondsAndNanos(200, 0)));
+        EventAttendeeSummary summary = new EventAttendeeSummary(attendees, true, Timestamp.now());
+
+        assertEquals(List.of(
+                new EventAttendeeNameAndTicketCount("Avery", 2),
+                new EventAttendeeNameAndTicketCount("Blake", 1),
+                new EventAttendeeNameAndTicketCount("Casey", 1)), summary.toAttendeeList());
+    }
+}
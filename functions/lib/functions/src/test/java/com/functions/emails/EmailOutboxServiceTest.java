@@ -0,0 +1,161 @@
+package com.functions.emails;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.functions.emails.EmailOutboxService.DispatchResult;
+import com.functions.emails.models.EmailOutboxKind;
+import com.functions.emails.models.EmailOutboxRecord;
+import com.functions.emails.models.EmailOutboxStatus;
+import com.functions.emails.repositories.EmailOutboxRepository;
+import com.functions.firebase.repositories.InMemoryDocumentStore;
+import com.functions.firebase.services.FirebaseService;
+import com.functions.firebase.services.FirebaseService.CollectionPaths;
+import com.google.cloud.Timestamp;
+
+public class EmailOutboxServiceTest {
+    private static final String RECORD_ID = "order-1_PURCHASE";
+
+    private InMemoryDocumentStore store;
+    private ExecutorService executor;
+    private List<String> sends;
+    private String sendError;
+
+    @Before
+    public void setUp() {
+        store = new InMemoryDocumentStore();
+        FirebaseService.setDocumentStore(store);
+        executor = Executors.newSingleThreadExecutor();
+        sends = new ArrayList<>();
+        sendError = null;
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+        FirebaseService.setDocumentStore(null);
+    }
+
+    private void put(EmailOutboxRecord record) throws Exception {
+        store.set(CollectionPaths.EMAIL_OUTBOX + "/" + record.getRecordId(), record);
+    }
+
+    private EmailOutboxRecord get(String recordId) throws Exception {
+        return store.get(CollectionPaths.EMAIL_OUTBOX + "/" + recordId, EmailOutboxRecord.class).orElseThrow();
+    }
+
+    private static EmailOutboxRecord pending(int attempts, Timestamp nextAttemptAt) {
+        return EmailOutboxRecord.builder()
+                .recordId(RECORD_ID)
+                .kind(EmailOutboxKind.PURCHASE)
+                .orderId("order-1")
+                .status(EmailOutboxStatus.PENDING)
+                .attempts(attempts)
+                .nextAttemptAt(nextAttemptAt)
+                .build();
+    }
+
+    private static Timestamp plus(Timestamp timestamp, Duration duration) {
+        return Timestamp.ofTimeSecondsAndNanos(timestamp.getSeconds() + duration.getSeconds(), timestamp.getNanos());
+    }
+
+    private DispatchResult dispatch(Timestamp now) throws Exception {
+        return EmailOutboxService.dispatchDue(now, record -> {
+            sends.add(record.getRecordId() + "#" + record.getAttempts());
+            return sendError;
+        }, executor);
+    }
+
+    @Test
+    public void retryDelay_doublesFromOneMinuteUpToAnHour() {
+        assertEquals(Duration.ofMinutes(1), EmailOutboxService.retryDelay(1));
+        assertEquals(Duration.ofMinutes(2), EmailOutboxService.retryDelay(2));
+        assertEquals(Duration.ofMinutes(16), EmailOutboxService.retryDelay(5));
+        assertEquals(Duration.ofHours(1), EmailOutboxService.retryDelay(7));
+        assertEquals(Duration.ofHours(1), EmailOutboxService.retryDelay(40));
+    }
+
+    @Test
+    public void dispatch_sendsDueRecordAndMarksItSent() throws Exception {
+        Timestamp now = Timestamp.now();
+        put(pending(0, now));
+
+        DispatchResult result = dispatch(now);
+
+        assertEquals(new DispatchResult(1, 1, 0, 0), result);
+        assertEquals(List.of(RECORD_ID + "#1"), sends);
+        EmailOutboxRecord record = get(RECORD_ID);
+        assertEquals(EmailOutboxStatus.SENT, record.getStatus());
+        assertEquals(1, record.getAttempts());
+        assertNull(record.getNextAttemptAt());
+    }
+
+    @Test
+    public void claim_skipsRecordsThatAreNotDueOrNotPending() throws Exception {
+        Timestamp now = Timestamp.now();
+        put(pending(0, plus(now, Duration.ofMinutes(1))));
+        put(pending(1, now).toBuilder().recordId("order-2_PURCHASE").status(EmailOutboxStatus.SENT).build());
+
+        assertEquals(new DispatchResult(0, 0, 0, 0), dispatch(now));
+        assertTrue(sends.isEmpty());
+        assertTrue(EmailOutboxRepository.claimIfDue(get("order-2_PURCHASE"), now, now).isEmpty());
+    }
+
+    @Test
+    public void claim_hidesRecordUntilItsLeaseExpires() throws Exception {
+        Timestamp now = Timestamp.now();
+        put(pending(0, now));
+        // A dispatcher claims the record and dies before settling it
+        EmailOutboxRepository.claim(RECORD_ID, now, plus(now, EmailOutboxService.SEND_LEASE));
+
+        assertEquals(new DispatchResult(0, 0, 0, 0), dispatch(plus(now, Duration.ofMinutes(1))));
+
+        Timestamp afterLease = plus(now, EmailOutboxService.SEND_LEASE.plusSeconds(1));
+        assertEquals(new DispatchResult(1, 1, 0, 0), dispatch(afterLease));
+        assertEquals(List.of(RECORD_ID + "#2"), sends);
+        assertEquals(EmailOutboxStatus.SENT, get(RECORD_ID).getStatus());
+    }
+
+    @Test
+    public void failedSend_isRetriedAfterABackoff() throws Exception {
+        Timestamp now = Timestamp.now();
+        put(pending(0, now));
+        sendError = "Loops returned 500 Internal Server Error";
+
+        assertEquals(new DispatchResult(1, 0, 1, 0), dispatch(now));
+
+        EmailOutboxRecord record = get(RECORD_ID);
+        assertEquals(EmailOutboxStatus.PENDING, record.getStatus());
+        assertEquals(1, record.getAttempts());
+        assertEquals(sendError, record.getLastError());
+        assertTrue(record.getNextAttemptAt().compareTo(plus(now, Duration.ofSeconds(59))) > 0);
+        assertEquals(new DispatchResult(0, 0, 0, 0), dispatch(now));
+    }
+
+    @Test
+    public void failedSend_givesUpAfterMaxAttempts() throws Exception {
+        Timestamp now = Timestamp.now();
+        put(pending(EmailOutboxService.MAX_ATTEMPTS - 1, now));
+        sendError = "Loops returned 500 Internal Server Error";
+
+        assertEquals(new DispatchResult(1, 0, 0, 1), dispatch(now));
+
+        EmailOutboxRecord record = get(RECORD_ID);
+        assertEquals(EmailOutboxStatus.FAILED, record.getStatus());
+        assertEquals(EmailOutboxService.MAX_ATTEMPTS, record.getAttempts());
+        assertEquals(sendError, record.getLastError());
+        assertNull(record.getNextAttemptAt());
+        assertEquals(new DispatchResult(0, 0, 0, 0), dispatch(plus(now, Duration.ofDays(1))));
+    }
+}
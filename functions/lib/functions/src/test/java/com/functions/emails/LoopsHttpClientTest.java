@@ -0,0 +1,123 @@
+package com.functions.emails;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.functions.emails.models.OutboundEmail;
+import com.sun.net.httpserver.HttpServer;
+
+public class LoopsHttpClientTest {
+
+    private static final LoopsHttpClient.Settings SETTINGS = new LoopsHttpClient.Settings(4, Duration.ofSeconds(2),
+            Duration.ofSeconds(2), Duration.ofMillis(500), Duration.ofSeconds(2));
+
+    private record ReceivedRequest(String body, String authorization, String idempotencyKey, int remotePort) {
+    }
+
+    private HttpServer server;
+    private final List<ReceivedRequest> received = new CopyOnWriteArrayList<>();
+    private volatile long responseDelayMillis = 0;
+    private LoopsHttpClient client;
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/api/v1/transactional", exchange -> {
+            try (InputStream body = exchange.getRequestBody()) {
+                received.add(new ReceivedRequest(
+                        new String(body.readAllBytes(), StandardCharsets.UTF_8),
+                        exchange.getRequestHeaders().getFirst("Authorization"),
+                        exchange.getRequestHeaders().getFirst("Idempotency-Key"),
+                        exchange.getRemoteAddress().getPort()));
+            }
+            try {
+                Thread.sleep(responseDelayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] response = "{\"success\":true}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            exchange.getResponseBody().write(response);
+            exchange.close();
+        });
+        server.start();
+        client = new LoopsHttpClient(
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/api/v1/transactional", "test-key", SETTINGS);
+    }
+
+    @After
+    public void stopServer() throws IOException {
+        client.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void send_postsJsonWithHeadersAndReusesTheConnection() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            HttpResponseResult result = client.send("tmpl", "a@example.com", Map.of("name", "A"), "key-" + i);
+            assertEquals(200, result.getStatusCode());
+        }
+
+        assertEquals(3, received.size());
+        ReceivedRequest first = received.get(0);
+        assertEquals("Bearer test-key", first.authorization());
+        assertEquals("key-0", first.idempotencyKey());
+        assertTrue(first.body().contains("\"transactionalId\":\"tmpl\""));
+        assertTrue(first.body().contains("\"email\":\"a@example.com\""));
+        assertEquals("Sequential sends should share one kept-alive connection", 1,
+                received.stream().map(ReceivedRequest::remotePort).distinct().count());
+    }
+
+    @Test
+    public void sendBulk_sendsEveryEmailOverAtMostMaxConnections() throws Exception {
+        responseDelayMillis = 50;
+        List<OutboundEmail> emails = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            emails.add(new OutboundEmail("tmpl", "user" + i + "@example.com", Map.of()));
+        }
+
+        List<CompletableFuture<HttpResponseResult>> futures = client.sendBulk(emails, "record");
+        for (CompletableFuture<HttpResponseResult> future : futures) {
+            assertEquals(200, future.get().getStatusCode());
+        }
+
+        assertEquals(12, received.size());
+        Set<String> keys = ConcurrentHashMap.newKeySet();
+        received.forEach(request -> keys.add(request.idempotencyKey()));
+        assertTrue(keys.contains("record_0") && keys.contains("record_11"));
+        assertTrue(received.stream().map(ReceivedRequest::remotePort).distinct().count() <= SETTINGS.maxConnections());
+    }
+
+    @Test
+    public void sendAsync_failsWhenTheReadTimeoutElapses() throws Exception {
+        responseDelayMillis = 2000;
+        try {
+            client.sendAsync("tmpl", "a@example.com", Map.of(), null).get();
+            fail("Expected the send to time out");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof SocketTimeoutException);
+        }
+    }
+}
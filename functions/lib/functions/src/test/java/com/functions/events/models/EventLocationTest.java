@@ -0,0 +1,33 @@
+package com.functions.events.models;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.functions.firebase.services.FirebaseService;
+
+public class EventLocationTest {
+
+    @Test
+    public void fromCollectionPath_roundTripsEveryEventPath() {
+        for (String path : FirebaseService.CollectionPaths.EVENT_PATHS) {
+            EventLocation location = EventLocation.fromCollectionPath(path);
+            assertEquals(path, location.getCollectionPath());
+            assertEquals(path, EventLocation.collectionPathFor(location.getIsActive(), location.getIsPrivate()));
+        }
+    }
+
+    @Test
+    public void fromCollectionPath_parsesInactivePrivate() {
+        EventLocation location = EventLocation.fromCollectionPath("Events/InActive/Private");
+        assertFalse(location.getIsActive());
+        assertTrue(location.getIsPrivate());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fromCollectionPath_rejectsNonEventPath() {
+        EventLocation.fromCollectionPath("RecurringEvents/Active/Public");
+    }
+}
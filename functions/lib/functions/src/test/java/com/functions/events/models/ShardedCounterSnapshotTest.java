@@ -0,0 +1,42 @@
+package com.functions.events.models;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class ShardedCounterSnapshotTest {
+
+    private static ShardedCounterSnapshot snapshot(int shardCount, long... countsInReadOrder) {
+        Map<Integer, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < countsInReadOrder.length; i++) {
+            counts.put((i + 2) % shardCount, countsInReadOrder[i]);
+        }
+        return new ShardedCounterSnapshot("vacancy_ga", shardCount, counts);
+    }
+
+    @Test
+    public void planDecrement_drainsShardsInReadOrderWithoutGoingNegative() {
+        Map<Integer, Long> plan = snapshot(4, 1, 3, 5).planDecrement(3);
+
+        assertEquals(Map.of(2, 0L, 3, 1L), plan);
+        assertEquals(2, plan.size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void planDecrement_rejectsAmountsTheReadShardsCannotCover() {
+        snapshot(4, 2, 1).planDecrement(4);
+    }
+
+    @Test
+    public void total_isSignedAndOnlyCompleteOnceEveryShardIsRead() {
+        ShardedCounterSnapshot partial = snapshot(3, 4, -1);
+        assertEquals(3L, partial.total());
+        assertFalse(partial.isComplete());
+        assertTrue(snapshot(3, 4, -1, 2).isComplete());
+    }
+}
@@ -0,0 +1,193 @@
+package com.functions.events.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Optional;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.functions.events.exceptions.InventoryOversoldException;
+import com.functions.events.models.InventoryHold;
+import com.functions.events.models.InventoryHoldStatus;
+import com.functions.events.models.ResolvedEventTicketType;
+import com.functions.events.repositories.InventoryHoldsRepository;
+import com.functions.firebase.repositories.DocumentStoreTransaction;
+import com.functions.firebase.repositories.InMemoryDocumentStore;
+import com.functions.firebase.services.FirebaseService;
+
+public class InventoryHoldServiceTest {
+    private static final int CAPACITY = 10;
+
+    /** A hold transition run in its own transaction, returning the change to vacancy it makes. */
+    @FunctionalInterface
+    private interface Transition {
+        long apply(DocumentStoreTransaction transaction, InventoryHold hold) throws Exception;
+    }
+
+    private InMemoryDocumentStore store;
+    private int vacancyShardCount;
+    private long vacancy;
+
+    @Before
+    public void setUp() {
+        store = new InMemoryDocumentStore();
+        FirebaseService.setDocumentStore(store);
+        vacancyShardCount = 0;
+        vacancy = CAPACITY;
+    }
+
+    @After
+    public void tearDown() {
+        FirebaseService.setDocumentStore(null);
+    }
+
+    /** Takes the tickets out of vacancy and records an ACTIVE hold, as checkout does. */
+    private String checkout(int quantity) throws Exception {
+        String holdId = InventoryHoldsRepository.generateHoldId();
+        vacancy -= quantity;
+        store.runTransaction(transaction -> {
+            InventoryHoldsRepository.createHold(transaction, InventoryHold.builder()
+                    .holdId(holdId)
+                    .eventId("event-1")
+                    .eventTicketTypeId("general")
+                    .quantity(quantity)
+                    .status(InventoryHoldStatus.ACTIVE)
+                    .build());
+            return null;
+        });
+        return holdId;
+    }
+
+    private InventoryHold read(String holdId) throws Exception {
+        return store.runTransaction(transaction -> InventoryHoldsRepository.getHold(transaction, holdId))
+                .orElseThrow();
+    }
+
+    private InventoryHoldStatus status(String holdId) throws Exception {
+        return read(holdId).getStatus();
+    }
+
+    private ResolvedEventTicketType ticketType() {
+        return ResolvedEventTicketType.builder()
+                .id("general")
+                .vacancy(Math.toIntExact(vacancy))
+                .capacity(CAPACITY)
+                .vacancyShardCount(vacancyShardCount)
+                .build();
+    }
+
+    /** Reads the hold afresh and applies the transition to it, adjusting vacancy as the caller would. */
+    private long transition(String holdId, Transition transition) throws Exception {
+        long vacancyDelta = store.runTransaction(transaction -> transition.apply(transaction,
+                InventoryHoldsRepository.getHold(transaction, holdId).orElseThrow()));
+        vacancy += vacancyDelta;
+        return vacancyDelta;
+    }
+
+    private void confirm(String holdId) throws Exception {
+        transition(holdId, (transaction, hold) -> InventoryHoldService.confirmHold(transaction, hold, ticketType()));
+    }
+
+    private boolean release(String holdId) throws Exception {
+        return transition(holdId, (transaction, hold) -> InventoryHoldService.releaseHold(transaction, hold,
+                ticketType())) != 0;
+    }
+
+    @Test
+    public void confirmingTwiceTakesTheTicketsOnce() throws Exception {
+        String holdId = checkout(3);
+
+        confirm(holdId);
+        confirm(holdId);
+
+        assertEquals(InventoryHoldStatus.CONFIRMED, status(holdId));
+        assertEquals(7, vacancy);
+    }
+
+    @Test
+    public void releaseAfterConfirmDoesNotRestock() throws Exception {
+        String holdId = checkout(3);
+        confirm(holdId);
+
+        assertFalse(release(holdId));
+
+        assertEquals(InventoryHoldStatus.CONFIRMED, status(holdId));
+        assertEquals(7, vacancy);
+    }
+
+    @Test
+    public void releasingTwiceRestocksOnce() throws Exception {
+        String holdId = checkout(3);
+
+        assertTrue(release(holdId));
+        assertFalse(release(holdId));
+
+        assertEquals(InventoryHoldStatus.RELEASED, status(holdId));
+        assertEquals(CAPACITY, vacancy);
+    }
+
+    @Test
+    public void confirmAfterExpiryRetakesTheTicketsIfTheyAreStillFree() throws Exception {
+        String holdId = checkout(3);
+        // Both paths read the ACTIVE hold; the expiry commits first, so the confirm retries and
+        // sees the hold released
+        InventoryHold staleHold = read(holdId);
+        assertTrue(release(holdId));
+        assertEquals(InventoryHoldStatus.ACTIVE, staleHold.getStatus());
+
+        confirm(holdId);
+
+        assertEquals(InventoryHoldStatus.CONFIRMED, status(holdId));
+        assertEquals(7, vacancy);
+        assertFalse(release(holdId));
+        assertEquals(7, vacancy);
+    }
+
+    @Test
+    public void confirmAfterExpiryFailsOnceTheTicketsAreResold() throws Exception {
+        vacancyShardCount = 4;
+        String holdId = checkout(3);
+        assertTrue(release(holdId));
+        checkout(9);
+
+        try {
+            confirm(holdId);
+            fail("Expected the confirm to fail rather than oversell");
+        } catch (InventoryOversoldException e) {
+            assertEquals(InventoryHoldStatus.RELEASED, status(holdId));
+            assertEquals(1, vacancy);
+        }
+    }
+
+    @Test
+    public void expiredCheckoutWithoutAHoldRestocksItsQuantity() throws Exception {
+        vacancy -= 2;
+
+        vacancy += store.runTransaction(transaction -> InventoryHoldService.restockExpiredCheckout(transaction,
+                Optional.empty(), ticketType(), 2));
+
+        assertEquals(CAPACITY, vacancy);
+    }
+
+    @Test
+    public void expiredCheckoutWithAReleasedHoldDoesNotRestockAgain() throws Exception {
+        String holdId = checkout(3);
+        assertTrue(release(holdId));
+
+        transition(holdId, (transaction, hold) -> InventoryHoldService.restockExpiredCheckout(
+                transaction, Optional.of(hold), ticketType(), 3));
+
+        assertEquals(CAPACITY, vacancy);
+    }
+
+    @Test
+    public void sessionWithoutAHoldIdHasNoHold() throws Exception {
+        assertFalse(InventoryHoldService.getHold(null, null).isPresent());
+        assertFalse(InventoryHoldService.getHold(null, " ").isPresent());
+    }
+}
@@ -0,0 +1,177 @@
+package com.functions.firebase.repositories;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.functions.firebase.exceptions.TransactionAbortedException;
+import com.functions.firebase.models.DocumentQuery;
+import com.functions.firebase.models.FieldTransform;
+import com.functions.firebase.models.LatencyProfile;
+import com.functions.firebase.models.StoredDocument;
+import com.google.cloud.Timestamp;
+
+public class InMemoryDocumentStoreTest {
+
+    @Test
+    public void updateAppliesDottedFieldPathsAndListsDirectChildren() throws Exception {
+        InMemoryDocumentStore store = new InMemoryDocumentStore();
+        store.set("Events/Active/Public/event-1", Map.of("name", "Social", "eventTicketTypes",
+                Map.of("general", Map.of("vacancy", 10, "price", 1500))));
+        store.set("Events/Active/Public/event-1/Sub/child", Map.of("ignored", true));
+
+        store.update("Events/Active/Public/event-1", Map.of("eventTicketTypes.general.vacancy", 9));
+
+        Map<?, ?> event = store.get("Events/Active/Public/event-1", Map.class).orElseThrow();
+        Map<?, ?> general = (Map<?, ?>) ((Map<?, ?>) event.get("eventTicketTypes")).get("general");
+        assertEquals(9L, general.get("vacancy"));
+        assertEquals(1500L, general.get("price"));
+        assertEquals(List.of("event-1"), store.listDocumentIds("Events/Active/Public"));
+    }
+
+    @Test
+    public void transactionRetriesWhenAReadDocumentChangesBeforeCommit() throws Exception {
+        InMemoryDocumentStore store = new InMemoryDocumentStore();
+        store.set("Counters/sold", Map.of("count", 0));
+        AtomicInteger attempts = new AtomicInteger();
+
+        long result = store.runTransaction(transaction -> {
+            Map<?, ?> counter = transaction.get("Counters/sold", Map.class).orElseThrow();
+            long next = (Long) counter.get("count") + 1;
+            if (attempts.incrementAndGet() == 1) {
+                // Concurrent writer lands between this transaction's read and its commit.
+                store.update("Counters/sold", Map.of("count", 5));
+            }
+            transaction.update("Counters/sold", Map.of("count", next));
+            return next;
+        });
+
+        assertEquals(2, attempts.get());
+        assertEquals(6L, result);
+        assertEquals(6L, store.get("Counters/sold", Map.class).orElseThrow().get("count"));
+        assertEquals(1, store.getStats().aborts());
+        assertEquals(1, store.getStats().commits());
+    }
+
+    @Test
+    public void transactionGivesUpAfterMaxAttempts() throws Exception {
+        InMemoryDocumentStore store = new InMemoryDocumentStore(LatencyProfile.NONE, 2);
+        store.set("Counters/sold", Map.of("count", 0));
+
+        try {
+            store.runTransaction(transaction -> {
+                transaction.get("Counters/sold", Map.class);
+                store.set("Counters/sold", Map.of("count", 1));
+                transaction.set("Counters/sold", Map.of("count", 2));
+                return null;
+            });
+            fail("Expected TransactionAbortedException");
+        } catch (TransactionAbortedException e) {
+            assertEquals(2, store.getStats().aborts());
+        }
+        assertEquals(1L, store.get("Counters/sold", Map.class).orElseThrow().get("count"));
+    }
+
+    @Test
+    public void transactionRejectsReadsAfterWritesAndMissingUpdates() throws Exception {
+        InMemoryDocumentStore store = new InMemoryDocumentStore();
+
+        try {
+            store.runTransaction(transaction -> {
+                transaction.set("Orders/a", Map.of("status", "APPROVED"));
+                return transaction.get("Orders/b", Map.class);
+            });
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+        }
+
+        try {
+            store.update("Orders/missing", Map.of("status", "REJECTED"));
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+        }
+        assertFalse(store.get("Orders/a", Map.class).isPresent());
+        assertTrue(store.getAll(List.of("Orders/a", "Orders/missing"), Map.class).stream().allMatch(r -> r.isEmpty()));
+    }
+
+    @Test
+    public void storesValuesAsFirestoreReadsThemBack() throws Exception {
+        InMemoryDocumentStore store = new InMemoryDocumentStore();
+        Timestamp startDate = Timestamp.ofTimeSecondsAndNanos(1_735_689_600L, 0);
+        store.set("Events/Active/Public/event-1", Map.of("startDate", startDate, "capacity", 20,
+                "price", 12.5f, "registrationDeadline", new Date(1_735_603_200_000L),
+                "tags", List.of(1, Map.of("order", 2))));
+
+        Map<?, ?> event = store.get("Events/Active/Public/event-1", Map.class).orElseThrow();
+        assertEquals(startDate, event.get("startDate"));
+        assertEquals(20L, event.get("capacity"));
+        assertEquals(12.5d, event.get("price"));
+        assertEquals(Timestamp.ofTimeSecondsAndNanos(1_735_603_200L, 0), event.get("registrationDeadline"));
+        assertEquals(List.of(1L, Map.of("order", 2L)), event.get("tags"));
+    }
+
+    @Test
+    public void mergeAppliesTransformsAndLetsAnEmptyMapReplaceTheField() throws Exception {
+        InMemoryDocumentStore store = new InMemoryDocumentStore();
+        store.set("Sales/event-1", Map.of("orders", Map.of("APPROVED", 2), "ticketTypes", Map.of("general", 3),
+                "note", "keep"));
+
+        store.merge("Sales/event-1", Map.of("orders", Map.of("APPROVED", FieldTransform.increment(1),
+                "REJECTED", FieldTransform.increment(1)), "note", FieldTransform.delete()));
+        Map<?, ?> merged = store.get("Sales/event-1", Map.class).orElseThrow();
+        assertEquals(Map.of("APPROVED", 3L, "REJECTED", 1L), merged.get("orders"));
+        assertEquals(Map.of("general", 3L), merged.get("ticketTypes"));
+        assertFalse(merged.containsKey("note"));
+
+        store.merge("Sales/event-1", Map.of("ticketTypes", Map.of()));
+        assertEquals(Map.of(), store.get("Sales/event-1", Map.class).orElseThrow().get("ticketTypes"));
+    }
+
+    @Test
+    public void queryFiltersOrdersAndLimitsDirectChildren() throws Exception {
+        InMemoryDocumentStore store = new InMemoryDocumentStore();
+        store.set("Outbox/a", Map.of("status", "PENDING", "attempt", 3));
+        store.set("Outbox/b", Map.of("status", "PENDING", "attempt", 1));
+        store.set("Outbox/c", Map.of("status", "SENT", "attempt", 2));
+        store.set("Outbox/d", Map.of("status", "PENDING"));
+        store.set("Outbox/a/Logs/x", Map.of("status", "PENDING", "attempt", 0));
+
+        List<StoredDocument<Map>> due = store.query(DocumentQuery.collection("Outbox")
+                .whereEqualTo("status", "PENDING").whereLessThanOrEqualTo("attempt", 2).orderBy("attempt"), Map.class);
+        assertEquals(List.of("b"), due.stream().map(StoredDocument::id).toList());
+
+        List<StoredDocument<Map>> top = store.query(DocumentQuery.collection("Outbox")
+                .orderByDescending("attempt").limit(2), Map.class);
+        assertEquals(List.of("a", "c"), top.stream().map(StoredDocument::id).toList());
+        assertTrue(top.get(0).updateTime().compareTo(top.get(1).updateTime()) < 0);
+    }
+
+    @Test
+    public void createFailsTheCommitWhenTheDocumentExists() throws Exception {
+        InMemoryDocumentStore store = new InMemoryDocumentStore();
+        String id = store.newDocumentId("Holds");
+        store.runTransaction(transaction -> {
+            transaction.create("Holds/" + id, Map.of("status", "ACTIVE"));
+            return null;
+        });
+
+        try {
+            store.runTransaction(transaction -> {
+                transaction.create("Holds/" + id, Map.of("status", "RELEASED"));
+                return null;
+            });
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+        }
+        assertEquals("ACTIVE", store.get("Holds/" + id, Map.class).orElseThrow().get("status"));
+        assertEquals(20, id.length());
+    }
+}
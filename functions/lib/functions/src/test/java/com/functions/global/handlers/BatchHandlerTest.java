@@ -0,0 +1,97 @@
+package com.functions.global.handlers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.functions.global.models.EndpointType;
+import com.functions.global.models.requests.BatchRequest;
+import com.functions.global.models.requests.UnifiedRequest;
+import com.functions.global.models.responses.BatchResponse;
+import com.functions.metrics.models.RequestMetrics;
+import com.functions.metrics.services.RequestMetricsService;
+import com.functions.utils.JavaUtils;
+
+public class BatchHandlerTest {
+    private final BatchHandler handler = new BatchHandler();
+
+    @Test
+    public void parsesBareArrayAsConcurrentBatch() throws Exception {
+        BatchRequest request = handler.parse(batch(
+                "[{\"endpointType\":\"DUMP_ENDPOINT_METRICS\",\"data\":{}},"
+                        + "{\"endpointType\":\"GET_ORDER\",\"data\":{\"orderId\":\"order-1\"}}]"));
+
+        assertEquals(2, request.requests().size());
+        assertEquals(EndpointType.GET_ORDER, request.requests().get(1).endpointType());
+        assertFalse(Boolean.TRUE.equals(request.sequential()));
+    }
+
+    @Test
+    public void parsesObjectFormWithSequentialFlag() throws Exception {
+        BatchRequest request = handler.parse(batch(
+                "{\"sequential\":true,\"requests\":[{\"endpointType\":\"DUMP_ENDPOINT_METRICS\",\"data\":{}}]}"));
+
+        assertEquals(1, request.requests().size());
+        assertTrue(request.sequential());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNestedBatch() throws Exception {
+        handler.parse(batch("[{\"endpointType\":\"BATCH\",\"data\":[]}]"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyBatch() throws Exception {
+        handler.parse(batch("[]"));
+    }
+
+    @Test
+    public void returnsResultsInOrderWithPerItemErrors() throws Exception {
+        BatchResponse response = handler.handle(handler.parse(batch(
+                "[{\"endpointType\":\"DUMP_ENDPOINT_METRICS\",\"data\":{}},"
+                        + "{\"endpointType\":\"GET_ORDER\",\"data\":\"not-an-object\"},"
+                        + "{\"endpointType\":\"DUMP_ENDPOINT_METRICS\",\"data\":{}}]")));
+
+        assertEquals(3, response.results().size());
+        assertEquals(200, response.results().get(0).statusCode());
+        assertNotNull(response.results().get(0).data());
+        assertEquals(500, response.results().get(1).statusCode());
+        assertNotNull(response.results().get(1).errorMessage());
+        assertEquals(200, response.results().get(2).statusCode());
+    }
+
+    @Test
+    public void answersSubRequestsWithoutEndpointTypeOrDataWithTheirOwn400() throws Exception {
+        BatchResponse response = handler.handle(handler.parse(batch(
+                "[{\"endpointType\":\"DUMP_ENDPOINT_METRICS\",\"data\":{}},"
+                        + "{\"data\":{}},"
+                        + "{\"endpointType\":\"GET_ORDER\"},"
+                        + "{\"endpointType\":\"GET_ORDER\",\"data\":null},"
+                        + "{\"endpointType\":\"NOT_AN_ENDPOINT\",\"data\":{}}]")));
+
+        assertEquals(5, response.results().size());
+        assertEquals(200, response.results().get(0).statusCode());
+        for (int i = 1; i < 5; i++) {
+            assertEquals(400, response.results().get(i).statusCode());
+            assertNotNull(response.results().get(i).errorMessage());
+        }
+        assertEquals("Both endpointType and data are required.", response.results().get(1).errorMessage());
+    }
+
+    @Test
+    public void recordsRejectedSubRequestsInEndpointMetrics() throws Exception {
+        RequestMetricsService.reset();
+
+        handler.handle(handler.parse(batch("[{\"data\":{}},{\"endpointType\":\"GET_ORDER\"}]")));
+
+        assertEquals(1, RequestMetricsService.snapshot().get(RequestMetrics.UNKNOWN_ENDPOINT).errors());
+        assertEquals(1, RequestMetricsService.snapshot().get(EndpointType.GET_ORDER.name()).errors());
+    }
+
+    private static UnifiedRequest batch(String data) throws Exception {
+        return new UnifiedRequest(EndpointType.BATCH, JavaUtils.objectMapper.readTree(data));
+    }
+}
@@ -0,0 +1,50 @@
+package com.functions.metrics.models;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class HistogramTest {
+
+    @Test
+    public void percentilesStayWithinBucketPrecision() {
+        Histogram histogram = new Histogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value);
+        }
+
+        Histogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(10_000, snapshot.count());
+        assertEquals(10_000, snapshot.max());
+        assertWithinPrecision(5_000, snapshot.p50());
+        assertWithinPrecision(9_000, snapshot.p90());
+        assertWithinPrecision(9_900, snapshot.p99());
+        assertEquals(5_000.5, snapshot.mean(), 0.001);
+    }
+
+    @Test
+    public void bucketUpperBoundContainsEveryValueInBucket() {
+        for (long value = 0; value < 100_000; value += 7) {
+            int index = Histogram.bucketIndex(value);
+            assertTrue(value <= Histogram.bucketUpperBound(index));
+            if (index > 0) {
+                assertTrue(value > Histogram.bucketUpperBound(index - 1));
+            }
+        }
+    }
+
+    @Test
+    public void resetClearsRecordedValues() {
+        Histogram histogram = new Histogram();
+        histogram.record(42);
+        histogram.reset();
+
+        assertEquals(new Histogram.Snapshot(0, 0, 0, 0, 0, 0), histogram.snapshot());
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        assertTrue("expected ~" + expected + " but was " + actual,
+                actual >= expected && actual <= expected + expected / 16 + 1);
+    }
+}
@@ -0,0 +1,178 @@
+package com.functions.metrics.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.functions.firebase.repositories.InMemoryDocumentStore;
+import com.functions.firebase.services.FirebaseService;
+import com.functions.global.handlers.EndpointRouter;
+import com.functions.global.models.EndpointType;
+import com.functions.global.models.requests.UnifiedRequest;
+import com.functions.metrics.exceptions.OperationBudgetExceededException;
+import com.functions.metrics.models.OperationBudget;
+import com.functions.metrics.models.OperationBudgetMode;
+import com.functions.metrics.models.RequestMetrics;
+import com.functions.utils.JavaUtils;
+import com.functions.wrapped.models.SportshubWrappedData;
+import com.functions.wrapped.models.responses.GetWrappedResponse;
+
+public class OperationBudgetServiceTest {
+    private static final String WRAPPED_PATH = "Wrapped/organiser-1/2025/SPORTSHUB_WRAPPED";
+
+    private OperationBudgetMode previousMode;
+    private InMemoryDocumentStore store;
+    private Map<EndpointType, Optional<OperationBudget>> replacedBudgets;
+
+    @Before
+    public void failOnBudgetExceeded() {
+        previousMode = OperationBudgetService.getMode();
+        OperationBudgetService.setMode(OperationBudgetMode.FAIL);
+        store = new InMemoryDocumentStore();
+        FirebaseService.setDocumentStore(store);
+        replacedBudgets = new EnumMap<>(EndpointType.class);
+    }
+
+    @After
+    public void restoreMode() {
+        OperationBudgetService.setMode(previousMode);
+        FirebaseService.setDocumentStore(null);
+        replacedBudgets.forEach((endpointType, budget) ->
+                OperationBudgetRegistry.setBudget(endpointType, budget.orElse(null)));
+        RequestMetricsService.bind(null).close();
+    }
+
+    private void setBudget(EndpointType endpointType, long maxReads, long maxWrites) {
+        Optional<OperationBudget> previous = OperationBudgetRegistry.setBudget(endpointType,
+                OperationBudget.of(maxReads, maxWrites));
+        replacedBudgets.putIfAbsent(endpointType, previous);
+    }
+
+    private UnifiedRequest getWrappedRequest() {
+        SportshubWrappedData cached = new SportshubWrappedData();
+        cached.setOrganiserId("organiser-1");
+        cached.setYear(2025);
+        cached.setWrappedId("wrapped-1");
+        store.set(WRAPPED_PATH, cached);
+        return new UnifiedRequest(EndpointType.GET_SPORTSHUB_WRAPPED, JavaUtils.objectMapper.createObjectNode()
+                .put("organiserId", "organiser-1")
+                .put("year", 2025));
+    }
+
+    @Test
+    public void everyEndpointDeclaresABudget() {
+        for (EndpointType endpointType : EndpointType.values()) {
+            assertTrue("No operation budget declared for " + endpointType,
+                    OperationBudgetRegistry.getBudget(endpointType).isPresent());
+        }
+    }
+
+    @Test
+    public void requestWithinBudgetPasses() {
+        RequestMetrics metrics = new RequestMetrics(EndpointType.GET_ORDER, System.nanoTime());
+        metrics.getDocumentReads().addAndGet(2);
+
+        OperationBudgetService.enforce(metrics);
+    }
+
+    @Test(expected = OperationBudgetExceededException.class)
+    public void requestOverBudgetFailsInFailMode() {
+        RequestMetrics metrics = new RequestMetrics(EndpointType.GET_ORDER, System.nanoTime());
+        metrics.getDocumentReads().addAndGet(3);
+
+        OperationBudgetService.enforce(metrics);
+    }
+
+    @Test
+    public void requestOverBudgetOnlyWarnsInWarnMode() {
+        OperationBudgetService.setMode(OperationBudgetMode.WARN);
+        RequestMetrics metrics = new RequestMetrics(EndpointType.GET_TICKET, System.nanoTime());
+        metrics.getDocumentWrites().incrementAndGet();
+
+        OperationBudgetService.enforce(metrics);
+    }
+
+    @Test
+    public void routedRequestCountsTheReadsItsHandlerMakes() throws Exception {
+        UnifiedRequest request = getWrappedRequest();
+        RequestMetrics metrics = RequestMetricsService.start(EndpointType.GET_SPORTSHUB_WRAPPED, System.nanoTime());
+
+        GetWrappedResponse response = (GetWrappedResponse) EndpointRouter.route(request, metrics);
+
+        assertEquals("wrapped-1", response.sportshubWrappedData().getWrappedId());
+        // The cached snapshot and the aggregate state
+        assertEquals(2, metrics.getDocumentReads().get());
+        assertEquals(0, metrics.getDocumentWrites().get());
+        assertFalse(metrics.isWritesCommitted());
+    }
+
+    @Test
+    public void routedRequestOverBudgetFailsInFailMode() throws Exception {
+        UnifiedRequest request = getWrappedRequest();
+        setBudget(EndpointType.GET_SPORTSHUB_WRAPPED, 1, 0);
+        RequestMetrics metrics = RequestMetricsService.start(EndpointType.GET_SPORTSHUB_WRAPPED, System.nanoTime());
+
+        try {
+            EndpointRouter.route(request, metrics);
+            fail("Expected the request to exceed its budget");
+        } catch (OperationBudgetExceededException e) {
+            assertEquals("OperationBudgetExceededException", metrics.getError());
+        }
+    }
+
+    @Test
+    public void transactionOverBudgetFailsBeforeItCommits() throws Exception {
+        RequestMetrics metrics = RequestMetricsService.start(EndpointType.GET_ORDER, System.nanoTime());
+
+        try {
+            store.runTransaction(transaction -> {
+                transaction.set("Tests/doc", Map.of("value", 1L));
+                return null;
+            });
+            fail("Expected the transaction to exceed the budget");
+        } catch (OperationBudgetExceededException e) {
+            assertEquals(1, metrics.getDocumentWrites().get());
+            assertFalse(metrics.isWritesCommitted());
+        }
+
+        RequestMetricsService.bind(null).close();
+        assertFalse(store.get("Tests/doc", Map.class).isPresent());
+    }
+
+    @Test
+    public void budgetOnlyWarnsOnceAWriteHasCommitted() throws Exception {
+        setBudget(EndpointType.GET_ORDER, 2, 1);
+        RequestMetrics metrics = RequestMetricsService.start(EndpointType.GET_ORDER, System.nanoTime());
+
+        store.runTransaction(transaction -> {
+            transaction.set("Tests/doc", Map.of("value", 1L));
+            return null;
+        });
+        assertTrue(metrics.isWritesCommitted());
+        for (int i = 0; i < 3; i++) {
+            store.get("Tests/doc", Map.class);
+        }
+
+        OperationBudgetService.enforce(metrics);
+        assertEquals(3, metrics.getDocumentReads().get());
+    }
+
+    @Test
+    public void writeOutsideATransactionCountsAsCommitted() throws Exception {
+        RequestMetrics metrics = RequestMetricsService.start(EndpointType.GET_ORDER, System.nanoTime());
+
+        store.set("Tests/doc", Map.of("value", 1L));
+
+        assertTrue(metrics.isWritesCommitted());
+        OperationBudgetService.enforce(metrics);
+    }
+}
@@ -0,0 +1,64 @@
+package com.functions.metrics.services;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.functions.global.models.EndpointType;
+import com.functions.metrics.models.EndpointMetricsSnapshot;
+import com.functions.metrics.models.RequestMetrics;
+
+public class RequestMetricsServiceTest {
+
+    @Before
+    @After
+    public void resetHistograms() {
+        RequestMetricsService.reset();
+    }
+
+    @Test
+    public void requestWithoutEndpointTypeIsRecordedUnderUnknown() {
+        RequestMetrics metrics = RequestMetricsService.start(null, System.nanoTime());
+        metrics.setError("JsonParseException");
+
+        RequestMetricsService.finish(metrics);
+
+        EndpointMetricsSnapshot unknown = RequestMetricsService.snapshot().get(RequestMetrics.UNKNOWN_ENDPOINT);
+        assertEquals(1, unknown.requests());
+        assertEquals(1, unknown.errors());
+    }
+
+    @Test
+    public void finishingWithoutMetricsIsIgnored() {
+        RequestMetricsService.finish(null);
+
+        assertEquals(0, RequestMetricsService.snapshot().values().stream()
+                .mapToLong(EndpointMetricsSnapshot::requests)
+                .sum());
+    }
+
+    @Test
+    public void requestIsRecordedUnderItsEndpointType() {
+        RequestMetricsService.finish(RequestMetricsService.start(EndpointType.GET_ORDER, System.nanoTime()));
+
+        EndpointMetricsSnapshot getOrder = RequestMetricsService.snapshot().get(EndpointType.GET_ORDER.name());
+        assertEquals(1, getOrder.requests());
+        assertEquals(0, getOrder.errors());
+    }
+
+    @Test
+    public void eventCacheLookupsAreCountedOnTheBoundRequest() {
+        RequestMetrics metrics = RequestMetricsService.start(EndpointType.GET_ORDER, System.nanoTime());
+        RequestMetricsService.recordEventCacheLookup(true);
+        RequestMetricsService.recordEventCacheLookup(true);
+        RequestMetricsService.recordEventCacheLookup(false);
+        RequestMetricsService.finish(metrics);
+
+        RequestMetricsService.recordEventCacheLookup(true);
+
+        assertEquals(2, metrics.getEventCacheHits().get());
+        assertEquals(1, metrics.getEventCacheMisses().get());
+    }
+}
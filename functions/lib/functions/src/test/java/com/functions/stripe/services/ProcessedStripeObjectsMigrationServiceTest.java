@@ -0,0 +1,33 @@
+package com.functions.stripe.services;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.functions.stripe.models.ProcessedStripeObject;
+import com.functions.stripe.models.ProcessedStripeObjectType;
+
+public class ProcessedStripeObjectsMigrationServiceTest {
+
+    @Test
+    public void toProcessedStripeObjects_dedupesAndSkipsBlankIds() {
+        List<ProcessedStripeObject> processedObjects = ProcessedStripeObjectsMigrationService.toProcessedStripeObjects(
+                Arrays.asList("cs_1", "cs_2", "cs_1", "", null),
+                Arrays.asList("pi_1", " "));
+
+        assertEquals(3, processedObjects.size());
+        assertEquals("cs_1", processedObjects.get(0).getObjectId());
+        assertEquals(ProcessedStripeObjectType.CHECKOUT_SESSION, processedObjects.get(0).getObjectType());
+        assertEquals("cs_2", processedObjects.get(1).getObjectId());
+        assertEquals("pi_1", processedObjects.get(2).getObjectId());
+        assertEquals(ProcessedStripeObjectType.PAYMENT_INTENT, processedObjects.get(2).getObjectType());
+    }
+
+    @Test
+    public void toProcessedStripeObjects_handlesEventsWithNoLegacyIds() {
+        assertEquals(0, ProcessedStripeObjectsMigrationService.toProcessedStripeObjects(List.of(), List.of()).size());
+    }
+}
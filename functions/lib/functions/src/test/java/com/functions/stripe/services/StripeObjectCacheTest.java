@@ -0,0 +1,94 @@
+package com.functions.stripe.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.stripe.model.PaymentIntent;
+
+public class StripeObjectCacheTest {
+
+    private static PaymentIntent paymentIntent(String id, String status) {
+        PaymentIntent paymentIntent = new PaymentIntent();
+        paymentIntent.setId(id);
+        paymentIntent.setStatus(status);
+        return paymentIntent;
+    }
+
+    @Test
+    public void get_loadsOncePerObjectAndAccountWithinAScope() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        try (StripeObjectCache.Scope ignored = StripeObjectCache.open()) {
+            PaymentIntent first = StripeObjectCache.get(PaymentIntent.class, "pi_1", "acct_1", () -> {
+                loads.incrementAndGet();
+                return paymentIntent("pi_1", "requires_capture");
+            });
+            PaymentIntent second = StripeObjectCache.get(PaymentIntent.class, "pi_1", "acct_1", () -> {
+                loads.incrementAndGet();
+                return paymentIntent("pi_1", "requires_capture");
+            });
+            StripeObjectCache.get(PaymentIntent.class, "pi_1", "acct_2", () -> {
+                loads.incrementAndGet();
+                return paymentIntent("pi_1", "requires_capture");
+            });
+
+            assertSame(first, second);
+        }
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void get_alwaysLoadsOutsideAScopeAndAfterItCloses() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        StripeObjectCache.StripeLoader<PaymentIntent> loader = () -> {
+            loads.incrementAndGet();
+            return paymentIntent("pi_1", "requires_capture");
+        };
+        try (StripeObjectCache.Scope ignored = StripeObjectCache.open()) {
+            StripeObjectCache.get(PaymentIntent.class, "pi_1", "acct_1", loader);
+        }
+        StripeObjectCache.get(PaymentIntent.class, "pi_1", "acct_1", loader);
+        StripeObjectCache.get(PaymentIntent.class, "pi_1", "acct_1", loader);
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void putReplacesAndEvictForcesAReload() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        StripeObjectCache.StripeLoader<PaymentIntent> loader = () -> {
+            loads.incrementAndGet();
+            return paymentIntent("pi_1", "requires_capture");
+        };
+        try (StripeObjectCache.Scope ignored = StripeObjectCache.open()) {
+            StripeObjectCache.get(PaymentIntent.class, "pi_1", "acct_1", loader);
+            StripeObjectCache.put(PaymentIntent.class, "pi_1", "acct_1", paymentIntent("pi_1", "succeeded"));
+            assertEquals("succeeded", StripeObjectCache.get(PaymentIntent.class, "pi_1", "acct_1", loader).getStatus());
+
+            StripeObjectCache.evict(PaymentIntent.class, "pi_1", "acct_1");
+            assertEquals("requires_capture",
+                    StripeObjectCache.get(PaymentIntent.class, "pi_1", "acct_1", loader).getStatus());
+        }
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void nestedScopesAreIsolatedAndRestoreTheOuterCache() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        StripeObjectCache.StripeLoader<PaymentIntent> loader = () -> {
+            loads.incrementAndGet();
+            return paymentIntent("pi_1", "requires_capture");
+        };
+        try (StripeObjectCache.Scope outer = StripeObjectCache.open()) {
+            StripeObjectCache.get(PaymentIntent.class, "pi_1", "acct_1", loader);
+            try (StripeObjectCache.Scope inner = StripeObjectCache.open()) {
+                StripeObjectCache.get(PaymentIntent.class, "pi_1", "acct_1", loader);
+            }
+            StripeObjectCache.get(PaymentIntent.class, "pi_1", "acct_1", loader);
+        }
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,132 @@
+package com.functions.stripe.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.functions.stripe.models.QueuedWebhookEvent;
+import com.functions.stripe.repositories.InMemoryWebhookEventQueue;
+import com.functions.stripe.services.WebhookQueueWorker.DrainResult;
+import com.functions.stripe.services.WebhookQueueWorker.Settings;
+import com.google.cloud.Timestamp;
+
+public class WebhookQueueWorkerTest {
+
+    private static final Settings SETTINGS = new Settings(2, Duration.ofMinutes(5), 3, Duration.ofSeconds(30),
+            Duration.ofMinutes(1));
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+
+    private final MutableClock clock = new MutableClock();
+    private final InMemoryWebhookEventQueue queue = new InMemoryWebhookEventQueue();
+
+    private QueuedWebhookEvent event(String eventId) {
+        Timestamp now = Timestamp.ofTimeSecondsAndNanos(clock.instant().getEpochSecond(), 0);
+        return QueuedWebhookEvent.builder()
+                .eventId(eventId)
+                .eventType("checkout.session.completed")
+                .payload("{}")
+                .enqueuedAt(now)
+                .availableAt(now)
+                .build();
+    }
+
+    @Test
+    public void drain_completesSuccessfulEventsInBoundedRounds() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            queue.enqueue(event("evt_" + i));
+        }
+        AtomicInteger processed = new AtomicInteger();
+
+        DrainResult result = new WebhookQueueWorker(queue, e -> processed.incrementAndGet() > 0, SETTINGS, clock)
+                .drain(Duration.ofMinutes(1));
+
+        assertEquals(new DrainResult(5, 5, 0, 0), result);
+        assertEquals(5, processed.get());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void drain_retriesFailuresWithBackoffThenDeadLetters() throws Exception {
+        queue.enqueue(event("evt_fail"));
+        WebhookQueueWorker worker = new WebhookQueueWorker(queue, e -> {
+            throw new IllegalStateException("boom");
+        }, SETTINGS, clock);
+
+        assertEquals(new DrainResult(1, 0, 1, 0), worker.drain(Duration.ofMinutes(1)));
+        // Not available again until the 30s backoff has passed
+        clock.advance(Duration.ofSeconds(29));
+        assertEquals(new DrainResult(0, 0, 0, 0), worker.drain(Duration.ofMinutes(1)));
+        clock.advance(Duration.ofSeconds(1));
+        assertEquals(new DrainResult(1, 0, 1, 0), worker.drain(Duration.ofMinutes(1)));
+        clock.advance(Duration.ofMinutes(1));
+        assertEquals(new DrainResult(1, 0, 0, 1), worker.drain(Duration.ofMinutes(1)));
+
+        assertEquals(0, queue.size());
+        List<QueuedWebhookEvent> deadLetters = queue.getDeadLetters();
+        assertEquals(1, deadLetters.size());
+        assertEquals(3, deadLetters.get(0).getAttempts());
+        assertEquals("IllegalStateException: boom", deadLetters.get(0).getLastError());
+    }
+
+    @Test
+    public void backoff_doublesPerAttemptUpToTheCap() {
+        WebhookQueueWorker worker = new WebhookQueueWorker(queue, e -> true, SETTINGS, clock);
+
+        assertEquals(Duration.ofSeconds(30), worker.backoff(1));
+        assertEquals(Duration.ofSeconds(60), worker.backoff(2));
+        assertEquals(Duration.ofMinutes(1), worker.backoff(10));
+    }
+
+    @Test
+    public void lease_expiredLeaseIsReclaimableAndStaleOwnerCannotSettle() throws Exception {
+        queue.enqueue(event("evt_stuck"));
+        QueuedWebhookEvent first = queue.lease(1, "worker-a", Duration.ofMinutes(5), clock.instant()).get(0);
+        assertTrue(queue.lease(1, "worker-b", Duration.ofMinutes(5), clock.instant()).isEmpty());
+
+        clock.advance(Duration.ofMinutes(5));
+        QueuedWebhookEvent second = queue.lease(1, "worker-b", Duration.ofMinutes(5), clock.instant()).get(0);
+
+        assertEquals(2, second.getAttempts());
+        assertFalse(queue.complete(first, "worker-a"));
+        assertTrue(queue.complete(second, "worker-b"));
+    }
+
+    @Test
+    public void enqueue_isIdempotentByEventId() throws Exception {
+        assertTrue(queue.enqueue(event("evt_dup")));
+        assertFalse(queue.enqueue(event("evt_dup")));
+        assertEquals(1, queue.size());
+    }
+}
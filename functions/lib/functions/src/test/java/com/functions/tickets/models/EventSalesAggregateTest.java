@@ -0,0 +1,73 @@
+package com.functions.tickets.models;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.functions.tickets.services.TicketsService;
+import com.google.cloud.Timestamp;
+
+public class EventSalesAggregateTest {
+
+    private static Order order(OrderAndTicketStatus status, long discounts) {
+        Order order = new Order();
+        order.setStatus(status);
+        order.setDiscounts(discounts);
+        order.setApplicationFees(50);
+        return order;
+    }
+
+    private static Ticket ticket(String eventTicketTypeId, OrderAndTicketStatus status, long price) {
+        Ticket ticket = new Ticket();
+        ticket.setEventTicketTypeId(eventTicketTypeId);
+        ticket.setStatus(status);
+        ticket.setPrice(price);
+        return ticket;
+    }
+
+    @Test
+    public void fromOrders_matchesTheTotalsComputedFromOrdersAndTickets() {
+        Map<Order, List<Ticket>> orderTickets = new LinkedHashMap<>();
+        orderTickets.put(order(OrderAndTicketStatus.APPROVED, 200),
+                List.of(ticket("ga", OrderAndTicketStatus.APPROVED, 1500),
+                        ticket("vip", OrderAndTicketStatus.APPROVED, 3000)));
+        orderTickets.put(order(OrderAndTicketStatus.REJECTED, 0),
+                List.of(ticket(null, OrderAndTicketStatus.REJECTED, 1000)));
+
+        EventSalesAggregate aggregate = EventSalesAggregate.fromOrders(orderTickets, Timestamp.now());
+
+        assertEquals(TicketsService.calculateTotalTicketCount(orderTickets), aggregate.totalTicketCount());
+        assertEquals(TicketsService.calculateNetSales(orderTickets), aggregate.netSales());
+        assertEquals(2, aggregate.ticketCount(OrderAndTicketStatus.APPROVED));
+        assertEquals(1, aggregate.getTicketTypes().get(EventSalesAggregate.UNTYPED_TICKETS)
+                .get(OrderAndTicketStatus.REJECTED.name()).getTicketCount());
+    }
+
+    @Test
+    public void statusChange_movesTotalsBetweenBucketsWithoutChangingTheirSum() {
+        Order order = order(OrderAndTicketStatus.PENDING, 100);
+        Ticket ticket = ticket("ga", OrderAndTicketStatus.PENDING, 1500);
+        EventSalesAggregate aggregate = EventSalesAggregate.fromOrders(Map.of(order, List.of(ticket)), Timestamp.now());
+
+        EventSalesDelta delta = new EventSalesDelta().removeOrder(order).removeTicket(ticket);
+        order.setStatus(OrderAndTicketStatus.APPROVED);
+        ticket.setStatus(OrderAndTicketStatus.APPROVED);
+        delta.addOrder(order).addTicket(ticket).applyTo(aggregate);
+
+        assertEquals(0, aggregate.ticketCount(OrderAndTicketStatus.PENDING));
+        assertEquals(1, aggregate.ticketCount(OrderAndTicketStatus.APPROVED));
+        assertEquals(0, aggregate.getOrders().get(OrderAndTicketStatus.PENDING.name()).getOrderCount());
+        assertEquals(1400, aggregate.netSales());
+    }
+
+    @Test
+    public void isEmpty_whenAdditionsAndRemovalsCancelOut() {
+        Ticket ticket = ticket("ga", OrderAndTicketStatus.APPROVED, 1500);
+        assertTrue(new EventSalesDelta().addTicket(ticket).removeTicket(ticket).isEmpty());
+    }
+}
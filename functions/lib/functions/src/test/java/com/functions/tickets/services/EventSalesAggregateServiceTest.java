@@ -0,0 +1,59 @@
+package com.functions.tickets.services;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.functions.firebase.repositories.InMemoryDocumentStore;
+import com.functions.firebase.services.FirebaseService;
+import com.functions.tickets.models.EventSalesAggregate;
+import com.functions.tickets.models.EventSalesDelta;
+import com.functions.tickets.models.Order;
+import com.functions.tickets.models.OrderAndTicketStatus;
+import com.functions.tickets.models.Ticket;
+import com.functions.tickets.repositories.EventSalesAggregateRepository;
+
+public class EventSalesAggregateServiceTest {
+    private static final String EVENT_ID = "event-1";
+
+    private InMemoryDocumentStore store;
+
+    @Before
+    public void setUp() {
+        store = new InMemoryDocumentStore();
+        FirebaseService.setDocumentStore(store);
+    }
+
+    @After
+    public void tearDown() {
+        FirebaseService.setDocumentStore(null);
+    }
+
+    private void apply(EventSalesDelta delta) throws Exception {
+        store.runTransaction(transaction -> {
+            EventSalesAggregateService.apply(transaction, EVENT_ID, delta);
+            return null;
+        });
+    }
+
+    @Test
+    public void apply_keepsTicketTotalsWhenADeltaOnlyMovesOrdersAndTheReverse() throws Exception {
+        Order order = new Order();
+        order.setStatus(OrderAndTicketStatus.APPROVED);
+        order.setDiscounts(200);
+        Ticket ticket = new Ticket();
+        ticket.setStatus(OrderAndTicketStatus.APPROVED);
+        ticket.setPrice(1500);
+
+        apply(new EventSalesDelta().addTicket(ticket));
+        apply(new EventSalesDelta().addOrder(order));
+        apply(new EventSalesDelta().addTicket(ticket));
+
+        EventSalesAggregate aggregate = EventSalesAggregateRepository.getAggregate(EVENT_ID).orElseThrow();
+        assertEquals(2, aggregate.ticketCount(OrderAndTicketStatus.APPROVED));
+        assertEquals(2800, aggregate.netSales(OrderAndTicketStatus.APPROVED));
+        assertEquals(1, aggregate.getOrders().get(OrderAndTicketStatus.APPROVED.name()).getOrderCount());
+    }
+}
@@ -0,0 +1,60 @@
+package com.functions.users.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Optional;
+
+import org.junit.Test;
+
+import com.functions.users.models.AuthenticatedUser;
+
+public class AuthServiceTest {
+    private static final String ADMIN_TOKEN = "ops-token";
+
+    private static final AuthService.IdTokenVerifier VERIFIER = idToken -> {
+        if (!idToken.equals("id-token-organiser-1")) {
+            throw new IllegalArgumentException("Invalid ID token");
+        }
+        return new AuthenticatedUser("organiser-1", false);
+    };
+
+    @Test
+    public void missingOrMalformedHeaderIsRejected() {
+        assertFalse(AuthService.authenticate(null, ADMIN_TOKEN, VERIFIER).isPresent());
+        assertFalse(AuthService.authenticate("Basic abc", ADMIN_TOKEN, VERIFIER).isPresent());
+        assertFalse(AuthService.authenticate("Bearer  ", ADMIN_TOKEN, VERIFIER).isPresent());
+    }
+
+    @Test
+    public void opsTokenAuthenticatesAnAdmin() {
+        Optional<AuthenticatedUser> caller = AuthService.authenticate("Bearer " + ADMIN_TOKEN, ADMIN_TOKEN, VERIFIER);
+
+        assertTrue(caller.isPresent());
+        assertTrue(caller.get().canManage("any-organiser"));
+    }
+
+    @Test
+    public void unsetOpsTokenIsNeverMatched() {
+        assertFalse(AuthService.authenticate("Bearer ", "", VERIFIER).isPresent());
+        assertFalse(AuthService.authenticate("Bearer ops-token", null, VERIFIER).isPresent());
+    }
+
+    @Test
+    public void idTokenOnlyManagesTheUsersOwnEvents() {
+        Optional<AuthenticatedUser> caller = AuthService.authenticate("Bearer id-token-organiser-1", ADMIN_TOKEN,
+                VERIFIER);
+
+        assertTrue(caller.isPresent());
+        assertEquals("organiser-1", caller.get().userId());
+        assertTrue(caller.get().canManage("organiser-1"));
+        assertFalse(caller.get().canManage("organiser-2"));
+        assertFalse(caller.get().canManage(null));
+    }
+
+    @Test
+    public void invalidIdTokenIsRejected() {
+        assertFalse(AuthService.authenticate("Bearer forged", ADMIN_TOKEN, VERIFIER).isPresent());
+    }
+}
@@ -0,0 +1,54 @@
+package com.functions.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class ExpiringLruCacheTest {
+
+    @Test
+    public void entriesExpireAfterTtl() {
+        AtomicLong now = new AtomicLong(1_000);
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(10, 500, now::get);
+
+        cache.put("event", "data");
+        assertEquals("data", cache.get("event").orElse(null));
+
+        now.addAndGet(500);
+        assertFalse(cache.get("event").isPresent());
+        assertEquals(new ExpiringLruCache.Stats(1, 1, 0, 0), cache.getStats());
+    }
+
+    @Test
+    public void leastRecentlyUsedEntryIsEvictedWhenFull() {
+        AtomicLong now = new AtomicLong(0);
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(2, 1_000, now::get);
+
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+        cache.put("c", "3");
+
+        assertTrue(cache.get("a").isPresent());
+        assertFalse(cache.get("b").isPresent());
+        assertTrue(cache.get("c").isPresent());
+        assertEquals(1, cache.getStats().evictions());
+    }
+
+    @Test
+    public void invalidateDropsEntryAndZeroTtlDisablesCache() {
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(10, 1_000);
+        cache.put("event", "data");
+        cache.invalidate("event");
+        assertFalse(cache.get("event").isPresent());
+
+        ExpiringLruCache<String, String> disabled = new ExpiringLruCache<>(10, 0);
+        disabled.put("event", "data");
+        assertFalse(disabled.get("event").isPresent());
+        assertEquals(0, disabled.getStats().size());
+    }
+}
@@ -0,0 +1,148 @@
+package com.functions.wrapped.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.functions.events.models.EventData;
+import com.functions.tickets.models.Order;
+import com.functions.tickets.models.OrderAndTicketStatus;
+import com.functions.tickets.models.Ticket;
+import com.functions.wrapped.models.WrappedAttendeeAggregate;
+import com.functions.wrapped.models.WrappedEventAggregate;
+import com.google.cloud.Timestamp;
+
+public class WrappedAggregateAccumulatorTest {
+
+    private static Order order(String email, String fullName, OrderAndTicketStatus status, long discounts) {
+        Order order = new Order();
+        order.setEmail(email);
+        order.setFullName(fullName);
+        order.setStatus(status);
+        order.setDiscounts(discounts);
+        return order;
+    }
+
+    private static List<Ticket> tickets(OrderAndTicketStatus status, long... prices) {
+        return Arrays.stream(prices).mapToObj(price -> {
+            Ticket ticket = new Ticket();
+            ticket.setStatus(status);
+            ticket.setPrice(price);
+            return ticket;
+        }).toList();
+    }
+
+    private static Map<String, WrappedAttendeeAggregate> attendeesByKey(WrappedAggregateAccumulator accumulator) {
+        Map<String, WrappedAttendeeAggregate> attendees = new LinkedHashMap<>();
+        for (int i = 0; i < accumulator.attendeeCount(); i++) {
+            attendees.put(accumulator.attendeeKey(i), accumulator.attendee(i));
+        }
+        return attendees;
+    }
+
+    private static WrappedAggregateAccumulator accumulatorWithEvent(String eventId) {
+        return accumulatorWithEvent(eventId, 1);
+    }
+
+    private static WrappedAggregateAccumulator accumulatorWithEvent(String eventId, int topAttendeeCount) {
+        EventData event = new EventData();
+        event.setEventId(eventId);
+        event.setOrganiserId("organiser-1");
+        event.setStartDate(Timestamp.parseTimestamp("2025-03-01T09:00:00Z"));
+        WrappedAggregateAccumulator accumulator = new WrappedAggregateAccumulator(Timestamp.now(), topAttendeeCount);
+        accumulator.addEvent(event);
+        return accumulator;
+    }
+
+    @Test
+    public void addOrder_countsApprovedOrdersAndGroupsAttendeesByEmail() {
+        WrappedAggregateAccumulator accumulator = accumulatorWithEvent("event-1");
+        accumulator.addOrder("event-1", order("Sam@example.com", "Sam", OrderAndTicketStatus.APPROVED, 200),
+                tickets(OrderAndTicketStatus.APPROVED, 1000, 1000));
+        accumulator.addOrder("event-1", order(" sam@example.com", "Samuel", OrderAndTicketStatus.APPROVED, 0),
+                tickets(OrderAndTicketStatus.APPROVED, 500));
+        accumulator.addOrder("event-1", order("sam@example.com", "Sam", OrderAndTicketStatus.APPROVED, 0),
+                tickets(OrderAndTicketStatus.APPROVED, 500));
+        accumulator.addOrder("event-1", order("alex@example.com", "Alex", OrderAndTicketStatus.REJECTED, 0),
+                tickets(OrderAndTicketStatus.REJECTED, 1000));
+
+        WrappedEventAggregate eventAggregate = accumulator.events().get(0);
+        assertEquals(4, eventAggregate.getTicketsSold());
+        assertEquals(2800, eventAggregate.getNetSales());
+        assertEquals(1, accumulator.attendeeCount());
+        WrappedAttendeeAggregate attendee = attendeesByKey(accumulator)
+                .get(WrappedAggregateService.emailKey("SAM@example.com"));
+        assertEquals(4, attendee.getTicketCount());
+        assertEquals("Sam", attendee.mostFrequentName());
+        assertEquals("Sam@example.com", attendee.getEmail());
+        assertEquals(attendee, accumulator.topAttendees().get(0));
+    }
+
+    @Test
+    public void topAttendees_keepsTheMostTicketsWithTiesByEmailKey() {
+        WrappedAggregateAccumulator accumulator = accumulatorWithEvent("event-1", 3);
+        long[] ticketCounts = { 3, 7, 1, 5, 7, 2 };
+        for (int i = 0; i < ticketCounts.length; i++) {
+            long[] prices = new long[(int) ticketCounts[i]];
+            accumulator.addOrder("event-1", order("attendee" + i + "@example.com", "Attendee " + i,
+                    OrderAndTicketStatus.APPROVED, 0), tickets(OrderAndTicketStatus.APPROVED, prices));
+        }
+
+        List<String> top = accumulator.topAttendees().stream().map(WrappedAttendeeAggregate::getEmail).toList();
+
+        List<String> sevens = new ArrayList<>(List.of("attendee1@example.com", "attendee4@example.com"));
+        sevens.sort(Comparator.comparing(WrappedAggregateService::emailKey));
+        assertEquals(List.of(sevens.get(0), sevens.get(1), "attendee3@example.com"), top);
+        assertEquals(6, accumulator.attendeeCount());
+    }
+
+    @Test
+    public void topAttendees_letsAnAttendeeOvertakeWithALaterOrder() {
+        WrappedAggregateAccumulator accumulator = accumulatorWithEvent("event-1", 2);
+        accumulator.addOrder("event-1", order("sam@example.com", "Sam", OrderAndTicketStatus.APPROVED, 0),
+                tickets(OrderAndTicketStatus.APPROVED, 100, 100, 100));
+        accumulator.addOrder("event-1", order("alex@example.com", "Alex", OrderAndTicketStatus.APPROVED, 0),
+                tickets(OrderAndTicketStatus.APPROVED, 100, 100));
+        accumulator.addOrder("event-1", order("kim@example.com", "Kim", OrderAndTicketStatus.APPROVED, 0),
+                tickets(OrderAndTicketStatus.APPROVED, 100));
+        accumulator.addOrder("event-1", order("Kim@example.com", "Kim", OrderAndTicketStatus.APPROVED, 0),
+                tickets(OrderAndTicketStatus.APPROVED, 100, 100, 100));
+
+        List<String> top = accumulator.topAttendees().stream().map(WrappedAttendeeAggregate::getEmail).toList();
+
+        assertEquals(List.of("Kim@example.com", "sam@example.com"), top);
+        assertNull(attendeesByKey(accumulator).get(WrappedAggregateService.emailKey("alex@example.com")).getEmail());
+    }
+
+    @Test
+    public void attendee_countsEveryNameOfEveryAttendeePastTheInitialCapacity() {
+        WrappedAggregateAccumulator accumulator = accumulatorWithEvent("event-1");
+        String[] names = { "Sam", "Samuel", "Sammy", "Sam" };
+        for (int i = 0; i < 100; i++) {
+            for (String name : names) {
+                accumulator.addOrder("event-1", order("attendee" + i + "@example.com", name,
+                        OrderAndTicketStatus.APPROVED, 0), tickets(OrderAndTicketStatus.APPROVED, 100));
+            }
+        }
+
+        Map<String, WrappedAttendeeAggregate> attendees = attendeesByKey(accumulator);
+        assertEquals(100, attendees.size());
+        WrappedAttendeeAggregate last = attendees.get(WrappedAggregateService.emailKey("attendee99@example.com"));
+        assertEquals(4, last.getTicketCount());
+        assertEquals(3, last.getNames().size());
+        assertEquals(2, last.getNames().get(WrappedAggregateService.nameKey("Sam")).getOrderCount());
+        assertEquals("Sam", last.mostFrequentName());
+        assertTrue(accumulator.hasAttendee(WrappedAggregateService.emailKey("attendee42@example.com")));
+        assertFalse(accumulator.hasAttendee(WrappedAggregateService.emailKey("nobody@example.com")));
+    }
+}
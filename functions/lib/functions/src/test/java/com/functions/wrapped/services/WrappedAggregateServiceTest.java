@@ -0,0 +1,372 @@
+package com.functions.wrapped.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.functions.events.models.EventData;
+import com.functions.firebase.repositories.InMemoryDocumentStore;
+import com.functions.firebase.services.FirebaseService;
+import com.functions.tickets.models.EventSalesDelta;
+import com.functions.tickets.models.Order;
+import com.functions.tickets.models.OrderAndTicketStatus;
+import com.functions.tickets.models.Ticket;
+import com.functions.wrapped.models.WrappedAttendeeAggregate;
+import com.functions.wrapped.repositories.WrappedAggregateRepository;
+import com.functions.wrapped.services.WrappedAggregateService.WrappedOrderChange;
+import com.google.cloud.Timestamp;
+
+public class WrappedAggregateServiceTest {
+    private static final String ORGANISER_ID = "organiser-1";
+    private static final int YEAR = 2025;
+    private static final String AGGREGATES_PATH = "Wrapped/" + ORGANISER_ID + "/" + YEAR + "/AGGREGATES";
+
+    /** An order as stored, with the event it belongs to. */
+    private record PlacedOrder(String eventId, Order order, List<Ticket> tickets) {
+    }
+
+    private InMemoryDocumentStore store;
+    private List<PlacedOrder> orders;
+    private int computations;
+
+    @Before
+    public void setUp() {
+        store = new InMemoryDocumentStore();
+        FirebaseService.setDocumentStore(store);
+        orders = new ArrayList<>();
+        computations = 0;
+    }
+
+    @After
+    public void tearDown() {
+        FirebaseService.setDocumentStore(null);
+    }
+
+    private void record(EventData event, List<WrappedOrderChange> changes) throws Exception {
+        store.runTransaction(transaction -> {
+            WrappedAggregateService.recordOrderChanges(transaction, event, changes);
+            return null;
+        });
+    }
+
+    private Optional<WrappedAttendeeAggregate> attendeeAggregate(String email) throws Exception {
+        return store.get(AGGREGATES_PATH + "/Attendees/" + WrappedAggregateService.emailKey(email),
+                WrappedAttendeeAggregate.class);
+    }
+
+    private Map<String, WrappedAttendeeAggregate> attendeeAggregates() throws Exception {
+        Map<String, WrappedAttendeeAggregate> attendees = new HashMap<>();
+        for (String emailKey : store.listDocumentIds(AGGREGATES_PATH + "/Attendees")) {
+            attendees.put(emailKey, store.get(AGGREGATES_PATH + "/Attendees/" + emailKey,
+                    WrappedAttendeeAggregate.class).orElseThrow());
+        }
+        return attendees;
+    }
+
+    private boolean isComplete() throws Exception {
+        return Boolean.TRUE.equals(
+                WrappedAggregateRepository.getState(ORGANISER_ID, YEAR).orElseThrow().getComplete());
+    }
+
+    private static EventData event(String eventId) {
+        EventData event = new EventData();
+        event.setEventId(eventId);
+        event.setOrganiserId(ORGANISER_ID);
+        event.setStartDate(Timestamp.parseTimestamp("2025-03-01T09:00:00Z"));
+        return event;
+    }
+
+    private static Order order(String email, String fullName, OrderAndTicketStatus status, long discounts) {
+        Order order = new Order();
+        order.setEmail(email);
+        order.setFullName(fullName);
+        order.setStatus(status);
+        order.setDiscounts(discounts);
+        return order;
+    }
+
+    private static List<Ticket> tickets(OrderAndTicketStatus status, long... prices) {
+        return Arrays.stream(prices).mapToObj(price -> {
+            Ticket ticket = new Ticket();
+            ticket.setStatus(status);
+            ticket.setPrice(price);
+            return ticket;
+        }).toList();
+    }
+
+    /** The change a new order makes, as the checkout transaction records it. */
+    private static WrappedOrderChange created(Order order, List<Ticket> tickets) {
+        EventSalesDelta salesDelta = new EventSalesDelta();
+        tickets.forEach(salesDelta::addTicket);
+        return new WrappedOrderChange(order, salesDelta.addOrder(order));
+    }
+
+    /** The change rejecting an order makes, as the booking rejection records it. */
+    private static WrappedOrderChange rejected(Order order, List<Ticket> tickets) {
+        EventSalesDelta salesDelta = new EventSalesDelta();
+        tickets.forEach(salesDelta::removeTicket);
+        salesDelta.removeOrder(order);
+        tickets.forEach(ticket -> ticket.setStatus(OrderAndTicketStatus.REJECTED));
+        order.setStatus(OrderAndTicketStatus.REJECTED);
+        tickets.forEach(salesDelta::addTicket);
+        return new WrappedOrderChange(order, salesDelta.addOrder(order));
+    }
+
+    /** Stores an order and applies its increments, as the checkout transaction does. */
+    private void placeOrder(String email, long... prices) throws Exception {
+        PlacedOrder placed = storeOrder(email, prices);
+        record(event(placed.eventId()), List.of(created(placed.order(), placed.tickets())));
+    }
+
+    /** Stores an order without applying its increments, as orders from before the aggregates existed. */
+    private PlacedOrder storeOrder(String email, long... prices) {
+        Order order = new Order();
+        order.setEmail(email);
+        order.setFullName("Sam");
+        order.setStatus(OrderAndTicketStatus.APPROVED);
+        List<Ticket> tickets = new ArrayList<>();
+        for (long price : prices) {
+            Ticket ticket = new Ticket();
+            ticket.setStatus(OrderAndTicketStatus.APPROVED);
+            ticket.setPrice(price);
+            tickets.add(ticket);
+        }
+        PlacedOrder placed = new PlacedOrder("event-1", order, tickets);
+        orders.add(placed);
+        return placed;
+    }
+
+    /**
+     * Reads the orders like a rebuild, placing {@code duringRead} orders by {@code lateEmail} once it
+     * has read them.
+     */
+    private WrappedAggregateService.AggregateComputation rebuild(int duringRead, String lateEmail) {
+        return () -> {
+            computations++;
+            WrappedAggregateAccumulator accumulator = new WrappedAggregateAccumulator(Timestamp.now(), 5);
+            accumulator.addEvent(event("event-1"));
+            for (PlacedOrder placed : List.copyOf(orders)) {
+                accumulator.addOrder(placed.eventId(), placed.order(), placed.tickets());
+            }
+            if (computations <= duringRead) {
+                placeOrder(lateEmail, 500);
+            }
+            return accumulator;
+        };
+    }
+
+    @Test
+    public void seed_recomputesWhenAnOrderLandsWhileItReads() throws Exception {
+        placeOrder("sam@example.com", 1000, 1000);
+
+        WrappedAggregateService.seed(ORGANISER_ID, YEAR, rebuild(1, "sam@example.com"));
+
+        assertEquals(2, computations);
+        assertEquals(3, attendeeAggregate("sam@example.com").orElseThrow().getTicketCount());
+        assertTrue(isComplete());
+    }
+
+    @Test
+    public void seed_keepsTheFirstOrderOfAnAttendeeThatLandsWhileItReads() throws Exception {
+        placeOrder("sam@example.com", 1000, 1000);
+
+        WrappedAggregateService.seed(ORGANISER_ID, YEAR, rebuild(1, "late@example.com"));
+
+        assertEquals(1, computations);
+        assertEquals(2, attendeeAggregate("sam@example.com").orElseThrow().getTicketCount());
+        assertEquals(1, attendeeAggregate("late@example.com").orElseThrow().getTicketCount());
+        assertTrue(isComplete());
+    }
+
+    @Test
+    public void seed_keepsIncrementsThatLandAfterItWrites() throws Exception {
+        placeOrder("sam@example.com", 1000, 1000);
+        WrappedAggregateService.seed(ORGANISER_ID, YEAR, rebuild(0, null));
+
+        placeOrder("sam@example.com", 500);
+
+        assertEquals(1, computations);
+        assertEquals(3, attendeeAggregate("sam@example.com").orElseThrow().getTicketCount());
+    }
+
+    @Test
+    public void seed_replacesTotalsLeftOverFromBeforeTheAggregatesWereComplete() throws Exception {
+        storeOrder("alex@example.com", 1000);
+        placeOrder("sam@example.com", 1000);
+        store.set(AGGREGATES_PATH + "/Attendees/moved-to-2026",
+                Map.of("email", "gone@example.com", "ticketCount", 4));
+
+        WrappedAggregateService.seed(ORGANISER_ID, YEAR, rebuild(0, null));
+
+        assertEquals(1, attendeeAggregate("alex@example.com").orElseThrow().getTicketCount());
+        assertEquals(1, attendeeAggregate("sam@example.com").orElseThrow().getTicketCount());
+        assertEquals(2, attendeeAggregates().size());
+    }
+
+    @Test
+    public void seed_writesAttendeesInChunksWithEmailsForTheTopAttendeesOnly() throws Exception {
+        int attendeeCount = WrappedAggregateRepository.MAX_TRANSACTION_WRITES * 2 + 1;
+        for (int i = 0; i < attendeeCount; i++) {
+            storeOrder("attendee" + i + "@example.com", 1000);
+        }
+        storeOrder("attendee7@example.com", 1000);
+
+        WrappedAggregateService.seed(ORGANISER_ID, YEAR, rebuild(0, null));
+
+        assertEquals(attendeeCount, attendeeAggregates().size());
+        WrappedAttendeeAggregate top = attendeeAggregate("attendee7@example.com").orElseThrow();
+        assertEquals(2, top.getTicketCount());
+        assertEquals("attendee7@example.com", top.getEmail());
+        assertEquals(1, attendeeAggregates().values().stream()
+                .filter(attendee -> attendee.getEmail() != null && attendee.getTicketCount() == 2).count());
+        assertTrue(isComplete());
+    }
+
+    @Test
+    public void seed_givesUpWhileOrdersKeepLanding() throws Exception {
+        placeOrder("sam@example.com", 1000);
+
+        try {
+            WrappedAggregateService.seed(ORGANISER_ID, YEAR, rebuild(Integer.MAX_VALUE, "sam@example.com"));
+            fail("Expected seeding to give up");
+        } catch (IllegalStateException e) {
+            assertEquals(WrappedAggregateService.MAX_SEED_ATTEMPTS, computations);
+            assertFalse(isComplete());
+            assertEquals(1 + WrappedAggregateService.MAX_SEED_ATTEMPTS,
+                    attendeeAggregate("sam@example.com").orElseThrow().getTicketCount());
+        }
+    }
+
+    @Test
+    public void recordOrderChanges_writesOneIncrementPerDocumentForAnEventsOrders() throws Exception {
+        record(event("event-1"), List.of(
+                created(order("Sam@example.com", "Sam", OrderAndTicketStatus.APPROVED, 200),
+                        tickets(OrderAndTicketStatus.APPROVED, 1000, 1000)),
+                created(order(" sam@example.com", "Samuel", OrderAndTicketStatus.APPROVED, 0),
+                        tickets(OrderAndTicketStatus.APPROVED, 500)),
+                created(order("alex@example.com", "Alex", OrderAndTicketStatus.APPROVED, 0),
+                        tickets(OrderAndTicketStatus.APPROVED, 500))));
+
+        assertEquals(2, store.getStats().writes());
+        WrappedAttendeeAggregate sam = attendeeAggregate("sam@example.com").orElseThrow();
+        assertEquals("Sam@example.com", sam.getEmail());
+        assertEquals(3, sam.getTicketCount());
+        assertEquals(2, sam.getNames().size());
+    }
+
+    @Test
+    public void recordOrderChanges_takesRejectedOrdersBackOut() throws Exception {
+        Order order = order("sam@example.com", "Sam", OrderAndTicketStatus.APPROVED, 200);
+        List<Ticket> tickets = tickets(OrderAndTicketStatus.APPROVED, 1000, 1000);
+        record(event("event-1"), List.of(created(order, tickets)));
+
+        record(event("event-1"), List.of(rejected(order, tickets)));
+
+        WrappedAttendeeAggregate sam = attendeeAggregate("sam@example.com").orElseThrow();
+        assertEquals(0, sam.getTicketCount());
+        assertEquals("Unknown", sam.mostFrequentName());
+    }
+
+    @Test
+    public void recordOrderChanges_keepsNamesWhenOnlyTicketsChange() throws Exception {
+        Order order = order("sam@example.com", "Sam", OrderAndTicketStatus.APPROVED, 0);
+        record(event("event-1"), List.of(created(order, tickets(OrderAndTicketStatus.APPROVED, 1000))));
+
+        EventSalesDelta addedTicket = new EventSalesDelta();
+        tickets(OrderAndTicketStatus.APPROVED, 1000).forEach(addedTicket::addTicket);
+        record(event("event-1"), List.of(new WrappedOrderChange(order, addedTicket)));
+
+        WrappedAttendeeAggregate sam = attendeeAggregate("sam@example.com").orElseThrow();
+        assertEquals(2, sam.getTicketCount());
+        assertEquals("Sam", sam.mostFrequentName());
+    }
+
+    @Test
+    public void recordOrderChanges_skipsEventsWithoutABucketAndEmptyChanges() throws Exception {
+        EventData undated = event("event-1");
+        undated.setStartDate(null);
+        WrappedOrderChange change = created(order("sam@example.com", "Sam", OrderAndTicketStatus.APPROVED, 0),
+                tickets(OrderAndTicketStatus.APPROVED, 1000));
+
+        record(undated, List.of(change));
+        record(event("event-1"), List.of(new WrappedOrderChange(
+                order("sam@example.com", "Sam", OrderAndTicketStatus.APPROVED, 0), new EventSalesDelta())));
+
+        assertEquals(0, store.getStats().writes());
+    }
+
+    @Test
+    public void recordOrderChanges_matchesTheAccumulatorForNewOrders() throws Exception {
+        List<Order> orders = List.of(
+                order("Sam@example.com", "Sam", OrderAndTicketStatus.APPROVED, 200),
+                order(" sam@example.com", "Samuel", OrderAndTicketStatus.APPROVED, 0),
+                order("sam@example.com", "Sam", OrderAndTicketStatus.APPROVED, 0),
+                order("alex@example.com", "Alex", OrderAndTicketStatus.REJECTED, 0));
+        List<List<Ticket>> orderTickets = List.of(
+                tickets(OrderAndTicketStatus.APPROVED, 1000, 1000),
+                tickets(OrderAndTicketStatus.APPROVED, 500),
+                tickets(OrderAndTicketStatus.APPROVED, 500),
+                tickets(OrderAndTicketStatus.REJECTED, 1000));
+        WrappedAggregateAccumulator accumulator = new WrappedAggregateAccumulator(Timestamp.now(), 5);
+        accumulator.addEvent(event("event-1"));
+
+        for (int i = 0; i < orders.size(); i++) {
+            accumulator.addOrder("event-1", orders.get(i), orderTickets.get(i));
+            record(event("event-1"), List.of(created(orders.get(i), orderTickets.get(i))));
+        }
+
+        Map<String, WrappedAttendeeAggregate> recorded = attendeeAggregates();
+        for (int i = 0; i < accumulator.attendeeCount(); i++) {
+            WrappedAttendeeAggregate attendee = recorded.get(accumulator.attendeeKey(i));
+            assertEquals(accumulator.attendee(i).getTicketCount(), attendee.getTicketCount());
+            assertEquals(accumulator.attendee(i).getNames(), attendee.getNames());
+        }
+        assertEquals(accumulator.attendeeCount(), recorded.size());
+    }
+
+    @Test
+    public void addAttendee_skipsOrdersWithoutAnEmailOrAChange() {
+        Map<String, WrappedAttendeeAggregate> attendees = new LinkedHashMap<>();
+
+        WrappedAggregateService.addAttendee(attendees, null, 1, 1);
+        WrappedAggregateService.addAttendee(attendees, order(" ", "Sam", OrderAndTicketStatus.APPROVED, 0), 1, 1);
+        WrappedAggregateService.addAttendee(attendees, order("sam@example.com", "Sam",
+                OrderAndTicketStatus.REJECTED, 0), 0, 0);
+
+        assertTrue(attendees.isEmpty());
+    }
+
+    @Test
+    public void addAttendee_countsNamesOnlyWhenApprovedOrdersChange() {
+        Map<String, WrappedAttendeeAggregate> attendees = new LinkedHashMap<>();
+
+        WrappedAggregateService.addAttendee(attendees, order(" Sam@example.com ", "Sam",
+                OrderAndTicketStatus.APPROVED, 0), 2, 1);
+        WrappedAggregateService.addAttendee(attendees, order("sam@example.com", "", OrderAndTicketStatus.APPROVED, 0),
+                1, 1);
+        WrappedAggregateService.addAttendee(attendees, order("sam@example.com", "Samuel",
+                OrderAndTicketStatus.APPROVED, 0), 1, 0);
+
+        WrappedAttendeeAggregate sam = attendees.get(WrappedAggregateService.emailKey("sam@example.com"));
+        assertEquals(1, attendees.size());
+        assertEquals("Sam@example.com", sam.getEmail());
+        assertEquals(4, sam.getTicketCount());
+        assertEquals(Map.of(
+                WrappedAggregateService.nameKey("Sam"), new WrappedAttendeeAggregate.NameCount("Sam", 1),
+                WrappedAggregateService.nameKey("Unknown"), new WrappedAttendeeAggregate.NameCount("Unknown", 1)),
+                sam.getNames());
+    }
+}
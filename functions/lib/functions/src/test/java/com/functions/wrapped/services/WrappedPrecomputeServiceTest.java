@@ -0,0 +1,29 @@
+package com.functions.wrapped.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+public class WrappedPrecomputeServiceTest {
+
+    private static final TreeSet<String> ORGANISERS = new TreeSet<>(List.of("e", "a", "d", "b", "c"));
+
+    @Test
+    public void pendingBatches_splitsEveryOrganiserInIdOrder() {
+        assertEquals(List.of(List.of("a", "b"), List.of("c", "d"), List.of("e")),
+                WrappedPrecomputeService.pendingBatches(ORGANISERS, null, 2));
+    }
+
+    @Test
+    public void pendingBatches_resumesAfterTheCheckpointedOrganiser() {
+        assertEquals(List.of(List.of("c", "d", "e")), WrappedPrecomputeService.pendingBatches(ORGANISERS, "b", 3));
+        // The checkpointed organiser may have stopped having events in the year since
+        assertEquals(List.of(List.of("c", "d"), List.of("e")),
+                WrappedPrecomputeService.pendingBatches(ORGANISERS, "bb", 2));
+        assertTrue(WrappedPrecomputeService.pendingBatches(ORGANISERS, "e", 2).isEmpty());
+    }
+}
@@ -0,0 +1,106 @@
+package com.functions.wrapped.services;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.functions.events.models.EventData;
+import com.functions.tickets.models.EventSalesAggregate;
+import com.functions.tickets.models.Order;
+import com.functions.tickets.models.OrderAndTicketStatus;
+import com.functions.tickets.models.Ticket;
+import com.functions.wrapped.models.SportshubWrappedData;
+import com.functions.wrapped.models.SportshubWrappedData.DateRange;
+import com.functions.wrapped.models.WrappedAttendeeAggregate;
+import com.functions.wrapped.models.WrappedEventAggregate;
+import com.google.cloud.Timestamp;
+
+public class WrappedServiceTest {
+
+    private static WrappedEventAggregate eventAggregate(String eventId, String startDate, long ticketsSold,
+            long netSales) {
+        return WrappedEventAggregate.builder()
+                .eventId(eventId)
+                .name(eventId)
+                .image("")
+                .startDate(Timestamp.parseTimestamp(startDate))
+                .accessCount(10)
+                .ticketsSold(ticketsSold)
+                .netSales(netSales)
+                .build();
+    }
+
+    @Test
+    public void assembleWrappedData_onlyCountsEventsStartingInTheDateRange() {
+        List<WrappedEventAggregate> events = List.of(
+                eventAggregate("past", "2025-02-01T00:00:00Z", 3, 3000),
+                eventAggregate("popular", "2025-05-01T00:00:00Z", 5, 9000),
+                eventAggregate("upcoming", "2025-11-01T00:00:00Z", 20, 40000));
+        WrappedAttendeeAggregate attendee = WrappedAttendeeAggregate.builder()
+                .email("sam@example.com")
+                .ticketCount(4)
+                .build();
+        attendee.getNames().put("key", new WrappedAttendeeAggregate.NameCount("Sam", 2));
+        WrappedAttendeeAggregate refunded = WrappedAttendeeAggregate.builder()
+                .email("alex@example.com")
+                .build();
+
+        SportshubWrappedData data = WrappedService.assembleWrappedData("Org", "organiser-1", 2025,
+                new DateRange("2025-01-01", "2025-06-30"), events, List.of(attendee, refunded), "wrapped-1");
+
+        assertEquals(2, data.getEventsCreated());
+        assertEquals(8, data.getTicketsSold());
+        assertEquals(12000L, data.getTotalSales());
+        assertEquals(20, data.getTotalEventViews());
+        assertEquals("popular", data.getMostPopularEvent().getEventId());
+        assertEquals(1, data.getTopRegularAttendees().size());
+        assertEquals("Sam", data.getTopRegularAttendees().get(0).getName());
+    }
+
+    @Test
+    public void withSalesTotals_takesDetailsFromTheEventAndApprovedTotalsFromItsSales() {
+        EventData renamed = new EventData();
+        renamed.setEventId("renamed");
+        renamed.setName("New name");
+        renamed.setImage("new.png");
+        renamed.setAccessCount(42);
+        renamed.setStartDate(Timestamp.parseTimestamp("2025-04-01T00:00:00Z"));
+        EventData unsold = new EventData();
+        unsold.setEventId("unsold");
+        unsold.setStartDate(Timestamp.parseTimestamp("2025-04-02T00:00:00Z"));
+
+        Order order = new Order();
+        order.setStatus(OrderAndTicketStatus.APPROVED);
+        order.setDiscounts(500);
+        Order rejected = new Order();
+        rejected.setStatus(OrderAndTicketStatus.REJECTED);
+        EventSalesAggregate sales = EventSalesAggregate.fromOrders(Map.of(
+                order, List.of(ticket(OrderAndTicketStatus.APPROVED, 2000),
+                        ticket(OrderAndTicketStatus.APPROVED, 1500)),
+                rejected, List.of(ticket(OrderAndTicketStatus.REJECTED, 9000))), Timestamp.now());
+
+        List<WrappedEventAggregate> events = WrappedService.withSalesTotals(List.of(renamed, unsold),
+                Map.of("renamed", sales));
+
+        assertEquals(2, events.size());
+        WrappedEventAggregate current = events.get(0);
+        assertEquals("New name", current.getName());
+        assertEquals("new.png", current.getImage());
+        assertEquals(Integer.valueOf(42), current.getAccessCount());
+        assertEquals(renamed.getStartDate(), current.getStartDate());
+        assertEquals(2L, current.getTicketsSold());
+        assertEquals(3000L, current.getNetSales());
+        assertEquals("unsold", events.get(1).getEventId());
+        assertEquals(0L, events.get(1).getTicketsSold());
+    }
+
+    private static Ticket ticket(OrderAndTicketStatus status, long price) {
+        Ticket ticket = new Ticket();
+        ticket.setStatus(status);
+        ticket.setPrice(price);
+        return ticket;
+    }
+}
@@ -12,6 +12,7 @@ from lib.constants import *
 from lib.constants import (
     ACTIVE_PRIVATE,
     ACTIVE_PUBLIC,
+    EVENT_LOCATION_INDEX,
     INACTIVE_PRIVATE,
     INACTIVE_PUBLIC,
     SYDNEY_TIMEZONE,
@@ -19,6 +20,22 @@ from lib.constants import (
 from lib.logging import Logger
 
 
+def set_event_location_index(
+    transaction: Transaction, event_ref: DocumentReference, is_active: bool
+):
+    # Mirrors com.functions.events.models.EventLocation so the Java backend can resolve
+    # the event with a single point read after it moves.
+    collection_path = event_ref.path.rsplit("/", 1)[0]
+    transaction.set(
+        db.collection(EVENT_LOCATION_INDEX).document(event_ref.id),
+        {
+            "collectionPath": collection_path,
+            "isActive": is_active,
+            "isPrivate": collection_path.endswith("/Private"),
+        },
+    )
+
+
 @firestore.transactional
 def move_event_to_inactive(
     transaction: Transaction,
@@ -37,6 +54,8 @@ def move_event_to_inactive(
     # Delete from the active partition
     transaction.delete(old_event_ref)
 
+    set_event_location_index(transaction, new_event_ref, is_active=False)
+
 
 # Function to move an event from the upcoming organiser events to past
 def remove_event_from_upcoming_organiser_events(
@@ -7,9 +7,9 @@ from firebase_admin import firestore
 from firebase_functions import https_fn, options
 from google.cloud import firestore
 from google.cloud.firestore import DocumentReference, Transaction
-from lib.constants import db
+from lib.constants import ACTIVE_PUBLIC, db
 from lib.logging import Logger
-from lib.move_inactive_events import ACTIVE_PRIVATE, INACTIVE_PRIVATE
+from lib.move_inactive_events import ACTIVE_PRIVATE, INACTIVE_PRIVATE, set_event_location_index
 from lib.stripe.commons import ERROR_URL
 
 
@@ -20,8 +20,11 @@ def move_event(transaction: Transaction, old_event_ref: DocumentReference, new_e
   event_snapshot = old_event_ref.get(transaction=transaction)
   event_dict = event_snapshot.to_dict()
 
+  # The target collection decides whether the event is active
+  is_active = new_event_ref.parent.path in (ACTIVE_PUBLIC, ACTIVE_PRIVATE)
+
   # Do mutation here
-  event_dict.update({"isActive": True})
+  event_dict.update({"isActive": is_active})
   
   # Set the document in InActive
   transaction.set(new_event_ref, event_dict)
@@ -29,6 +32,8 @@ def move_event(transaction: Transaction, old_event_ref: DocumentReference, new_e
   # Delete from the active partition
   transaction.delete(old_event_ref)
 
+  set_event_location_index(transaction, new_event_ref, is_active=is_active)
+
 @https_fn.on_request(cors=options.CorsOptions(cors_origins=["https://www.sportshub.net.au", "*"], cors_methods=["get", "post"]), region="australia-southeast1")
 def move_data(req: https_fn.CallableRequest):
   uid = str(uuid.uuid4())